@@ -41,7 +41,12 @@ CREATE TABLE `music` (
   `genre` varchar(255) DEFAULT NULL,
   `song` varchar(255) DEFAULT NULL,
   `year` int DEFAULT NULL,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_music_bpm` (`bpm`,`id`),
+  KEY `idx_music_energy` (`energy`,`id`),
+  KEY `idx_music_danceability` (`danceability`,`id`),
+  KEY `idx_music_year` (`year`,`id`),
+  KEY `idx_music_duration_sec` (`duration_sec`,`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 /*!40101 SET character_set_client = @saved_cs_client */;
 
@@ -54,6 +59,9 @@ LOCK TABLES `music` WRITE;
 INSERT INTO `music` VALUES (_binary '/RQBIǛHѯ','Sampha',110,70,'A soulful, experimental track blending electronic textures with Sampha’s unique vocal style.',220,75,'R&B, Electronic','Dancing Circles',2023),(_binary 'S\\\％\8','Michael Kiwanuka',84,55,'A warm and introspective folk-soul song with heartfelt lyrics and soothing melodies.',226,50,'Folk, Soul','Home Again',2012),(_binary 'S\\\％\8','Loyle Carner',90,70,'A laid-back, jazz-infused hip-hop track with reflective lyricism.',160,60,'Hip-Hop, Jazz Rap','Florence',2014),(_binary 'S&\\％\8','Sango',120,80,'A dynamic blend of electronic beats and Brazilian funk rhythms.',210,85,'Electronic, Baile Funk','Devolva',2018),(_binary 'SP\\％\8','Sampha',112,70,'An emotionally charged track with layered vocals and experimental production.',270,65,'R&B, Electronic','Incomplete Kisses',2017),(_binary 'S\\％\8','Sade',100,60,'A smooth and uplifting soul track with Sade’s signature soothing vocals.',315,45,'Soul, R&B','Keep Looking',1988),(_binary 'S:\\％\8','Solange',90,50,'A dreamy and meditative song with soft, flowing instrumentals.',202,40,'Neo-Soul, R&B','Time (Is)',2019),(_binary 'S\\％\8','Jacob Banks',110,65,'A powerful and gritty soul track with passionate vocals.',218,75,'Soul, R&B','Chainsmoking',2017),(_binary 'Sf\\％\8','Ms. Lauryn Hill',78,50,'A deeply emotional breakup song with heartfelt lyrics and a smooth groove.',315,55,'R&B, Soul','Ex-Factor',1998),(_binary 'S.\\％\8','Frank Ocean',106,60,'A lush and atmospheric R&B song produced by Pharrell Williams.',184,50,'R&B, Neo-Soul','Pink + White',2016),(_binary 'S\\％\8','Reyna Tropical',105,75,'A vibrant and rhythmic track blending Latin and tropical influences.',240,70,'Tropical, Alternative','Cartagena',2022),(_binary 'S\\％\8','Ebo Taylor',120,85,'A classic Afrobeat groove with rich brass sections and rhythmic guitar.',328,80,'Afrobeat, Highlife','Heaven',2010),(_binary 'S\\％\8','The Scorpions & Saif Abu Bakr',118,80,'A rare Sudanese funk gem with hypnotic grooves and horns.',310,78,'Afrobeat, Funk','Sierra Music',1980),(_binary 'S\\％\8','Manu Dibango',112,70,'A bold and energetic Afro-jazz track with Manu Dibango’s signature saxophone.',260,85,'Afro-Jazz, Funk','The Panther',1975),(_binary 'S\\％\8','Corinne Bailey Rae',96,75,'A feel-good and uplifting soul-pop song with a catchy melody.',197,60,'Soul, Pop','Put Your Records On',2006),(_binary 'S\\％\8','Dele Sosimi',122,80,'A lively Afrobeat track with intricate rhythms and a deep groove.',350,90,'Afrobeat, Jazz','Mo Se B\'ólá Tán',2020),(_binary 'Sl\\％\8','The Lijadu Sisters',115,70,'A soulful Afrobeat song with rich harmonies and political undertones.',245,75,'Afrobeat, Soul','Life Is Gone Down Low',1976),(_binary 'S\\\％\8','Rogér Fakhr',88,55,'A mellow and reflective folk song with vintage psychedelic influences.',215,45,'Folk, Psychedelic','Gone Away Again',1970),(_binary 'SH\\％\8','Bleak Hills',102,60,'A dreamy indie rock song with reverb-heavy guitars and melancholic vocals.',230,65,'Indie Rock, Shoegaze','From Here On',2021),(_binary 'S\\％\8','Cruza',95,65,'A smooth and atmospheric alternative R&B track with warm vocals.',210,50,'Alternative R&B, Soul','Dragonfly',2022),(_binary 'Sn\\％\8','Gabrielle',98,70,'An inspirational and uplifting song with a timeless message.',222,65,'Pop, R&B','Dreams',1993),(_binary 'S\\％\8','Barry Louis Polisar',85,60,'A charming folk song known for its use in the Juno movie soundtrack.',150,40,'Folk, Children’s Music','All I Want Is You',1977),(_binary 'S\\％\8','James Ray',120,75,'A classic R&B tune later popularized by George Harrison.',160,70,'R&B, Soul','I’ve Got My Mind Set on You',1962),(_binary 'S\\％\8','Ravyn Lenae',108,65,'A futuristic and vibrant R&B track with dreamy production.',195,55,'R&B, Electronic','Love Me Not',2018),(_binary 'S\\％\8','Olive Jones',100,60,'A hazy and nostalgic indie track with lush production.',225,55,'Indie, Dream Pop','Planes',2021),(_binary 'X,\H\-ҙ\\','Beyoncé',120,90,'A smooth and seductive pop-R&B track with catchy synths and Beyoncé\'s powerful vocals, exploring themes of love and longing.',230,85,'Pop, R&B','Sweet Dreams',2008),(_binary '\5\;\-ҙ\\','Manu Dibango',110,90,'A vibrant and rhythmic fusion of jazz and Afrobeat, featuring smooth saxophone melodies and groovy percussion that create a lively, danceable atmosphere.',270,85,'Jazz, Afrobeat','Coconut',1972),(_binary 'Q\N\7\-ҙ\\','Dijon',90,50,'A raw, intimate track with minimal instrumentation and deep emotion.',184,60,'Indie R&B, Soul','The Dress',2021),(_binary 'R\\7\-ҙ\\','Daniela',130,70,'A high-energy, futuristic track blending glitchy beats and vocals.',210,85,'Experimental, Electronic','HYPER DAI',2023),(_binary 'R\7\-ҙ\\','The Shacks',100,55,'A mellow, dreamy song with soft vocals and vintage aesthetics.',195,40,'Dream Pop, Psychedelic','Trip to Japan',2018),(_binary 'R\7\-ҙ\\','Enzo Carella',110,80,'A groovy, vibrant track with smooth basslines and lively rhythm.',210,75,'Funk, Soul','Malamore',1977),(_binary 'RJ\7\-ҙ\\','Nu Genea',115,85,'A modern twist on traditional Neapolitan funk, with a danceable rhythm.',180,80,'Neapolitan Funk, Disco','Marechià',2020),(_binary 'R\7\-ҙ\\','Frizzy Ford',95,60,'A breezy, atmospheric track with soft vocals and an organic vibe.',200,55,'Indie Pop','September Fields',2019),(_binary 'Rz\7\-ҙ\\','Dele Sosimi',120,85,'An Afrobeat anthem with energetic percussion and upbeat melodies.',240,90,'Afrobeat','E Go Better',2009),(_binary 'R\7\-ҙ\\','N\'Gou',110,90,'An upbeat and rhythmic Afrobeat track with infectious percussion and vibrant melodies, combining traditional African sounds with modern influences.',230,85,'Afrobeat, World','Kulu',2020),(_binary 'RF\7\-ҙ\\','The Offline',85,55,'A chilled, atmospheric track with a soothing and ambient quality.',210,40,'Electronic, Ambient','L’Eau',2016),(_binary 'R\\7\-ҙ\\','Ali Farka Touré',95,60,'A captivating fusion of African rhythms and blues, soulful and melodic.',215,65,'Blues, World Music','Ruby',1990),(_binary 'R\7\-ҙ\\','Leon Bridges',75,50,'A soulful ballad with warm vocals and a nostalgic feel.',190,60,'Soul, R&B','Coming Home',2015),(_binary 'R~\7\-ҙ\\','Orchestra Baobab',110,65,'An instrumental piece blending Afro-Cuban rhythms with smooth jazz melodies.',220,70,'Afro-Cuban, World Music','Foul',1982),(_binary 'RF\7\-ҙ\\','Mulatu Astatke',110,75,'A jazzy, Ethiopian-inspired tune with complex rhythms and instrumentation.',260,80,'Jazz, Ethio-jazz','Yegelle Tezeta',1972),(_binary 'R\7\-ҙ\\','Debademba',115,80,'An Afrobeat song with rich percussion and soulful, rhythmic melodies.',230,85,'Afrobeat, World','Boinofai',2012),(_binary 'R\\7\-ҙ\\','Trio Da Kali',80,65,'A traditional African song with vocal harmonies and acoustic instrumentation.',240,55,'World Music, Traditional','Eh Ya Ye',2017),(_binary 'R\7\-ҙ\\','Ebo Taylor',120,90,'A lively and rhythmic fusion of highlife and Afrobeat with upbeat percussion.',200,85,'Highlife, Afrobeat','Yen Are',1980),(_binary 'R4\7\-ҙ\\','Hermanos Gutiérrez',80,60,'An instrumental western-style track with haunting guitar melodies.',210,65,'Instrumental, Western','Tres Hermanos',2021),(_binary 'R\\7\-ҙ\\','Black Pumas',105,85,'A soulful track with rich vocals and groovy, retro-inspired instrumentation.',200,80,'Soul, Rock','Colors',2019),(_binary 'Rt\7\-ҙ\\','Dina Ögon',125,85,'An upbeat electronic track with funky basslines and playful melodies.',215,90,'Electronic, Funk','Tombola 94',2021),(_binary 'R\7\-ҙ\\','Brenton Wood',115,70,'A classic soul track with catchy lyrics and an energetic, upbeat feel.',180,80,'Soul, R&B','Oogum Oogum',1967),(_binary 'R\\7\-ҙ\\','Bel Cobain',95,75,'A smooth blend of pop and hip-hop with introspective lyrics and catchy beats.',210,70,'Pop, Hip-hop','Leader',2020),(_binary 'Rr\7\-ҙ\\','Vieux Farka Touré',100,60,'A deeply soulful song with intricate guitar work and evocative melodies.',240,65,'Blues, World','Diarabi',2017),(_binary 'R\7\-ҙ\\','Dionne Warwick',75,65,'A timeless classic with emotive vocals and a jazzy, orchestral arrangement.',210,50,'Soul, Pop','Walk On By',1964),(_binary 'R\7\-ҙ\\','Love',100,50,'A mellow, reflective rock song with psychedelic undertones.',240,60,'Rock, Psychedelic','Everybody’s Gotta Live',1971),(_binary 'R\\\7\-ҙ\\','Gabriels',80,70,'A modern soulful ballad with smooth vocals and heartfelt emotion.',210,60,'Soul, R&B','Blame',2021),(_binary 'R\7\-ҙ\\','Bonga',110,85,'A fusion of Afrobeat with heartfelt lyrics and rhythmic instrumentation.',230,75,'World, Afrobeat','Mona Ki Ngi Xica',1973),(_binary 'R\7\-ҙ\\','Fela Kuti',100,75,'A political anthem with groovy, experimental Afrobeat rhythms and powerful lyrics.',270,85,'Afrobeat, Jazz','Zombie',1976),(_binary 'Rd\7\-ҙ\\','Alessi Brothers',75,60,'A soft rock track with gentle melodies and heartfelt, soothing lyrics.',200,45,'Pop, Soft Rock','Seabird',1976),(_binary 'R\7\-ҙ\\','Labi Siffre',70,65,'A soulful, poetic song with minimalistic production and moving lyrics.',210,50,'Soul, Jazz','Bless The Telephone',1971),(_binary 'R\7\-ҙ\\','Julio Secchin',120,90,'A lively, upbeat Latin song with vibrant horns and infectious rhythms.',200,80,'Salsa, Latin','Bote',1999),(_binary 'R:\7\-ҙ\\','Farr',110,70,'A catchy, electronic pop track with energetic beats and empowering lyrics.',185,75,'Pop, Electronic','Bulletproof',2020),(_binary 'R \7\-ҙ\\','Mulatu Astatke',95,60,'A melancholic and reflective Ethio-jazz track with rich instrumentation.',240,70,'Ethio-jazz, Jazz','Tezeta',1972),(_binary 'R\\7\-ҙ\\','Dargz',105,75,'A smooth, jazzy track with soulful melodies and an upbeat tempo.',210,70,'Jazz, Soul','Lou’s Tune',2020),(_binary 'R`\7\-ҙ\\','Little Simz',115,80,'A high-energy rap track with aggressive beats and strong lyrical delivery.',230,85,'Hip-hop, Rap','Gorilla',2022),(_binary 'R<\7\-ҙ\\','Minoru Muraoka',125,65,'A jazz classic with a unique time signature and engaging melodies.',300,70,'Jazz, Experimental','Take Five',1968),(_binary 'R\\7\-ҙ\\','Fred Again',95,75,'A deep, emotional electronic track with introspective lyrics and a laid-back beat.',240,65,'Electronic, Pop','Adore U',2021),(_binary 'R\7\-ҙ\\','Amindi',85,60,'A soft, mellow song with smooth vocals and experimental production.',220,55,'Alternative R&B','Eggs Aisle',2021),(_binary 'R&\7\-ҙ\\','Cage the Elephant',120,75,'A gritty, energetic track with powerful guitar riffs and raw vocals.',200,85,'Alternative Rock','Cold Cold Cold',2015),(_binary 'R\\7\-ҙ\\','Stromae',115,85,'A catchy and upbeat electronic pop song with deep themes and clever lyrics.',220,80,'Electro-pop','Fils de Joie',2022),(_binary 'Rz\7\-ҙ\\','Marvin Gaye',100,75,'A soulful track with funky grooves and Marvin’s signature smooth vocals.',230,70,'Soul, Funk','Where Are We Going?',1971),(_binary 'R$\7\-ҙ\\','Blaize Jenkins',90,55,'An ethereal track with dreamy melodies and introspective lyrics.',210,60,'Indie Pop','Phases',2021),(_binary 'R\7\-ҙ\\','Amindi',85,60,'A mellow R&B track with soft vocals and ambient production.',220,50,'Alternative R&B','Green House',2022),(_binary 'RZ\7\-ҙ\\','Roberto Conrado',110,85,'A groovy and smooth funk track with vibrant basslines and catchy rhythm.',200,80,'Funk, Soul','Quit Hold',2020),(_binary 'R\7\-ҙ\\','Roy Davis Jr.',120,80,'An upbeat, funky house track with smooth vocals and a catchy rhythm.',210,90,'House, Dance','Gabriel',1996),(_binary 'R\7\-ҙ\\','Chlothegod',115,75,'A high-energy rap track with hard-hitting beats and raw lyrical delivery.',240,85,'Hip-hop','Outta My Mind',2022),(_binary 'R0\7\-ҙ\\','Shuggie Otis',100,65,'A laid-back track with groovy rhythms and soulful instrumentation.',250,70,'Funk, Soul','Inspiration Information',1974),(_binary 'R\\7\-ҙ\\','Just Brothers',110,90,'A funky, upbeat instrumental track with catchy rhythms and energetic horns.',180,85,'Funk','Sliced Tomatoes',1971),(_binary 'R\\\7\-ҙ\\','Peggy Gou',120,85,'A deep, atmospheric house track with smooth beats and captivating melodies.',230,75,'Techno, House','Starry Night',2020),(_binary 'R\7\-ҙ\\','Peggy Gou',125,80,'An uplifting techno track with groovy basslines and infectious rhythms.',220,85,'House, Techno','Han Jen',2018),(_binary 'R\7\-ҙ\\','Barry Can\'t Swim',95,65,'A soulful track with intricate jazz instrumentation and laid-back vibes.',240,60,'Jazz, Soul','El Layali',2021),(_binary 'RF\7\-ҙ\\','Jorge Ben Jor',105,75,'A classic bossa nova track with a vibrant and rhythmic samba feel.',210,80,'Samba, Bossa Nova','Chove Chuva',1963),(_binary 'R\\7\-ҙ\\','Jorge Ben Jor',110,80,'A lively and rhythmic samba track with upbeat percussion and catchy melodies.',220,85,'Samba, Bossa Nova','Oba Lá Vem Ela',1963),(_binary 'R\7\-ҙ\\','Wallners',95,65,'A dreamy indie pop track with introspective lyrics and a calm atmosphere.',210,50,'Indie Pop','In My Mind',2021),(_binary 'R\\7\-ҙ\\','Trio Ternura',115,90,'A rhythmic and infectious salsa track with energetic percussion and brass.',200,90,'Latin, Salsa','A Gira',1970),(_binary 'R\*\7\-ҙ\\','Fauxe',85,60,'A laid-back experimental hip-hop track with smooth beats and atmospheric sounds.',230,55,'Hip-hop, Experimental','Gaut',2020),(_binary 'R\\\7\-ҙ\\','Beyoncé',110,80,'A bold, empowering anthem with catchy beats and Beyoncé’s powerful vocals.',210,85,'Pop, R&B','America Has a Problem',2023),(_binary 'RĈ\7\-ҙ\\','Sampha',80,65,'A soulful and emotive track with Sampha’s signature raw vocals and minimal production.',220,60,'R&B, Soul','Gon Stay',2016),(_binary 'R\\7\-ҙ\\','Natasha Bedingfield',110,80,'A catchy, feel-good pop song with an optimistic, anthemic chorus.',210,75,'Pop','Unwritten',2004),(_binary 'Rž\7\-ҙ\\','Natasha Bedingfield',115,75,'An upbeat pop song with catchy lyrics and an infectious melody.',200,70,'Pop','These Words',2004),(_binary 'R\h\7\-ҙ\\','Natasha Bedingfield',120,85,'A sunny, feel-good track with uplifting lyrics and an energetic beat.',180,80,'Pop','Pocketful of Sunshine',2007),(_binary 'R\\7\-ҙ\\','Eliza',90,50,'A haunting indie pop track with emotional lyrics and a melancholic vibe.',210,60,'Pop, Indie','Alone & Unafraid',2019),(_binary 'Rǲ\7\-ҙ\\','Mariah Carey',70,55,'A powerful ballad with Mariah Carey’s signature vocal range and emotive lyrics.',210,50,'Pop, R&B','We Belong Together',2005),(_binary 'S\0\\7\-ҙ\\','Facesoul',80,65,'A smooth R&B track with a soulful melody and introspective lyrics.',220,60,'Soul, R&B','Through the Dark',2019),(_binary 'S\7\-ҙ\\','Ama Lou',75,55,'A sultry, slow-burning R&B track with a deep, emotive vocal performance.',230,50,'R&B, Soul','Tried Up',2020),(_binary 'S\7\-ҙ\\','Tirzah',90,60,'A haunting track blending electronic beats with soulful vocals.',220,60,'Electronic, Soul','Holding On',2018),(_binary 'S&\7\-ҙ\\','Sports',110,85,'A vibrant, feel-good pop track with catchy melodies and uplifting lyrics.',200,80,'Indie Pop','You Are the Right One',2021),(_binary 'S\7\-ҙ\\','Sampa the Great',110,75,'A powerful rap track with strong lyricism and energetic, hard-hitting beats.',240,85,'Hip-hop, Rap','Final Form',2019),(_binary 'SH\7\-ҙ\\','Hope Tala',90,80,'A smooth, romantic R&B track with soulful melodies and heartfelt lyrics.',210,70,'R&B, Soul','Valentine',2021),(_binary 'S\7\-ҙ\\','Naomi Sharon',85,60,'A chilled, breezy track with smooth vocals and a relaxing vibe.',200,55,'Pop, R&B','Breeze',2021),(_binary 'S\7\-ҙ\\','Cleo Sol',95,75,'A soulful track with a deep groove and Cleo Sol’s emotive vocal performance.',230,70,'Soul, R&B','Rose in the Dark',2020),(_binary 'S\7\-ҙ\\','Jamie xx',110,85,'A smooth, groovy track with atmospheric production and subtle percussion.',300,80,'Electronic, Dance','Let\'s Do It Again',2015),(_binary 'S\7\-ҙ\\','The Temper Trap',128,80,'An uplifting and emotive indie rock track with soaring vocals and atmospheric soundscapes.',210,75,'Indie Rock','Sweet Disposition',2008),(_binary 'S|\7\-ҙ\\','Asake',110,80,'A rhythmic and catchy Afrobeats track with a danceable beat and energetic vibe.',210,90,'Afrobeats','Ototo',2022),(_binary 'S\\7\-ҙ\\','Bastien Keb',105,75,'A soulful and funky track with groovy basslines and smooth vocals.',220,80,'Funk, Soul','Pick Up',2020),(_binary 'Sl\7\-ҙ\\','PPJ',95,75,'A light, breezy track with an airy melody and feel-good vibes.',210,65,'Pop, Indie','Primavera',2020),(_binary 'S\\7\-ҙ\\','Tops',120,85,'An upbeat indie pop song with catchy hooks and a groovy rhythm.',230,80,'Indie Pop','Way to Be Loved',2016),(_binary 'S	\\\7\-ҙ\\','Maribou State',85,55,'A mellow yet atmospheric electronic track with smooth beats and deep synths.',240,60,'Electronic, Downtempo','Midas',2015),(_binary 'S	\\7\-ҙ\\','Mary Clark',120,80,'A disco classic with upbeat rhythms and an infectious chorus.',210,90,'Disco, Soul','Take I\'m Yours',1976),(_binary 'S\nL\7\-ҙ\\','Unknown Mortal Orchestra',100,75,'A lo-fi, psychedelic rock song with soulful melodies and groovy instrumentation.',220,70,'Indie Rock, Psychedelic','So Good at Being in Trouble',2011),(_binary 'S\n\\7\-ҙ\\','Charlotte Day Wilson',80,65,'A slow, sultry track with deep vocals and intimate production.',230,55,'R&B, Soul','Work',2020),(_binary 'Sx\7\-ҙ\\','Charlotte Day Wilson',85,70,'A reflective, soulful track with emotional lyrics and smooth instrumentation.',210,60,'R&B, Soul','Nothing New',2021),(_binary 'S\r:\7\-ҙ\\','Rhye',60,55,'A slow, sensual track with soft vocals and atmospheric production.',240,40,'R&B, Soul','Open',2013),(_binary 'S\r\7\-ҙ\\','Rhye',75,65,'A mellow, introspective track with smooth beats and emotional depth.',240,50,'R&B, Soul','3 Days',2018),(_binary 'S4\7\-ҙ\\','Woodkid',130,75,'An anthemic track with cinematic orchestration and a driving rhythm.',200,90,'Indie Pop, Baroque Pop','Run Boy Run',2013),(_binary 'S\7\-ҙ\\','Jordana',90,60,'A dreamy, lo-fi indie pop track with soft vocals and hazy instrumentation.',210,55,'Indie Pop','Better in the Dark',2020),(_binary 'S\Z\7\-ҙ\\','Jordana',95,65,'A melancholic indie pop song with introspective lyrics and a laid-back feel.',210,60,'Indie Pop','Summer\'s Over',2020),(_binary 'S\7\-ҙ\\','Enya',85,45,'A calming, ethereal track with lush vocals and dreamy orchestration.',240,40,'New Age, Celtic','Orinoco Flow',1988),(_binary 'S\0\7\-ҙ\\','Tirzah',75,60,'A minimalistic, sultry R&B track with emotive vocals and experimental production.',220,50,'Indie R&B','No Romance',2018),(_binary 'S\\7\-ҙ\\','Olivia Dean',100,75,'A smooth, soulful track with powerful vocals and an uplifting chorus.',210,65,'Pop, Soul','Dive',2020),(_binary 'S^\7\-ҙ\\','Stro Elliot',90,60,'A chilled, soulful hip-hop track with smooth beats and laid-back vibes.',230,55,'Hip-hop','Soul II Stro',2018),(_binary 'S\\7\-ҙ\\','Muzi',115,80,'An upbeat track blending Afrobeat rhythms with electronic sounds and catchy melodies.',220,85,'Electronic, Afrobeat','Mncane',2017),(_binary 'SX\7\-ҙ\\','Maroon 5',105,80,'A catchy, smooth pop track with a memorable hook and heartfelt lyrics.',230,70,'Pop, Rock','This Love',2002),(_binary 'S\\7\-ҙ\\','Skinshape',95,75,'A soulful and groovy track with deep rhythms and smooth guitar melodies.',240,70,'Soul, Funk','Sudan',2019),(_binary 'S\7\-ҙ\\','Bon Iver',65,50,'A calming, atmospheric track with intricate instrumentation and introspective lyrics.',210,40,'Indie Folk, Ambient','Wash.',2016),(_binary 'S.\7\-ҙ\\','Rasha',110,70,'A melodic and rhythmic world track with Middle Eastern influences and jazz elements.',230,75,'World, Jazz','Azara Alhai',2019),(_binary 'S\7\-ҙ\\','Tribalistas',105,85,'A catchy and joyful Brazilian song with vibrant rhythms and harmonious vocals.',220,80,'MPB, Brazilian','Já Sei Namorar',2002),(_binary 'S\7\-ҙ\\','Florence + The Machine',110,85,'A powerful anthem with Florence\'s soaring vocals and an uplifting message.',240,80,'Indie Rock, Soul','You\'ve Got the Love',2008),(_binary 'S\7\-ҙ\\','Florence + The Machine',115,80,'A dynamic track with intense vocals and a strong sense of yearning and emotion.',230,85,'Indie Rock, Soul','Hunger',2018),(_binary 'S\7\-ҙ\\','Candi Staton',125,80,'A classic disco anthem with upbeat rhythms and an empowering message.',210,90,'Disco, Soul','Young Hearts Run Free',1976),(_binary 'Sr\7\-ҙ\\','Charles & Eddie',95,70,'A smooth pop-soul track with catchy melodies and heartfelt lyrics.',230,65,'Pop, Soul','Would I Lie to You',1992),(_binary 'S\\7\-ҙ\\','Orville Peck',75,55,'A haunting, cinematic country song with evocative lyrics and deep, emotional delivery.',240,50,'Country, Indie','Dead of Night',2019),(_binary 'SX\7\-ҙ\\','Camelia Jordana',100,75,'A pop track with playful vocals and a catchy, upbeat rhythm.',210,70,'Pop','Moi C’est',2019),(_binary 'S\7\-ҙ\\','Yseult',85,65,'A soulful, intimate track with emotive vocals and minimalistic production.',230,60,'R&B, Soul','Corps',2020),(_binary 'Sz\7\-ҙ\\','AnnenMayKantereit',95,65,'A catchy, stripped-back cover of Suzanne Vega’s classic, with unique vocal interpretations.',210,60,'Indie Pop, Folk','Tom\'s Diner',2020),(_binary 'S\\7\-ҙ\\','Kings of Leon',128,80,'A driving rock track with energetic guitar riffs and dynamic vocals.',210,85,'Rock','Red Morning Light',2003),(_binary 'SV\7\-ҙ\\','Donna Summer',120,85,'A classic disco anthem with a funky beat, strong basslines, and Donna Summer\'s powerful vocals.',230,90,'Disco','Bad Girls',1979),(_binary 'S\Z\7\-ҙ\\','El Coco',125,85,'An upbeat, funky disco track with vibrant orchestration and a danceable rhythm.',220,80,'Disco','Cocomotion',1977),(_binary 'S(\\7\-ҙ\\','Eurythmics',125,70,'A haunting, iconic track with atmospheric synths and Annie Lennox\'s captivating vocals.',230,75,'Synth-pop','Sweet Dreams',1983),(_binary 'S)n\7\-ҙ\\','Shelly',110,80,'A playful, upbeat pop song with catchy melodies and smooth vocals.',210,75,'Pop, R&B','Steeeam',2021),(_binary 'S)\\7\-ҙ\\','Kate Bush',130,70,'A dramatic and ethereal track with Kate Bush\'s unique vocals and complex instrumentation.',240,85,'Art Rock','Wuthering Heights',1978),(_binary 'S*^\7\-ҙ\\','Flume',90,75,'An emotive electronic track with smooth beats and a catchy vocal hook.',240,70,'Electronic, Future Bass','Never Be Like You',2016),(_binary 'S*\\7\-ҙ\\','Jai Paul',100,65,'A laid-back, experimental track blending electronic beats with soulful melodies.',230,60,'Electronic, R&B','Str8 Outta Mumbai',2013),(_binary 'S+X\7\-ҙ\\','New Order',130,90,'A groundbreaking electronic track with catchy synths and an infectious beat.',270,85,'New Wave, Electronic','Blue Monday',1983),(_binary 'S+\\7\-ҙ\\','The Walters',95,65,'A mellow, nostalgic indie rock track with heartfelt lyrics and relaxed instrumentation.',210,60,'Indie Rock','I Love You So',2018),(_binary 'S,>\7\-ҙ\\','Little Simz',105,80,'A powerful rap track with Afrobeat rhythms and politically charged lyrics.',220,85,'Hip-Hop, Afrobeat','Point and Kill',2022),(_binary 'S,\7\-ҙ\\','Q',70,65,'A smooth R&B track with soothing vocals and a mellow groove.',240,50,'R&B','If You Care',2021),(_binary 'S-$\7\-ҙ\\','Q',75,60,'A heartfelt R&B track with emotional lyrics and a soft, soulful sound.',230,55,'R&B','Take Me Where Your Heart Is',2021),(_binary 'S-\7\-ҙ\\','Adele',65,50,'A haunting ballad with powerful vocals and a deeply emotional message.',240,45,'Pop, Soul','Love in the Dark',2015),(_binary 'S.\n\7\-ҙ\\','Patrick Watson',70,55,'A soft, atmospheric folk track with delicate instrumentation and emotive lyrics.',250,40,'Indie Folk','To Build a House',2015),(_binary 'S.\7\-ҙ\\','Patrick Watson',65,50,'A gentle, introspective track with poetic lyrics and lush instrumentation.',230,45,'Indie Folk','Je Te Laisserai Des Mots',2019),(_binary 'S/\7\-ҙ\\','Steve Lacy',100,75,'A smooth and sultry R&B track with laid-back guitar riffs and soulful vocals.',210,70,'R&B, Soul','Dark Red',2017),(_binary 'S/r\7\-ҙ\\','Paramore',125,85,'An upbeat yet introspective pop rock song with catchy hooks and a powerful message.',220,80,'Pop Rock','Fake Happy',2017),(_binary 'S/\\7\-ҙ\\','Paramore',120,90,'An energetic pop rock track with a catchy beat and a sense of playful frustration.',200,85,'Pop Rock','Hard Times',2017),(_binary 'S0X\7\-ҙ\\','Paramore',70,60,'A slow-burning, emotional track with introspective lyrics and a lush arrangement.',240,50,'Pop Rock','26',2017),(_binary 'S0\\7\-ҙ\\','Medium Build',110,80,'A quirky, upbeat indie pop track with catchy hooks and infectious energy.',210,75,'Indie Pop','Be Your Boy',2021),(_binary 'S1R\7\-ҙ\\','Gerry Rafferty',90,65,'A classic soft rock ballad with smooth vocals and melodic guitar lines.',240,60,'Soft Rock','Right Down the Line',1978),(_binary 'S1\\7\-ҙ\\','Talking Heads',120,80,'An iconic new wave track with quirky lyrics, a catchy beat, and an upbeat vibe.',210,85,'New Wave','This Must Be the Place',1983),(_binary 'S2\\7\-ҙ\\','INXS',85,75,'A soulful rock ballad with emotional vocals and an unforgettable saxophone riff.',240,65,'Rock, New Wave','Never Tear Us Apart',1987),(_binary 'S3Z\7\-ҙ\\','Ural Thomas and the Pain',110,85,'A soulful, funky track with energetic brass and a smooth rhythm section.',220,80,'Soul, Funk','Smoldering Fire',2019),(_binary 'S4\7\-ҙ\\','FKA Twigs',95,75,'A dark, atmospheric track with haunting vocals and minimalistic production, exploring themes of vulnerability and desire.',250,80,'Art Pop, R&B','Two Weeks',2014),(_binary 'S4\\7\-ҙ\\','Lykke Li',95,80,'A catchy indie pop song with melancholic lyrics and a hypnotic, rhythmic pulse.',210,70,'Indie Pop','Little Bit',2008),(_binary 'S5b\7\-ҙ\\','X Ambassadors',90,75,'An emotional rock track with powerful vocals and a strong message about resilience in the face of uncertainty.',230,80,'Alternative Rock','Unsteady',2015),(_binary 'S5\\7\-ҙ\\','Kaleo',75,70,'A deep, soulful rock ballad with haunting vocals and a raw, emotional atmosphere.',220,65,'Blues Rock','Way Down We Go',2016),(_binary 'S6H\7\-ҙ\\','FKA Twigs',95,75,'An experimental and emotional track with mesmerizing beats and hauntingly ethereal vocals.',230,85,'Art Pop, R&B','Pendulum',2015),(_binary 'S6\7\-ҙ\\','Daughter',80,65,'A melancholic indie folk track with reflective lyrics and a serene, calming atmosphere.',240,60,'Indie Folk','Youth',2013),(_binary 'S7$\7\-ҙ\\','Alt-J',105,80,'A quirky and experimental indie rock track with complex rhythms and layered harmonies.',230,75,'Indie Rock','Tessellate',2012),(_binary 'S7\7\-ҙ\\','James Blake',75,60,'A haunting and introspective track with minimalistic production and soulful vocals.',250,60,'Electronic, R&B','Retrograde',2013),(_binary 'S8\0\7\-ҙ\\','Rhodes',70,55,'A soft, atmospheric track with delicate vocals and an intimate, emotional feel.',220,50,'Indie Pop','Breathe',2014),(_binary 'S8n\7\-ҙ\\','Nelly Furtado',108,80,'A catchy pop track with upbeat rhythms and lyrics about freedom and self-discovery.',210,70,'Pop','I\'m Like a Bird',2000),(_binary 'S8\\7\-ҙ\\','Jack Garratt',110,85,'A powerful track blending electronic beats and soulful vocals with themes of anxiety and self-reflection.',240,80,'Indie Pop, R&B','Worry',2016),(_binary 'S9@\7\-ҙ\\','Paolo Nutini',95,80,'A sweet and soulful track with catchy melodies and romantic lyrics.',210,75,'Pop Rock','Candy',2009),(_binary 'S9\\7\-ҙ\\','Ben Howard',80,70,'A gentle, introspective folk rock song with acoustic guitar and heartfelt lyrics.',250,60,'Folk Rock','Only Love',2011),(_binary 'S:X\7\-ҙ\\','The Lumineers',105,80,'A folksy indie track with heartfelt lyrics and a nostalgic, sing-along quality.',210,75,'Indie Folk','Ophelia',2016),(_binary 'S:\\7\-ҙ\\','Kings of Leon',100,80,'A powerful rock anthem with soaring vocals and a driving rhythm.',230,85,'Rock','Use Somebody',2008),(_binary 'S;H\7\-ҙ\\','Hozier',90,80,'A soulful indie rock track with romantic lyrics and a catchy melody.',220,75,'Indie Rock, Soul','Someone New',2014),(_binary 'S;\7\-ҙ\\','Hozier',75,70,'A soulful ballad with deep, raw vocals and emotional lyrics about love and struggle.',230,65,'Indie Soul','Work Song',2014),(_binary 'S<$\7\-ҙ\\','The Fray',75,70,'An emotional rock ballad with poignant lyrics about helping a friend through tough times.',230,65,'Alternative Rock','How to Save a Life',2005),(_binary 'S<\\7\-ҙ\\','Nao',110,85,'A funky and smooth R&B track with soulful vocals and a catchy beat.',220,80,'R&B, Soul','So Good',2016),(_binary 'S=<\7\-ҙ\\','Nao',95,75,'A soulful track with a funky groove and reflective lyrics about love and memory.',240,70,'R&B, Soul','Nostalgia',2016),(_binary 'S=\7\-ҙ\\','Alicia Keys',70,65,'A soulful ballad with deep, emotional vocals and a haunting piano arrangement.',240,60,'R&B','Fallen',2001),(_binary 'S>\7\-ҙ\\','Birdy',80,55,'A hauntingly beautiful ballad with delicate piano and Birdy\'s ethereal vocals, expressing heartache and vulnerability.',230,50,'Indie Folk','Skinny Love',2011);
 /*!40000 ALTER TABLE `music` ENABLE KEYS */;
 UNLOCK TABLES;
+
+-- optimistic lock version, every dumped song starts at 0
+ALTER TABLE `music` ADD COLUMN `version` bigint NOT NULL DEFAULT 0;
 /*!40103 SET TIME_ZONE=@OLD_TIME_ZONE */;
 
 /*!40101 SET SQL_MODE=@OLD_SQL_MODE */;
@@ -2,8 +2,10 @@ package com.musicapi.java_music_api;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class JavaMusicApiApplication {
 
 	public static void main(String[] args) {
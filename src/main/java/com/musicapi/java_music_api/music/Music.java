@@ -2,19 +2,30 @@ package com.musicapi.java_music_api.music;
 
 import java.util.UUID;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "music")
+// every ranked attribute has an (attribute, id) index so ranked and range queries
+// are index range scans already in ORDER BY attribute, id order
+@Table(name = "music", indexes = {
+        @Index(name = "idx_music_bpm", columnList = "bpm, id"),
+        @Index(name = "idx_music_energy", columnList = "energy, id"),
+        @Index(name = "idx_music_danceability", columnList = "danceability, id"),
+        @Index(name = "idx_music_year", columnList = "year, id"),
+        @Index(name = "idx_music_duration_sec", columnList = "duration_sec, id") })
 public class Music {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedUuid
     private UUID id;
     private String song;
     private String artist;
@@ -26,6 +37,12 @@ public class Music {
     private Integer bpm;
     private Integer energy;
     private Integer danceability;
+    // optimistic lock version, also the song's entity tag
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 
     public Music(String song, String artist, Integer year, String genre, String description, Integer duration_sec,
             Integer bpm,
@@ -41,6 +58,14 @@ public class Music {
         this.danceability = danceability;
     }
 
+    // copy song, used to hand out snapshots that are independent of the persistence context
+    public Music(Music music) {
+        this(music.song, music.artist, music.year, music.genre, music.description, music.duration_sec, music.bpm,
+                music.energy, music.danceability);
+        this.id = music.id;
+        this.version = music.version;
+    }
+
     // initialise class
     public Music() {
         this("Coconut", "Manu Dibango", 1996, "Afro-Jazz, Funk",
@@ -142,4 +167,19 @@ public class Music {
         this.danceability = danceability;
     }
 
+    // version getter
+    public Long getVersion() {
+        return this.version;
+    }
+
+    // id setter, only for songs about to be inserted, see MusicWriteLocks
+    void setId(UUID id) {
+        this.id = id;
+    }
+
+    // version setter, only for snapshots of rows written by MusicUpdates
+    void setVersion(Long version) {
+        this.version = version;
+    }
+
 }
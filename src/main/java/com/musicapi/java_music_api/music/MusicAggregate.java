@@ -0,0 +1,65 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// running statistics of a group of songs: how many there are and, for each of bpm,
+// energy, danceability and duration, how many have a value, their sum and a histogram
+// of fixed width buckets. A song is added or taken out in constant time, so the group
+// never has to be recomputed. Not thread-safe, see MusicStatistics.
+public class MusicAggregate {
+    private static final MusicAttribute[] ATTRIBUTES = { MusicAttribute.BPM, MusicAttribute.ENERGY,
+            MusicAttribute.DANCEABILITY, MusicAttribute.DURATION_SEC };
+    // bucket width and number of buckets per attribute, values past the last bucket are
+    // counted in it
+    private static final int[] WIDTHS = { 10, 10, 10, 30 };
+    private static final int[] BUCKETS = { 30, 11, 11, 31 };
+
+    private long count;
+    private final long[] counts = new long[ATTRIBUTES.length];
+    private final long[] sums = new long[ATTRIBUTES.length];
+    private final long[][] histograms = new long[ATTRIBUTES.length][];
+
+    public MusicAggregate() {
+        for (int i = 0; i < ATTRIBUTES.length; i++) {
+            this.histograms[i] = new long[BUCKETS[i]];
+        }
+    }
+
+    // add the song to the group, sign -1 takes it out again
+    public void add(Music music, int sign) {
+        this.count += sign;
+        for (int i = 0; i < ATTRIBUTES.length; i++) {
+            Integer value = ATTRIBUTES[i].valueOf(music);
+            if (value != null) {
+                this.counts[i] += sign;
+                this.sums[i] += sign * (long) value;
+                this.histograms[i][Math.min(Math.max(value, 0) / WIDTHS[i], BUCKETS[i] - 1)] += sign;
+            }
+        }
+    }
+
+    // true when no song is left in the group
+    public boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    // true when both groups hold the same statistics
+    public boolean sameAs(MusicAggregate other) {
+        return this.count == other.count && Arrays.equals(this.counts, other.counts)
+                && Arrays.equals(this.sums, other.sums) && Arrays.deepEquals(this.histograms, other.histograms);
+    }
+
+    // copy of the statistics, the average null for an attribute no song has
+    public MusicStats snapshot() {
+        Map<String, MusicAttributeStats> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < ATTRIBUTES.length; i++) {
+            Double average = this.counts[i] == 0 ? null : (double) this.sums[i] / this.counts[i];
+            attributes.put(ATTRIBUTES[i].attribute(),
+                    new MusicAttributeStats(this.counts[i], average, WIDTHS[i], this.histograms[i].clone()));
+        }
+        return new MusicStats(this.count, attributes);
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+// numeric song attributes that can be ranked and range filtered
+public enum MusicAttribute {
+    BPM("bpm", "bpm", Music::getBpm),
+    ENERGY("energy", "energy", Music::getEnergy),
+    DANCEABILITY("danceability", "danceability", Music::getDanceability),
+    YEAR("year", "year", Music::getYear),
+    DURATION_SEC("durationSec", "duration_sec", Music::getDurationSec);
+
+    private final String property;
+    private final String attribute;
+    private final Function<Music, Integer> getter;
+
+    MusicAttribute(String property, String attribute, Function<Music, Integer> getter) {
+        this.property = property;
+        this.attribute = attribute;
+        this.getter = getter;
+    }
+
+    // json property name, also the request parameter value
+    public String property() {
+        return this.property;
+    }
+
+    // entity attribute name
+    public String attribute() {
+        return this.attribute;
+    }
+
+    // attribute value of a song
+    public Integer valueOf(Music music) {
+        return this.getter.apply(music);
+    }
+
+    // in-memory equivalent of MusicSpecifications.orderedBy for songs with a value
+    public Comparator<Music> comparator(Sort.Direction direction) {
+        Comparator<Music> order = Comparator.comparing(this.getter).thenComparing(Music::getId, MusicCursor.ID_ORDER);
+        return direction.isDescending() ? order.reversed() : order;
+    }
+
+    // look attribute up by its json property name, or by its entity attribute name as
+    // earlier requests used
+    public static MusicAttribute fromProperty(String property) throws IllegalArgumentException {
+        for (MusicAttribute attribute : values()) {
+            if (attribute.property.equalsIgnoreCase(property) || attribute.attribute.equalsIgnoreCase(property)) {
+                return attribute;
+            }
+        }
+        throw new IllegalArgumentException("Unknown attribute " + property);
+    }
+
+}
@@ -0,0 +1,6 @@
+package com.musicapi.java_music_api.music;
+
+// number of songs with a value for the attribute, their average and a histogram of them,
+// bucket i counting values from i * bucketWidth and the last one everything above
+public record MusicAttributeStats(long count, Double average, int bucketWidth, long[] histogram) {
+}
@@ -0,0 +1,448 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// compressed set of document numbers in the style of a roaring bitmap. Numbers are
+// grouped by their high 16 bits; a group of up to 4096 numbers is a sorted char array
+// and a fuller one a bit set of 1024 words, so a rare genre costs two bytes a song and
+// a common one at most a bit. Set operations go group by group and only touch groups
+// present in their operands, their cost follows the size of the bitmaps and not the
+// size of the catalog. Not thread-safe.
+//
+// This is only the part of RoaringBitmap that MusicGenreIndex uses: add, remove,
+// contains, iteration, and, or, andNot and the size of an intersection. It has no run
+// containers, no serialization and no 64 bit variant. A few hundred lines tested
+// against java.util.BitSet cost less to keep than another runtime dependency.
+public final class MusicBitmap {
+    // largest group kept as an array, past it a bit set is smaller
+    private static final int MAX_ARRAY = 4096;
+    private static final int WORDS = 1024;
+
+    private char[] keys;
+    private Container[] containers;
+    private int groups;
+
+    public MusicBitmap() {
+        this(new char[4], new Container[4], 0);
+    }
+
+    private MusicBitmap(char[] keys, Container[] containers, int groups) {
+        this.keys = keys;
+        this.containers = containers;
+        this.groups = groups;
+    }
+
+    // add the number, which must not be negative
+    public void add(int value) {
+        char key = (char) (value >>> 16);
+        int group = group(key);
+        if (group < 0) {
+            group = -group - 1;
+            insert(group, key, new Container(new char[4], null, 0));
+        }
+        this.containers[group] = this.containers[group].add((char) value);
+    }
+
+    public void remove(int value) {
+        int group = group((char) (value >>> 16));
+        if (group >= 0) {
+            Container container = this.containers[group].remove((char) value);
+            if (container.cardinality == 0) {
+                delete(group);
+            } else {
+                this.containers[group] = container;
+            }
+        }
+    }
+
+    public boolean contains(int value) {
+        int group = value < 0 ? -1 : group((char) (value >>> 16));
+        return group >= 0 && this.containers[group].contains((char) value);
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int group = 0; group < this.groups; group++) {
+            cardinality += this.containers[group].cardinality;
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return this.groups == 0;
+    }
+
+    // smallest number at or after from, -1 when there is none
+    public int next(int from) {
+        int group = group((char) (Math.max(from, 0) >>> 16));
+        if (group >= 0) {
+            int low = this.containers[group].next((char) Math.max(from, 0));
+            if (low >= 0) {
+                return this.keys[group] << 16 | low;
+            }
+            group++;
+        } else {
+            group = -group - 1;
+        }
+        return group < this.groups ? this.keys[group] << 16 | this.containers[group].next((char) 0) : -1;
+    }
+
+    // every number in ascending order
+    public void forEach(IntConsumer action) {
+        for (int group = 0; group < this.groups; group++) {
+            int high = this.keys[group] << 16;
+            Container container = this.containers[group];
+            if (container.words == null) {
+                for (int i = 0; i < container.cardinality; i++) {
+                    action.accept(high | container.values[i]);
+                }
+                continue;
+            }
+            for (int word = 0; word < WORDS; word++) {
+                long bits = container.words[word];
+                while (bits != 0) {
+                    action.accept(high | word << 6 | Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+
+    public MusicBitmap copy() {
+        Container[] containers = new Container[Math.max(4, this.groups)];
+        for (int group = 0; group < this.groups; group++) {
+            containers[group] = this.containers[group].copy();
+        }
+        return new MusicBitmap(Arrays.copyOf(this.keys, containers.length), containers, this.groups);
+    }
+
+    // numbers in both bitmaps
+    public static MusicBitmap and(MusicBitmap a, MusicBitmap b) {
+        MusicBitmap result = new MusicBitmap(new char[Math.min(a.groups, b.groups)],
+                new Container[Math.min(a.groups, b.groups)], 0);
+        int i = 0;
+        int j = 0;
+        while (i < a.groups && j < b.groups) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container container = a.containers[i].and(b.containers[j]);
+                if (container.cardinality > 0) {
+                    result.append(a.keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // numbers in either bitmap
+    public static MusicBitmap or(MusicBitmap a, MusicBitmap b) {
+        MusicBitmap result = new MusicBitmap(new char[a.groups + b.groups], new Container[a.groups + b.groups], 0);
+        int i = 0;
+        int j = 0;
+        while (i < a.groups || j < b.groups) {
+            if (j == b.groups || i < a.groups && a.keys[i] < b.keys[j]) {
+                result.append(a.keys[i], a.containers[i++].copy());
+            } else if (i == a.groups || a.keys[i] > b.keys[j]) {
+                result.append(b.keys[j], b.containers[j++].copy());
+            } else {
+                result.append(a.keys[i], a.containers[i++].or(b.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    // numbers in a but not in b
+    public static MusicBitmap andNot(MusicBitmap a, MusicBitmap b) {
+        MusicBitmap result = new MusicBitmap(new char[a.groups], new Container[a.groups], 0);
+        int j = 0;
+        for (int i = 0; i < a.groups; i++) {
+            while (j < b.groups && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            Container container = j < b.groups && b.keys[j] == a.keys[i]
+                    ? a.containers[i].andNot(b.containers[j])
+                    : a.containers[i].copy();
+            if (container.cardinality > 0) {
+                result.append(a.keys[i], container);
+            }
+        }
+        return result;
+    }
+
+    // size of the intersection, without building it
+    public static int andCardinality(MusicBitmap a, MusicBitmap b) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.groups && j < b.groups) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                cardinality += a.containers[i++].andCardinality(b.containers[j++]);
+            }
+        }
+        return cardinality;
+    }
+
+    private int group(char key) {
+        return Arrays.binarySearch(this.keys, 0, this.groups, key);
+    }
+
+    private void insert(int group, char key, Container container) {
+        if (this.groups == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, Math.max(4, this.groups * 2));
+            this.containers = Arrays.copyOf(this.containers, Math.max(4, this.groups * 2));
+        }
+        System.arraycopy(this.keys, group, this.keys, group + 1, this.groups - group);
+        System.arraycopy(this.containers, group, this.containers, group + 1, this.groups - group);
+        this.keys[group] = key;
+        this.containers[group] = container;
+        this.groups++;
+    }
+
+    private void append(char key, Container container) {
+        insert(this.groups, key, container);
+    }
+
+    private void delete(int group) {
+        System.arraycopy(this.keys, group + 1, this.keys, group, this.groups - group - 1);
+        System.arraycopy(this.containers, group + 1, this.containers, group, this.groups - group - 1);
+        this.containers[--this.groups] = null;
+    }
+
+    // the low 16 bits of one group, values when there are few of them and words otherwise
+    private static final class Container {
+        final char[] values;
+        final long[] words;
+        int cardinality;
+
+        Container(char[] values, long[] words, int cardinality) {
+            this.values = values;
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        // this container or its replacement once it outgrows its array
+        Container add(char value) {
+            if (this.words != null) {
+                long bit = 1L << value;
+                if ((this.words[value >>> 6] & bit) == 0) {
+                    this.words[value >>> 6] |= bit;
+                    this.cardinality++;
+                }
+                return this;
+            }
+            int position = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+            if (position >= 0) {
+                return this;
+            }
+            position = -position - 1;
+            if (this.cardinality == MAX_ARRAY) {
+                Container container = toWords();
+                return container.add(value);
+            }
+            char[] values = this.cardinality == this.values.length
+                    ? Arrays.copyOf(this.values, Math.min(this.cardinality * 2, MAX_ARRAY))
+                    : this.values;
+            System.arraycopy(this.values, position, values, position + 1, this.cardinality - position);
+            values[position] = value;
+            return new Container(values, null, this.cardinality + 1);
+        }
+
+        Container remove(char value) {
+            if (this.words != null) {
+                long bit = 1L << value;
+                if ((this.words[value >>> 6] & bit) != 0) {
+                    this.words[value >>> 6] &= ~bit;
+                    this.cardinality--;
+                }
+                return this.cardinality > MAX_ARRAY ? this : toValues();
+            }
+            int position = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+            if (position >= 0) {
+                System.arraycopy(this.values, position + 1, this.values, position, this.cardinality - position - 1);
+                this.cardinality--;
+            }
+            return this;
+        }
+
+        boolean contains(char value) {
+            if (this.words != null) {
+                return (this.words[value >>> 6] & 1L << value) != 0;
+            }
+            return Arrays.binarySearch(this.values, 0, this.cardinality, value) >= 0;
+        }
+
+        // smallest value at or after from, -1 when there is none
+        int next(char from) {
+            if (this.words == null) {
+                int position = Arrays.binarySearch(this.values, 0, this.cardinality, from);
+                position = position >= 0 ? position : -position - 1;
+                return position < this.cardinality ? this.values[position] : -1;
+            }
+            int word = from >>> 6;
+            long bits = this.words[word] & -1L << from;
+            while (bits == 0) {
+                if (++word == WORDS) {
+                    return -1;
+                }
+                bits = this.words[word];
+            }
+            return word << 6 | Long.numberOfTrailingZeros(bits);
+        }
+
+        Container and(Container other) {
+            if (this.words != null && other.words != null) {
+                long[] words = new long[WORDS];
+                int cardinality = 0;
+                for (int i = 0; i < WORDS; i++) {
+                    words[i] = this.words[i] & other.words[i];
+                    cardinality += Long.bitCount(words[i]);
+                }
+                Container container = new Container(null, words, cardinality);
+                return cardinality > MAX_ARRAY ? container : container.toValues();
+            }
+            if (this.words != null) {
+                return other.and(this);
+            }
+            char[] values = new char[this.cardinality];
+            int cardinality = 0;
+            if (other.words != null) {
+                for (int i = 0; i < this.cardinality; i++) {
+                    if (other.contains(this.values[i])) {
+                        values[cardinality++] = this.values[i];
+                    }
+                }
+            } else {
+                int j = 0;
+                for (int i = 0; i < this.cardinality && j < other.cardinality; i++) {
+                    while (j < other.cardinality && other.values[j] < this.values[i]) {
+                        j++;
+                    }
+                    if (j < other.cardinality && other.values[j] == this.values[i]) {
+                        values[cardinality++] = this.values[i];
+                    }
+                }
+            }
+            return new Container(values, null, cardinality);
+        }
+
+        int andCardinality(Container other) {
+            if (this.words != null && other.words != null) {
+                int cardinality = 0;
+                for (int i = 0; i < WORDS; i++) {
+                    cardinality += Long.bitCount(this.words[i] & other.words[i]);
+                }
+                return cardinality;
+            }
+            if (this.words != null || this.cardinality > other.cardinality) {
+                return other.andCardinality(this);
+            }
+            int cardinality = 0;
+            for (int i = 0; i < this.cardinality; i++) {
+                if (other.contains(this.values[i])) {
+                    cardinality++;
+                }
+            }
+            return cardinality;
+        }
+
+        Container or(Container other) {
+            if (this.words == null && other.words == null && this.cardinality + other.cardinality <= MAX_ARRAY) {
+                char[] values = new char[this.cardinality + other.cardinality];
+                int cardinality = 0;
+                int i = 0;
+                int j = 0;
+                while (i < this.cardinality || j < other.cardinality) {
+                    if (j == other.cardinality || i < this.cardinality && this.values[i] < other.values[j]) {
+                        values[cardinality++] = this.values[i++];
+                    } else if (i == this.cardinality || this.values[i] > other.values[j]) {
+                        values[cardinality++] = other.values[j++];
+                    } else {
+                        values[cardinality++] = this.values[i++];
+                        j++;
+                    }
+                }
+                return new Container(values, null, cardinality);
+            }
+            Container container = this.words != null ? copy() : toWords();
+            if (other.words != null) {
+                container.cardinality = 0;
+                for (int i = 0; i < WORDS; i++) {
+                    container.words[i] |= other.words[i];
+                    container.cardinality += Long.bitCount(container.words[i]);
+                }
+            } else {
+                for (int i = 0; i < other.cardinality; i++) {
+                    container.add(other.values[i]);
+                }
+            }
+            return container.cardinality > MAX_ARRAY ? container : container.toValues();
+        }
+
+        Container andNot(Container other) {
+            if (this.words == null) {
+                char[] values = new char[this.cardinality];
+                int cardinality = 0;
+                for (int i = 0; i < this.cardinality; i++) {
+                    if (!other.contains(this.values[i])) {
+                        values[cardinality++] = this.values[i];
+                    }
+                }
+                return new Container(values, null, cardinality);
+            }
+            Container container = copy();
+            if (other.words != null) {
+                container.cardinality = 0;
+                for (int i = 0; i < WORDS; i++) {
+                    container.words[i] &= ~other.words[i];
+                    container.cardinality += Long.bitCount(container.words[i]);
+                }
+            } else {
+                for (int i = 0; i < other.cardinality; i++) {
+                    long bit = 1L << other.values[i];
+                    if ((container.words[other.values[i] >>> 6] & bit) != 0) {
+                        container.words[other.values[i] >>> 6] &= ~bit;
+                        container.cardinality--;
+                    }
+                }
+            }
+            return container.cardinality > MAX_ARRAY ? container : container.toValues();
+        }
+
+        Container copy() {
+            return new Container(this.values == null ? null : Arrays.copyOf(this.values, this.cardinality),
+                    this.words == null ? null : this.words.clone(), this.cardinality);
+        }
+
+        private Container toWords() {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < this.cardinality; i++) {
+                words[this.values[i] >>> 6] |= 1L << this.values[i];
+            }
+            return new Container(null, words, this.cardinality);
+        }
+
+        private Container toValues() {
+            char[] values = new char[this.cardinality];
+            int cardinality = 0;
+            for (int word = 0; word < WORDS; word++) {
+                long bits = this.words[word];
+                while (bits != 0) {
+                    values[cardinality++] = (char) (word << 6 | Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            return new Container(values, null, cardinality);
+        }
+    }
+
+}
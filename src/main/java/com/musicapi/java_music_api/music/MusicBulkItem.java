@@ -0,0 +1,16 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.UUID;
+
+// outcome of one item of a bulk create, id is set when created and error when rejected
+public record MusicBulkItem(int index, UUID id, String error) {
+
+    public static MusicBulkItem created(int index, UUID id) {
+        return new MusicBulkItem(index, id, null);
+    }
+
+    public static MusicBulkItem failed(int index, String error) {
+        return new MusicBulkItem(index, null, error);
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.List;
+
+// report of a bulk create, one item per song in request order
+public record MusicBulkResult(int created, int failed, List<MusicBulkItem> items) {
+}
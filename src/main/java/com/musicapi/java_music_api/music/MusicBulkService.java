@@ -0,0 +1,193 @@
+package com.musicapi.java_music_api.music;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.exception.JDBCConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.persistence.EntityManager;
+
+// creates songs read from a json array or ndjson stream, one transaction and one
+// jdbc batch per chunk. A chunk that fails is retried row by row so every item gets
+// its own outcome and a bad row only rejects itself; the reason stays in the log, as
+// the database's own message would show the client its SQL.
+@Service
+public class MusicBulkService {
+    private static final Logger log = LoggerFactory.getLogger(MusicBulkService.class);
+    public static final int MAX_CHUNK_SIZE = 5_000;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader reader;
+    private final int defaultChunkSize;
+
+    public MusicBulkService(EntityManager entityManager, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+            @Value("${music.bulk.chunk-size:500}") int defaultChunkSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.reader = objectMapper.readerFor(Music.class);
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    // bulk create service, chunkSize null uses the configured default
+    public MusicBulkResult createSongs(InputStream body, Integer chunkSize) throws IllegalArgumentException,
+            IOException {
+        int size = chunkSize != null ? chunkSize : this.defaultChunkSize;
+        if (size < 1 || size > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+
+        List<MusicBulkItem> items = new ArrayList<>();
+        List<Music> chunk = new ArrayList<>(size);
+        List<Integer> indexes = new ArrayList<>(size);
+        int index = 0;
+
+        // a json array is iterated element by element, ndjson value by value
+        try (MappingIterator<Music> songs = this.reader.readValues(body)) {
+            while (hasNext(songs, index, items)) {
+                Music music;
+                try {
+                    music = songs.nextValue();
+                } catch (JsonProcessingException jpe) {
+                    // the iterator skips past the broken value, so reading carries on
+                    items.add(MusicBulkItem.failed(index++, "Invalid song: " + jpe.getOriginalMessage()));
+                    continue;
+                }
+                if (music == null) {
+                    items.add(MusicBulkItem.failed(index++, "Missing song"));
+                    continue;
+                }
+
+                chunk.add(music);
+                indexes.add(index++);
+                if (chunk.size() == size) {
+                    writeChunk(chunk, indexes, items);
+                }
+            }
+        }
+        writeChunk(chunk, indexes, items);
+
+        items.sort(Comparator.comparingInt(MusicBulkItem::index));
+        int created = (int) items.stream().filter(item -> item.error() == null).count();
+        return new MusicBulkResult(created, items.size() - created, items);
+    }
+
+    private static boolean hasNext(MappingIterator<Music> songs, int index, List<MusicBulkItem> items)
+            throws IOException {
+        try {
+            return songs.hasNextValue();
+        } catch (JsonProcessingException jpe) {
+            // malformed json, nothing after this point can be read
+            items.add(MusicBulkItem.failed(index, "Malformed input, remaining items not read: "
+                    + jpe.getOriginalMessage()));
+            return false;
+        }
+    }
+
+    private void writeChunk(List<Music> chunk, List<Integer> indexes, List<MusicBulkItem> items) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // ids chosen up front, so writes that reach the songs before their events are out
+        // wait for them, see MusicWriteLocks
+        List<UUID> ids = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ids.add(TimeOrderedUuidGenerator.next());
+        }
+        MusicWriteLocks.creating(ids, () -> {
+            List<Music> created = new ArrayList<>(chunk.size());
+            try {
+                created.addAll(this.transactionTemplate.execute(status -> persist(chunk, ids)));
+                for (int i = 0; i < created.size(); i++) {
+                    items.add(MusicBulkItem.created(indexes.get(i), created.get(i).getId()));
+                }
+            } catch (RuntimeException chunkFailure) {
+                rethrowIfUnavailable(chunkFailure);
+                // the chunk was rolled back as a whole, find the rows responsible
+                for (int i = 0; i < chunk.size(); i++) {
+                    List<Music> row = List.of(chunk.get(i));
+                    List<UUID> rowId = List.of(ids.get(i));
+                    int index = indexes.get(i);
+                    try {
+                        Music music = this.transactionTemplate.execute(status -> persist(row, rowId)).get(0);
+                        created.add(music);
+                        items.add(MusicBulkItem.created(index, music.getId()));
+                    } catch (RuntimeException rowFailure) {
+                        rethrowIfUnavailable(rowFailure);
+                        log.debug("Could not create bulk item {}", index, rowFailure);
+                        items.add(MusicBulkItem.failed(index, "Song could not be stored"));
+                    }
+                }
+            }
+            // after the commits, a listener that fails does not undo them
+            for (Music music : created) {
+                this.eventPublisher.publishEvent(new MusicChangedEvent(null, music));
+            }
+            return created;
+        });
+
+        chunk.clear();
+        indexes.clear();
+    }
+
+    // a database that cannot be reached fails every row alike, so the request ends there
+    // rather than reporting each row; the chunks before it stay created
+    private static void rethrowIfUnavailable(RuntimeException failure) {
+        if (failure instanceof CannotCreateTransactionException
+                || failure instanceof DataAccessResourceFailureException) {
+            throw failure;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JDBCConnectionException || cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLRecoverableException) {
+                throw new DataAccessResourceFailureException("Database unavailable", failure);
+            }
+        }
+    }
+
+    // persist new copies with the given ids, so state left by a rolled back attempt is
+    // ignored; clearing afterwards keeps the persistence context from growing with the stream
+    private List<Music> persist(List<Music> songs, List<UUID> ids) {
+        try {
+            List<Music> created = new ArrayList<>(songs.size());
+            for (int i = 0; i < songs.size(); i++) {
+                Music song = songs.get(i);
+                Music music = new Music(song.getSong(), song.getArtist(), song.getYear(), song.getGenre(),
+                        song.getDescription(), song.getDurationSec(), song.getBpm(), song.getEnergy(),
+                        song.getDanceability());
+                music.setId(ids.get(i));
+                this.entityManager.persist(music);
+                created.add(music);
+            }
+            this.entityManager.flush();
+            return created;
+        } finally {
+            this.entityManager.clear();
+        }
+    }
+
+}
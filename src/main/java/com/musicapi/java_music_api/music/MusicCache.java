@@ -0,0 +1,93 @@
+package com.musicapi.java_music_api.music;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Read-through cache in front of single song lookups, bounded by size and time to live.
+// Concurrent misses for one id share a single database load, and an invalidation drops
+// a load in flight for the same id, so a value read before a write can never be cached
+// after the write has returned. The cache only holds a future while the caller that
+// missed loads the song on its own thread, in its own transaction: a load inside the
+// cache's map would pin a virtual thread to its carrier while it waits on the database.
+@Component
+public class MusicCache implements MeterBinder {
+    private final MusicRepository musicRepository;
+    private final AsyncCache<UUID, Music> cache;
+
+    public MusicCache(MusicRepository musicRepository,
+            @Value("${music.cache.maximum-size:10000}") long maximumSize,
+            @Value("${music.cache.time-to-live:10m}") Duration timeToLive) {
+        this.musicRepository = musicRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .buildAsync();
+    }
+
+    // cached song, shared between callers so it must not be modified
+    public Optional<Music> get(UUID id) {
+        CompletableFuture<Music> loading = new CompletableFuture<>();
+        CompletableFuture<Music> cached = this.cache.get(id, (key, executor) -> loading);
+        if (cached == loading) {
+            // missing songs load as null and are not cached
+            try {
+                loading.complete(this.musicRepository.findById(id).map(Music::new).orElse(null));
+            } catch (RuntimeException re) {
+                loading.completeExceptionally(re);
+                throw re;
+            }
+        }
+        try {
+            return Optional.ofNullable(cached.join());
+        } catch (CompletionException ce) {
+            // rethrow what the load threw, as a synchronous cache would
+            if (ce.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ce;
+        }
+    }
+
+    // drop one song, e.g. when a write found the cached copy out of date
+    public void invalidate(UUID id) {
+        this.cache.synchronous().invalidate(id);
+    }
+
+    // drop the changed song once the write is done
+    @EventListener
+    @Order(MusicChangedEvent.READ_MODEL_ORDER)
+    public void onMusicChanged(MusicChangedEvent event) {
+        this.cache.synchronous().invalidate(event.id());
+    }
+
+    // the same counters as cache.gets, cache.evictions and cache.size tagged cache=music.song
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, this.cache, "music.song");
+    }
+
+    // hit, miss and eviction counters
+    public MusicCacheStats stats() {
+        CacheStats stats = this.cache.synchronous().stats();
+        return new MusicCacheStats(this.cache.synchronous().estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.loadCount(), stats.evictionCount(), stats.hitRate());
+    }
+
+}
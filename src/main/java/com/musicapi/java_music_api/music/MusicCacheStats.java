@@ -0,0 +1,5 @@
+package com.musicapi.java_music_api.music;
+
+// counters of the single song cache since startup
+public record MusicCacheStats(long size, long hits, long misses, long loads, long evictions, double hitRate) {
+}
@@ -0,0 +1,8 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.Map;
+
+// statistics of the whole catalog and broken down by decade, e.g. "1990s", and by genre
+// tag; a song with several genres counts towards each of them
+public record MusicCatalogStats(MusicStats all, Map<String, MusicStats> decades, Map<String, MusicStats> genres) {
+}
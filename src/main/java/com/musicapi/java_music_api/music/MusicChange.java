@@ -0,0 +1,31 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// one entry of the change feed: a song created, updated or deleted, song is null on
+// delete. A reset tells the client it missed changes and should fetch GET /music again,
+// the changes after its sequence follow
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MusicChange(long sequence, Type type, UUID id, Music song) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, RESET;
+
+        // sse event name
+        public String eventName() {
+            return name().toLowerCase();
+        }
+    }
+
+    static MusicChange of(long sequence, MusicChangedEvent event) {
+        Type type = event.previous() == null ? Type.CREATED : event.current() == null ? Type.DELETED : Type.UPDATED;
+        return new MusicChange(sequence, type, event.id(), event.current());
+    }
+
+    static MusicChange reset(long sequence) {
+        return new MusicChange(sequence, Type.RESET, null, null);
+    }
+
+}
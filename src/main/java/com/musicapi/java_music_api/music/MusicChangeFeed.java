@@ -0,0 +1,251 @@
+package com.musicapi.java_music_api.music;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+// Change feed behind GET /music/changes. Every write is appended with the next sequence
+// number to one ring of the last replay-size changes, shared by all subscribers. Each
+// subscriber runs on its own virtual thread with nothing but a cursor into the ring: it
+// reads what it has not sent yet without any lock and sends it, so a slow client only
+// holds up itself and costs no memory beyond the ring. A writer only takes the lock
+// other writers take and wakes one notifier thread, which wakes the subscribers once for
+// however many writes came meanwhile. One that falls a whole ring behind, or resumes
+// from a sequence the ring no longer holds, gets a reset and carries on from the newest
+// change. Sequences start at the startup time in microseconds, so those of a previous
+// run are always older and always reset.
+@Component
+public class MusicChangeFeed {
+    // changes sent per turn, so a long replay still checks for cancellation
+    private static final int BATCH = 256;
+
+    private final MusicChange[] ring;
+    private final Duration heartbeat;
+    private final int maxSubscribers;
+
+    // one append at a time
+    private final ReentrantLock lock = new ReentrantLock();
+    // sequence before the first change of this run
+    private final long epoch = System.currentTimeMillis() * 1000;
+    // sequence of the newest change, written after its slot so readers of it see the slot
+    private volatile long last = this.epoch;
+    private volatile boolean closed;
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Set<Subscription> active = ConcurrentHashMap.newKeySet();
+    private final Thread notifier;
+
+    // receives one subscriber's changes on its own thread, an IOException ends the subscription
+    public interface Sink {
+        void send(MusicChange change) throws IOException;
+
+        // nothing changed for a while, keeps the connection and any proxy on the way open
+        void heartbeat() throws IOException;
+
+        // the subscription ended on its own, through a failed send or shutdown
+        void complete();
+    }
+
+    public MusicChangeFeed(@Value("${music.feed.replay-size:10000}") int replaySize,
+            @Value("${music.feed.heartbeat:15s}") Duration heartbeat,
+            @Value("${music.feed.max-subscribers:5000}") int maxSubscribers) {
+        if (replaySize < 1) {
+            throw new IllegalArgumentException("music.feed.replay-size must be positive");
+        }
+        this.ring = new MusicChange[replaySize];
+        this.heartbeat = heartbeat;
+        this.maxSubscribers = maxSubscribers;
+        this.notifier = Thread.ofVirtual().name("music-feed-notifier").start(this::notifySubscribers);
+    }
+
+    // append every write, after the read models so a client that reloads on a change sees it
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onMusicChanged(MusicChangedEvent event) {
+        this.lock.lock();
+        try {
+            long sequence = this.last + 1;
+            this.ring[slot(sequence)] = MusicChange.of(sequence, event);
+            this.last = sequence;
+        } finally {
+            this.lock.unlock();
+        }
+        LockSupport.unpark(this.notifier);
+    }
+
+    // sequence of the newest change
+    public long sequence() {
+        return this.last;
+    }
+
+    // streams the changes after the given sequence, or only new ones when after is null,
+    // to the sink until the subscription is cancelled or a send fails
+    public Subscription subscribe(Long after, Sink sink) throws RejectedExecutionException {
+        if (this.subscribers.incrementAndGet() > this.maxSubscribers) {
+            this.subscribers.decrementAndGet();
+            throw new RejectedExecutionException("Change feed has " + this.maxSubscribers + " subscribers");
+        }
+        if (this.closed) {
+            this.subscribers.decrementAndGet();
+            throw new RejectedExecutionException("Change feed is closed");
+        }
+        Subscription subscription = new Subscription(sink);
+        long newest = this.last;
+        if (after == null) {
+            subscription.cursor = newest;
+        } else if (after < oldest(newest) - 1 || after > newest) {
+            subscription.reset = true;
+            subscription.cursor = newest;
+        } else {
+            subscription.cursor = after;
+        }
+        subscription.thread = Thread.ofVirtual().name("music-feed").unstarted(subscription::run);
+        this.active.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    // number of open subscriptions
+    public int subscribers() {
+        return this.subscribers.get();
+    }
+
+    // ends every subscription
+    @PreDestroy
+    public void close() {
+        this.closed = true;
+        LockSupport.unpark(this.notifier);
+        for (Subscription subscription : this.active) {
+            subscription.thread.interrupt();
+        }
+    }
+
+    // wakes every subscription once the newest sequence moved, writes made while it does
+    // so are covered by the next round
+    private void notifySubscribers() {
+        long notified = this.epoch;
+        while (!this.closed) {
+            long newest = this.last;
+            if (newest == notified) {
+                LockSupport.park(this);
+                continue;
+            }
+            notified = newest;
+            for (Subscription subscription : this.active) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+    }
+
+    // oldest sequence still in the ring when newest is the newest
+    private long oldest(long newest) {
+        return Math.max(this.epoch + 1, newest - this.ring.length + 1);
+    }
+
+    private int slot(long sequence) {
+        return (int) Math.floorMod(sequence, (long) this.ring.length);
+    }
+
+    // one subscriber's cursor into the ring
+    public final class Subscription {
+        private final Sink sink;
+        // sequence of the last change sent, only used by the subscription's thread
+        private long cursor;
+        private boolean reset;
+        private volatile boolean cancelled;
+        private Thread thread;
+
+        private Subscription(Sink sink) {
+            this.sink = sink;
+        }
+
+        // stops the subscription, e.g. once the client has gone
+        public void cancel() {
+            this.cancelled = true;
+            LockSupport.unpark(this.thread);
+        }
+
+        private void run() {
+            boolean failed = false;
+            try {
+                List<MusicChange> batch = new ArrayList<>(BATCH);
+                while (!this.cancelled) {
+                    batch.clear();
+                    if (!next(batch)) {
+                        break;
+                    }
+                    if (batch.isEmpty()) {
+                        this.sink.heartbeat();
+                    }
+                    for (MusicChange change : batch) {
+                        this.sink.send(change);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                failed = true;
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            } finally {
+                subscribers.decrementAndGet();
+                active.remove(this);
+                if (failed || !this.cancelled) {
+                    this.sink.complete();
+                }
+            }
+        }
+
+        // waits up to a heartbeat for changes past the cursor and copies them into the
+        // batch, which stays empty when none came; false once the feed or subscription ends
+        private boolean next(List<MusicChange> batch) throws InterruptedException {
+            long deadline = System.nanoTime() + heartbeat.toNanos();
+            while (this.cursor == last && !this.reset && !this.cancelled && !closed) {
+                long nanos = deadline - System.nanoTime();
+                if (nanos <= 0) {
+                    break;
+                }
+                LockSupport.parkNanos(this, nanos);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            if (this.cancelled || closed) {
+                return false;
+            }
+            long newest = last;
+            if (this.reset || this.cursor < oldest(newest) - 1) {
+                // missed changes the ring no longer holds, start again from the newest
+                this.reset = false;
+                this.cursor = newest;
+                batch.add(MusicChange.reset(newest));
+                return true;
+            }
+            while (this.cursor < newest && batch.size() < BATCH) {
+                MusicChange change = ring[slot(this.cursor + 1)];
+                if (change.sequence() != this.cursor + 1) {
+                    // writers lapped the ring while it was read, reset on the next turn
+                    this.reset = true;
+                    break;
+                }
+                this.cursor++;
+                batch.add(change);
+            }
+            return true;
+        }
+    }
+
+}
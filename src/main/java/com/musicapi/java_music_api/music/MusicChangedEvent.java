@@ -0,0 +1,23 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.UUID;
+
+// published by MusicService after every write, previous is null on create and
+// current is null on delete; both are detached snapshots that listeners may keep. The
+// events of one song are published in version order, see MusicWriteLocks
+public record MusicChangedEvent(Music previous, Music current) {
+    // order of listeners keeping in-memory read models, they run before MusicVersion moves on
+    public static final int READ_MODEL_ORDER = 0;
+
+    // id of the changed song
+    public UUID id() {
+        return this.current != null ? this.current.getId() : this.previous.getId();
+    }
+
+    // whether the write is newer than the state of the song a listener holds, null when
+    // it holds none; a delete always is
+    public boolean isNewerThan(Music held) {
+        return held == null || this.current == null || this.current.getVersion() > held.getVersion();
+    }
+
+}
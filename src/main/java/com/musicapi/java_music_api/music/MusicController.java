@@ -1,49 +1,207 @@
 package com.musicapi.java_music_api.music;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
 import jakarta.persistence.OptimisticLockException;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/music")
 public class MusicController {
     private MusicService musicService;
+    private MusicExporter musicExporter;
+    private MusicBulkService musicBulkService;
+    private MusicCache musicCache;
+    private MusicVersion musicVersion;
+    private MusicStatistics musicStatistics;
+    private MusicResponseCache musicResponseCache;
+    private MusicChangeFeed musicChangeFeed;
+    private MusicPlays musicPlays;
 
-    public MusicController(MusicService musicService) {
+    public MusicController(MusicService musicService, MusicExporter musicExporter,
+            MusicBulkService musicBulkService, MusicCache musicCache, MusicVersion musicVersion,
+            MusicStatistics musicStatistics, MusicResponseCache musicResponseCache,
+            MusicChangeFeed musicChangeFeed, MusicPlays musicPlays) {
         this.musicService = musicService;
+        this.musicExporter = musicExporter;
+        this.musicBulkService = musicBulkService;
+        this.musicCache = musicCache;
+        this.musicVersion = musicVersion;
+        this.musicStatistics = musicStatistics;
+        this.musicResponseCache = musicResponseCache;
+        this.musicChangeFeed = musicChangeFeed;
+        this.musicPlays = musicPlays;
     }
 
-    // get all controller
+    // get all controller, answers a matching If-None-Match with 304 before any query. The
+    // tag names the primary's catalog, so songs a replica answered with go untagged
     @GetMapping
-    public List<Music> getAllSongs() {
-        return this.musicService.getAllSongs();
+    public List<Music> getAllSongs(WebRequest request) {
+        String etag = etag(request);
+        if (holds(request, etag)) {
+            request.checkNotModified(etag);
+            return null;
+        }
+        List<Music> songs = this.musicService.getAllSongs();
+        tagUnlessReplica(request, etag);
+        return songs;
+    }
+
+    // get all controller for some fields, e.g. /music?fields=song,artist,energy selects only
+    // the id and those columns
+    @GetMapping(params = "fields")
+    public List<MusicProjection> getAllSongs(@RequestParam List<String> fields, WebRequest request) {
+        String etag = etag(request);
+        if (holds(request, etag)) {
+            request.checkNotModified(etag);
+            return null;
+        }
+        List<MusicProjection> songs = this.musicService.getAllSongs(fields(fields));
+        tagUnlessReplica(request, etag);
+        return songs;
+    }
+
+    // get page controller
+    @GetMapping("/page")
+    public MusicPage getSongPage(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + MusicService.DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            return this.musicService.getSongPage(cursor, limit);
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor or page size", iae);
+        }
+    }
+
+    // export controller, streams every song as one json object per line
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSongs() {
+        StreamingResponseBody body = outputStream -> this.musicExporter.export(outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // change feed controller, streams every create, update and delete as server-sent
+    // events named by the change and numbered by its sequence. A client resumes after the
+    // last sequence it saw through Last-Event-ID, as EventSource does on reconnecting, or
+    // ?after=; a reset event means it missed changes and should reload GET /music
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String after) {
+        Long resumeAfter = sequence(lastEventId != null ? lastEventId : after);
+        SseEmitter emitter = new SseEmitter();
+        MusicChangeFeed.Subscription subscription;
+        try {
+            subscription = this.musicChangeFeed.subscribe(resumeAfter, new MusicChangeFeed.Sink() {
+                @Override
+                public void send(MusicChange change) throws IOException {
+                    emitter.send(SseEmitter.event().id(Long.toString(change.sequence()))
+                            .name(change.type().eventName()).data(change, MediaType.APPLICATION_JSON));
+                }
+
+                @Override
+                public void heartbeat() throws IOException {
+                    emitter.send(SseEmitter.event().comment(""));
+                }
+
+                @Override
+                public void complete() {
+                    emitter.complete();
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many change feed subscribers", ree);
+        }
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
+    // song cache statistics controller
+    @GetMapping("/cache/stats")
+    public MusicCacheStats getCacheStats() {
+        return this.musicCache.stats();
     }
 
-    // get id controller
+    // catalog statistics controller, counts, averages and histograms of bpm, energy,
+    // danceability and duration overall, by decade and by genre, kept up to date in
+    // memory rather than grouped in the database
+    @GetMapping("/stats")
+    public MusicCatalogStats getCatalogStats(WebRequest request) {
+        if (request.checkNotModified(etag(request))) {
+            return null;
+        }
+        return this.musicStatistics.stats();
+    }
+
+    // get id controller, tagged with the song version; a cached song answers a matching
+    // If-None-Match with 304 without touching the database or serializing the body
     @GetMapping("/{id}")
-    public Music getSong(@PathVariable UUID id) {
+    public Music getSong(@PathVariable UUID id, WebRequest request) {
+        Music music;
+        try {
+            music = this.musicService.getSong(id);
+        } catch (NoSuchElementException nse) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Song not found", nse);
+        }
+        String etag = MusicFormat.accepted(request.getHeader(HttpHeaders.ACCEPT)).etag(MusicVersion.etag(music));
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return music;
+    }
+
+    // similar songs controller, e.g. /music/{id}/similar?k=10 for the songs nearest in bpm,
+    // energy, danceability, year and duration
+    @GetMapping("/{id}/similar")
+    public List<Music> getSimilarSongs(@PathVariable UUID id,
+            @RequestParam(defaultValue = "" + MusicService.DEFAULT_SIMILAR_SIZE) int k, WebRequest request) {
+        if (request.checkNotModified(etag(request))) {
+            return null;
+        }
         try {
-            return this.musicService.getSong(id);
+            return this.musicService.getSimilarSongs(id, k);
         } catch (NoSuchElementException nse) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Song not found", nse);
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid k or song without audio features", iae);
         }
     }
 
@@ -57,36 +215,315 @@ public class MusicController {
         }
     }
 
-    // update song controller
+    // bulk create controller, takes a json array or newline-delimited json and reports
+    // every item, 207 when some of them were rejected
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<MusicBulkResult> createSongs(InputStream body,
+            @RequestParam(required = false) Integer chunkSize) throws IOException {
+        try {
+            MusicBulkResult result = this.musicBulkService.createSongs(body, chunkSize);
+            return new ResponseEntity<MusicBulkResult>(result,
+                    result.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid data included", e);
+        }
+    }
+
+    // play controller, counts one play of the song in memory; the count reaches the
+    // database and the most played ranking with the next flush
+    @PostMapping("/{id}/plays")
+    public ResponseEntity<Void> recordPlay(@PathVariable UUID id) {
+        if (!this.musicPlays.record(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Song not found");
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    // batch play controller, takes a json array of song ids with one entry per play
+    @PostMapping("/plays")
+    public ResponseEntity<MusicPlayResult> recordPlays(@RequestBody List<UUID> ids) {
+        return ResponseEntity.accepted().body(this.musicPlays.record(ids));
+    }
+
+    // update song controller, If-Match makes the write conditional on the song version
     @PutMapping("/{id}")
-    public Music updateSong(@PathVariable UUID id, @RequestBody Music music) {
+    public ResponseEntity<Music> updateSong(@PathVariable UUID id, @RequestBody Music music,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Long expectedVersion = expectedVersion(ifMatch);
         try {
-            return this.musicService.updateSong(id, music);
+            return tagged(this.musicService.updateSong(id, music, expectedVersion), accept);
         } catch (NoSuchElementException nse) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        } catch (OptimisticLockException ole) {
+            throw preconditionFailed(expectedVersion, ole);
+        }
+    }
+
+    // patch song controller, json merge patch of only the fields that change
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE })
+    public ResponseEntity<Music> patchSong(@PathVariable UUID id, @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Long expectedVersion = expectedVersion(ifMatch);
+        try {
+            return tagged(this.musicService.patchSong(id, patch, expectedVersion), accept);
+        } catch (NoSuchElementException nse) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid data included", iae);
+        } catch (OptimisticLockException ole) {
+            throw preconditionFailed(expectedVersion, ole);
         }
     }
 
     // delete song controller
     @DeleteMapping("/{id}")
-    public void deleteSong(@PathVariable UUID id) {
+    public void deleteSong(@PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = expectedVersion(ifMatch);
         try {
-            this.musicService.deleteSong(id);
+            this.musicService.deleteSong(id, expectedVersion);
         } catch (NoSuchElementException nse) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        } catch (OptimisticLockException ole) {
+            throw preconditionFailed(expectedVersion, ole);
+        }
+    }
+
+    // catalog entity tag of the format the request accepts, read it before loading the body
+    private String etag(WebRequest request) {
+        return MusicFormat.accepted(request.getHeader(HttpHeaders.ACCEPT)).etag(this.musicVersion.etag());
+    }
+
+    // whether If-None-Match names the tag, without tagging the response as
+    // checkNotModified does
+    private static boolean holds(WebRequest request, String etag) {
+        String[] ifNoneMatch = request.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        for (String header : ifNoneMatch) {
+            for (ETag held : ETag.parse(header)) {
+                if (held.isWildcard() || held.compare(current, false)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // tag songs the primary answered with, a replica may not have the catalog the tag names
+    private static void tagUnlessReplica(WebRequest request, String etag) {
+        if (!MusicReplicas.fromReplica()) {
+            request.checkNotModified(etag);
+        }
+    }
+
+    // version named by If-Match, a tag that cannot match fails the precondition
+    private static Long expectedVersion(String ifMatch) {
+        try {
+            return MusicVersion.expectedVersion(ifMatch);
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match", iae);
         }
     }
 
-    // high danceability controller
+    // a conditional write lost to a newer version is 412, an unconditional one that kept
+    // losing falls through to the 409 handler; no cause, that handler would match it
+    private static RuntimeException preconditionFailed(Long expectedVersion, OptimisticLockException ole) {
+        if (expectedVersion == null) {
+            return ole;
+        }
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match");
+    }
+
+    // written song with the new entity tag of the format it is answered in
+    private static ResponseEntity<Music> tagged(Music music, String accept) {
+        String etag = music == null ? null : MusicFormat.accepted(accept).etag(MusicVersion.etag(music));
+        return etag == null ? ResponseEntity.ok(music) : ResponseEntity.ok().eTag(etag).body(music);
+    }
+
+    // ranked query controller, e.g. /music/query?attribute=bpm&order=desc&min=100&max=140&limit=20,
+    // narrowed to genres with e.g. &genre=jazz&anyGenre=funk,soul&notGenre=pop
+    @GetMapping("/query")
+    public List<Music> getRankedSongs(@RequestParam String attribute,
+            @RequestParam(defaultValue = "desc") String order,
+            @RequestParam(required = false) Integer min,
+            @RequestParam(required = false) Integer max,
+            @RequestParam(required = false) List<String> genre,
+            @RequestParam(required = false) List<String> anyGenre,
+            @RequestParam(required = false) List<String> notGenre,
+            @RequestParam(defaultValue = "" + MusicService.DEFAULT_RANKING_SIZE) int limit) {
+        try {
+            return this.musicService.getRankedSongs(MusicAttribute.fromProperty(attribute),
+                    Sort.Direction.fromString(order), min, max, MusicGenreFilter.of(genre, anyGenre, notGenre),
+                    limit);
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid query parameters", iae);
+        }
+    }
+
+    // search controller, e.g. /music/search?q=love&prefix=true&limit=10, takes the genre
+    // parameters of the ranked query
+    @GetMapping("/search")
+    public List<Music> searchSongs(@RequestParam String q, @RequestParam(defaultValue = "false") boolean prefix,
+            @RequestParam(required = false) List<String> genre,
+            @RequestParam(required = false) List<String> anyGenre,
+            @RequestParam(required = false) List<String> notGenre,
+            @RequestParam(defaultValue = "" + MusicService.DEFAULT_RANKING_SIZE) int limit, WebRequest request) {
+        if (request.checkNotModified(etag(request))) {
+            return null;
+        }
+        try {
+            return this.musicService.searchSongs(q, prefix, MusicGenreFilter.of(genre, anyGenre, notGenre), limit);
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search", iae);
+        }
+    }
+
+    // genre facets controller, e.g. /music/genres?genre=jazz&notGenre=pop counts the
+    // matching songs and how many of them carry each genre
+    @GetMapping("/genres")
+    public MusicGenreFacets getGenreFacets(@RequestParam(required = false) List<String> genre,
+            @RequestParam(required = false) List<String> anyGenre,
+            @RequestParam(required = false) List<String> notGenre, WebRequest request) {
+        if (request.checkNotModified(etag(request))) {
+            return null;
+        }
+        try {
+            return this.musicService.getGenreFacets(MusicGenreFilter.of(genre, anyGenre, notGenre));
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid genre filter", iae);
+        }
+    }
+
+    // playlist controller, e.g. /music/playlist?duration=3600&shape=ramp,plateau,cooldown
+    // &minEnergy=30&maxEnergy=90&maxBpmDelta=8 for an hour of songs whose energy follows
+    // the shape, adjacent songs at most maxBpmDelta bpm apart; takes the genre parameters
+    // of the ranked query and budgetMs for the time spent searching. The playlist is
+    // randomized, so it carries no ETag
+    @GetMapping("/playlist")
+    public MusicPlaylist generatePlaylist(@RequestParam int duration,
+            @RequestParam(required = false) List<String> shape,
+            @RequestParam(defaultValue = "20") int minEnergy,
+            @RequestParam(defaultValue = "90") int maxEnergy,
+            @RequestParam(defaultValue = "8") int maxBpmDelta,
+            @RequestParam(required = false) List<String> genre,
+            @RequestParam(required = false) List<String> anyGenre,
+            @RequestParam(required = false) List<String> notGenre,
+            @RequestParam(required = false) Long budgetMs) {
+        try {
+            return this.musicService.generatePlaylist(MusicPlaylistRequest.of(duration, shape, minEnergy, maxEnergy,
+                    maxBpmDelta, MusicGenreFilter.of(genre, anyGenre, notGenre),
+                    budgetMs == null ? null : Duration.ofMillis(budgetMs)));
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid playlist parameters", iae);
+        }
+    }
+
+    // high danceability controller, answered from the response cache
     @GetMapping("/highdanceability")
-    public List<Music> getHighDanceabilitySongs() {
-        return this.musicService.getHighDanceabilitySongs();
+    public void getHighDanceabilitySongs(
+            @RequestParam(defaultValue = "" + MusicService.DEFAULT_RANKING_SIZE) int limit, WebRequest request,
+            HttpServletResponse response) throws IOException {
+        writeRanking(MusicResponseCache.Ranking.HIGH_DANCEABILITY, limit, request, response);
     }
 
-    // low energy controller
+    // low energy controller, answered from the response cache
     @GetMapping("/lowenergy")
-    public List<Music> getLowEnergySongs() {
-        return this.musicService.getLowEnergySongs();
+    public void getLowEnergySongs(
+            @RequestParam(defaultValue = "" + MusicService.DEFAULT_RANKING_SIZE) int limit, WebRequest request,
+            HttpServletResponse response) throws IOException {
+        writeRanking(MusicResponseCache.Ranking.LOW_ENERGY, limit, request, response);
+    }
+
+    // most played controller, e.g. /music/mostplayed?limit=10, as of the last flush
+    @GetMapping("/mostplayed")
+    public List<MusicPlayed> getMostPlayedSongs(
+            @RequestParam(defaultValue = "" + MusicService.DEFAULT_RANKING_SIZE) int limit) {
+        try {
+            return this.musicPlays.mostPlayed(limit);
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid limit", iae);
+        }
+    }
+
+    // high danceability controller for some fields, e.g. ?fields=song,artist,danceability
+    @GetMapping(value = "/highdanceability", params = "fields")
+    public List<MusicProjection> getHighDanceabilitySongs(@RequestParam List<String> fields,
+            @RequestParam(defaultValue = "" + MusicService.DEFAULT_RANKING_SIZE) int limit, WebRequest request) {
+        if (request.checkNotModified(etag(request))) {
+            return null;
+        }
+        Set<MusicField> projected = fields(fields);
+        try {
+            return this.musicService.getHighDanceabilitySongs(limit, projected);
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid limit", iae);
+        }
+    }
+
+    // low energy controller for some fields, e.g. ?fields=song,artist,energy
+    @GetMapping(value = "/lowenergy", params = "fields")
+    public List<MusicProjection> getLowEnergySongs(@RequestParam List<String> fields,
+            @RequestParam(defaultValue = "" + MusicService.DEFAULT_RANKING_SIZE) int limit, WebRequest request) {
+        if (request.checkNotModified(etag(request))) {
+            return null;
+        }
+        Set<MusicField> projected = fields(fields);
+        try {
+            return this.musicService.getLowEnergySongs(limit, projected);
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid limit", iae);
+        }
+    }
+
+    // writes the cached body of a ranking as it is, gzip-compressed when the client takes it
+    private void writeRanking(MusicResponseCache.Ranking ranking, int limit, WebRequest request,
+            HttpServletResponse response) throws IOException {
+        MusicFormat format = MusicFormat.accepted(request.getHeader(HttpHeaders.ACCEPT));
+        MusicResponseCache.Body body;
+        try {
+            body = this.musicResponseCache.body(ranking, limit, format);
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid limit", iae);
+        }
+        // the gzip body is another representation, so it has its own tag
+        boolean gzip = MusicResponseCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (request.checkNotModified(gzip ? body.gzipEtag() : body.etag())) {
+            return;
+        }
+        byte[] bytes = gzip ? body.gzip() : body.raw();
+        response.setContentType(format.mediaType().toString());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    // change feed sequence to resume after, null for none
+    private static Long sequence(String sequence) {
+        if (sequence == null || sequence.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(sequence.trim());
+        } catch (NumberFormatException nfe) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid change sequence", nfe);
+        }
+    }
+
+    // fields named by the fields parameter
+    private static Set<MusicField> fields(List<String> fields) {
+        try {
+            return MusicProjection.fields(fields);
+        } catch (IllegalArgumentException iae) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid fields", iae);
+        }
     }
 
     // exception to handle incorrect indentity format
@@ -103,6 +540,14 @@ public class MusicController {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    // exception to handle a saturated connection pool: a request that waited the pool's
+    // connection-timeout is shed with 503 so clients back off, rather than queueing more
+    @ExceptionHandler({ CannotCreateTransactionException.class, DataAccessResourceFailureException.class })
+    public ResponseEntity<String> handleUnavailable(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Service busy: Retry shortly.");
+    }
+
     // exception to handle data conflict
     @ExceptionHandler(OptimisticLockException.class)
     public ResponseEntity<String> handleOptimisticLockException(OptimisticLockException ole) {
@@ -0,0 +1,116 @@
+package com.musicapi.java_music_api.music;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// reads songs from RFC 4180 csv with a header row naming the Music fields
+// (song, artist, year, genre, description, duration_sec, bpm, energy, danceability)
+public class MusicCsvReader implements Iterator<Music>, Closeable {
+    private final Reader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private List<String> next;
+    private long line;
+
+    public MusicCsvReader(Reader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IOException("Seed file is empty");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            this.columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+        this.next = readRecord();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.next != null;
+    }
+
+    @Override
+    public Music next() {
+        if (this.next == null) {
+            throw new NoSuchElementException();
+        }
+        List<String> record = this.next;
+        try {
+            Music music = new Music(text(record, "song"), text(record, "artist"), number(record, "year"),
+                    text(record, "genre"), text(record, "description"), number(record, "duration_sec"),
+                    number(record, "bpm"), number(record, "energy"), number(record, "danceability"));
+            this.next = readRecord();
+            return music;
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("Invalid number on line " + this.line, nfe);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    private String text(List<String> record, String column) {
+        Integer index = this.columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private Integer number(List<String> record, String column) {
+        String value = text(record, column);
+        return value == null ? null : Integer.valueOf(value.trim());
+    }
+
+    // next record, quoted fields may hold commas, doubled quotes and line breaks
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        int c;
+        while ((c = this.reader.read()) != -1) {
+            empty = false;
+            if (quoted) {
+                if (c == '"') {
+                    this.reader.mark(1);
+                    if (this.reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        this.reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (empty) {
+            return null;
+        }
+        this.line++;
+        fields.add(field.toString());
+        return fields;
+    }
+
+}
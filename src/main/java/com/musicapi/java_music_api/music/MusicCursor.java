@@ -0,0 +1,37 @@
+package com.musicapi.java_music_api.music;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.UUID;
+
+// opaque pagination cursor, the url-safe base64 encoding of the last song id in a page
+public final class MusicCursor {
+    // orders ids the way the database orders their binary(16) column, unsigned byte by byte
+    public static final Comparator<UUID> ID_ORDER = (a, b) -> {
+        int most = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return most != 0 ? most : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+
+    private MusicCursor() {
+    }
+
+    // encode song id as cursor
+    public static String encode(UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    // decode cursor back into song id
+    public static UUID decode(String cursor) throws IllegalArgumentException {
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+}
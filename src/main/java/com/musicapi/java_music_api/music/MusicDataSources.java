@@ -0,0 +1,121 @@
+package com.musicapi.java_music_api.music;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.util.WebUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Read replicas, when music.datasource.replica-urls lists any: the DataSource becomes a
+// MusicReplicaDataSource over the spring.datasource pool and one pool per replica, with
+// the same credentials and spring.datasource.hikari settings. A request that writes
+// gets a cookie that keeps the client's reads on the primary for read-your-writes, so
+// it sees its own write however far the replicas lag.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("music.datasource.replica-urls")
+public class MusicDataSources implements WebMvcConfigurer {
+    static final String WRITTEN_COOKIE = "music-written";
+
+    private final Duration readYourWrites;
+
+    public MusicDataSources(@Value("${music.datasource.read-your-writes:5s}") Duration readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Bean
+    MusicReplicaDataSource dataSource(DataSourceProperties properties, Environment environment,
+            @Value("${music.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${music.datasource.replica-retry:10s}") Duration replicaRetry,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary = pool(properties, environment, properties.determineUrl());
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = pool(properties, environment, replicaUrls.get(i).trim());
+            replica.setPoolName((primary.getPoolName() == null ? "music" : primary.getPoolName()) + "-replica-" + i);
+            // the primary's pool metrics come from Spring Boot, the replicas' are added here
+            meterRegistry.ifAvailable(registry -> replica
+                    .setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replica);
+        }
+        return new MusicReplicaDataSource(primary, replicas, replicaRetry, Clock.systemUTC());
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String url) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        return pool;
+    }
+
+    // a write marks the client as having written; the mark keeps its reads on the
+    // primary while it is younger than read-your-writes. Plays only reach the database
+    // with a later flush, so they do not count as writes. Async requests (the export,
+    // the change feed) hand their thread back without afterCompletion, so the thread is
+    // released from the primary when the async part starts as well
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                long now = System.currentTimeMillis();
+                if (!request.getMethod().equals("GET") && !request.getMethod().equals("HEAD")) {
+                    ResponseCookie written = ResponseCookie.from(WRITTEN_COOKIE, Long.toString(now))
+                            .path("/music").maxAge(readYourWrites.plusMillis(999).toSeconds()).httpOnly(true)
+                            .build();
+                    response.addHeader(HttpHeaders.SET_COOKIE, written.toString());
+                    MusicReplicas.stick();
+                } else if (wroteSince(WebUtils.getCookie(request, WRITTEN_COOKIE), now - readYourWrites.toMillis())) {
+                    MusicReplicas.stick();
+                }
+                return true;
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                    Object handler) {
+                MusicReplicas.unstick();
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                    Exception ex) {
+                MusicReplicas.unstick();
+            }
+        }).addPathPatterns("/music/**").excludePathPatterns("/music/plays", "/music/*/plays");
+    }
+
+    private static boolean wroteSince(Cookie written, long since) {
+        if (written == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(written.getValue()) >= since;
+        } catch (NumberFormatException nfe) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.musicapi.java_music_api.music;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.persistence.EntityManager;
+
+// streams the whole catalog as newline-delimited json without holding it in memory
+@Component
+public class MusicExporter {
+    private static final byte NEWLINE = '\n';
+
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+    private final int fetchSize;
+
+    public MusicExporter(EntityManager entityManager, ObjectMapper objectMapper,
+            @Value("${music.export.fetch-size:1000}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.writer = objectMapper.writerFor(Music.class);
+        this.fetchSize = fetchSize;
+    }
+
+    // export service, reads a forward-only cursor and detaches every row once written; on
+    // MySQL the cursor needs useCursorFetch=true, set in application.properties
+    @Transactional(readOnly = true)
+    public long export(OutputStream outputStream) throws IOException {
+        BufferedOutputStream out = new BufferedOutputStream(outputStream);
+        long rows = 0;
+
+        try (Stream<Music> songs = this.entityManager.createQuery("SELECT m FROM Music m", Music.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, this.fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            Iterator<Music> iterator = songs.iterator();
+            while (iterator.hasNext()) {
+                Music music = iterator.next();
+                out.write(this.writer.writeValueAsBytes(music));
+                out.write(NEWLINE);
+                this.entityManager.detach(music);
+                rows++;
+            }
+        }
+
+        out.flush();
+        return rows;
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// writable song fields, by json property and entity attribute name
+public enum MusicField {
+    SONG("song", "song", String.class, Music::getSong, (music, value) -> music.setSong((String) value)),
+    ARTIST("artist", "artist", String.class, Music::getArtist, (music, value) -> music.setArtist((String) value)),
+    YEAR("year", "year", Integer.class, Music::getYear, (music, value) -> music.setYear((Integer) value)),
+    GENRE("genre", "genre", String.class, Music::getGenre, (music, value) -> music.setGenre((String) value)),
+    DESCRIPTION("description", "description", String.class, Music::getDescription,
+            (music, value) -> music.setDescription((String) value)),
+    DURATION_SEC("durationSec", "duration_sec", Integer.class, Music::getDurationSec,
+            (music, value) -> music.setDurationSec((Integer) value)),
+    BPM("bpm", "bpm", Integer.class, Music::getBpm, (music, value) -> music.setBpm((Integer) value)),
+    ENERGY("energy", "energy", Integer.class, Music::getEnergy, (music, value) -> music.setEnergy((Integer) value)),
+    DANCEABILITY("danceability", "danceability", Integer.class, Music::getDanceability,
+            (music, value) -> music.setDanceability((Integer) value));
+
+    private final String property;
+    private final String attribute;
+    private final Class<?> type;
+    private final Function<Music, Object> getter;
+    private final BiConsumer<Music, Object> setter;
+
+    MusicField(String property, String attribute, Class<?> type, Function<Music, Object> getter,
+            BiConsumer<Music, Object> setter) {
+        this.property = property;
+        this.attribute = attribute;
+        this.type = type;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    // json property name
+    public String property() {
+        return this.property;
+    }
+
+    // entity attribute name
+    public String attribute() {
+        return this.attribute;
+    }
+
+    // value type, String or Integer
+    public Class<?> type() {
+        return this.type;
+    }
+
+    public Object get(Music music) {
+        return this.getter.apply(music);
+    }
+
+    public void set(Music music, Object value) {
+        this.setter.accept(music, value);
+    }
+
+    // look field up by its json property name
+    public static MusicField fromProperty(String property) throws IllegalArgumentException {
+        for (MusicField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field " + property);
+    }
+
+}
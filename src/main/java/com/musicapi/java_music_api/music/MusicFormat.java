@@ -0,0 +1,82 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+// Formats a song or list of songs can be read and written in. CBOR and Smile write the
+// numbers and ids in binary; their bodies differ byte for byte from the JSON ones, so
+// they carry their own entity tags, the JSON tag with the format appended.
+public enum MusicFormat {
+    JSON(MediaType.APPLICATION_JSON, ""),
+    CBOR(MediaType.APPLICATION_CBOR, "+cbor"),
+    SMILE(new MediaType("application", "x-jackson-smile"), "+smile");
+
+    private static final String GZIP_SUFFIX = "-gz";
+
+    private final MediaType mediaType;
+    private final String suffix;
+
+    MusicFormat(MediaType mediaType, String suffix) {
+        this.mediaType = mediaType;
+        this.suffix = suffix;
+    }
+
+    public MediaType mediaType() {
+        return this.mediaType;
+    }
+
+    // format the Accept header prefers, JSON when it is missing, takes any of them or
+    // cannot be read
+    public static MusicFormat accepted(String accept) {
+        // the usual headers, without parsing
+        if (accept == null || accept.isBlank() || accept.equals(MediaType.ALL_VALUE)
+                || accept.equals(MediaType.APPLICATION_JSON_VALUE)) {
+            return JSON;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+            // higher quality first
+            MimeTypeUtils.sortBySpecificity(mediaTypes);
+        } catch (IllegalArgumentException iae) {
+            return JSON;
+        }
+        for (MediaType mediaType : mediaTypes) {
+            for (MusicFormat format : values()) {
+                if (mediaType.includes(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+
+    // entity tag of this format's representation, null for a null tag
+    public String etag(String tag) {
+        if (tag == null || this.suffix.isEmpty()) {
+            return tag;
+        }
+        return tag.substring(0, tag.length() - 1) + this.suffix + "\"";
+    }
+
+    // entity tag of the gzip coding of a representation, which is a different one
+    public static String gzip(String tag) {
+        return tag.substring(0, tag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    // JSON entity tag of any format's tag, in either coding
+    public static String plain(String tag) {
+        if (tag.endsWith(GZIP_SUFFIX + "\"")) {
+            tag = tag.substring(0, tag.length() - GZIP_SUFFIX.length() - 1) + "\"";
+        }
+        for (MusicFormat format : values()) {
+            if (!format.suffix.isEmpty() && tag.endsWith(format.suffix + "\"")) {
+                return tag.substring(0, tag.length() - format.suffix.length() - 1) + "\"";
+            }
+        }
+        return tag;
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.Map;
+
+// number of songs matching a genre filter and how many of them carry each genre
+public record MusicGenreFacets(int count, Map<String, Integer> genres) {
+}
@@ -0,0 +1,36 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// genre filter of a request: songs tagged with all of all, at least one of any when any
+// is not empty, and none of none; tags normalized like MusicGenreIndex.tags
+public record MusicGenreFilter(Set<String> all, Set<String> any, Set<String> none) {
+    public static final int MAX_TAGS = 32;
+    public static final MusicGenreFilter NONE = new MusicGenreFilter(Set.of(), Set.of(), Set.of());
+
+    // filter from request parameters, each of them null or a list of comma separated genres
+    public static MusicGenreFilter of(Collection<String> all, Collection<String> any, Collection<String> none)
+            throws IllegalArgumentException {
+        MusicGenreFilter filter = new MusicGenreFilter(normalize(all), normalize(any), normalize(none));
+        if (filter.all.size() + filter.any.size() + filter.none.size() > MAX_TAGS) {
+            throw new IllegalArgumentException("Filter must name at most " + MAX_TAGS + " genres");
+        }
+        return filter;
+    }
+
+    // true when the filter lets every song through
+    public boolean isEmpty() {
+        return this.all.isEmpty() && this.any.isEmpty() && this.none.isEmpty();
+    }
+
+    private static Set<String> normalize(Collection<String> genres) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (genres != null) {
+            genres.forEach(genre -> tags.addAll(MusicGenreIndex.tags(genre)));
+        }
+        return Set.copyOf(tags);
+    }
+
+}
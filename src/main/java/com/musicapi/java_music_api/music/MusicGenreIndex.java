@@ -0,0 +1,258 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.springframework.data.domain.Sort;
+
+// genre tags of the catalog, one compressed bitmap of document numbers per tag. The
+// ranked attributes are kept per document too, so a genre filter is ranked and range
+// filtered without the database, in time following the size of the bitmaps. A song
+// keeps its document number for as long as it exists and a deleted song's number is
+// reused by the next one added, so the columns follow the size of the catalog rather
+// than the number of songs ever added. Not thread-safe, see MusicGenres.
+public class MusicGenreIndex {
+    // attribute column value of a song without that attribute
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+
+    private final Map<UUID, Integer> documents = new HashMap<>();
+    private final TreeMap<String, MusicBitmap> tags = new TreeMap<>();
+    // every tag ever seen gets a number, for counting by document
+    private final Map<String, Integer> tagIds = new HashMap<>();
+    private final List<String> tagNames = new ArrayList<>();
+    private final MusicBitmap live = new MusicBitmap();
+    private UUID[] ids = new UUID[16];
+    private int[][] documentTags = new int[16][];
+    private int[][] attributes = new int[MusicAttribute.values().length][16];
+    private int maxDocument;
+    private int[] free = new int[16];
+    private int freeCount;
+
+    // number of songs in the index
+    public int size() {
+        return this.documents.size();
+    }
+
+    // add the song, replacing whatever was indexed for its id
+    public void put(Music music) {
+        Integer existing = this.documents.get(music.getId());
+        int document;
+        if (existing != null) {
+            document = existing;
+            untag(document);
+        } else if (this.freeCount > 0) {
+            document = this.free[--this.freeCount];
+            this.ids[document] = music.getId();
+            this.documents.put(music.getId(), document);
+            this.live.add(document);
+        } else {
+            document = this.maxDocument++;
+            if (document == this.ids.length) {
+                int capacity = document + (document >> 1);
+                this.ids = Arrays.copyOf(this.ids, capacity);
+                this.documentTags = Arrays.copyOf(this.documentTags, capacity);
+                for (int attribute = 0; attribute < this.attributes.length; attribute++) {
+                    this.attributes[attribute] = Arrays.copyOf(this.attributes[attribute], capacity);
+                }
+            }
+            this.ids[document] = music.getId();
+            this.documents.put(music.getId(), document);
+            this.live.add(document);
+        }
+
+        Set<String> tags = tags(music.getGenre());
+        this.documentTags[document] = new int[tags.size()];
+        int n = 0;
+        for (String tag : tags) {
+            this.tags.computeIfAbsent(tag, t -> new MusicBitmap()).add(document);
+            this.documentTags[document][n++] = this.tagIds.computeIfAbsent(tag, t -> {
+                this.tagNames.add(t);
+                return this.tagNames.size() - 1;
+            });
+        }
+        for (MusicAttribute attribute : MusicAttribute.values()) {
+            Integer value = attribute.valueOf(music);
+            this.attributes[attribute.ordinal()][document] = value == null ? NO_VALUE : value;
+        }
+    }
+
+    // drop the song, if it is indexed
+    public void remove(UUID id) {
+        Integer document = this.documents.remove(id);
+        if (document != null) {
+            untag(document);
+            this.live.remove(document);
+            this.ids[document] = null;
+            if (this.freeCount == this.free.length) {
+                this.free = Arrays.copyOf(this.free, this.freeCount * 2);
+            }
+            this.free[this.freeCount++] = document;
+        }
+    }
+
+    // document number of the song, null when it is not indexed
+    public Integer document(UUID id) {
+        return this.documents.get(id);
+    }
+
+    // whether the song is indexed and matches the filter, see match
+    public boolean matches(UUID id, MusicGenreFilter filter) {
+        Integer document = this.documents.get(id);
+        if (document == null) {
+            return false;
+        }
+        for (String tag : filter.all()) {
+            if (!tagged(document, tag)) {
+                return false;
+            }
+        }
+        if (!filter.any().isEmpty() && filter.any().stream().noneMatch(tag -> tagged(document, tag))) {
+            return false;
+        }
+        for (String tag : filter.none()) {
+            if (tagged(document, tag)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // songs matching the filter: every tag of all, one of any and none of none. The
+    // rarest required tag is intersected first, an unknown required tag matches nothing
+    public MusicBitmap match(MusicGenreFilter filter) {
+        List<MusicBitmap> required = new ArrayList<>();
+        for (String tag : filter.all()) {
+            required.add(this.tags.getOrDefault(tag, new MusicBitmap()));
+        }
+        required.sort(Comparator.comparingInt(MusicBitmap::cardinality));
+
+        MusicBitmap matched = required.isEmpty() ? this.live : required.get(0);
+        for (int i = 1; i < required.size(); i++) {
+            matched = MusicBitmap.and(matched, required.get(i));
+        }
+        if (!filter.any().isEmpty()) {
+            MusicBitmap any = new MusicBitmap();
+            for (String tag : filter.any()) {
+                any = MusicBitmap.or(any, this.tags.getOrDefault(tag, new MusicBitmap()));
+            }
+            matched = MusicBitmap.and(matched, any);
+        }
+        for (String tag : filter.none()) {
+            MusicBitmap excluded = this.tags.get(tag);
+            if (excluded != null) {
+                matched = MusicBitmap.andNot(matched, excluded);
+            }
+        }
+        // never hand out the index's own bitmaps
+        return matched == this.live || required.size() == 1 && matched == required.get(0)
+                ? matched.copy()
+                : matched;
+    }
+
+    // number of matched songs per tag, most common first, tags without any left out. The
+    // matched songs' own tags are counted, rather than intersecting every tag's bitmap,
+    // so the cost follows the number of matches and not the number of tags
+    public Map<String, Integer> facets(MusicBitmap matched) {
+        int[] counts = new int[this.tagNames.size()];
+        if (matched.cardinality() == this.documents.size()) {
+            // every song matched, the counts are the tags' own
+            this.tags.forEach((tag, bitmap) -> counts[this.tagIds.get(tag)] = bitmap.cardinality());
+        } else {
+            matched.forEach(document -> {
+                for (int tag : this.documentTags[document]) {
+                    counts[tag]++;
+                }
+            });
+        }
+
+        List<Map.Entry<String, Integer>> facets = new ArrayList<>();
+        for (int tag = 0; tag < counts.length; tag++) {
+            if (counts[tag] > 0) {
+                facets.add(Map.entry(this.tagNames.get(tag), counts[tag]));
+            }
+        }
+        facets.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        facets.forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    // ids of the best limit matched songs by the attribute within the optional bounds,
+    // in the order of MusicSpecifications.orderedBy
+    public List<UUID> rank(MusicBitmap matched, MusicAttribute attribute, Sort.Direction direction, Integer min,
+            Integer max, int limit) {
+        int[] column = this.attributes[attribute.ordinal()];
+        Comparator<Integer> order = Comparator.<Integer>comparingInt(document -> column[document])
+                .thenComparing(document -> this.ids[document], MusicCursor.ID_ORDER);
+        if (direction.isDescending()) {
+            order = order.reversed();
+        }
+
+        // worst of the best first
+        Comparator<Integer> best = order;
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1, order.reversed());
+        // songs without the attribute are never in range
+        int low = Math.max(min == null ? NO_VALUE : min, NO_VALUE + 1);
+        int high = max == null ? Integer.MAX_VALUE : max;
+        matched.forEach(document -> {
+            int value = column[document];
+            if (value < low || value > high) {
+                return;
+            }
+            if (top.size() < limit) {
+                top.add(document);
+            } else if (best.compare(document, top.peek()) < 0) {
+                top.poll();
+                top.add(document);
+            }
+        });
+        List<Integer> ranked = new ArrayList<>(top);
+        ranked.sort(order);
+        return ranked.stream().map(document -> this.ids[document]).toList();
+    }
+
+    // normalized genre tags: the comma separated parts, trimmed, lower case and with
+    // runs of white space made one space
+    public static Set<String> tags(String genre) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (genre == null) {
+            return tags;
+        }
+        for (String part : genre.split(",")) {
+            String tag = part.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            if (!tag.isEmpty()) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    private boolean tagged(int document, String tag) {
+        MusicBitmap bitmap = this.tags.get(tag);
+        return bitmap != null && bitmap.contains(document);
+    }
+
+    private void untag(int document) {
+        for (int id : this.documentTags[document]) {
+            String tag = this.tagNames.get(id);
+            MusicBitmap bitmap = this.tags.get(tag);
+            bitmap.remove(document);
+            if (bitmap.isEmpty()) {
+                this.tags.remove(tag);
+            }
+        }
+        this.documentTags[document] = null;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+
+// genre filters and facet counts over the catalog, see MusicReadModel
+@Component
+public class MusicGenres extends MusicReadModel<MusicGenreIndex> {
+
+    public MusicGenres(EntityManager entityManager, @Value("${music.export.fetch-size:1000}") int fetchSize) {
+        super(entityManager, fetchSize, new MusicGenreIndex());
+    }
+
+    // number of matching songs and their count per genre
+    public MusicGenreFacets facets(MusicGenreFilter filter) {
+        return read(index -> {
+            MusicBitmap matched = index.match(filter);
+            return new MusicGenreFacets(matched.cardinality(), index.facets(matched));
+        });
+    }
+
+    // ids of the best limit matching songs, see MusicGenreIndex.rank
+    public List<UUID> rank(MusicGenreFilter filter, MusicAttribute attribute, Sort.Direction direction, Integer min,
+            Integer max, int limit) {
+        return read(index -> index.rank(index.match(filter), attribute, direction, min, max, limit));
+    }
+
+    // test for songs matching the filter, for filtering other read models; each test
+    // takes the read lock and looks at the song as it is then
+    public Predicate<UUID> matcher(MusicGenreFilter filter) {
+        return id -> read(index -> index.matches(id, filter));
+    }
+
+    @Override
+    protected MusicGenreIndex build(Stream<Music> songs) {
+        MusicGenreIndex index = new MusicGenreIndex();
+        songs.forEach(index::put);
+        return index;
+    }
+
+    @Override
+    protected void apply(MusicGenreIndex index, Music previous, Music current) {
+        if (current == null) {
+            index.remove(previous.getId());
+        } else {
+            index.put(current);
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+// bounded, incrementally maintained top of the catalog for one ranking.
+// Invariant: every ranked song outside the board ranks no better than the last
+// member, so the members are always the true top of the catalog. Removing a member
+// shrinks the board, and a read asking for more than it holds reloads it. Guarded by a
+// lock rather than synchronized, since a reload queries the database while holding it
+// and a virtual thread blocking inside synchronized would pin its carrier.
+public class MusicLeaderboard {
+    private final Comparator<Music> order;
+    private final Predicate<Music> ranked;
+    private final IntFunction<List<Music>> loader;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<Music> entries;
+    private final Map<UUID, Music> members = new HashMap<>();
+    // true when the board holds every ranked song in the catalog
+    private boolean exhaustive;
+    private boolean loaded;
+
+    // order must be total, breaking ties by id the same way the loader's query does
+    public MusicLeaderboard(Comparator<Music> order, Predicate<Music> ranked, IntFunction<List<Music>> loader,
+            int capacity) {
+        this.order = order;
+        this.ranked = ranked;
+        this.loader = loader;
+        this.capacity = capacity;
+        this.entries = new TreeSet<>(this.order);
+    }
+
+    // largest number of songs the board can answer for
+    public int capacity() {
+        return this.capacity;
+    }
+
+    // replace the board with the current top of the database
+    public void reload() {
+        this.lock.lock();
+        try {
+            load();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void load() {
+        List<Music> top = this.loader.apply(this.capacity);
+        this.entries.clear();
+        this.members.clear();
+        for (Music music : top) {
+            Music snapshot = new Music(music);
+            this.entries.add(snapshot);
+            this.members.put(snapshot.getId(), snapshot);
+        }
+        this.exhaustive = top.size() < this.capacity;
+        this.loaded = true;
+    }
+
+    // best limit songs, reloading first when deletions or demotions shrank the board too far
+    public List<Music> top(int limit) {
+        if (limit < 1 || limit > this.capacity) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + this.capacity);
+        }
+        this.lock.lock();
+        try {
+            if (!this.loaded || (this.entries.size() < limit && !this.exhaustive)) {
+                load();
+            }
+
+            List<Music> top = new ArrayList<>(Math.min(limit, this.entries.size()));
+            Iterator<Music> iterator = this.entries.iterator();
+            while (iterator.hasNext() && top.size() < limit) {
+                top.add(iterator.next());
+            }
+            return top;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    // apply a song write to the board
+    public void apply(MusicChangedEvent event) {
+        this.lock.lock();
+        try {
+            if (!event.isNewerThan(this.members.get(event.id()))) {
+                return;
+            }
+            remove(event.id());
+            if (event.current() != null && this.ranked.test(event.current())) {
+                offer(event.current());
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void remove(UUID id) {
+        Music member = this.members.remove(id);
+        if (member != null) {
+            this.entries.remove(member);
+        }
+    }
+
+    private void offer(Music music) {
+        // a song ranking below the last member may trail unseen songs, so it stays out
+        boolean qualifies = this.exhaustive
+                || (!this.entries.isEmpty() && this.order.compare(music, this.entries.last()) < 0);
+        if (!this.loaded || !qualifies) {
+            return;
+        }
+
+        this.entries.add(music);
+        this.members.put(music.getId(), music);
+        if (this.entries.size() > this.capacity) {
+            this.members.remove(this.entries.pollLast().getId());
+            this.exhaustive = false;
+        }
+    }
+
+}
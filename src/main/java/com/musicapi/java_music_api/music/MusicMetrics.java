@@ -0,0 +1,109 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Sql statements and rows read per request, as music.request.statements and
+// music.request.rows by method and uri pattern, the same tags Spring puts on the
+// http.server.requests latency timer. Endpoint, repository, connection pool, Hibernate
+// and song cache metrics come from Spring Boot; see application.properties.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "music.metrics.queries.enabled", matchIfMissing = true)
+public class MusicMetrics implements WebMvcConfigurer {
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public MusicMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // the counts come from Hibernate's statistics, which have to be on, without the
+    // metrics it would then log for every session
+    @Bean
+    HibernatePropertiesCustomizer musicQueryCountingStatistics() {
+        return properties -> {
+            properties.put(AvailableSettings.STATS_BUILDER, MusicQueryCounter.statistics());
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        MeterRegistry meterRegistry = this.meterRegistry.getIfAvailable();
+        if (meterRegistry != null) {
+            registry.addInterceptor(new QueryCounting(meterRegistry));
+        }
+    }
+
+    // counts the queries of the thread handling the request; a streamed response writes
+    // on another thread, which is not counted
+    private static final class QueryCounting implements AsyncHandlerInterceptor {
+        private final MeterRegistry meterRegistry;
+        // summaries by method and uri pattern, registered on the first request of each
+        private final Map<String, Summaries> summaries = new ConcurrentHashMap<>();
+
+        private record Summaries(DistributionSummary statements, DistributionSummary rows) {
+        }
+
+        private QueryCounting(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            MusicQueryCounter.start();
+            return true;
+        }
+
+        @Override
+        public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                Object handler) {
+            MusicQueryCounter.stop();
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                Exception ex) {
+            MusicQueryCounter.Counts counts = MusicQueryCounter.stop();
+            if (counts == null) {
+                return;
+            }
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            Summaries summaries = this.summaries.computeIfAbsent(request.getMethod() + " " + uri,
+                    key -> register(request.getMethod(), uri));
+            summaries.statements().record(counts.statements());
+            summaries.rows().record(counts.rows());
+        }
+
+        private Summaries register(String method, String uri) {
+            return new Summaries(DistributionSummary.builder("music.request.statements")
+                    .description("sql statements executed by a request")
+                    .tags("method", method, "uri", uri)
+                    .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                    .register(this.meterRegistry),
+                    DistributionSummary.builder("music.request.rows")
+                            .description("rows read from the database by a request")
+                            .tags("method", method, "uri", uri)
+                            .serviceLevelObjectives(1, 10, 100, 1_000, 10_000, 100_000)
+                            .register(this.meterRegistry));
+        }
+    }
+
+}
@@ -0,0 +1,305 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// nearest neighbours of songs by their audio features, every MusicAttribute divided by
+// its typical range so that each weighs about the same. The points live in one array:
+// the first part is a KD-tree laid out implicitly, the median of every range at its
+// middle and the two halves on either side, and the rest are points added since it was
+// built, which every query scans. An update or delete only marks the old point dead.
+// The tree is rebuilt without the dead points once the added or dead ones make up a
+// sixteenth of it. Songs missing a feature are left out. Not thread-safe, see
+// MusicNeighbours.
+public class MusicNeighbourIndex {
+    public static final int DIMENSIONS = MusicAttribute.values().length;
+    // one unit of distance per attribute, in MusicAttribute order: bpm, energy,
+    // danceability, year and duration
+    private static final float[] SCALES = { 140f, 100f, 100f, 75f, 600f };
+    // ranges this small are scanned instead of split
+    private static final int LEAF_SIZE = 8;
+    private static final int MIN_REBUILD = 1024;
+
+    private final Map<UUID, Integer> points = new HashMap<>();
+    private final BitSet dead = new BitSet();
+    private long[] mostSignificant = new long[16];
+    private long[] leastSignificant = new long[16];
+    private float[] coordinates = new float[16 * DIMENSIONS];
+    // split dimension of the node at the middle of each tree range
+    private byte[] splits = new byte[16];
+    private int treeSize;
+    private int size;
+    private int deadPoints;
+
+    // number of songs in the index
+    public int size() {
+        return this.points.size();
+    }
+
+    // add every song and build the tree once, for loading
+    public void putAll(Stream<Music> songs) {
+        songs.forEach(this::add);
+        rebuild();
+    }
+
+    // add the song, replacing whatever was indexed for its id; a song with the same
+    // features keeps its point
+    public void put(Music music) {
+        add(music);
+        rebuildIfDue();
+    }
+
+    private void add(Music music) {
+        float[] features = features(music);
+        Integer existing = this.points.get(music.getId());
+        if (existing != null) {
+            if (features != null && Arrays.equals(this.coordinates, existing * DIMENSIONS,
+                    (existing + 1) * DIMENSIONS, features, 0, DIMENSIONS)) {
+                return;
+            }
+            this.points.remove(music.getId());
+            this.dead.set(existing);
+            this.deadPoints++;
+        }
+        if (features == null) {
+            return;
+        }
+
+        int point = this.size++;
+        if (point == this.mostSignificant.length) {
+            int capacity = point + (point >> 1);
+            this.mostSignificant = Arrays.copyOf(this.mostSignificant, capacity);
+            this.leastSignificant = Arrays.copyOf(this.leastSignificant, capacity);
+            this.coordinates = Arrays.copyOf(this.coordinates, capacity * DIMENSIONS);
+        }
+        this.mostSignificant[point] = music.getId().getMostSignificantBits();
+        this.leastSignificant[point] = music.getId().getLeastSignificantBits();
+        System.arraycopy(features, 0, this.coordinates, point * DIMENSIONS, DIMENSIONS);
+        this.points.put(music.getId(), point);
+    }
+
+    // drop the song, if it is indexed
+    public void remove(UUID id) {
+        Integer point = this.points.remove(id);
+        if (point != null) {
+            this.dead.set(point);
+            this.deadPoints++;
+            rebuildIfDue();
+        }
+    }
+
+    // ids of the k songs nearest to the song, closest first, not counting the song itself;
+    // equally near songs in MusicCursor.ID_ORDER
+    public List<UUID> nearest(Music music, int k) throws IllegalArgumentException {
+        float[] features = features(music);
+        if (features == null) {
+            throw new IllegalArgumentException("Song is missing an audio feature");
+        }
+        Integer self = this.points.get(music.getId());
+        PriorityQueue<Neighbour> top = new PriorityQueue<>(k + 1, Neighbour.WORST_FIRST);
+        search(features, 0, this.treeSize, top, k, self == null ? -1 : self);
+        for (int point = this.treeSize; point < this.size; point++) {
+            offer(features, point, top, k, self == null ? -1 : self);
+        }
+
+        List<Neighbour> neighbours = new ArrayList<>(top);
+        neighbours.sort(Neighbour.WORST_FIRST.reversed());
+        return neighbours.stream().map(neighbour -> id(neighbour.point)).toList();
+    }
+
+    // scaled feature vector of the song, null when it lacks one
+    public static float[] features(Music music) {
+        float[] features = new float[DIMENSIONS];
+        for (MusicAttribute attribute : MusicAttribute.values()) {
+            Integer value = attribute.valueOf(music);
+            if (value == null) {
+                return null;
+            }
+            features[attribute.ordinal()] = value / SCALES[attribute.ordinal()];
+        }
+        return features;
+    }
+
+    // squared distance between two scaled feature vectors
+    public static float distance(float[] a, float[] b) {
+        float distance = 0f;
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            float difference = a[dimension] - b[dimension];
+            distance += difference * difference;
+        }
+        return distance;
+    }
+
+    // descend into the half holding the query first and into the other one only when
+    // the splitting plane is nearer than the worst of the best so far
+    private void search(float[] query, int from, int to, PriorityQueue<Neighbour> top, int k, int self) {
+        if (to - from <= LEAF_SIZE) {
+            for (int point = from; point < to; point++) {
+                offer(query, point, top, k, self);
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        int split = this.splits[middle];
+        float plane = query[split] - this.coordinates[middle * DIMENSIONS + split];
+        offer(query, middle, top, k, self);
+        if (plane < 0f) {
+            search(query, from, middle, top, k, self);
+            if (top.size() < k || plane * plane <= top.peek().distance) {
+                search(query, middle + 1, to, top, k, self);
+            }
+        } else {
+            search(query, middle + 1, to, top, k, self);
+            if (top.size() < k || plane * plane <= top.peek().distance) {
+                search(query, from, middle, top, k, self);
+            }
+        }
+    }
+
+    private void offer(float[] query, int point, PriorityQueue<Neighbour> top, int k, int self) {
+        if (point == self || this.dead.get(point)) {
+            return;
+        }
+        float distance = 0f;
+        int offset = point * DIMENSIONS;
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            float difference = query[dimension] - this.coordinates[offset + dimension];
+            distance += difference * difference;
+        }
+        Neighbour neighbour = new Neighbour(point, distance, this.mostSignificant[point],
+                this.leastSignificant[point]);
+        if (top.size() < k) {
+            top.add(neighbour);
+        } else if (Neighbour.WORST_FIRST.compare(neighbour, top.peek()) > 0) {
+            top.poll();
+            top.add(neighbour);
+        }
+    }
+
+    private void rebuildIfDue() {
+        int changed = this.size - this.treeSize + this.deadPoints;
+        if (changed >= MIN_REBUILD && changed * 16L >= this.treeSize) {
+            rebuild();
+        }
+    }
+
+    // drop the dead points and lay every live one out as a tree again
+    private void rebuild() {
+        int live = 0;
+        for (int point = 0; point < this.size; point++) {
+            if (!this.dead.get(point)) {
+                this.mostSignificant[live] = this.mostSignificant[point];
+                this.leastSignificant[live] = this.leastSignificant[point];
+                System.arraycopy(this.coordinates, point * DIMENSIONS, this.coordinates, live * DIMENSIONS,
+                        DIMENSIONS);
+                live++;
+            }
+        }
+        this.size = live;
+        this.treeSize = live;
+        this.dead.clear();
+        this.deadPoints = 0;
+        if (this.splits.length < live) {
+            this.splits = new byte[this.mostSignificant.length];
+        }
+        build(0, live);
+        this.points.clear();
+        for (int point = 0; point < live; point++) {
+            this.points.put(id(point), point);
+        }
+    }
+
+    // split the range on its widest dimension at the median, then both halves
+    private void build(int from, int to) {
+        if (to - from <= LEAF_SIZE) {
+            return;
+        }
+        int split = 0;
+        float widest = -1f;
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            float min = Float.MAX_VALUE;
+            float max = -Float.MAX_VALUE;
+            for (int point = from; point < to; point++) {
+                float value = this.coordinates[point * DIMENSIONS + dimension];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widest) {
+                widest = max - min;
+                split = dimension;
+            }
+        }
+        int middle = (from + to) >>> 1;
+        select(from, to - 1, middle, split);
+        this.splits[middle] = (byte) split;
+        build(from, middle);
+        build(middle + 1, to);
+    }
+
+    // quickselect: the point at nth is the one sorting there by the dimension, those
+    // before it are no greater and those after it no smaller
+    private void select(int low, int high, int nth, int dimension) {
+        while (high > low) {
+            float pivot = this.coordinates[((low + high) >>> 1) * DIMENSIONS + dimension];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (this.coordinates[i * DIMENSIONS + dimension] < pivot) {
+                    i++;
+                }
+                while (this.coordinates[j * DIMENSIONS + dimension] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (nth <= j) {
+                high = j;
+            } else if (nth >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        long most = this.mostSignificant[a];
+        this.mostSignificant[a] = this.mostSignificant[b];
+        this.mostSignificant[b] = most;
+        long least = this.leastSignificant[a];
+        this.leastSignificant[a] = this.leastSignificant[b];
+        this.leastSignificant[b] = least;
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            float value = this.coordinates[a * DIMENSIONS + dimension];
+            this.coordinates[a * DIMENSIONS + dimension] = this.coordinates[b * DIMENSIONS + dimension];
+            this.coordinates[b * DIMENSIONS + dimension] = value;
+        }
+    }
+
+    private UUID id(int point) {
+        return new UUID(this.mostSignificant[point], this.leastSignificant[point]);
+    }
+
+    // a candidate neighbour; equally near ones are told apart by id, so the tree and a
+    // scan agree on the same answer
+    private record Neighbour(int point, float distance, long mostSignificant, long leastSignificant) {
+        static final Comparator<Neighbour> WORST_FIRST = (a, b) -> {
+            int order = Float.compare(b.distance, a.distance);
+            if (order == 0) {
+                order = Long.compareUnsigned(b.mostSignificant, a.mostSignificant);
+            }
+            return order != 0 ? order : Long.compareUnsigned(b.leastSignificant, a.leastSignificant);
+        };
+    }
+
+}
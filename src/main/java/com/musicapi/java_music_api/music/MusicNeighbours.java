@@ -0,0 +1,46 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+
+// similar songs by audio features, see MusicReadModel
+@Component
+public class MusicNeighbours extends MusicReadModel<MusicNeighbourIndex> {
+
+    public MusicNeighbours(EntityManager entityManager, @Value("${music.export.fetch-size:1000}") int fetchSize) {
+        super(entityManager, fetchSize, new MusicNeighbourIndex());
+    }
+
+    // ids of the k songs nearest to the song, see MusicNeighbourIndex.nearest
+    public List<UUID> nearest(Music music, int k) throws IllegalArgumentException {
+        return read(index -> index.nearest(music, k));
+    }
+
+    // number of songs in the index
+    public int size() {
+        return read(MusicNeighbourIndex::size);
+    }
+
+    @Override
+    protected MusicNeighbourIndex build(Stream<Music> songs) {
+        MusicNeighbourIndex index = new MusicNeighbourIndex();
+        index.putAll(songs);
+        return index;
+    }
+
+    @Override
+    protected void apply(MusicNeighbourIndex index, Music previous, Music current) {
+        if (current == null) {
+            index.remove(previous.getId());
+        } else {
+            index.put(current);
+        }
+    }
+
+}
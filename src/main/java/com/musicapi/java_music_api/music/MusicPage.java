@@ -0,0 +1,7 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.List;
+
+// page of songs with the cursor to request the following page (null on the last page)
+public record MusicPage(List<Music> items, String nextCursor) {
+}
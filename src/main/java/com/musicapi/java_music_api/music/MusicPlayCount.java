@@ -0,0 +1,37 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+// plays of one song as last flushed by MusicPlays, kept apart from the music row so
+// counting plays never locks a song or moves its version. The index is in the order of
+// the ranking, most plays first and ties by id, so reading its top is a short index scan
+@Entity
+@Table(name = "music_plays", indexes = @Index(name = "idx_music_plays_top", columnList = "plays DESC, music_id"))
+public class MusicPlayCount {
+
+    @Id
+    @Column(name = "music_id")
+    private UUID musicId;
+    @Column(nullable = false)
+    private long plays;
+
+    protected MusicPlayCount() {
+    }
+
+    // song id getter
+    public UUID getMusicId() {
+        return this.musicId;
+    }
+
+    // plays getter
+    public long getPlays() {
+        return this.plays;
+    }
+
+}
@@ -0,0 +1,5 @@
+package com.musicapi.java_music_api.music;
+
+// report of a batch of plays, ids of songs that do not exist are not counted
+public record MusicPlayResult(int recorded, int unknown) {
+}
@@ -0,0 +1,5 @@
+package com.musicapi.java_music_api.music;
+
+// one entry of the most played ranking
+public record MusicPlayed(Music song, long plays) {
+}
@@ -0,0 +1,8 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.List;
+
+// the songs of a generated playlist, its length and the root mean square distance of
+// its energy from the requested curve
+public record MusicPlaylist(List<Music> songs, int durationSec, double energyError) {
+}
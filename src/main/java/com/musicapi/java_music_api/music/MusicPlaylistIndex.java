@@ -0,0 +1,431 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// playlists of songs following an energy curve, see MusicPlaylistRequest. Only bpm,
+// energy and duration of each song are kept, in parallel arrays, and every point is
+// filed in a cell per bpm and energy, where it sits sorted by duration. A deleted song's
+// point is reused by the next one added. Songs missing one of the three, or outside
+// 1..MAX_BPM bpm or 1..MAX_SONG_SEC seconds, are left out. Not thread-safe, see
+// MusicPlaylists, which solves against a snapshot.
+//
+// Finding the best playlist is a knapsack with an ordering on top, so solve builds
+// playlists greedily and keeps the best one found before its deadline: each song is one
+// of the few that best match the curve among a random sample of the cells within the
+// bpm delta, the energy window widening until there are enough of them, and the last
+// song is looked up by the exact time still missing.
+public class MusicPlaylistIndex {
+    public static final int MAX_BPM = 300;
+    public static final int MAX_SONG_SEC = 3600;
+    private static final int ENERGIES = 101;
+    // songs sampled per step, and the number of best ones one is drawn from
+    private static final int CANDIDATES = 8;
+    private static final int CHOICES = 3;
+    // songs offered per cell, and entries looked at for them, including the ones the
+    // filter or the playlist rule out
+    private static final int SAMPLES = 2;
+    private static final int PROBES = 16;
+    // the time left below which the playlist is closed with a song of that length
+    private static final int FINISH_SEC = 480;
+    // songs are picked so that at least this much time is left for the last one
+    private static final int MIN_LAST_SEC = 90;
+    private static final int FINISH_ENERGY = 10;
+    // a step in bpm weighs as much as a tenth of a step in energy
+    private static final double BPM_WEIGHT = 0.1;
+    // a second off the requested length weighs as much as a step in energy
+    private static final double LENGTH_WEIGHT = 1;
+
+    private final Map<UUID, Integer> points;
+    private long[] mostSignificant = new long[16];
+    private long[] leastSignificant = new long[16];
+    private short[] bpms = new short[16];
+    private byte[] energies = new byte[16];
+    private short[] durations = new short[16];
+    private int size;
+    private int songs;
+    private int[] free = new int[16];
+    private int freeCount;
+    // entries of duration << 32 | point, ascending
+    private final long[][] cells = new long[(MAX_BPM + 1) * ENERGIES][];
+    private final int[] cellSizes = new int[(MAX_BPM + 1) * ENERGIES];
+
+    public MusicPlaylistIndex() {
+        this.points = new HashMap<>();
+    }
+
+    // copy of the points and cells of the index, for snapshot
+    private MusicPlaylistIndex(MusicPlaylistIndex index) {
+        this.points = Map.of();
+        this.mostSignificant = Arrays.copyOf(index.mostSignificant, index.size);
+        this.leastSignificant = Arrays.copyOf(index.leastSignificant, index.size);
+        this.bpms = Arrays.copyOf(index.bpms, index.size);
+        this.energies = Arrays.copyOf(index.energies, index.size);
+        this.durations = Arrays.copyOf(index.durations, index.size);
+        this.size = index.size;
+        this.songs = index.songs;
+        for (int cell = 0; cell < this.cells.length; cell++) {
+            if (index.cellSizes[cell] > 0) {
+                this.cells[cell] = Arrays.copyOf(index.cells[cell], index.cellSizes[cell]);
+                this.cellSizes[cell] = index.cellSizes[cell];
+            }
+        }
+    }
+
+    // number of songs in the index
+    public int size() {
+        return this.songs;
+    }
+
+    // a copy that solve can run on while this index changes, in time and memory following
+    // the number of songs; it only solves and must not be changed
+    public MusicPlaylistIndex snapshot() {
+        return new MusicPlaylistIndex(this);
+    }
+
+    // add every song and sort the cells once, for loading
+    public void putAll(Stream<Music> songs) {
+        songs.forEach(music -> {
+            int point = add(music);
+            if (point >= 0) {
+                append(cell(point), entry(point));
+            }
+        });
+        for (int cell = 0; cell < this.cells.length; cell++) {
+            if (this.cellSizes[cell] > 1) {
+                Arrays.sort(this.cells[cell], 0, this.cellSizes[cell]);
+            }
+        }
+    }
+
+    // add the song, replacing whatever was indexed for its id
+    public void put(Music music) {
+        int point = add(music);
+        if (point >= 0) {
+            insert(cell(point), entry(point));
+        }
+    }
+
+    // drop the song, if it is indexed
+    public void remove(UUID id) {
+        Integer point = this.points.remove(id);
+        if (point != null) {
+            this.songs--;
+            delete(cell(point), entry(point));
+            if (this.freeCount == this.free.length) {
+                this.free = Arrays.copyOf(this.free, this.freeCount * 2);
+            }
+            this.free[this.freeCount++] = point;
+        }
+    }
+
+    // point of the added song, -1 when it is left out
+    private int add(Music music) {
+        remove(music.getId());
+        Integer bpm = music.getBpm();
+        Integer energy = music.getEnergy();
+        Integer duration = music.getDurationSec();
+        if (bpm == null || energy == null || duration == null || bpm < 1 || bpm > MAX_BPM || energy < 0
+                || energy > 100 || duration < 1 || duration > MAX_SONG_SEC) {
+            return -1;
+        }
+
+        int point;
+        if (this.freeCount > 0) {
+            point = this.free[--this.freeCount];
+        } else {
+            point = this.size++;
+            if (point == this.bpms.length) {
+                int capacity = point + (point >> 1);
+                this.mostSignificant = Arrays.copyOf(this.mostSignificant, capacity);
+                this.leastSignificant = Arrays.copyOf(this.leastSignificant, capacity);
+                this.bpms = Arrays.copyOf(this.bpms, capacity);
+                this.energies = Arrays.copyOf(this.energies, capacity);
+                this.durations = Arrays.copyOf(this.durations, capacity);
+            }
+        }
+        this.mostSignificant[point] = music.getId().getMostSignificantBits();
+        this.leastSignificant[point] = music.getId().getLeastSignificantBits();
+        this.bpms[point] = (short) (int) bpm;
+        this.energies[point] = (byte) (int) energy;
+        this.durations[point] = (short) (int) duration;
+        this.points.put(music.getId(), point);
+        this.songs++;
+        return point;
+    }
+
+    private int cell(int point) {
+        return this.bpms[point] * ENERGIES + this.energies[point];
+    }
+
+    private long entry(int point) {
+        return (long) this.durations[point] << 32 | point;
+    }
+
+    private void append(int cell, long entry) {
+        long[] entries = this.cells[cell];
+        if (entries == null) {
+            entries = this.cells[cell] = new long[4];
+        } else if (this.cellSizes[cell] == entries.length) {
+            entries = this.cells[cell] = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[this.cellSizes[cell]++] = entry;
+    }
+
+    private void insert(int cell, long entry) {
+        append(cell, entry);
+        long[] entries = this.cells[cell];
+        int last = this.cellSizes[cell] - 1;
+        int position = -Arrays.binarySearch(entries, 0, last, entry) - 1;
+        System.arraycopy(entries, position, entries, position + 1, last - position);
+        entries[position] = entry;
+    }
+
+    private void delete(int cell, long entry) {
+        long[] entries = this.cells[cell];
+        int position = Arrays.binarySearch(entries, 0, this.cellSizes[cell], entry);
+        System.arraycopy(entries, position + 1, entries, position, --this.cellSizes[cell] - position);
+    }
+
+    // the best playlist found for the request among the songs the filter accepts, building
+    // new ones until the deadline in System.nanoTime() passes; the first one is always
+    // finished, so a playlist comes back however short the deadline
+    public MusicPlaylistPlan solve(MusicPlaylistRequest request, Predicate<UUID> filter, Random random,
+            long deadline) {
+        Solver solver = new Solver(request, filter, random);
+        Plan best = null;
+        int attempts = 0;
+        do {
+            Plan plan = solver.build(best == null ? Long.MAX_VALUE : deadline);
+            attempts++;
+            if (plan != null && (best == null || plan.cost < best.cost)) {
+                best = plan;
+            }
+        } while (System.nanoTime() < deadline && this.size() > 0);
+
+        List<UUID> ids = new ArrayList<>(best.size);
+        for (int i = 0; i < best.size; i++) {
+            ids.add(id(best.points[i]));
+        }
+        return new MusicPlaylistPlan(ids, best.durationSec, best.energyError, attempts);
+    }
+
+    private UUID id(int point) {
+        return new UUID(this.mostSignificant[point], this.leastSignificant[point]);
+    }
+
+    private record Plan(int[] points, int size, int durationSec, double energyError, double cost) {
+    }
+
+    // the state of one request's search, reused between playlists
+    private final class Solver {
+        private final MusicPlaylistRequest request;
+        private final Predicate<UUID> filter;
+        private final Random random;
+        private final BitSet used = new BitSet();
+        private final int[] best = new int[CHOICES];
+        private final double[] bestCosts = new double[CHOICES];
+        private int[] playlist = new int[64];
+        private int length;
+        private int elapsed;
+        private int found;
+        private int chosen;
+
+        private Solver(MusicPlaylistRequest request, Predicate<UUID> filter, Random random) {
+            this.request = request;
+            this.filter = filter;
+            this.random = random;
+        }
+
+        // one playlist built song by song, null when it was cut short by the deadline
+        private Plan build(long deadline) {
+            for (int i = 0; i < this.length; i++) {
+                this.used.clear(this.playlist[i]);
+            }
+            this.length = 0;
+            this.elapsed = 0;
+            while (true) {
+                if (System.nanoTime() >= deadline) {
+                    return null;
+                }
+                int left = this.request.durationSec() - this.elapsed;
+                if (left <= FINISH_SEC) {
+                    int last = closest(left);
+                    if (last >= 0 && (durations[last] == left || left < 2 * MIN_LAST_SEC)) {
+                        if (Math.abs(durations[last] - left) < left) {
+                            add(last);
+                        }
+                        break;
+                    }
+                }
+                int next = next(left - MIN_LAST_SEC);
+                if (next < 0) {
+                    int last = closest(left);
+                    if (last >= 0 && Math.abs(durations[last] - left) < left) {
+                        add(last);
+                    }
+                    break;
+                }
+                add(next);
+            }
+            return plan();
+        }
+
+        private void add(int point) {
+            if (this.length == this.playlist.length) {
+                this.playlist = Arrays.copyOf(this.playlist, this.length * 2);
+            }
+            this.playlist[this.length++] = point;
+            this.used.set(point);
+            this.elapsed += durations[point];
+        }
+
+        // the playlist so far, its energy error the root mean square of every song's
+        // distance from the curve at its middle, weighted by its length
+        private Plan plan() {
+            double squares = 0;
+            int second = 0;
+            for (int i = 0; i < this.length; i++) {
+                int point = this.playlist[i];
+                double distance = energies[point] - this.request.energyAt(second + durations[point] / 2.0);
+                squares += distance * distance * durations[point];
+                second += durations[point];
+            }
+            double energyError = second == 0 ? 0 : Math.sqrt(squares / second);
+            double cost = energyError + Math.abs(this.request.durationSec() - second) * LENGTH_WEIGHT;
+            return new Plan(Arrays.copyOf(this.playlist, this.length), this.length, second, energyError, cost);
+        }
+
+        // one of the best few sampled songs at most maxDuration long that may follow the
+        // playlist, -1 when there is none
+        private int next(int maxDuration) {
+            if (maxDuration < 1) {
+                return -1;
+            }
+            this.found = 0;
+            this.chosen = 0;
+            int low = lowBpm();
+            int high = highBpm();
+            double target = this.request.energyAt(this.elapsed);
+            int centre = (int) Math.round(target);
+            long limit = (long) (maxDuration + 1) << 32;
+            for (int width = 0; width <= 100 && this.found < CANDIDATES; width++) {
+                for (int side = -1; side <= 1; side += 2) {
+                    int energy = centre + side * width;
+                    if (energy < 0 || energy > 100 || side == 1 && width == 0) {
+                        continue;
+                    }
+                    for (int bpm = low; bpm <= high; bpm++) {
+                        sample(bpm * ENERGIES + energy, limit);
+                    }
+                }
+            }
+            return this.chosen == 0 ? -1 : this.best[this.random.nextInt(this.chosen)];
+        }
+
+        // offer a few songs of the cell shorter than the limit, from a random place on
+        private void sample(int cell, long limit) {
+            long[] entries = cells[cell];
+            int upper = entries == null ? 0 : -Arrays.binarySearch(entries, 0, cellSizes[cell], limit) - 1;
+            if (upper == 0) {
+                return;
+            }
+            int start = this.random.nextInt(upper);
+            int offered = 0;
+            for (int i = 0; i < Math.min(upper, PROBES) && offered < SAMPLES; i++) {
+                int point = (int) entries[(start + i) % upper];
+                if (usable(point)) {
+                    offer(point);
+                    offered++;
+                }
+            }
+        }
+
+        private void offer(int point) {
+            this.found++;
+            double cost = Math.abs(energies[point] - this.request.energyAt(this.elapsed + durations[point] / 2.0));
+            if (this.length > 0) {
+                cost += BPM_WEIGHT * Math.abs(bpms[point] - bpms[this.playlist[this.length - 1]]);
+            }
+            if (this.chosen == CHOICES && cost >= this.bestCosts[CHOICES - 1]) {
+                return;
+            }
+            int position = Math.min(this.chosen, CHOICES - 1);
+            while (position > 0 && this.bestCosts[position - 1] > cost) {
+                this.best[position] = this.best[position - 1];
+                this.bestCosts[position] = this.bestCosts[position - 1];
+                position--;
+            }
+            this.best[position] = point;
+            this.bestCosts[position] = cost;
+            this.chosen = Math.min(this.chosen + 1, CHOICES);
+        }
+
+        // the song that may follow the playlist with the length closest to left, near the
+        // curve's energy; -1 when there is none
+        private int closest(int left) {
+            int low = lowBpm();
+            int high = highBpm();
+            double target = this.request.energyAt(this.elapsed + left / 2.0);
+            int centre = (int) Math.round(target);
+            long key = (long) left << 32;
+            int closest = -1;
+            double closestCost = Double.MAX_VALUE;
+            for (int energy = Math.max(centre - FINISH_ENERGY, 0); energy <= Math.min(centre + FINISH_ENERGY,
+                    100); energy++) {
+                for (int bpm = low; bpm <= high; bpm++) {
+                    int cell = bpm * ENERGIES + energy;
+                    long[] entries = cells[cell];
+                    if (entries == null || cellSizes[cell] == 0) {
+                        continue;
+                    }
+                    int position = -Arrays.binarySearch(entries, 0, cellSizes[cell], key) - 1;
+                    // the nearest usable entries on either side
+                    for (int direction = -1; direction <= 1; direction += 2) {
+                        int from = direction < 0 ? position - 1 : position;
+                        for (int i = from, probes = 0; i >= 0 && i < cellSizes[cell] && probes < PROBES; i += direction,
+                                probes++) {
+                            int point = (int) entries[i];
+                            if (usable(point)) {
+                                double cost = Math.abs(durations[point] - left) * LENGTH_WEIGHT
+                                        + Math.abs(energy - target);
+                                if (cost < closestCost) {
+                                    closest = point;
+                                    closestCost = cost;
+                                }
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+            return closest;
+        }
+
+        private boolean usable(int point) {
+            return !this.used.get(point) && this.filter.test(id(point));
+        }
+
+        // the bpm range of the next song, any for the first
+        private int lowBpm() {
+            return this.length == 0
+                    ? 1
+                    : Math.max(bpms[this.playlist[this.length - 1]] - this.request.maxBpmDelta(), 1);
+        }
+
+        private int highBpm() {
+            return this.length == 0
+                    ? MAX_BPM
+                    : Math.min(bpms[this.playlist[this.length - 1]] + this.request.maxBpmDelta(), MAX_BPM);
+        }
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.List;
+import java.util.UUID;
+
+// a generated playlist in order, its length, how far its energy strays from the curve
+// and the number of playlists built to find it
+public record MusicPlaylistPlan(List<UUID> ids, int durationSec, double energyError, int attempts) {
+}
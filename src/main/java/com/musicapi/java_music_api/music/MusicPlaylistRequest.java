@@ -0,0 +1,49 @@
+package com.musicapi.java_music_api.music;
+
+import java.time.Duration;
+import java.util.List;
+
+// what a generated playlist should look like: its total length, the energy curve it
+// follows between minEnergy and maxEnergy, the largest bpm step between adjacent songs,
+// the genres it draws from and how long the solver may search, null for the configured
+// default
+public record MusicPlaylistRequest(int durationSec, List<MusicPlaylistSegment> shape, int minEnergy, int maxEnergy,
+        int maxBpmDelta, MusicGenreFilter genres, Duration budget) {
+    public static final int MAX_DURATION_SEC = 24 * 60 * 60;
+    public static final int MAX_SEGMENTS = 16;
+    public static final int MAX_BPM_DELTA = 50;
+    public static final List<MusicPlaylistSegment> DEFAULT_SHAPE = List.of(MusicPlaylistSegment.RAMP,
+            MusicPlaylistSegment.PLATEAU, MusicPlaylistSegment.COOL_DOWN);
+
+    // request from its parameters, null shape for ramp, plateau and cool down
+    public static MusicPlaylistRequest of(int durationSec, List<String> shape, int minEnergy, int maxEnergy,
+            int maxBpmDelta, MusicGenreFilter genres, Duration budget) throws IllegalArgumentException {
+        if (durationSec < 60 || durationSec > MAX_DURATION_SEC) {
+            throw new IllegalArgumentException("Duration must be between 60 and " + MAX_DURATION_SEC + " seconds");
+        }
+        if (minEnergy < 0 || maxEnergy > 100 || minEnergy > maxEnergy) {
+            throw new IllegalArgumentException("Energy must be a range within 0 and 100");
+        }
+        if (maxBpmDelta < 0 || maxBpmDelta > MAX_BPM_DELTA) {
+            throw new IllegalArgumentException("Bpm delta must be between 0 and " + MAX_BPM_DELTA);
+        }
+        if (budget != null && (budget.isNegative() || budget.isZero())) {
+            throw new IllegalArgumentException("Budget must be positive");
+        }
+        List<MusicPlaylistSegment> segments = shape == null || shape.isEmpty()
+                ? DEFAULT_SHAPE
+                : shape.stream().map(MusicPlaylistSegment::fromProperty).toList();
+        if (segments.size() > MAX_SEGMENTS) {
+            throw new IllegalArgumentException("Shape must have at most " + MAX_SEGMENTS + " segments");
+        }
+        return new MusicPlaylistRequest(durationSec, segments, minEnergy, maxEnergy, maxBpmDelta, genres, budget);
+    }
+
+    // target energy at the given second of the playlist
+    public double energyAt(double second) {
+        double position = Math.min(Math.max(second / this.durationSec, 0), 1) * this.shape.size();
+        int segment = Math.min((int) position, this.shape.size() - 1);
+        return this.shape.get(segment).energy(position - segment, this.minEnergy, this.maxEnergy);
+    }
+
+}
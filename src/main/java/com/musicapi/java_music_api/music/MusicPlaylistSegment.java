@@ -0,0 +1,41 @@
+package com.musicapi.java_music_api.music;
+
+// one part of a playlist's energy curve, all parts of a curve equally long: a ramp rises
+// from the lowest to the highest energy, a plateau holds the highest and a cool down
+// falls back to the lowest
+public enum MusicPlaylistSegment {
+    RAMP("ramp"),
+    PLATEAU("plateau"),
+    COOL_DOWN("cooldown");
+
+    private final String property;
+
+    MusicPlaylistSegment(String property) {
+        this.property = property;
+    }
+
+    // request parameter value
+    public String property() {
+        return this.property;
+    }
+
+    // energy at progress 0..1 through the segment, between low and high
+    public double energy(double progress, int low, int high) {
+        return switch (this) {
+            case RAMP -> low + (high - low) * progress;
+            case PLATEAU -> high;
+            case COOL_DOWN -> high - (high - low) * progress;
+        };
+    }
+
+    // look segment up by its parameter value
+    public static MusicPlaylistSegment fromProperty(String property) throws IllegalArgumentException {
+        for (MusicPlaylistSegment segment : values()) {
+            if (segment.property.equalsIgnoreCase(property.strip())) {
+                return segment;
+            }
+        }
+        throw new IllegalArgumentException("Unknown segment " + property);
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.musicapi.java_music_api.music;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+
+// playlist generation over the bpm, energy and duration of the catalog, see
+// MusicReadModel. A solve runs for its whole budget, so it runs on a snapshot of the
+// index without its lock and writes never wait for it; a genre filter still reads
+// MusicGenres under its read lock for every candidate. A snapshot copies the whole
+// index under the read lock, so a new one is taken at most every refresh-interval, by
+// one solve while the others go on with the last one, and its time counts against
+// that solve's budget. Playlists may miss the writes of the last refresh-interval.
+@Component
+public class MusicPlaylists extends MusicReadModel<MusicPlaylistIndex> {
+    private final Duration budget;
+    private final Duration maxBudget;
+    private final long refreshInterval;
+    // the index as of the last copy, null until a solve takes one
+    private volatile MusicPlaylistIndex snapshot;
+    // whether the index changed since the copy, and when that was taken in System.nanoTime()
+    private volatile boolean stale = true;
+    private volatile long taken;
+    // one copy at a time
+    private final ReentrantLock copying = new ReentrantLock();
+
+    public MusicPlaylists(EntityManager entityManager, @Value("${music.export.fetch-size:1000}") int fetchSize,
+            @Value("${music.playlist.budget:50ms}") Duration budget,
+            @Value("${music.playlist.max-budget:1s}") Duration maxBudget,
+            @Value("${music.playlist.refresh-interval:1s}") Duration refreshInterval) {
+        super(entityManager, fetchSize, new MusicPlaylistIndex());
+        this.budget = budget;
+        this.maxBudget = maxBudget;
+        this.refreshInterval = refreshInterval.toNanos();
+    }
+
+    // the best playlist for the request found within its budget, see
+    // MusicPlaylistIndex.solve
+    public MusicPlaylistPlan generate(MusicPlaylistRequest request, Predicate<UUID> filter)
+            throws IllegalArgumentException {
+        Duration budget = request.budget() == null ? this.budget : request.budget();
+        if (budget.compareTo(this.maxBudget) > 0) {
+            throw new IllegalArgumentException("Budget must be at most " + this.maxBudget.toMillis() + " ms");
+        }
+
+        long deadline = System.nanoTime() + budget.toNanos();
+        return snapshot().solve(request, filter, ThreadLocalRandom.current(), deadline);
+    }
+
+    // number of songs in the index
+    public int size() {
+        return read(MusicPlaylistIndex::size);
+    }
+
+    @Override
+    protected void changed() {
+        this.stale = true;
+    }
+
+    // the last copy, or a new one when the index changed since and the last is older than
+    // the refresh interval; only the first solve ever waits for a copy another one takes
+    private MusicPlaylistIndex snapshot() {
+        MusicPlaylistIndex snapshot = this.snapshot;
+        if (snapshot != null && (!this.stale || System.nanoTime() - this.taken < this.refreshInterval)) {
+            return snapshot;
+        }
+        if (snapshot == null) {
+            this.copying.lock();
+        } else if (!this.copying.tryLock()) {
+            return snapshot;
+        }
+        try {
+            if (this.snapshot != snapshot) {
+                return this.snapshot;
+            }
+            // under the read lock no write can mark the index stale before the copy is set
+            return read(index -> {
+                this.stale = false;
+                this.taken = System.nanoTime();
+                return this.snapshot = index.snapshot();
+            });
+        } finally {
+            this.copying.unlock();
+        }
+    }
+
+    @Override
+    protected MusicPlaylistIndex build(Stream<Music> songs) {
+        MusicPlaylistIndex index = new MusicPlaylistIndex();
+        index.putAll(songs);
+        return index;
+    }
+
+    @Override
+    protected void apply(MusicPlaylistIndex index, Music previous, Music current) {
+        if (current == null) {
+            index.remove(previous.getId());
+        } else {
+            index.put(current);
+        }
+    }
+
+}
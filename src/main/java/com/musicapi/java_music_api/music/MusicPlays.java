@@ -0,0 +1,298 @@
+package com.musicapi.java_music_api.music;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
+// Play counts and the most played ranking. A play only adds to its song's LongAdder,
+// which spreads concurrent plays of a hit song over cells instead of contending on one
+// value, and never touches the database. Every flush-interval the counts are drained
+// and added to music_plays with batched upserts in one transaction, then the ranking is
+// read again from the top of the table, so instances sharing the database converge on
+// the same one. A crash loses at most the plays since the last flush; a flush that
+// fails puts its counts back for the next one.
+@Component
+public class MusicPlays {
+    private static final Logger log = LoggerFactory.getLogger(MusicPlays.class);
+    // MySQL deprecates VALUES() in ON DUPLICATE KEY UPDATE for a row alias, which H2
+    // and MariaDB do not have
+    private static final String UPSERT = "INSERT INTO music_plays (music_id, plays) VALUES (?, ?) AS new"
+            + " ON DUPLICATE KEY UPDATE plays = music_plays.plays + new.plays";
+    private static final String UPSERT_VALUES = "INSERT INTO music_plays (music_id, plays) VALUES (?, ?)"
+            + " ON DUPLICATE KEY UPDATE plays = plays + VALUES(plays)";
+    private static final String DELETE = "DELETE FROM music_plays WHERE music_id = ?";
+
+    private final EntityManager entityManager;
+    private final MusicRepository musicRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxSize;
+
+    // a counter per song, plays of an id without one are not counted
+    private final ConcurrentHashMap<UUID, LongAdder> counters = new ConcurrentHashMap<>();
+    // deleted songs whose row the next flush removes
+    private final Queue<UUID> deleted = new ConcurrentLinkedQueue<>();
+    // one flush at a time, the scheduled ones and the last one at shutdown
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // replacing the ranking against writes patching the songs in it
+    private final ReentrantLock rankingLock = new ReentrantLock();
+    private volatile List<MusicPlayed> ranking = List.of();
+    // the last write of each song while the ranking is read again, null otherwise;
+    // guarded by the ranking lock
+    private Map<UUID, MusicChangedEvent> written;
+    // the upsert the database understands, guarded by the flush lock
+    private String upsert;
+
+    private record Drained(UUID id, LongAdder counter, long plays) {
+    }
+
+    public MusicPlays(EntityManager entityManager, MusicRepository musicRepository, DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${music.plays.batch-size:500}") int batchSize,
+            @Value("${music.rankings.max-size:100}") int maxSize) {
+        this.entityManager = entityManager;
+        this.musicRepository = musicRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxSize = maxSize;
+    }
+
+    // a counter for every song and the ranking of the flushed totals, once the
+    // application is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        this.flushLock.lock();
+        try {
+            for (UUID id : this.entityManager.createQuery("SELECT m.id FROM Music m", UUID.class).getResultList()) {
+                this.counters.putIfAbsent(id, new LongAdder());
+            }
+            rank();
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    // count new songs, forget deleted ones and keep the songs in the ranking current
+    @EventListener
+    @Order(MusicChangedEvent.READ_MODEL_ORDER)
+    public void onMusicChanged(MusicChangedEvent event) {
+        if (event.previous() == null) {
+            this.counters.putIfAbsent(event.id(), new LongAdder());
+        } else if (event.current() == null) {
+            this.counters.remove(event.id());
+            this.deleted.add(event.id());
+        }
+        this.rankingLock.lock();
+        try {
+            if (this.written != null) {
+                this.written.put(event.id(), event);
+            }
+            List<MusicPlayed> patched = new ArrayList<>(this.ranking.size());
+            boolean ranked = false;
+            for (MusicPlayed played : this.ranking) {
+                if (!played.song().getId().equals(event.id()) || !event.isNewerThan(played.song())) {
+                    patched.add(played);
+                } else {
+                    ranked = true;
+                    if (event.current() != null) {
+                        patched.add(new MusicPlayed(event.current(), played.plays()));
+                    }
+                }
+            }
+            if (ranked) {
+                this.ranking = List.copyOf(patched);
+            }
+        } finally {
+            this.rankingLock.unlock();
+        }
+    }
+
+    // count one play of the song, false when there is no such song
+    public boolean record(UUID id) {
+        LongAdder counter = this.counters.get(id);
+        if (counter == null) {
+            return false;
+        }
+        counter.increment();
+        return true;
+    }
+
+    // count one play of each song, an id listed twice is played twice
+    public MusicPlayResult record(List<UUID> ids) {
+        int recorded = 0;
+        for (UUID id : ids) {
+            if (id != null && record(id)) {
+                recorded++;
+            }
+        }
+        return new MusicPlayResult(recorded, ids.size() - recorded);
+    }
+
+    // most played songs as of the last flush, of the plays every instance flushed
+    public List<MusicPlayed> mostPlayed(int limit) throws IllegalArgumentException {
+        if (limit < 1 || limit > this.maxSize) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + this.maxSize);
+        }
+        List<MusicPlayed> top = this.ranking;
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    // add the plays counted since the last flush to the database and read the ranking
+    // again, returns the number of songs whose plays were written
+    @Scheduled(initialDelayString = "${music.plays.flush-interval:1s}",
+            fixedDelayString = "${music.plays.flush-interval:1s}")
+    public int flush() {
+        this.flushLock.lock();
+        try {
+            List<Drained> drained = new ArrayList<>();
+            this.counters.forEach((id, counter) -> {
+                long plays = counter.sumThenReset();
+                if (plays > 0) {
+                    drained.add(new Drained(id, counter, plays));
+                }
+            });
+            List<UUID> removed = new ArrayList<>();
+            for (UUID id = this.deleted.poll(); id != null; id = this.deleted.poll()) {
+                removed.add(id);
+            }
+            if (!drained.isEmpty() || !removed.isEmpty()) {
+                // rows locked in id order, so flushes of several instances cannot deadlock
+                drained.sort(Comparator.comparing(Drained::id));
+                try {
+                    String upsert = upsert();
+                    this.transactionTemplate.executeWithoutResult(status -> {
+                        this.jdbcTemplate.batchUpdate(upsert, drained, this.batchSize, (ps, plays) -> {
+                            ps.setBytes(1, toBytes(plays.id()));
+                            ps.setLong(2, plays.plays());
+                        });
+                        this.jdbcTemplate.batchUpdate(DELETE, removed, this.batchSize,
+                                (ps, id) -> ps.setBytes(1, toBytes(id)));
+                    });
+                } catch (DataAccessException | TransactionException e) {
+                    drained.forEach(plays -> plays.counter().add(plays.plays()));
+                    this.deleted.addAll(removed);
+                    log.warn("Could not flush the plays of {} songs, the next flush retries them", drained.size(), e);
+                    return 0;
+                }
+            }
+            // other instances flush too, so the ranking is read again even when this one had no plays
+            try {
+                rank();
+            } catch (DataAccessException | PersistenceException e) {
+                log.warn("Could not read the most played songs, keeping the last ranking", e);
+            }
+            return drained.size();
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    // write the last plays on shutdown, before the data source closes
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    // the top of the flushed totals, only loading the songs not ranked already; the
+    // writes made meanwhile are applied before the new ranking is swapped in
+    private void rank() {
+        this.rankingLock.lock();
+        try {
+            this.written = new HashMap<>();
+        } finally {
+            this.rankingLock.unlock();
+        }
+        try {
+            List<MusicPlayCount> top = this.entityManager
+                    .createQuery("SELECT p FROM MusicPlayCount p ORDER BY p.plays DESC, p.musicId",
+                            MusicPlayCount.class)
+                    .setMaxResults(this.maxSize).getResultList();
+            Map<UUID, Music> songs = new HashMap<>();
+            for (MusicPlayed played : this.ranking) {
+                songs.put(played.song().getId(), played.song());
+            }
+            List<UUID> missing = top.stream().map(MusicPlayCount::getMusicId).filter(id -> !songs.containsKey(id))
+                    .toList();
+            if (!missing.isEmpty()) {
+                for (Music music : this.musicRepository.findAllById(missing)) {
+                    songs.put(music.getId(), music);
+                }
+            }
+
+            this.rankingLock.lock();
+            try {
+                this.written.forEach((id, event) -> {
+                    if (event.isNewerThan(songs.get(id))) {
+                        songs.put(id, event.current());
+                    }
+                });
+                List<MusicPlayed> ranked = new ArrayList<>(top.size());
+                for (MusicPlayCount count : top) {
+                    Music music = songs.get(count.getMusicId());
+                    if (music != null) {
+                        ranked.add(new MusicPlayed(music, count.getPlays()));
+                    }
+                }
+                this.ranking = List.copyOf(ranked);
+            } finally {
+                this.rankingLock.unlock();
+            }
+        } finally {
+            this.rankingLock.lock();
+            try {
+                this.written = null;
+            } finally {
+                this.rankingLock.unlock();
+            }
+        }
+    }
+
+    // the row alias upsert on MySQL, VALUES() elsewhere
+    private String upsert() {
+        if (this.upsert == null) {
+            String product = this.jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            this.upsert = "MySQL".equals(product) ? UPSERT : UPSERT_VALUES;
+        }
+        return this.upsert;
+    }
+
+    // ids are stored as binary(16), most significant bytes first
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits()).array();
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+
+// song reduced to its id and the requested fields, e.g. for ?fields=song,artist,energy;
+// a requested field that is null is written as null, the others are left out
+public final class MusicProjection {
+    private final UUID id;
+    private final Map<String, Object> fields;
+
+    public MusicProjection(UUID id, Map<String, Object> fields) {
+        this.id = id;
+        this.fields = Collections.unmodifiableMap(fields);
+    }
+
+    // the given fields of a song
+    public static MusicProjection of(Music music, Set<MusicField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (MusicField field : fields) {
+            values.put(field.property(), field.get(music));
+        }
+        return new MusicProjection(music.getId(), values);
+    }
+
+    // fields named by their json properties, id is always included
+    public static Set<MusicField> fields(List<String> properties) throws IllegalArgumentException {
+        Set<MusicField> fields = EnumSet.noneOf(MusicField.class);
+        for (String property : properties) {
+            String name = property.trim();
+            if (!name.equals("id")) {
+                fields.add(MusicField.fromProperty(name));
+            }
+        }
+        return fields;
+    }
+
+    // id getter
+    public UUID getId() {
+        return this.id;
+    }
+
+    // requested fields, written next to the id
+    @JsonAnyGetter
+    public Map<String, Object> getFields() {
+        return this.fields;
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.List;
+import java.util.Set;
+
+// MusicRepository fragment for reads of only some columns
+public interface MusicProjections {
+
+    // every song's id and the given fields, selected as plain values rather than
+    // entities, so nothing is kept in the persistence context or dirty checked
+    List<MusicProjection> findAllProjected(Set<MusicField> fields);
+
+}
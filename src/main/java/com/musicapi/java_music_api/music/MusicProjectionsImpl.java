@@ -0,0 +1,49 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+public class MusicProjectionsImpl implements MusicProjections {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MusicProjection> findAllProjected(Set<MusicField> fields) {
+        CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Music> root = query.from(Music.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get("id"));
+        fields.forEach(field -> selections.add(root.get(field.attribute())));
+        query.multiselect(selections);
+
+        List<Tuple> rows = this.entityManager.createQuery(query).getResultList();
+        List<MusicProjection> songs = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            int column = 1;
+            for (MusicField field : fields) {
+                values.put(field.property(), row.get(column++));
+            }
+            songs.add(new MusicProjection(row.get(0, UUID.class), values));
+        }
+        return songs;
+    }
+
+}
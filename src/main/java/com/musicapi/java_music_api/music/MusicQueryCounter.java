@@ -0,0 +1,88 @@
+package com.musicapi.java_music_api.music;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+
+// Counts the sql statements the current thread has Hibernate prepare and the rows it
+// reads between start and stop. The counts come from Hibernate's statistics, which are
+// replaced by ones that also add to the thread's counters (see MusicMetrics), so no
+// JDBC object is wrapped. Every song Hibernate reads from a row counts, and a query adds
+// the rows it returned beyond the songs its statement read once it is done, so a
+// projection counts too. Rows of a streamed query other than songs are not known to the
+// statistics, and nothing run through a JdbcTemplate is counted. A thread that is not
+// counting pays one ThreadLocal read per statement, song and query.
+public final class MusicQueryCounter {
+    private static final ThreadLocal<Counts> COUNTS = new ThreadLocal<>();
+
+    private MusicQueryCounter() {
+    }
+
+    // statements prepared and rows read
+    public static final class Counts {
+        private long statements;
+        private long rows;
+        // songs read by the last statement
+        private long songs;
+
+        public long statements() {
+            return this.statements;
+        }
+
+        public long rows() {
+            return this.rows;
+        }
+    }
+
+    public static void start() {
+        COUNTS.set(new Counts());
+    }
+
+    // counts since start, null if the thread never started
+    public static Counts stop() {
+        Counts counts = COUNTS.get();
+        COUNTS.remove();
+        return counts;
+    }
+
+    // Hibernate statistics counting into the current thread's counters as well
+    public static StatisticsFactory statistics() {
+        return Statistics::new;
+    }
+
+    private static final class Statistics extends StatisticsImpl {
+        private Statistics(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public void prepareStatement() {
+            super.prepareStatement();
+            Counts counts = COUNTS.get();
+            if (counts != null) {
+                counts.statements++;
+                counts.songs = 0;
+            }
+        }
+
+        @Override
+        public void loadEntity(String entityName) {
+            super.loadEntity(entityName);
+            Counts counts = COUNTS.get();
+            if (counts != null) {
+                counts.rows++;
+                counts.songs++;
+            }
+        }
+
+        @Override
+        public void queryExecuted(String query, int rows, long time) {
+            super.queryExecuted(query, rows, time);
+            Counts counts = COUNTS.get();
+            if (counts != null && rows > counts.songs) {
+                counts.rows += rows - counts.songs;
+            }
+        }
+    }
+
+}
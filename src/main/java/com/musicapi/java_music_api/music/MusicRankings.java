@@ -0,0 +1,89 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+// in-memory danceability and energy leaderboards, kept in step with MusicService writes
+@Component
+public class MusicRankings {
+    private final MusicRepository musicRepository;
+    private final MusicLeaderboard highDanceability;
+    private final MusicLeaderboard lowEnergy;
+
+    public MusicRankings(MusicRepository musicRepository, @Value("${music.rankings.max-size:100}") int maxSize) {
+        this.musicRepository = musicRepository;
+        this.highDanceability = new MusicLeaderboard(
+                MusicAttribute.DANCEABILITY.comparator(Sort.Direction.DESC),
+                music -> music.getDanceability() != null,
+                limit -> musicRepository.findByDanceabilityNotNullOrderByDanceabilityDescIdDesc(Limit.of(limit)),
+                maxSize);
+        this.lowEnergy = new MusicLeaderboard(
+                MusicAttribute.ENERGY.comparator(Sort.Direction.ASC),
+                music -> music.getEnergy() != null,
+                limit -> musicRepository.findByEnergyNotNullOrderByEnergyAscIdAsc(Limit.of(limit)),
+                maxSize);
+    }
+
+    // build the leaderboards once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        this.highDanceability.reload();
+        this.lowEnergy.reload();
+    }
+
+    // keep the leaderboards up to date with every write
+    @EventListener
+    @Order(MusicChangedEvent.READ_MODEL_ORDER)
+    public void onMusicChanged(MusicChangedEvent event) {
+        this.highDanceability.apply(event);
+        this.lowEnergy.apply(event);
+    }
+
+    // largest limit the leaderboards answer for
+    public int maxSize() {
+        return this.highDanceability.capacity();
+    }
+
+    // songs with highest danceability
+    public List<Music> highDanceability(int limit) throws IllegalArgumentException {
+        return this.highDanceability.top(limit);
+    }
+
+    // songs with lowest energy
+    public List<Music> lowEnergy(int limit) throws IllegalArgumentException {
+        return this.lowEnergy.top(limit);
+    }
+
+    // consistency check, compares both leaderboards with the database ranking
+    public boolean isConsistent() {
+        int limit = maxSize();
+        return sameRanking(highDanceability(limit),
+                this.musicRepository.findByDanceabilityNotNullOrderByDanceabilityDescIdDesc(Limit.of(limit)))
+                && sameRanking(lowEnergy(limit),
+                        this.musicRepository.findByEnergyNotNullOrderByEnergyAscIdAsc(Limit.of(limit)));
+    }
+
+    private static boolean sameRanking(List<Music> board, List<Music> database) {
+        if (board.size() != database.size()) {
+            return false;
+        }
+        for (int i = 0; i < board.size(); i++) {
+            Music a = board.get(i);
+            Music b = database.get(i);
+            if (!a.getId().equals(b.getId()) || !Objects.equals(a.getDanceability(), b.getDanceability())
+                    || !Objects.equals(a.getEnergy(), b.getEnergy())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+
+// An in-memory view of the catalog kept in step with MusicService writes, over an index
+// of type I that is not thread-safe itself. Reads share a read lock and writes take the
+// write lock. A load streams the catalog into a new index without holding the lock,
+// remembering the version of every song it read, and replays the writes it raced with
+// before swapping the new index in: a write is skipped when the load read the song as
+// written or later, and its previous state only taken out when that is the state the
+// load read. Writes to a song arrive in version order, see MusicWriteLocks.
+public abstract class MusicReadModel<I> {
+    private final EntityManager entityManager;
+    private final int fetchSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // one load at a time, the startup one and any reconciliation
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private I index;
+    // writes seen while a load is running, null otherwise; written under the write lock
+    private volatile List<MusicChangedEvent> pending;
+
+    protected MusicReadModel(EntityManager entityManager, int fetchSize, I index) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+        this.index = index;
+    }
+
+    // a new index of the songs
+    protected abstract I build(Stream<Music> songs);
+
+    // apply a write to the index, previous being the state of the song the index holds
+    // and current its new one; either is null, never both
+    protected abstract void apply(I index, Music previous, Music current);
+
+    // whether the write changes anything the index keeps; a load still replays the
+    // others, to know which version of the song it holds
+    protected boolean affects(MusicChangedEvent event) {
+        return true;
+    }
+
+    // called under the write lock once the index in use has changed
+    protected void changed() {
+    }
+
+    // build the index once the application is up, streaming the catalog
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        reload((previous, loaded) -> null);
+    }
+
+    // keep the index up to date with every write
+    @EventListener
+    @Order(MusicChangedEvent.READ_MODEL_ORDER)
+    public void onMusicChanged(MusicChangedEvent event) {
+        boolean affects = affects(event);
+        // a load that starts after this check reads the song as written or later
+        if (!affects && this.pending == null) {
+            return;
+        }
+        this.lock.writeLock().lock();
+        try {
+            if (this.pending != null) {
+                this.pending.add(event);
+            }
+            if (affects) {
+                apply(this.index, event.previous(), event.current());
+                changed();
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    // result of the query against the index in use
+    protected <T> T read(Function<I, T> query) {
+        this.lock.readLock().lock();
+        try {
+            return query.apply(this.index);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    // replace the index with one streamed from the database, which must be read in a
+    // transaction. compare gets the index in use and the loaded one under the write lock,
+    // once the writes made meanwhile are replayed, and its result is returned; a load that
+    // fails leaves the index in use as it is
+    protected <T> T reload(BiFunction<I, I, T> compare) {
+        this.loadLock.lock();
+        try {
+            this.lock.writeLock().lock();
+            try {
+                this.pending = new ArrayList<>();
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+
+            Map<UUID, Long> versions = new HashMap<>();
+            I loaded;
+            try (Stream<Music> songs = this.entityManager.createQuery("SELECT m FROM Music m", Music.class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, this.fetchSize)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream()) {
+                loaded = build(songs.peek(music -> {
+                    this.entityManager.detach(music);
+                    versions.put(music.getId(), music.getVersion());
+                }));
+            } catch (RuntimeException e) {
+                this.lock.writeLock().lock();
+                try {
+                    this.pending = null;
+                } finally {
+                    this.lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            this.lock.writeLock().lock();
+            try {
+                for (MusicChangedEvent event : this.pending) {
+                    replay(loaded, versions, event);
+                }
+                T result = compare.apply(this.index, loaded);
+                this.index = loaded;
+                this.pending = null;
+                changed();
+                return result;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        } finally {
+            this.loadLock.unlock();
+        }
+    }
+
+    // apply a write made during a load, unless the load read the song as written or later
+    private void replay(I loaded, Map<UUID, Long> versions, MusicChangedEvent event) {
+        Long read = versions.get(event.id());
+        if (read != null && event.current() != null && read >= event.current().getVersion()) {
+            return;
+        }
+        Music previous = read != null && event.previous() != null && read.equals(event.previous().getVersion())
+                ? event.previous()
+                : null;
+        if (previous == null && event.current() == null) {
+            // a delete of a song the load never read
+            return;
+        }
+        if (affects(event)) {
+            apply(loaded, previous, event.current());
+        }
+        if (event.current() != null) {
+            versions.put(event.id(), event.current().getVersion());
+        } else {
+            versions.remove(event.id());
+        }
+    }
+
+}
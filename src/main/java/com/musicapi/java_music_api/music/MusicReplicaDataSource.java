@@ -0,0 +1,114 @@
+package com.musicapi.java_music_api.music;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+// The primary, whose read-only connections come from a replica instead, the one with the
+// fewest connections in use. A connection is only taken when its first statement runs,
+// after the transaction has marked it read-only or not. A replica that fails to hand out
+// a connection is skipped for the retry period and the next one is tried, the primary
+// last. Reads outside MusicReplicas.read() stay on the primary.
+public class MusicReplicaDataSource extends LazyConnectionDataSourceProxy {
+    private static final Logger log = LoggerFactory.getLogger(MusicReplicaDataSource.class);
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final Duration retry;
+    private final Clock clock;
+    // when each replica may be tried again, in epoch milliseconds
+    private final AtomicLongArray downUntil;
+    // rotates the first replica looked at, so idle replicas share the reads
+    private final AtomicInteger next = new AtomicInteger();
+
+    public MusicReplicaDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration retry,
+            Clock clock) {
+        super(primary);
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.retry = retry;
+        this.clock = clock;
+        this.downUntil = new AtomicLongArray(replicas.size());
+        setReadOnlyDataSource(new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return readOnlyConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                throw new SQLFeatureNotSupportedException("Replicas use the credentials they were configured with");
+            }
+        });
+    }
+
+    private Connection readOnlyConnection() throws SQLException {
+        if (!MusicReplicas.allowed()) {
+            return this.primary.getConnection();
+        }
+        boolean[] tried = new boolean[this.replicas.size()];
+        for (int attempt = 0; attempt < tried.length; attempt++) {
+            int replica = leastBusy(tried);
+            if (replica < 0) {
+                break;
+            }
+            tried[replica] = true;
+            try {
+                Connection connection = this.replicas.get(replica).getConnection();
+                MusicReplicas.served();
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                this.downUntil.set(replica, this.clock.millis() + this.retry.toMillis());
+                log.warn("Replica {} is unavailable, skipping it for {}", this.replicas.get(replica).getPoolName(),
+                        this.retry, e);
+            }
+        }
+        return this.primary.getConnection();
+    }
+
+    // replica up and not yet tried with the fewest connections in use, -1 if none is left
+    private int leastBusy(boolean[] tried) {
+        long now = this.clock.millis();
+        int start = Math.floorMod(this.next.getAndIncrement(), tried.length);
+        int best = -1;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < tried.length; i++) {
+            int replica = (start + i) % tried.length;
+            if (tried[replica] || this.downUntil.get(replica) > now) {
+                continue;
+            }
+            int active = active(this.replicas.get(replica));
+            if (active < bestActive) {
+                best = replica;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    // connections in use, 0 for a pool that has not started yet
+    private static int active(HikariDataSource replica) {
+        HikariPoolMXBean pool = replica.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    // closes the primary and replica pools
+    public void close() {
+        this.replicas.forEach(HikariDataSource::close);
+        this.primary.close();
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.function.Supplier;
+
+// Which reads may go to a replica. Only the reads run through read() do, and only in
+// read-only transactions: the in-memory read models and the song cache keep loading
+// from the primary, as they are shared by every client and must not fall behind a
+// write. A client that wrote recently reads from the primary too, see MusicDataSources.
+public final class MusicReplicas {
+    private static final ThreadLocal<Boolean> READS = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> STICKY = new ThreadLocal<>();
+    // whether a replica answered the last reads, kept once they are done
+    private static final ThreadLocal<Boolean> SERVED = new ThreadLocal<>();
+
+    private MusicReplicas() {
+    }
+
+    // runs the reads on a replica, when one is configured
+    public static <T> T read(Supplier<T> reads) {
+        if (READS.get() != null) {
+            return reads.get();
+        }
+        READS.set(Boolean.TRUE);
+        SERVED.remove();
+        try {
+            return reads.get();
+        } finally {
+            READS.remove();
+        }
+    }
+
+    // whether the current thread's read-only connections may come from a replica
+    public static boolean allowed() {
+        return READS.get() != null && STICKY.get() == null;
+    }
+
+    // whether a replica answered any of the current thread's last reads, which may then
+    // lag behind the primary
+    public static boolean fromReplica() {
+        return SERVED.get() != null;
+    }
+
+    static void served() {
+        SERVED.set(Boolean.TRUE);
+    }
+
+    // keeps the current thread's reads on the primary, for a client that just wrote
+    static void stick() {
+        STICKY.set(Boolean.TRUE);
+    }
+
+    static void unstick() {
+        STICKY.remove();
+    }
+
+}
@@ -3,15 +3,21 @@ package com.musicapi.java_music_api.music;
 import java.util.List;
 import java.util.UUID;
 
-import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.ListCrudRepository;
 
-public interface MusicRepository extends ListCrudRepository<Music, UUID> {
-    // Retrieve 15 songs with highest danceability
-    @Query(value = "SELECT * FROM music ORDER BY danceability DESC LIMIT 15", nativeQuery = true)
-    List<Music> findByHighDanceability();
+public interface MusicRepository extends ListCrudRepository<Music, UUID>, JpaSpecificationExecutor<Music>,
+        MusicUpdates, MusicProjections {
+    // Retrieve first page of songs, ordered by the primary key
+    List<Music> findAllByOrderByIdAsc(Limit limit);
 
-    // Retrieve 15 songs with lowest energy
-    @Query(value = "SELECT * FROM music ORDER BY energy ASC LIMIT 15", nativeQuery = true)
-    List<Music> findByLowEnergy();
+    // Retrieve page of songs following the cursor id, seeks on the primary key
+    List<Music> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    // Retrieve songs with highest danceability, ties broken by id
+    List<Music> findByDanceabilityNotNullOrderByDanceabilityDescIdDesc(Limit limit);
+
+    // Retrieve songs with lowest energy, ties broken by id
+    List<Music> findByEnergyNotNullOrderByEnergyAscIdAsc(Limit limit);
 }
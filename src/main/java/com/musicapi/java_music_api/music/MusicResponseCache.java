@@ -0,0 +1,115 @@
+package com.musicapi.java_music_api.music;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+// Encoded bodies of the ranking endpoints, as sent and gzip-compressed, one per ranking,
+// limit and format. A body belongs to the catalog version read before its songs were;
+// every write moves the version on, so a cached body is replaced on the next request
+// rather than invalidated, and is never sent under a tag newer than its songs. A hit
+// reads the version and one array slot and allocates nothing.
+@Component
+public class MusicResponseCache {
+
+    // rankings with cached bodies
+    public enum Ranking {
+        HIGH_DANCEABILITY, LOW_ENERGY
+    }
+
+    // encoded body, with the entity tags of its format as is and gzipped
+    public record Body(long version, String etag, String gzipEtag, byte[] raw, byte[] gzip) {
+    }
+
+    private final MusicVersion musicVersion;
+    private final Map<Ranking, IntFunction<List<Music>>> rankings = new EnumMap<>(Ranking.class);
+    private final Map<MusicFormat, ObjectWriter> writers = new EnumMap<>(MusicFormat.class);
+    private final int maxSize;
+    private final AtomicReferenceArray<Body> bodies;
+
+    public MusicResponseCache(MusicService musicService, MusicRankings musicRankings, MusicVersion musicVersion,
+            ObjectMapper objectMapper, MappingJackson2CborHttpMessageConverter cborConverter,
+            MappingJackson2SmileHttpMessageConverter smileConverter) {
+        this.musicVersion = musicVersion;
+        this.rankings.put(Ranking.HIGH_DANCEABILITY, musicService::getHighDanceabilitySongs);
+        this.rankings.put(Ranking.LOW_ENERGY, musicService::getLowEnergySongs);
+        TypeReference<List<Music>> songs = new TypeReference<List<Music>>() {
+        };
+        this.writers.put(MusicFormat.JSON, objectMapper.writerFor(songs));
+        this.writers.put(MusicFormat.CBOR, cborConverter.getObjectMapper().writerFor(songs));
+        this.writers.put(MusicFormat.SMILE, smileConverter.getObjectMapper().writerFor(songs));
+        this.maxSize = musicRankings.maxSize();
+        this.bodies = new AtomicReferenceArray<>(
+                Ranking.values().length * MusicFormat.values().length * (this.maxSize + 1));
+    }
+
+    // body of the top limit songs of the ranking in the format, encoded again only
+    // after a write; limits the ranking does not serve are not cached
+    public Body body(Ranking ranking, int limit, MusicFormat format) throws IllegalArgumentException {
+        long version = this.musicVersion.version();
+        if (limit < 1 || limit > this.maxSize) {
+            return encode(ranking, limit, format, version);
+        }
+        int slot = (ranking.ordinal() * MusicFormat.values().length + format.ordinal()) * (this.maxSize + 1) + limit;
+        Body body = this.bodies.get(slot);
+        if (body != null && body.version() == version) {
+            return body;
+        }
+        Body encoded = encode(ranking, limit, format, version);
+        // a slower request must not put back a body older than the one it finds
+        return this.bodies.accumulateAndGet(slot, encoded,
+                (current, next) -> current != null && current.version() > next.version() ? current : next);
+    }
+
+    private Body encode(Ranking ranking, int limit, MusicFormat format, long version) {
+        List<Music> songs = this.rankings.get(ranking).apply(limit);
+        try {
+            byte[] raw = this.writers.get(format).writeValueAsBytes(songs);
+            String etag = format.etag(this.musicVersion.etag(version));
+            return new Body(version, etag, MusicFormat.gzip(etag), raw, gzip(raw));
+        } catch (JsonProcessingException jpe) {
+            throw new IllegalStateException("Could not encode " + ranking, jpe);
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(raw);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+        return compressed.toByteArray();
+    }
+
+    // whether an Accept-Encoding header takes gzip; "*" is not taken as gzip
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        int start = acceptEncoding.indexOf("gzip");
+        if (start < 0) {
+            return false;
+        }
+        int end = acceptEncoding.indexOf(',', start);
+        String parameters = acceptEncoding.substring(start + 4, end < 0 ? acceptEncoding.length() : end);
+        // usually none; otherwise only q=0 refuses it
+        return parameters.isEmpty() || !parameters.replace(" ", "").matches(";q=0(\\.0*)?");
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+
+// full text search over the catalog, see MusicReadModel
+@Component
+public class MusicSearch extends MusicReadModel<MusicSearchIndex> {
+
+    public MusicSearch(EntityManager entityManager, @Value("${music.export.fetch-size:1000}") int fetchSize) {
+        super(entityManager, fetchSize, new MusicSearchIndex());
+    }
+
+    // best limit matches for the query among the songs the filter accepts, see
+    // MusicSearchIndex.search
+    public List<MusicSearchHit> search(String query, boolean prefix, Predicate<UUID> filter, int limit)
+            throws IllegalArgumentException {
+        return read(index -> index.search(query, prefix, filter, limit));
+    }
+
+    // number of songs in the index
+    public int size() {
+        return read(MusicSearchIndex::size);
+    }
+
+    @Override
+    protected MusicSearchIndex build(Stream<Music> songs) {
+        MusicSearchIndex index = new MusicSearchIndex();
+        songs.forEach(index::put);
+        return index;
+    }
+
+    @Override
+    protected void apply(MusicSearchIndex index, Music previous, Music current) {
+        if (current == null) {
+            index.remove(previous.getId());
+        } else {
+            index.put(current);
+        }
+    }
+
+    // only writes that touch the indexed text
+    @Override
+    protected boolean affects(MusicChangedEvent event) {
+        return event.previous() == null || event.current() == null || !sameText(event.previous(), event.current());
+    }
+
+    private static boolean sameText(Music a, Music b) {
+        return Objects.equals(a.getSong(), b.getSong()) && Objects.equals(a.getArtist(), b.getArtist())
+                && Objects.equals(a.getDescription(), b.getDescription());
+    }
+
+}
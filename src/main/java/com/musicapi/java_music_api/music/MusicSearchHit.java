@@ -0,0 +1,7 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.UUID;
+
+// one search result, higher scores rank first
+public record MusicSearchHit(UUID id, float score) {
+}
@@ -0,0 +1,675 @@
+package com.musicapi.java_music_api.music;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+// in-memory inverted index over song, artist and description. Every song gets a dense
+// document number in insertion order. A term weighs idf times the boost of the best
+// field it occurs in, so it takes at most three weights in the catalog, and the postings
+// of a term are kept as one document ordered list per weight tier. Next to the postings
+// every document keeps its own terms sorted by term id, with their field. Candidates
+// are first screened by intersecting the terms as bit sets, common terms keeping theirs.
+// A few candidates are scored one by one; more are found by visiting combinations of
+// tiers best first and intersecting their lists; when the terms are too common to
+// screen, the tiers of the shortest term are walked from the best score down, looking
+// the other terms up in each candidate's own list. Each stops at the first tier that
+// cannot reach the top, and since ties go to the older document, a tier is left as
+// soon as its later documents can only tie. A write marks the old document dead and
+// appends a new one; dead documents are dropped and the survivors renumbered once they
+// make up a quarter of the index. Not thread-safe, see MusicSearch.
+public class MusicSearchIndex {
+    public static final int MAX_QUERY_LENGTH = 256;
+    public static final int MAX_QUERY_TERMS = 16;
+    // most frequent terms a prefix expands to
+    public static final int MAX_EXPANSIONS = 64;
+    // prefixes shorter than this have thousands of completions, their choice is cached
+    private static final int CACHED_PREFIX_LENGTH = 4;
+
+    // weight of a term by the best field it occurs in: song, artist, description
+    private static final float[] BOOSTS = { 3f, 2f, 1f };
+    private static final int MIN_COMPACTION = 1024;
+    // terms in at least this share of the documents, and at least MIN_DENSE of them, also
+    // keep a bit per document, at most four times the size of their postings
+    private static final int DENSE_FRACTION = 128;
+    private static final int MIN_DENSE = 256;
+    // words of bits and sparse postings a query merges per document of its shortest
+    // term, as merging costs a word or posting where the walk spends a random read
+    private static final int MERGED_PER_DOCUMENT = 32;
+    // most documents with every term that are scored one by one; with more of them
+    // the best tier combinations are sure to hold enough
+    private static final int MAX_SCORED = 2048;
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<UUID, Integer> documents = new HashMap<>();
+    private final BitSet dead = new BitSet();
+    // filled by concurrent searches, emptied by writes
+    private final Map<String, List<Postings>> completions = new ConcurrentHashMap<>();
+    private long[] mostSignificant = new long[16];
+    private long[] leastSignificant = new long[16];
+    // the terms of document d are at starts[d] until starts[d + 1]
+    private int[] starts = new int[17];
+    // term id shifted left by two, or'ed with the field that gives its weight
+    private int[] documentTerms = new int[64];
+    private int nextTerm;
+    private int maxDocument;
+    private int deadDocuments;
+
+    // number of songs in the index
+    public int size() {
+        return this.documents.size();
+    }
+
+    // number of distinct terms, including ones only dead documents still use
+    public int termCount() {
+        return this.terms.size();
+    }
+
+    // add the song, replacing whatever was indexed for its id
+    public void put(Music music) {
+        remove(music.getId());
+
+        int document = this.maxDocument++;
+        if (document == this.mostSignificant.length) {
+            int capacity = document + (document >> 1);
+            this.mostSignificant = Arrays.copyOf(this.mostSignificant, capacity);
+            this.leastSignificant = Arrays.copyOf(this.leastSignificant, capacity);
+            this.starts = Arrays.copyOf(this.starts, capacity + 1);
+        }
+        this.mostSignificant[document] = music.getId().getMostSignificantBits();
+        this.leastSignificant[document] = music.getId().getLeastSignificantBits();
+        this.documents.put(music.getId(), document);
+
+        // best field of every term, song then artist then description
+        Map<String, Integer> fields = new HashMap<>();
+        String[] texts = { music.getSong(), music.getArtist(), music.getDescription() };
+        for (int field = texts.length - 1; field >= 0; field--) {
+            for (String token : tokens(texts[field])) {
+                fields.put(token, field);
+            }
+        }
+        Postings[] postings = new Postings[fields.size()];
+        int[] best = new int[fields.size()];
+        int n = 0;
+        for (Map.Entry<String, Integer> entry : fields.entrySet()) {
+            postings[n] = this.terms.computeIfAbsent(entry.getKey(), this::newTerm);
+            best[n] = entry.getValue();
+            postings[n].append(document, BOOSTS[best[n]]);
+            if (postings[n].bits == null && isDense(postings[n])) {
+                postings[n].keepBits();
+            }
+            n++;
+        }
+
+        Integer[] order = new Integer[n];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingInt(i -> postings[i].id));
+        int start = this.starts[document];
+        if (start + n > this.documentTerms.length) {
+            int capacity = Math.max(start + n, this.documentTerms.length + (this.documentTerms.length >> 1));
+            this.documentTerms = Arrays.copyOf(this.documentTerms, capacity);
+        }
+        for (int i = 0; i < n; i++) {
+            this.documentTerms[start + i] = postings[order[i]].id << 2 | best[order[i]];
+        }
+        this.starts[document + 1] = start + n;
+    }
+
+    // drop the song, if it is indexed
+    public void remove(UUID id) {
+        Integer document = this.documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        this.dead.set(document);
+        this.deadDocuments++;
+        if (this.deadDocuments >= MIN_COMPACTION && this.deadDocuments * 4 >= this.maxDocument) {
+            compact();
+        }
+    }
+
+    // best limit songs containing every query term, ranked by the summed idf of the terms
+    // with song and artist matches weighing more than the description; with prefix the
+    // last term also matches every term it starts, for search as you type
+    public List<MusicSearchHit> search(String query, boolean prefix, int limit) throws IllegalArgumentException {
+        return search(query, prefix, id -> true, limit);
+    }
+
+    // the same, of the songs the filter accepts; it is only asked about songs that would
+    // make the top, so a filter most songs pass costs next to nothing
+    public List<MusicSearchHit> search(String query, boolean prefix, Predicate<UUID> filter, int limit)
+            throws IllegalArgumentException {
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Query must have between 1 and " + MAX_QUERY_LENGTH + " characters");
+        }
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokens(query)));
+        if (tokens.size() > MAX_QUERY_TERMS) {
+            throw new IllegalArgumentException("Query must have at most " + MAX_QUERY_TERMS + " terms");
+        }
+        if (tokens.isEmpty() || this.documents.isEmpty()) {
+            return List.of();
+        }
+
+        // one slot per query term; a prefix slot matches any of its completions, a
+        // document counting the best one
+        List<Slot> slots = new ArrayList<>(tokens.size());
+        String completion = prefix ? tokens.remove(tokens.size() - 1) : null;
+        for (String token : tokens) {
+            Postings postings = this.terms.get(token);
+            if (postings == null) {
+                return List.of();
+            }
+            slots.add(slot(List.of(postings)));
+        }
+        if (completion != null) {
+            List<Postings> completions = expand(completion);
+            if (completions.isEmpty()) {
+                return List.of();
+            }
+            slots.add(slot(completions));
+        }
+
+        PriorityQueue<Hit> top = collect(slots, filter, limit);
+        List<MusicSearchHit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            Hit hit = top.poll();
+            hits.add(new MusicSearchHit(new UUID(this.mostSignificant[hit.document],
+                    this.leastSignificant[hit.document]), hit.score));
+        }
+        return hits.reversed();
+    }
+
+    // lower case words and numbers with accents stripped and compatibility forms, such as
+    // ligatures and full-width letters, folded to their plain letters
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKD).toLowerCase(Locale.ROOT);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && !token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    // walk the tiers of the shortest slot from the best score down; every other slot
+    // adds at most its best tier, which bounds what the rest of the walk can score
+    private PriorityQueue<Hit> collect(List<Slot> slots, Predicate<UUID> filter, int limit) {
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Hit.ORDER);
+        // the shortest slot first, it rejects the most candidates
+        Slot[] ordered = slots.toArray(Slot[]::new);
+        Arrays.sort(ordered, Comparator.comparingLong(Slot::size));
+        Slot driver = ordered[0];
+        float others = 0f;
+        for (int slot = 1; slot < ordered.length; slot++) {
+            others += ordered[slot].tiers[0].score;
+        }
+
+        // common terms are intersected a word at a time; when few documents have them
+        // all those are scored directly, otherwise they screen the tier walk's candidates
+        BitSet candidates = null;
+        boolean exact = ordered.length > 1;
+        for (int slot = 0; slot < ordered.length && ordered.length > 1; slot++) {
+            BitSet bits = bits(ordered[slot], driver.size);
+            if (bits == null) {
+                exact = false;
+            } else if (candidates == null) {
+                candidates = (BitSet) bits.clone();
+            } else {
+                candidates.and(bits);
+            }
+        }
+        if (exact && candidates.cardinality() <= MAX_SCORED) {
+            for (int document = candidates.nextSetBit(0); document >= 0;
+                    document = candidates.nextSetBit(document + 1)) {
+                float score = this.dead.get(document) ? -1f : score(ordered, null, document);
+                if (score >= 0f) {
+                    offer(top, filter, document, score, limit);
+                }
+            }
+            return top;
+        }
+        if (exact) {
+            combinations(ordered, candidates, top, filter, limit);
+            return top;
+        }
+
+        for (Tier tier : driver.tiers) {
+            float bound = tier.score + others;
+            if (top.size() == limit && bound < top.peek().score) {
+                break;
+            }
+            for (int i = 0; i < tier.size; i++) {
+                int document = tier.documents[i];
+                if (top.size() == limit && bound == top.peek().score && document > top.peek().document) {
+                    // the rest of the tier can at best tie, and loses the tie
+                    break;
+                }
+                if (this.dead.get(document) || candidates != null && !candidates.get(document)) {
+                    continue;
+                }
+                float score = score(ordered, tier, document);
+                if (score >= 0f) {
+                    offer(top, filter, document, score, limit);
+                }
+            }
+        }
+        return top;
+    }
+
+    // score of a document matching every slot, -1 otherwise. Walking the tiers, the
+    // driver's score is the tier's and a document is only taken under the tier of its
+    // best completion
+    private float score(Slot[] slots, Tier tier, int document) {
+        float score = 0f;
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (tier != null && slot == 0 && slots[0].terms.length == 1) {
+                score += tier.score;
+                continue;
+            }
+            int position = best(slots[slot], document);
+            int entry = position < 0 ? -1 : this.documentTerms[position];
+            if (entry < 0 || tier != null && slot == 0 && entry >>> 2 != tier.term) {
+                return -1f;
+            }
+            score += slots[slot].idfs[Arrays.binarySearch(slots[slot].terms, entry >>> 2)] * BOOSTS[entry & 3];
+        }
+        return score;
+    }
+
+    // visit tier combinations best first. Each combination is reached from exactly one
+    // parent, the same combination with its last advanced slot one tier higher, and
+    // scores no more than that parent, so the queue hands them out in score order and
+    // stops at the first one that cannot reach the top
+    private void combinations(Slot[] slots, BitSet candidates, PriorityQueue<Hit> top, Predicate<UUID> filter,
+            int limit) {
+        // with completions a document can match several combinations, its first is its best
+        Set<Integer> seen = Arrays.stream(slots).anyMatch(slot -> slot.terms.length > 1) ? new HashSet<>() : null;
+        PriorityQueue<Combination> combinations = new PriorityQueue<>(
+                Comparator.comparingDouble(Combination::score).reversed());
+        combinations.add(new Combination(new int[slots.length], score(slots, new int[slots.length]), 0));
+
+        while (!combinations.isEmpty()) {
+            Combination combination = combinations.poll();
+            if (top.size() == limit && combination.score < top.peek().score) {
+                break;
+            }
+            intersect(slots, combination, candidates, top, seen, filter, limit);
+            for (int slot = combination.last; slot < slots.length; slot++) {
+                if (combination.tiers[slot] + 1 < slots[slot].tiers.length) {
+                    int[] tiers = combination.tiers.clone();
+                    tiers[slot]++;
+                    combinations.add(new Combination(tiers, score(slots, tiers), slot));
+                }
+            }
+        }
+    }
+
+    // documents in every list of the combination, in document order until the top is full
+    private void intersect(Slot[] slots, Combination combination, BitSet candidates, PriorityQueue<Hit> top,
+            Set<Integer> seen, Predicate<UUID> filter, int limit) {
+        Tier[] lists = new Tier[slots.length];
+        int driver = 0;
+        for (int slot = 0; slot < lists.length; slot++) {
+            lists[slot] = slots[slot].tiers[combination.tiers[slot]];
+            if (lists[slot].size < lists[driver].size) {
+                driver = slot;
+            }
+        }
+        int[] cursors = new int[lists.length];
+        Tier shortest = lists[driver];
+
+        documents: for (int i = 0; i < shortest.size; i++) {
+            int document = shortest.documents[i];
+            if (top.size() == limit && (combination.score < top.peek().score
+                    || combination.score == top.peek().score && document > top.peek().document)) {
+                // later documents of this combination lose to the whole top
+                return;
+            }
+            if (!candidates.get(document)) {
+                continue;
+            }
+            for (int slot = 0; slot < lists.length; slot++) {
+                if (slot == driver) {
+                    continue;
+                }
+                Tier list = lists[slot];
+                cursors[slot] = advance(list.documents, list.size, cursors[slot], document);
+                if (cursors[slot] == list.size) {
+                    return;
+                }
+                if (list.documents[cursors[slot]] != document) {
+                    continue documents;
+                }
+            }
+            if (this.dead.get(document) || seen != null && !seen.add(document)) {
+                continue;
+            }
+            offer(top, filter, document, combination.score, limit);
+        }
+    }
+
+    // every document of the slot, possibly the bits its term keeps, null when a prefix
+    // slot has more completions than walking the driver's documents is worth
+    private BitSet bits(Slot slot, long driver) {
+        if (slot.postings.length == 1 && slot.postings[0].bits != null) {
+            return slot.postings[0].bits;
+        }
+        int dense = 0;
+        long sparse = 0;
+        for (Postings postings : slot.postings) {
+            if (postings.bits != null) {
+                dense++;
+            } else {
+                sparse += postings.size;
+            }
+        }
+        if ((long) dense * (this.maxDocument >> 6) + sparse > driver * MERGED_PER_DOCUMENT) {
+            return null;
+        }
+        BitSet bits = new BitSet(this.maxDocument);
+        for (Postings postings : slot.postings) {
+            if (postings.bits != null) {
+                bits.or(postings.bits);
+            } else {
+                postings.setBits(bits);
+            }
+        }
+        return bits;
+    }
+
+    // position of the slot's best scoring term among the document's terms, or -1
+    private int best(Slot slot, int document) {
+        int from = this.starts[document];
+        int to = this.starts[document + 1];
+        if (slot.terms.length == 1) {
+            return find(from, to, slot.terms[0]);
+        }
+        int best = -1;
+        float bestScore = 0f;
+        for (int position = from; position < to; position++) {
+            int entry = this.documentTerms[position];
+            int term = Arrays.binarySearch(slot.terms, entry >>> 2);
+            if (term >= 0 && (best < 0 || slot.idfs[term] * BOOSTS[entry & 3] > bestScore)) {
+                best = position;
+                bestScore = slot.idfs[term] * BOOSTS[entry & 3];
+            }
+        }
+        return best;
+    }
+
+    // position of the term among the document's entries from..to, or -1
+    private int find(int from, int to, int term) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int found = this.documentTerms[middle] >>> 2;
+            if (found < term) {
+                low = middle + 1;
+            } else if (found > term) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // the terms sorted by id with their idf, and all their tiers from the best score down
+    private Slot slot(List<Postings> postings) {
+        Postings[] sorted = postings.toArray(Postings[]::new);
+        Arrays.sort(sorted, Comparator.comparingInt(term -> term.id));
+        int[] terms = new int[sorted.length];
+        float[] idfs = new float[sorted.length];
+        List<Tier> tiers = new ArrayList<>();
+        long size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            terms[i] = sorted[i].id;
+            idfs[i] = idf(sorted[i]);
+            tiers.addAll(Arrays.asList(sorted[i].tiers(idfs[i])));
+            size += sorted[i].size;
+        }
+        tiers.sort(Comparator.comparingDouble(Tier::score).reversed());
+        return new Slot(sorted, terms, idfs, tiers.toArray(Tier[]::new), size);
+    }
+
+    // the most frequent terms starting with the prefix. A cached choice is only redone
+    // when a term with that prefix appears, so it may lag behind frequency changes
+    private List<Postings> expand(String prefix) {
+        if (prefix.length() < CACHED_PREFIX_LENGTH) {
+            return this.completions.computeIfAbsent(prefix, this::mostFrequent);
+        }
+        return mostFrequent(prefix);
+    }
+
+    private List<Postings> mostFrequent(String prefix) {
+        PriorityQueue<Postings> frequent = new PriorityQueue<>(MAX_EXPANSIONS + 1,
+                Comparator.comparingInt(postings -> postings.size));
+        for (Postings postings : this.terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            frequent.add(postings);
+            if (frequent.size() > MAX_EXPANSIONS) {
+                frequent.poll();
+            }
+        }
+        return List.copyOf(frequent);
+    }
+
+    private Postings newTerm(String term) {
+        for (int length = 1; length < CACHED_PREFIX_LENGTH && length <= term.length(); length++) {
+            this.completions.remove(term.substring(0, length));
+        }
+        return new Postings(this.nextTerm++);
+    }
+
+    // drop dead documents from every list and renumber the live ones in the same order
+    private void compact() {
+        int[] renumbered = new int[this.maxDocument];
+        int live = 0;
+        for (int document = 0; document < this.maxDocument; document++) {
+            if (this.dead.get(document)) {
+                renumbered[document] = -1;
+            } else {
+                renumbered[document] = live;
+                this.mostSignificant[live] = this.mostSignificant[document];
+                this.leastSignificant[live] = this.leastSignificant[document];
+                // live documents only move down, so their terms can be copied in place
+                int from = this.starts[document];
+                int length = this.starts[document + 1] - from;
+                System.arraycopy(this.documentTerms, from, this.documentTerms, this.starts[live], length);
+                this.starts[live + 1] = this.starts[live] + length;
+                live++;
+            }
+        }
+
+        Iterator<Postings> postings = this.terms.values().iterator();
+        this.maxDocument = live;
+        while (postings.hasNext()) {
+            Postings term = postings.next();
+            if (term.renumber(renumbered) == 0) {
+                postings.remove();
+            } else {
+                term.bits = null;
+                if (isDense(term)) {
+                    term.keepBits();
+                }
+            }
+        }
+        this.completions.clear();
+        this.documents.replaceAll((id, document) -> renumbered[document]);
+        this.dead.clear();
+        this.deadDocuments = 0;
+    }
+
+    private boolean isDense(Postings postings) {
+        return postings.size >= MIN_DENSE && (long) postings.size * DENSE_FRACTION >= this.maxDocument;
+    }
+
+    // over every document number, since the lists keep dead documents until compaction
+    private float idf(Postings postings) {
+        int n = this.maxDocument;
+        return (float) Math.log(1 + (n - postings.size + 0.5) / (postings.size + 0.5));
+    }
+
+    // summed in slot order, the same for every document of the combination
+    private static float score(Slot[] slots, int[] tiers) {
+        float score = 0f;
+        for (int slot = 0; slot < tiers.length; slot++) {
+            score += slots[slot].tiers[tiers[slot]].score;
+        }
+        return score;
+    }
+
+    // first position at or after from holding a document no smaller than target
+    private static int advance(int[] documents, int size, int from, int target) {
+        if (from >= size || documents[from] >= target) {
+            return from;
+        }
+        int low = from;
+        int step = 1;
+        while (low + step < size && documents[low + step] < target) {
+            low += step;
+            step <<= 1;
+        }
+        int position = Arrays.binarySearch(documents, low + 1, Math.min(low + step + 1, size), target);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private void offer(PriorityQueue<Hit> top, Predicate<UUID> filter, int document, float score, int limit) {
+        boolean full = top.size() == limit;
+        if (full && (score < top.peek().score || score == top.peek().score && document > top.peek().document)
+                || !filter.test(new UUID(this.mostSignificant[document], this.leastSignificant[document]))) {
+            return;
+        }
+        if (full) {
+            top.poll();
+        }
+        top.add(new Hit(document, score));
+    }
+
+    // min-heap entry, worst hit first; ties go to the older document
+    private record Hit(int document, float score) {
+        static final Comparator<Hit> ORDER = Comparator.comparingDouble(Hit::score)
+                .thenComparing(Comparator.comparingInt(Hit::document).reversed());
+    }
+
+    // the terms a query term matches, sorted by id, with the tiers of all of them
+    private record Slot(Postings[] postings, int[] terms, float[] idfs, Tier[] tiers, long size) {
+    }
+
+    // one tier chosen per slot, last is the slot advanced to reach it
+    private record Combination(int[] tiers, float score, int last) {
+    }
+
+    // documents of one term sharing one weight, scored for the current query
+    private record Tier(int term, int[] documents, int size, float score) {
+    }
+
+    // documents containing one term, one ascending list per distinct weight
+    private static final class Postings {
+        final int id;
+        float[] weights = new float[0];
+        int[][] documents = new int[0][];
+        int[] sizes = new int[0];
+        int size;
+        // every document of the term, only kept for common terms
+        BitSet bits;
+
+        Postings(int id) {
+            this.id = id;
+        }
+
+        void append(int document, float weight) {
+            int tier = 0;
+            while (tier < this.weights.length && this.weights[tier] != weight) {
+                tier++;
+            }
+            if (tier == this.weights.length) {
+                this.weights = Arrays.copyOf(this.weights, tier + 1);
+                this.documents = Arrays.copyOf(this.documents, tier + 1);
+                this.sizes = Arrays.copyOf(this.sizes, tier + 1);
+                this.weights[tier] = weight;
+                this.documents[tier] = new int[2];
+            }
+            if (this.sizes[tier] == this.documents[tier].length) {
+                this.documents[tier] = Arrays.copyOf(this.documents[tier], this.sizes[tier] * 3 / 2 + 1);
+            }
+            this.documents[tier][this.sizes[tier]++] = document;
+            this.size++;
+            if (this.bits != null) {
+                this.bits.set(document);
+            }
+        }
+
+        void keepBits() {
+            this.bits = new BitSet();
+            setBits(this.bits);
+        }
+
+        void setBits(BitSet bits) {
+            for (int tier = 0; tier < this.weights.length; tier++) {
+                for (int i = 0; i < this.sizes[tier]; i++) {
+                    bits.set(this.documents[tier][i]);
+                }
+            }
+        }
+
+        // the tiers from the highest weight down, scored with the term's idf
+        Tier[] tiers(float idf) {
+            Tier[] tiers = new Tier[this.weights.length];
+            for (int tier = 0; tier < tiers.length; tier++) {
+                tiers[tier] = new Tier(this.id, this.documents[tier], this.sizes[tier], idf * this.weights[tier]);
+            }
+            Arrays.sort(tiers, Comparator.comparingDouble(Tier::score).reversed());
+            return tiers;
+        }
+
+        // keep the live documents under their new numbers, returns the new size
+        int renumber(int[] renumbered) {
+            this.size = 0;
+            for (int tier = 0; tier < this.weights.length; tier++) {
+                int kept = 0;
+                int[] list = this.documents[tier];
+                for (int i = 0; i < this.sizes[tier]; i++) {
+                    int document = renumbered[list[i]];
+                    if (document >= 0) {
+                        list[kept++] = document;
+                    }
+                }
+                this.sizes[tier] = kept;
+                this.size += kept;
+                if (kept < list.length >> 2) {
+                    this.documents[tier] = Arrays.copyOf(list, Math.max(kept, 2));
+                }
+            }
+            return this.size;
+        }
+    }
+
+}
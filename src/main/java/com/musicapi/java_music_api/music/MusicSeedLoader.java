@@ -0,0 +1,168 @@
+package com.musicapi.java_music_api.music;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+// Loads a csv or ndjson seed file into the music table on startup, e.g.
+// java -jar java-music-api.jar --music.seed.file=seed/music.csv
+// Add --spring.main.web-application-type=none to load and exit. Rows are streamed
+// straight into jdbc batches with time-ordered ids, bypassing the persistence context.
+@Component
+public class MusicSeedLoader implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(MusicSeedLoader.class);
+    private static final String INSERT = "INSERT INTO music"
+            + " (id, song, artist, year, genre, description, duration_sec, bpm, energy, danceability)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader reader;
+    private final String seedFile;
+    private final int batchSize;
+    private final long progressInterval;
+
+    public MusicSeedLoader(DataSource dataSource, PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${music.seed.file:}") String seedFile,
+            @Value("${music.seed.batch-size:5000}") int batchSize,
+            @Value("${music.seed.progress-interval:100000}") long progressInterval) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reader = objectMapper.readerFor(Music.class);
+        this.seedFile = seedFile;
+        this.batchSize = batchSize;
+        this.progressInterval = progressInterval;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!this.seedFile.isBlank()) {
+            load(Path.of(this.seedFile));
+        }
+    }
+
+    // load a seed file, ndjson when named .ndjson, .jsonl or .json and csv otherwise
+    public long load(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        boolean json = name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json");
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            return json ? loadNdjson(in) : loadCsv(in);
+        }
+    }
+
+    // load csv with a header row
+    public long loadCsv(InputStream in) throws IOException {
+        try (MusicCsvReader songs = new MusicCsvReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))) {
+            return insert(songs);
+        }
+    }
+
+    // load one json song per line
+    public long loadNdjson(InputStream in) throws IOException {
+        try (MappingIterator<Music> songs = this.reader.readValues(in)) {
+            return insert(songs);
+        }
+    }
+
+    private long insert(Iterator<Music> songs) {
+        long start = System.nanoTime();
+        long rows = 0;
+        long nextReport = this.progressInterval;
+        List<Music> batch = new ArrayList<>(this.batchSize);
+
+        while (songs.hasNext()) {
+            batch.add(songs.next());
+            if (batch.size() == this.batchSize || !songs.hasNext()) {
+                insertBatch(batch);
+                rows += batch.size();
+                batch.clear();
+                if (rows >= nextReport) {
+                    log.info("Seeded {} rows ({} rows/sec)", rows, rate(rows, start));
+                    nextReport += this.progressInterval;
+                }
+            }
+        }
+
+        log.info("Seeded {} rows in {} ms ({} rows/sec)", rows, (System.nanoTime() - start) / 1_000_000,
+                rate(rows, start));
+        return rows;
+    }
+
+    // one transaction per batch keeps undo small and lets the driver send a multi-row insert
+    private void insertBatch(List<Music> batch) {
+        this.transactionTemplate.executeWithoutResult(status -> this.jdbcTemplate.batchUpdate(INSERT,
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Music music = batch.get(i);
+                        ps.setBytes(1, toBytes(TimeOrderedUuidGenerator.next()));
+                        ps.setString(2, music.getSong());
+                        ps.setString(3, music.getArtist());
+                        setInteger(ps, 4, music.getYear());
+                        ps.setString(5, music.getGenre());
+                        ps.setString(6, music.getDescription());
+                        setInteger(ps, 7, music.getDurationSec());
+                        setInteger(ps, 8, music.getBpm());
+                        setInteger(ps, 9, music.getEnergy());
+                        setInteger(ps, 10, music.getDanceability());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                }));
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+
+    // ids are stored as binary(16), most significant bytes first
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static long rate(long rows, long start) {
+        long nanos = Math.max(System.nanoTime() - start, 1);
+        return rows * 1_000_000_000L / nanos;
+    }
+
+}
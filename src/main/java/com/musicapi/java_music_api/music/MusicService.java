@@ -1,75 +1,310 @@
 package com.musicapi.java_music_api.music;
 
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.persistence.OptimisticLockException;
+
 @Service
 public class MusicService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_RANKING_SIZE = 15;
+    public static final int DEFAULT_SIMILAR_SIZE = 10;
+    public static final int MAX_WRITE_ATTEMPTS = 3;
+
     public final MusicRepository musicRepository;
+    private final MusicRankings musicRankings;
+    private final MusicCache musicCache;
+    private final MusicSearch musicSearch;
+    private final MusicGenres musicGenres;
+    private final MusicNeighbours musicNeighbours;
+    private final MusicPlaylists musicPlaylists;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public MusicService(MusicRepository musicRepository) {
+    public MusicService(MusicRepository musicRepository, MusicRankings musicRankings, MusicCache musicCache,
+            MusicSearch musicSearch, MusicGenres musicGenres, MusicNeighbours musicNeighbours,
+            MusicPlaylists musicPlaylists, ApplicationEventPublisher eventPublisher) {
         this.musicRepository = musicRepository;
+        this.musicRankings = musicRankings;
+        this.musicCache = musicCache;
+        this.musicSearch = musicSearch;
+        this.musicGenres = musicGenres;
+        this.musicNeighbours = musicNeighbours;
+        this.musicPlaylists = musicPlaylists;
+        this.eventPublisher = eventPublisher;
     }
 
-    // get all songs service
+    // get all songs service, read from a replica when there are any
     public List<Music> getAllSongs() {
-        return this.musicRepository.findAll();
+        return MusicReplicas.read(this.musicRepository::findAll);
+    }
+
+    // get all songs service, only their ids and the given fields read from the database
+    public List<MusicProjection> getAllSongs(Set<MusicField> fields) {
+        return MusicReplicas.read(() -> this.musicRepository.findAllProjected(fields));
     }
 
-    // get song service
+    // get page of songs service, keyset pagination on the id so every page costs
+    // one index seek however deep the cursor is; read from a replica when there are any
+    public MusicPage getSongPage(String cursor, int limit) throws IllegalArgumentException {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // fetch one extra row to find out whether another page follows
+        Limit fetchLimit = Limit.of(limit + 1);
+        UUID after = cursor == null ? null : MusicCursor.decode(cursor);
+        List<Music> songs = MusicReplicas.read(() -> after == null
+                ? this.musicRepository.findAllByOrderByIdAsc(fetchLimit)
+                : this.musicRepository.findByIdGreaterThanOrderByIdAsc(after, fetchLimit));
+
+        if (songs.size() <= limit) {
+            return new MusicPage(songs, null);
+        }
+        List<Music> page = songs.subList(0, limit);
+        return new MusicPage(page, MusicCursor.encode(page.get(limit - 1).getId()));
+    }
+
+    // get song service, read through the song cache
     public Music getSong(UUID id) throws NoSuchElementException {
         try {
-            return this.musicRepository.findById(id).orElseThrow();
+            return this.musicCache.get(id).orElseThrow();
         } catch (NoSuchElementException nse) {
             throw nse;
         }
     }
 
-    // create service
+    // create service, the id is chosen up front so the song's write lock is held from
+    // before the insert commits until its event is out
     public Music createSong(Music music) throws IllegalArgumentException, OptimisticLockingFailureException {
-        this.musicRepository.save(music);
-        return music;
+        music.setId(TimeOrderedUuidGenerator.next());
+        return MusicWriteLocks.locked(music.getId(), () -> {
+            this.musicRepository.save(music);
+            this.eventPublisher.publishEvent(new MusicChangedEvent(null, new Music(music)));
+            return music;
+        });
+    }
+
+    // update service, replaces every field with a single conditional UPDATE; expectedVersion
+    // is the version the client last saw, null to overwrite whatever is current
+    public Music updateSong(UUID id, Music updatedMusic, Long expectedVersion)
+            throws NoSuchElementException, OptimisticLockException {
+        Map<MusicField, Object> changes = new EnumMap<>(MusicField.class);
+        for (MusicField field : MusicField.values()) {
+            changes.put(field, field.get(updatedMusic));
+        }
+        return write(id, expectedVersion, changes);
+    }
+
+    // patch service, json merge patch writing only the fields present in the patch
+    public Music patchSong(UUID id, JsonNode patch, Long expectedVersion)
+            throws NoSuchElementException, OptimisticLockException, IllegalArgumentException {
+        if (patch == null || !patch.isObject() || patch.isEmpty()) {
+            throw new IllegalArgumentException("Patch must be a non-empty json object");
+        }
+
+        Map<MusicField, Object> changes = new EnumMap<>(MusicField.class);
+        patch.fields().forEachRemaining(entry -> {
+            MusicField field = MusicField.fromProperty(entry.getKey());
+            changes.put(field, patchValue(field, entry.getValue()));
+        });
+        return write(id, expectedVersion, changes);
+    }
+
+    // delete service, a single conditional DELETE
+    public void deleteSong(UUID id, Long expectedVersion) throws NoSuchElementException, OptimisticLockException {
+        for (int attempt = 1;; attempt++) {
+            Music current = current(id, expectedVersion);
+            long version = expectedVersion != null ? expectedVersion : current.getVersion();
+
+            boolean deleted = MusicWriteLocks.locked(id, () -> {
+                if (this.musicRepository.deleteByIdAndVersion(id, version) != 1) {
+                    return false;
+                }
+                MusicWriteLocks.awaitCreated(id);
+                this.eventPublisher.publishEvent(new MusicChangedEvent(current, null));
+                return true;
+            });
+            if (deleted) {
+                return;
+            }
+            retryOrFail(id, expectedVersion, attempt);
+        }
+    }
+
+    // one conditional UPDATE against the version the change was based on. The previous
+    // state comes from the song cache, so a cached song costs no read; an unconditional
+    // write that raced another writer reloads the song and tries again. The song's write
+    // lock keeps the event in the order of the commits, see MusicWriteLocks
+    private Music write(UUID id, Long expectedVersion, Map<MusicField, Object> changes) {
+        for (int attempt = 1;; attempt++) {
+            Music current = current(id, expectedVersion);
+            long version = expectedVersion != null ? expectedVersion : current.getVersion();
+
+            Music written = MusicWriteLocks.locked(id, () -> {
+                if (this.musicRepository.updateFields(id, version, changes) != 1) {
+                    return null;
+                }
+                Music updated = new Music(current);
+                changes.forEach((field, value) -> field.set(updated, value));
+                updated.setVersion(version + 1);
+                MusicWriteLocks.awaitCreated(id);
+                this.eventPublisher.publishEvent(new MusicChangedEvent(current, new Music(updated)));
+                return updated;
+            });
+            if (written != null) {
+                return written;
+            }
+            retryOrFail(id, expectedVersion, attempt);
+        }
+    }
+
+    // current song, read again from the database when the cached copy is not the version
+    // the client expects, since only that version can be written
+    private Music current(UUID id, Long expectedVersion) throws NoSuchElementException {
+        Music current = this.musicCache.get(id).orElseThrow();
+        if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+            this.musicCache.invalidate(id);
+            current = this.musicCache.get(id).orElseThrow();
+        }
+        return current;
     }
 
-    // update service
-    public Music updateSong(UUID id, Music updatedMusic) throws NoSuchElementException {
-        Music music = musicRepository.findById(id).orElseThrow();
+    // no row matched the id and version, tell a missing song from a lost race
+    private void retryOrFail(UUID id, Long expectedVersion, int attempt)
+            throws NoSuchElementException, OptimisticLockException {
+        this.musicCache.invalidate(id);
+        if (!this.musicRepository.existsById(id)) {
+            throw new NoSuchElementException("Song not found");
+        }
+        if (expectedVersion != null || attempt >= MAX_WRITE_ATTEMPTS) {
+            throw new OptimisticLockException("Song was modified concurrently");
+        }
+    }
 
-        music.setSong(updatedMusic.getSong());
-        music.setArtist(updatedMusic.getArtist());
-        music.setYear(updatedMusic.getYear());
-        music.setGenre(updatedMusic.getGenre());
-        music.setDescription(updatedMusic.getDescription());
-        music.setDurationSec(updatedMusic.getDurationSec());
-        music.setBpm(updatedMusic.getBpm());
-        music.setEnergy(updatedMusic.getEnergy());
-        music.setDanceability(updatedMusic.getDanceability());
+    // typed value of one merge patch member, null clears the field
+    private static Object patchValue(MusicField field, JsonNode value) throws IllegalArgumentException {
+        if (value.isNull()) {
+            return null;
+        }
+        if (field.type() == String.class && value.isTextual()) {
+            return value.textValue();
+        }
+        if (field.type() == Integer.class && value.isIntegralNumber() && value.canConvertToInt()) {
+            return value.intValue();
+        }
+        throw new IllegalArgumentException("Invalid value for " + field.property());
+    }
 
-        return musicRepository.save(music);
+    // ranked query service, songs ordered by one attribute within optional bounds,
+    // answered by a range scan over the attribute index; with a genre filter the songs
+    // are ranked from the genre bitmaps instead and loaded by id
+    public List<Music> getRankedSongs(MusicAttribute attribute, Sort.Direction direction, Integer min, Integer max,
+            MusicGenreFilter genres, int limit) throws IllegalArgumentException {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (min != null && max != null && min > max) {
+            throw new IllegalArgumentException("Minimum must not exceed maximum");
+        }
 
+        if (!genres.isEmpty()) {
+            return findInOrder(this.musicGenres.rank(genres, attribute, direction, min, max, limit));
+        }
+        return this.musicRepository.findBy(
+                MusicSpecifications.between(attribute, min, max)
+                        .and(MusicSpecifications.orderedBy(attribute, direction)),
+                query -> query.limit(limit).all());
     }
 
-    // delete service
-    public void deleteSong(UUID id) throws NoSuchElementException {
-        if (musicRepository.findById(id).isPresent()) {
-            musicRepository.deleteById(id);
-        } else {
-            throw new NoSuchElementException();
+    // search service, ranked from the in-memory index and loaded by id in one query
+    public List<Music> searchSongs(String query, boolean prefix, MusicGenreFilter genres, int limit)
+            throws IllegalArgumentException {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
         }
+
+        Predicate<UUID> filter = genres.isEmpty() ? id -> true : this.musicGenres.matcher(genres);
+        List<MusicSearchHit> hits = this.musicSearch.search(query, prefix, filter, limit);
+        return findInOrder(hits.stream().map(MusicSearchHit::id).toList());
+    }
+
+    // genre facets service, the matching songs counted per genre from the bitmaps
+    public MusicGenreFacets getGenreFacets(MusicGenreFilter genres) {
+        return this.musicGenres.facets(genres);
+    }
+
+    // similar songs service, the k songs nearest in audio features from the in-memory
+    // neighbour index, loaded by id in one query
+    public List<Music> getSimilarSongs(UUID id, int k) throws NoSuchElementException, IllegalArgumentException {
+        if (k < 1 || k > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("K must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Music music = getSong(id);
+        return findInOrder(this.musicNeighbours.nearest(music, k));
+    }
+
+    // playlist service, generated from the in-memory playlist index within the request's
+    // budget and loaded by id in one query
+    public MusicPlaylist generatePlaylist(MusicPlaylistRequest request) throws IllegalArgumentException {
+        Predicate<UUID> filter = request.genres().isEmpty() ? id -> true : this.musicGenres.matcher(request.genres());
+        MusicPlaylistPlan plan = this.musicPlaylists.generate(request, filter);
+        return new MusicPlaylist(findInOrder(plan.ids()), plan.durationSec(), plan.energyError());
+    }
+
+    // songs by id in one query, in the order of the ids; a song deleted since is left out
+    private List<Music> findInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Music> songs = new HashMap<>();
+        for (Music music : this.musicRepository.findAllById(ids)) {
+            songs.put(music.getId(), music);
+        }
+        return ids.stream().map(songs::get).filter(Objects::nonNull).toList();
+    }
+
+    // high danceability service, served from the in-memory leaderboard
+    public List<Music> getHighDanceabilitySongs(int limit) throws IllegalArgumentException {
+        return this.musicRankings.highDanceability(limit);
+    }
+
+    // low energy service, served from the in-memory leaderboard
+    public List<Music> getLowEnergySongs(int limit) throws IllegalArgumentException {
+        return this.musicRankings.lowEnergy(limit);
+    }
+
+    // high danceability service, only the ids and the given fields of the songs
+    public List<MusicProjection> getHighDanceabilitySongs(int limit, Set<MusicField> fields)
+            throws IllegalArgumentException {
+        return project(getHighDanceabilitySongs(limit), fields);
     }
 
-    // high danceability service
-    public List<Music> getHighDanceabilitySongs() {
-        return this.musicRepository.findByHighDanceability();
+    // low energy service, only the ids and the given fields of the songs
+    public List<MusicProjection> getLowEnergySongs(int limit, Set<MusicField> fields)
+            throws IllegalArgumentException {
+        return project(getLowEnergySongs(limit), fields);
     }
 
-    // low energy service
-    public List<Music> getLowEnergySongs() {
-        return this.musicRepository.findByLowEnergy();
+    private static List<MusicProjection> project(List<Music> songs, Set<MusicField> fields) {
+        return songs.stream().map(music -> MusicProjection.of(music, fields)).toList();
     }
 
 }
@@ -0,0 +1,45 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.Path;
+
+// reusable query conditions for MusicRepository
+public final class MusicSpecifications {
+
+    private MusicSpecifications() {
+    }
+
+    // songs whose attribute is set and within the optional inclusive bounds
+    public static Specification<Music> between(MusicAttribute attribute, Integer min, Integer max) {
+        return (root, query, builder) -> {
+            Path<Integer> value = root.get(attribute.attribute());
+            if (min != null && max != null) {
+                return builder.between(value, min, max);
+            } else if (min != null) {
+                return builder.greaterThanOrEqualTo(value, min);
+            } else if (max != null) {
+                return builder.lessThanOrEqualTo(value, max);
+            }
+            return builder.isNotNull(value);
+        };
+    }
+
+    // order of the attribute index, ties broken by id in the same direction so the
+    // database can read the (attribute, id) index forwards or backwards. Set on the
+    // criteria query because a Sort would read duration_sec as a nested property.
+    public static Specification<Music> orderedBy(MusicAttribute attribute, Sort.Direction direction) {
+        return (root, query, builder) -> {
+            Path<Integer> value = root.get(attribute.attribute());
+            Path<Object> id = root.get("id");
+            query.orderBy(direction.isDescending()
+                    ? List.of(builder.desc(value), builder.desc(id))
+                    : List.of(builder.asc(value), builder.asc(id)));
+            return null;
+        };
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+
+// catalog statistics by decade and genre, kept in step with MusicService writes by
+// taking the previous state of a song out of its groups and adding the current one, see
+// MusicReadModel. Rebuilt the same way as the startup load on every reconciliation,
+// which logs the groups that drifted from the database.
+@Component
+public class MusicStatistics extends MusicReadModel<MusicStatistics.Groups> {
+    private static final Logger log = LoggerFactory.getLogger(MusicStatistics.class);
+
+    public MusicStatistics(EntityManager entityManager, @Value("${music.export.fetch-size:1000}") int fetchSize) {
+        super(entityManager, fetchSize, new Groups());
+    }
+
+    // rebuild the statistics from the database and report the groups that differed, the
+    // number of which is returned
+    @Scheduled(initialDelayString = "${music.stats.reconcile-interval:1h}",
+            fixedDelayString = "${music.stats.reconcile-interval:1h}")
+    @Transactional(readOnly = true)
+    public int reconcile() {
+        int drifted = reload(Groups::drift);
+        if (drifted > 0) {
+            log.warn("Catalog statistics drifted from the database in {} groups, replaced them", drifted);
+        } else {
+            log.debug("Catalog statistics match the database");
+        }
+        return drifted;
+    }
+
+    // current statistics of the catalog
+    public MusicCatalogStats stats() {
+        return read(groups -> new MusicCatalogStats(groups.all.snapshot(),
+                snapshot(groups.decades, decade -> decade + "s"), snapshot(groups.genres, Function.identity())));
+    }
+
+    @Override
+    protected Groups build(Stream<Music> songs) {
+        Groups groups = new Groups();
+        songs.forEach(music -> groups.add(music, 1));
+        return groups;
+    }
+
+    @Override
+    protected void apply(Groups groups, Music previous, Music current) {
+        if (previous != null) {
+            groups.add(previous, -1);
+        }
+        if (current != null) {
+            groups.add(current, 1);
+        }
+    }
+
+    private static <K> Map<String, MusicStats> snapshot(Map<K, MusicAggregate> groups, Function<K, String> name) {
+        Map<String, MusicStats> snapshot = new LinkedHashMap<>();
+        groups.forEach((key, aggregate) -> snapshot.put(name.apply(key), aggregate.snapshot()));
+        return snapshot;
+    }
+
+    // the catalog's aggregates, empty groups dropped
+    static final class Groups {
+        private final MusicAggregate all = new MusicAggregate();
+        private final Map<Integer, MusicAggregate> decades = new TreeMap<>();
+        private final Map<String, MusicAggregate> genres = new TreeMap<>();
+
+        private void add(Music music, int sign) {
+            this.all.add(music, sign);
+            if (music.getYear() != null) {
+                add(this.decades, Math.floorDiv(music.getYear(), 10) * 10, music, sign);
+            }
+            for (String tag : MusicGenreIndex.tags(music.getGenre())) {
+                add(this.genres, tag, music, sign);
+            }
+        }
+
+        private static <K> void add(Map<K, MusicAggregate> groups, K key, Music music, int sign) {
+            MusicAggregate aggregate = groups.computeIfAbsent(key, k -> new MusicAggregate());
+            aggregate.add(music, sign);
+            if (aggregate.isEmpty()) {
+                groups.remove(key);
+            }
+        }
+
+        // number of groups that differ between the two
+        private int drift(Groups other) {
+            return (this.all.sameAs(other.all) ? 0 : 1) + drift(this.decades, other.decades)
+                    + drift(this.genres, other.genres);
+        }
+
+        private static <K> int drift(Map<K, MusicAggregate> groups, Map<K, MusicAggregate> others) {
+            int drifted = 0;
+            for (Map.Entry<K, MusicAggregate> entry : groups.entrySet()) {
+                MusicAggregate other = others.get(entry.getKey());
+                if (other == null || !entry.getValue().sameAs(other)) {
+                    drifted++;
+                }
+            }
+            for (K key : others.keySet()) {
+                if (!groups.containsKey(key)) {
+                    drifted++;
+                }
+            }
+            return drifted;
+        }
+    }
+
+}
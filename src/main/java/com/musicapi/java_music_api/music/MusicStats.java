@@ -0,0 +1,7 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.Map;
+
+// number of songs in a group and the statistics of each attribute, by property name
+public record MusicStats(long count, Map<String, MusicAttributeStats> attributes) {
+}
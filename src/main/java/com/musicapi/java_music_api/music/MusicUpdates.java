@@ -0,0 +1,16 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.Map;
+import java.util.UUID;
+
+// MusicRepository fragment for single statement writes
+public interface MusicUpdates {
+
+    // UPDATE of only the given fields of the song at the expected version, bumping the
+    // version; returns the affected row count, 0 when missing or changed since
+    int updateFields(UUID id, long expectedVersion, Map<MusicField, Object> changes);
+
+    // DELETE of the song at the expected version, returns the affected row count
+    int deleteByIdAndVersion(UUID id, long expectedVersion);
+
+}
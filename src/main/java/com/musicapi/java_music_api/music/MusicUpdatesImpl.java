@@ -0,0 +1,63 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+public class MusicUpdatesImpl implements MusicUpdates {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int updateFields(UUID id, long expectedVersion, Map<MusicField, Object> changes) {
+        CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Music> update = builder.createCriteriaUpdate(Music.class);
+        Root<Music> root = update.from(Music.class);
+
+        changes.forEach((field, value) -> update.set(field.attribute(), value));
+        Path<Long> version = root.get("version");
+        update.set(version, builder.sum(version, 1L));
+        update.where(builder.equal(root.get("id"), id), builder.equal(version, expectedVersion));
+
+        int rows = this.entityManager.createQuery(update).executeUpdate();
+        evict(id);
+        return rows;
+    }
+
+    @Override
+    @Transactional
+    public int deleteByIdAndVersion(UUID id, long expectedVersion) {
+        CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+        CriteriaDelete<Music> delete = builder.createCriteriaDelete(Music.class);
+        Root<Music> root = delete.from(Music.class);
+        delete.where(builder.equal(root.get("id"), id), builder.equal(root.get("version"), expectedVersion));
+
+        int rows = this.entityManager.createQuery(delete).executeUpdate();
+        evict(id);
+        return rows;
+    }
+
+    // detach the song if this request loaded it, its managed copy no longer matches the
+    // row; the request's other entities stay managed
+    private void evict(UUID id) {
+        SessionImplementor session = this.entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Music.class);
+        Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+        if (managed != null) {
+            session.evict(managed);
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Catalog version behind the ETags of the read endpoints. It moves forward on every
+// write, after the in-memory read models have applied it, so a tag is never handed out
+// with a body older than the version it names. The startup time keeps tags from a
+// previous run from matching. A single song is tagged with its own row version instead,
+// which is what If-Match is compared against on writes.
+@Component
+public class MusicVersion {
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+
+    // runs after every listener that serves reads, those declare an earlier order
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onMusicChanged(MusicChangedEvent event) {
+        this.version.incrementAndGet();
+    }
+
+    // strong entity tag of the current catalog version, read it before loading the body
+    public String etag() {
+        return etag(version());
+    }
+
+    // current catalog version, read it before loading the body
+    public long version() {
+        return this.version.get();
+    }
+
+    // strong entity tag of a catalog version
+    public String etag(long version) {
+        return "\"" + this.epoch + "-" + version + "\"";
+    }
+
+    // strong entity tag of a single song, its row version; null when it has none
+    public static String etag(Music music) {
+        return music.getVersion() == null ? null : "\"" + music.getVersion() + "\"";
+    }
+
+    // version named by an If-Match header, null for a missing header or "*"; a weak or
+    // unreadable tag can never match strongly. The tag of any format names the version
+    public static Long expectedVersion(String ifMatch) throws IllegalArgumentException {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = MusicFormat.plain(ifMatch.trim());
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a single strong entity tag");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("If-Match must be a single strong entity tag", nfe);
+        }
+    }
+
+}
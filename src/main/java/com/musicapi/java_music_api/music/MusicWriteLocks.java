@@ -0,0 +1,86 @@
+package com.musicapi.java_music_api.music;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Per-song locks a write holds from before it commits until its MusicChangedEvent is
+// published. Events are published on the writer's thread after the commit, so without
+// them two writes to one song could publish in the opposite order to their commits and
+// a listener would end on the older version. Songs share a fixed number of stripes,
+// writes to different songs only wait for each other when they share one. Bulk creates
+// take no stripes, which would hold up most single writes for a whole chunk.
+public final class MusicWriteLocks {
+    private static final int STRIPES = 256;
+    private static final ReentrantLock[] LOCKS = new ReentrantLock[STRIPES];
+    // songs being created in bulk, until their events are out
+    private static final ConcurrentHashMap<UUID, CountDownLatch> CREATING = new ConcurrentHashMap<>();
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            LOCKS[i] = new ReentrantLock();
+        }
+    }
+
+    private MusicWriteLocks() {
+    }
+
+    // runs the write holding the song's lock
+    public static <T> T locked(UUID id, Supplier<T> write) {
+        ReentrantLock lock = LOCKS[stripe(id)];
+        lock.lock();
+        try {
+            return write.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // runs the creation of new songs with the ids, which commits them and publishes their
+    // events, without their locks: no other write reaches a song before it commits, and
+    // those that reach it before its event is out wait for it in awaitCreated
+    public static <T> T creating(Collection<UUID> ids, Supplier<T> create) {
+        CountDownLatch created = new CountDownLatch(1);
+        for (UUID id : ids) {
+            CREATING.put(id, created);
+        }
+        try {
+            return create.get();
+        } finally {
+            for (UUID id : ids) {
+                CREATING.remove(id, created);
+            }
+            created.countDown();
+        }
+    }
+
+    // called by a write holding the song's lock before it publishes, waits for the event
+    // of the song's creation when that is still being published
+    public static void awaitCreated(UUID id) {
+        CountDownLatch created = CREATING.get(id);
+        if (created == null) {
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                created.await();
+                break;
+            } catch (InterruptedException ie) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // the random low bits of the id, its high bits are the creation time
+    private static int stripe(UUID id) {
+        return (int) (id.getLeastSignificantBits() & (STRIPES - 1));
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.musicapi.java_music_api.music;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+// generates the id as a time-ordered UUID (version 7 layout), so new rows append to
+// the end of the clustered primary key instead of landing on a random page
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface TimeOrderedUuid {
+}
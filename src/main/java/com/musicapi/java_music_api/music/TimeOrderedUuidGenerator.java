@@ -0,0 +1,49 @@
+package com.musicapi.java_music_api.music;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+// UUID version 7 (RFC 9562): 48 bit unix milliseconds, a 12 bit counter that keeps ids
+// strictly increasing within a millisecond, then 62 random bits. Byte order matches
+// creation order, which is also the order of the binary(16) primary key. An entity
+// inserted with an id already set from next() keeps it.
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+    private static final SecureRandom RANDOM = new SecureRandom();
+    // last issued (milliseconds << 12 | counter), a counter overflow borrows the next millisecond
+    private static final AtomicLong LAST = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        Object assigned = session.getEntityPersister(null, owner).getIdentifier(owner, session);
+        return assigned != null ? assigned : next();
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    // next time-ordered id, never smaller than one issued before even if the clock steps back
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = LAST.updateAndGet(last -> Math.max(now, last + 1));
+
+        long mostSigBits = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long leastSigBits = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+}
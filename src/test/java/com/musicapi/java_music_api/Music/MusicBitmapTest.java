@@ -0,0 +1,94 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+
+import com.musicapi.java_music_api.music.MusicBitmap;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MusicBitmapTest {
+
+    @Test
+    @Description("set operations agree with java.util.BitSet across sparse and dense groups")
+    void matchesBitSet() {
+        Random random = new Random(3);
+        for (int round = 0; round < 40; round++) {
+            // Arrange
+            // densities on both sides of the array to bit set switch, over several groups
+            BitSet expectedA = new BitSet();
+            BitSet expectedB = new BitSet();
+            MusicBitmap a = fill(random, expectedA, round % 4);
+            MusicBitmap b = fill(random, expectedB, (round / 4) % 4);
+            for (int i = 0; i < 2000; i++) {
+                int value = random.nextInt(4 << 16);
+                a.remove(value);
+                expectedA.clear(value);
+            }
+
+            // Act
+            MusicBitmap and = MusicBitmap.and(a, b);
+            MusicBitmap or = MusicBitmap.or(a, b);
+            MusicBitmap andNot = MusicBitmap.andNot(a, b);
+
+            // Assert
+            assertSame(expectedA, a);
+            BitSet expected = (BitSet) expectedA.clone();
+            expected.and(expectedB);
+            assertSame(expected, and);
+            assertEquals(expected.cardinality(), MusicBitmap.andCardinality(a, b));
+            expected = (BitSet) expectedA.clone();
+            expected.or(expectedB);
+            assertSame(expected, or);
+            expected = (BitSet) expectedA.clone();
+            expected.andNot(expectedB);
+            assertSame(expected, andNot);
+        }
+    }
+
+    @Test
+    @Description("next walks the numbers in order across groups")
+    void next() {
+        // Arrange
+        MusicBitmap bitmap = new MusicBitmap();
+        bitmap.add(70_000);
+        bitmap.add(3);
+        bitmap.add(200_000);
+
+        // Assert
+        assertEquals(3, bitmap.next(-1));
+        assertEquals(70_000, bitmap.next(4));
+        assertEquals(200_000, bitmap.next(70_001));
+        assertEquals(-1, bitmap.next(200_001));
+    }
+
+    private static MusicBitmap fill(Random random, BitSet expected, int density) {
+        MusicBitmap bitmap = new MusicBitmap();
+        int count = new int[] { 50, 3000, 20000, 150000 }[density];
+        for (int i = 0; i < count; i++) {
+            int value = random.nextInt(4 << 16);
+            bitmap.add(value);
+            expected.set(value);
+        }
+        return bitmap;
+    }
+
+    private static void assertSame(BitSet expected, MusicBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        int value = actual.next(0);
+        for (int bit = expected.nextSetBit(0); bit >= 0; bit = expected.nextSetBit(bit + 1)) {
+            assertEquals(bit, value);
+            value = actual.next(value + 1);
+        }
+        assertEquals(-1, value);
+        List<Integer> walked = new ArrayList<>();
+        actual.forEach(walked::add);
+        assertEquals(expected.stream().boxed().toList(), walked);
+    }
+
+}
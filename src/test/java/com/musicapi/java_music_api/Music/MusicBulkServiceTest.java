@@ -0,0 +1,150 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.musicapi.java_music_api.music.MusicBulkItem;
+import com.musicapi.java_music_api.music.MusicBulkResult;
+import com.musicapi.java_music_api.music.MusicBulkService;
+import com.musicapi.java_music_api.music.MusicChangedEvent;
+import com.musicapi.java_music_api.music.MusicRankings;
+import com.musicapi.java_music_api.music.MusicRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the service commits its own chunks, so the test must not wrap it in a transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ MusicBulkService.class, MusicRankings.class, MusicBulkServiceTest.FailingListener.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class MusicBulkServiceTest {
+
+    @Autowired
+    private MusicBulkService musicBulkService;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @AfterEach
+    void tearDown() {
+        musicRepository.deleteAll();
+    }
+
+    @Test
+    @Description("bad rows are reported individually and the rest of their chunk is created")
+    void badRowsOnlyRejectThemselves() throws IOException {
+        // Arrange
+        // item 3 is too long for the artist column, item 4 has a year that is not a number
+        List<String> songs = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            songs.add(songJson("Song " + i, "Artist " + i, "2001"));
+        }
+        songs.set(3, songJson("Song 3", "A".repeat(300), "2001"));
+        songs.set(4, songJson("Song 4", "Artist 4", "\"abc\""));
+        String body = "[" + String.join(",", songs) + "]";
+
+        // Act
+        MusicBulkResult result = musicBulkService.createSongs(stream(body), 3);
+
+        // Assert
+        // check the totals and that only the two bad rows were rejected
+        assertEquals(5, result.created());
+        assertEquals(2, result.failed());
+        assertEquals(7, result.items().size());
+        for (MusicBulkItem item : result.items()) {
+            if (item.index() == 3) {
+                // check that the database's message stays in the log
+                assertEquals("Song could not be stored", item.error());
+                assertNull(item.id());
+            } else if (item.index() == 4) {
+                assertNotNull(item.error());
+                assertNull(item.id());
+            } else {
+                assertNull(item.error());
+                assertNotNull(item.id());
+            }
+        }
+        // check that every created song is in the database
+        assertEquals(5, musicRepository.count());
+    }
+
+    @Test
+    @Description("ndjson input is created in chunks")
+    void createsNdjsonStream() throws IOException {
+        // Arrange
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1_000; i++) {
+            body.append(songJson("Song " + i, "Artist " + i, "1999")).append('\n');
+        }
+
+        // Act
+        MusicBulkResult result = musicBulkService.createSongs(stream(body.toString()), 128);
+
+        // Assert
+        // check that every song was created
+        assertEquals(1_000, result.created());
+        assertEquals(0, result.failed());
+        assertEquals(1_000, musicRepository.count());
+    }
+
+    @Test
+    @Description("a listener failing after a chunk commits does not make its rows be created again")
+    void listenerFailureDoesNotRetryRows() {
+        // Arrange
+        String body = "[" + songJson("Song 0", "Artist 0", "2001") + "," + songJson("Song 1", "Artist 1", "2001")
+                + "]";
+        FailingListener.failures = 1;
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> musicBulkService.createSongs(stream(body), 10));
+
+        // Assert
+        // check that the committed chunk stays as it is, without rows tried again
+        assertEquals(2, musicRepository.count());
+    }
+
+    @TestConfiguration
+    static class FailingListener {
+        static volatile int failures;
+
+        @EventListener
+        void onMusicChanged(MusicChangedEvent event) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("listener failed");
+            }
+        }
+    }
+
+    private static String songJson(String song, String artist, String year) {
+        return "{\"song\":\"" + song + "\",\"artist\":\"" + artist + "\",\"year\":" + year
+                + ",\"genre\":\"Pop\",\"description\":\"A test track.\",\"durationSec\":200,\"bpm\":120,"
+                + "\"energy\":70,\"danceability\":80}";
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
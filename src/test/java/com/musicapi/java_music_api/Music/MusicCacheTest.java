@@ -0,0 +1,144 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicCache;
+import com.musicapi.java_music_api.music.MusicRepository;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// writers and readers run on their own threads, so each write has to commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MusicServiceTestConfiguration.class)
+public class MusicCacheTest {
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private MusicCache musicCache;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @AfterEach
+    void tearDown() {
+        musicRepository.deleteAll();
+    }
+
+    @Test
+    @Description("no reader sees a value older than the last update that returned")
+    void noStaleReadsAfterUpdate() throws Exception {
+        // Arrange
+        Music music = musicService.createSong(song(0));
+        AtomicInteger committed = new AtomicInteger();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        List<Future<Integer>> readers = new ArrayList<>();
+
+        // Act
+        // eight readers check every read against the last update finished before it started
+        for (int r = 0; r < 8; r++) {
+            readers.add(executor.submit(() -> {
+                int reads = 0;
+                while (writing.get()) {
+                    int floor = committed.get();
+                    int seen = musicService.getSong(music.getId()).getBpm();
+                    assertTrue(seen >= floor, "read bpm " + seen + " after update " + floor + " returned");
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+        // one writer bumps the bpm and publishes it once updateSong has returned
+        Future<?> writer = executor.submit(() -> {
+            for (int version = 1; version <= 300; version++) {
+                musicService.updateSong(music.getId(), song(version), null);
+                committed.set(version);
+            }
+            writing.set(false);
+        });
+
+        // Assert
+        writer.get(60, TimeUnit.SECONDS);
+        for (Future<Integer> reader : readers) {
+            assertTrue(reader.get(60, TimeUnit.SECONDS) > 0);
+        }
+        executor.shutdown();
+        // check that the final value is served once writing stops
+        assertEquals(300, musicService.getSong(music.getId()).getBpm());
+    }
+
+    @Test
+    @Description("concurrent misses for the same song load it from the database once")
+    void concurrentMissesShareOneLoad() throws Exception {
+        // Arrange
+        Music music = musicService.createSong(song(1));
+        long loadsBefore = musicCache.stats().loads();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<Music>> reads = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 16; i++) {
+            reads.add(executor.submit(() -> {
+                start.await();
+                return musicService.getSong(music.getId());
+            }));
+        }
+        start.countDown();
+        for (Future<Music> read : reads) {
+            assertEquals(music.getId(), read.get(10, TimeUnit.SECONDS).getId());
+        }
+        executor.shutdown();
+
+        // Assert
+        // check that only one database load happened
+        assertEquals(loadsBefore + 1, musicCache.stats().loads());
+    }
+
+    @Test
+    @Description("deleted songs are no longer served from the cache")
+    void deleteInvalidates() {
+        // Arrange
+        Music music = musicService.createSong(song(1));
+        musicService.getSong(music.getId());
+
+        // Act
+        musicService.deleteSong(music.getId(), null);
+
+        // Assert
+        assertThrows(NoSuchElementException.class, () -> musicService.getSong(music.getId()));
+    }
+
+    private static Music song(int version) {
+        return new Music("Coconut", "Manu Dibango", 1996, "Afro-Jazz, Funk", "A groovy Afro-jazz fusion track.", 250,
+                version, 80, 65);
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+
+import com.musicapi.java_music_api.benchmark.MusicCatalogGenerator;
+import com.musicapi.java_music_api.music.Music;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MusicCatalogGeneratorTest {
+
+    @Test
+    @Description("the same seed generates the same songs in any order, another seed other songs")
+    void generatesReproducibleCatalogs() {
+        // Arrange
+        MusicCatalogGenerator generator = new MusicCatalogGenerator(42);
+
+        // Act
+        List<Music> songs = generator.songs(100).toList();
+
+        // Assert
+        assertEquals(describe(songs.get(57)), describe(new MusicCatalogGenerator(42).song(57)));
+        assertNotEquals(describe(songs.get(57)), describe(new MusicCatalogGenerator(43).song(57)));
+    }
+
+    @Test
+    @Description("generated songs are valid and energy rises with bpm")
+    void generatesRealisticSongs() {
+        // Arrange
+        MusicCatalogGenerator generator = new MusicCatalogGenerator(7);
+
+        // Act
+        List<Music> songs = generator.songs(20_000).toList();
+
+        // Assert
+        // check the ranges, that some songs have several genres and the bpm and energy correlation
+        assertTrue(songs.stream().allMatch(music -> music.getEnergy() >= 0 && music.getEnergy() <= 100
+                && music.getDanceability() >= 0 && music.getDanceability() <= 100
+                && music.getDurationSec() > 0 && music.getYear() >= 1950 && !music.getDescription().isBlank()));
+        long multiGenre = songs.stream().filter(music -> music.getGenre().contains(",")).count();
+        assertTrue(multiGenre > songs.size() / 5 && multiGenre < songs.size() / 2);
+        assertTrue(correlation(songs) > 0.3);
+    }
+
+    private static String describe(Music music) {
+        return String.join("|", music.getSong(), music.getArtist(), music.getGenre(), music.getDescription(),
+                "" + music.getYear(), "" + music.getDurationSec(), "" + music.getBpm(), "" + music.getEnergy(),
+                "" + music.getDanceability());
+    }
+
+    // Pearson correlation of bpm and energy
+    private static double correlation(List<Music> songs) {
+        double n = songs.size();
+        double meanBpm = songs.stream().mapToInt(Music::getBpm).average().orElseThrow();
+        double meanEnergy = songs.stream().mapToInt(Music::getEnergy).average().orElseThrow();
+        double covariance = 0;
+        double bpmVariance = 0;
+        double energyVariance = 0;
+        for (Music music : songs) {
+            double bpm = music.getBpm() - meanBpm;
+            double energy = music.getEnergy() - meanEnergy;
+            covariance += bpm * energy / n;
+            bpmVariance += bpm * bpm / n;
+            energyVariance += energy * energy / n;
+        }
+        return covariance / Math.sqrt(bpmVariance * energyVariance);
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicChange;
+import com.musicapi.java_music_api.music.MusicChangeFeed;
+import com.musicapi.java_music_api.music.MusicChangedEvent;
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MusicChangeFeedTest {
+    private final List<MusicChangeFeed> feeds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        feeds.forEach(MusicChangeFeed::close);
+    }
+
+    @Test
+    @Description("a subscriber resuming after a sequence gets the changes since, then new ones as they happen")
+    void resumesAfterSequence() throws InterruptedException {
+        // Arrange
+        MusicChangeFeed feed = feed(4, 10);
+        Music song = song();
+        feed.onMusicChanged(new MusicChangedEvent(null, song));
+        long created = feed.sequence();
+        feed.onMusicChanged(new MusicChangedEvent(song, song));
+        BlockingQueue<MusicChange> received = new LinkedBlockingQueue<>();
+
+        // Act
+        feed.subscribe(created, sink(received, null));
+        feed.onMusicChanged(new MusicChangedEvent(song, null));
+
+        // Assert
+        // check that the update is replayed and the delete follows live, numbered in order
+        MusicChange updated = next(received);
+        MusicChange deleted = next(received);
+        assertEquals(MusicChange.Type.UPDATED, updated.type());
+        assertEquals(created + 1, updated.sequence());
+        assertEquals(song.getId(), updated.id());
+        assertEquals(MusicChange.Type.DELETED, deleted.type());
+        assertEquals(created + 2, deleted.sequence());
+        assertNull(deleted.song());
+    }
+
+    @Test
+    @Description("resuming from a sequence the ring no longer holds, or never handed out, starts with a reset")
+    void resetsUnknownSequences() throws InterruptedException {
+        // Arrange
+        MusicChangeFeed feed = feed(2, 10);
+        Music song = song();
+        feed.onMusicChanged(new MusicChangedEvent(null, song));
+        long evicted = feed.sequence();
+        for (int i = 0; i < 4; i++) {
+            feed.onMusicChanged(new MusicChangedEvent(song, song));
+        }
+        BlockingQueue<MusicChange> fromEvicted = new LinkedBlockingQueue<>();
+        BlockingQueue<MusicChange> fromFuture = new LinkedBlockingQueue<>();
+
+        // Act
+        feed.subscribe(evicted, sink(fromEvicted, null));
+        feed.subscribe(feed.sequence() + 100, sink(fromFuture, null));
+
+        // Assert
+        // check that both are told to reload at the newest sequence
+        for (BlockingQueue<MusicChange> received : List.of(fromEvicted, fromFuture)) {
+            MusicChange reset = next(received);
+            assertEquals(MusicChange.Type.RESET, reset.type());
+            assertEquals(feed.sequence(), reset.sequence());
+        }
+    }
+
+    @Test
+    @Description("a subscriber stuck sending never holds up writers and gets a reset once it is a ring behind")
+    void slowSubscriberIsReset() throws InterruptedException {
+        // Arrange
+        MusicChangeFeed feed = feed(4, 10);
+        Music song = song();
+        BlockingQueue<MusicChange> received = new LinkedBlockingQueue<>();
+        CountDownLatch release = new CountDownLatch(1);
+        feed.subscribe(null, sink(received, release));
+
+        // Act
+        long start = System.nanoTime();
+        feed.onMusicChanged(new MusicChangedEvent(null, song));
+        MusicChange first = next(received);
+        for (int i = 0; i < 100; i++) {
+            feed.onMusicChanged(new MusicChangedEvent(song, song));
+        }
+        long writing = System.nanoTime() - start;
+        release.countDown();
+        MusicChange reset = next(received);
+        feed.onMusicChanged(new MusicChangedEvent(song, null));
+        MusicChange live = next(received);
+
+        // Assert
+        assertEquals(MusicChange.Type.CREATED, first.type());
+        assertTrue(writing < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(MusicChange.Type.RESET, reset.type());
+        assertEquals(first.sequence() + 100, reset.sequence());
+        assertEquals(MusicChange.Type.DELETED, live.type());
+        assertEquals(reset.sequence() + 1, live.sequence());
+    }
+
+    @Test
+    @Description("subscribers beyond max-subscribers are refused until one cancels")
+    void limitsSubscribers() throws InterruptedException {
+        // Arrange
+        MusicChangeFeed feed = feed(4, 1);
+        MusicChangeFeed.Subscription subscription = feed.subscribe(null, sink(new LinkedBlockingQueue<>(), null));
+
+        // Act and Assert
+        assertThrows(RejectedExecutionException.class,
+                () -> feed.subscribe(null, sink(new LinkedBlockingQueue<>(), null)));
+        subscription.cancel();
+        for (int i = 0; i < 500 && feed.subscribers() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, feed.subscribers());
+        feed.subscribe(null, sink(new LinkedBlockingQueue<>(), null));
+        assertEquals(1, feed.subscribers());
+    }
+
+    private MusicChangeFeed feed(int replaySize, int maxSubscribers) {
+        MusicChangeFeed feed = new MusicChangeFeed(replaySize, Duration.ofSeconds(15), maxSubscribers);
+        feeds.add(feed);
+        return feed;
+    }
+
+    // sink collecting the changes, whose first send waits for release when given
+    private static MusicChangeFeed.Sink sink(BlockingQueue<MusicChange> received, CountDownLatch release) {
+        return new MusicChangeFeed.Sink() {
+            @Override
+            public void send(MusicChange change) {
+                received.add(change);
+                if (release != null) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+            @Override
+            public void heartbeat() {
+            }
+
+            @Override
+            public void complete() {
+            }
+        };
+    }
+
+    private static MusicChange next(BlockingQueue<MusicChange> received) throws InterruptedException {
+        MusicChange change = received.poll(5, TimeUnit.SECONDS);
+        assertTrue(change != null, "no change received");
+        return change;
+    }
+
+    private static Music song() {
+        Music music = new Music("Song", "Artist", 2000, "Pop", "a song", 200, 120, 50, 50);
+        ReflectionTestUtils.setField(music, "id", TimeOrderedUuidGenerator.next());
+        return music;
+    }
+
+}
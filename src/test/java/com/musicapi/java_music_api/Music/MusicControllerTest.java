@@ -9,6 +9,8 @@ import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.context.annotation.Description;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -17,24 +19,71 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.musicapi.java_music_api.JavaMusicApiApplication;
 import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicAttribute;
+import com.musicapi.java_music_api.music.MusicBulkItem;
+import com.musicapi.java_music_api.music.MusicBulkResult;
+import com.musicapi.java_music_api.music.MusicBulkService;
+import com.musicapi.java_music_api.music.MusicCatalogStats;
+import com.musicapi.java_music_api.music.MusicChangeFeed;
+import com.musicapi.java_music_api.music.MusicChangedEvent;
+import com.musicapi.java_music_api.music.MusicCursor;
+import com.musicapi.java_music_api.music.MusicField;
+import com.musicapi.java_music_api.music.MusicFormat;
+import com.musicapi.java_music_api.music.MusicGenreFacets;
+import com.musicapi.java_music_api.music.MusicGenreFilter;
+import com.musicapi.java_music_api.music.MusicPage;
+import com.musicapi.java_music_api.music.MusicPlayResult;
+import com.musicapi.java_music_api.music.MusicPlaylist;
+import com.musicapi.java_music_api.music.MusicPlaylistRequest;
+import com.musicapi.java_music_api.music.MusicPlaylistSegment;
+import com.musicapi.java_music_api.music.MusicProjection;
 import com.musicapi.java_music_api.music.MusicService;
+import com.musicapi.java_music_api.music.MusicStatistics;
+import com.musicapi.java_music_api.music.MusicVersion;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import jakarta.persistence.OptimisticLockException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -49,6 +98,15 @@ public class MusicControllerTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private MusicVersion musicVersion;
+
+    @Autowired
+    private MusicChangeFeed musicChangeFeed;
+
+    @Autowired
+    private MusicStatistics musicStatistics;
+
     private List<Music> defaultSongs = new ArrayList<>() {
         {
             add(new Music("Sweet Dreams", "Beyoncé", 2008, "Pop, R&B",
@@ -65,6 +123,9 @@ public class MusicControllerTest {
     @MockBean
     private MusicService musicService;
 
+    @MockBean
+    private MusicBulkService musicBulkService;
+
     @BeforeEach
     void setUp() throws RuntimeException {
         this.baseURI = UriComponentsBuilder.newInstance()
@@ -100,6 +161,27 @@ public class MusicControllerTest {
         verify(musicService).createSong(any(Music.class));
     }
 
+    @Test
+    @Description("POST /music/bulk returns 207 when some songs are rejected")
+    void createSongsPartially() throws IOException {
+        // Arrange
+        // imitate the bulk service rejecting the second of two songs
+        MusicBulkResult result = new MusicBulkResult(1, 1, List.of(MusicBulkItem.created(0, UUID.randomUUID()),
+                MusicBulkItem.failed(1, "Value too long for column artist")));
+        when(musicBulkService.createSongs(any(InputStream.class), any())).thenReturn(result);
+        RequestEntity<List<Music>> request = RequestEntity.post(getCustomEndpoint("bulk"))
+                .contentType(MediaType.APPLICATION_JSON).body(defaultSongs.subList(0, 2));
+
+        // Act
+        ResponseEntity<MusicBulkResult> response = restTemplate.exchange(request, MusicBulkResult.class);
+
+        // Assert
+        // check that the status code is 207 and both outcomes are reported
+        assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+        assertEquals(2, response.getBody().items().size());
+        assertNotNull(response.getBody().items().get(1).error());
+    }
+
     @Test
     @Description("GET /music returns all songs")
     void getAllSongs() throws URISyntaxException {
@@ -121,6 +203,138 @@ public class MusicControllerTest {
 
     }
 
+    @Test
+    @Description("GET /music answers a matching If-None-Match with 304 without loading songs")
+    void getAllSongsNotModified() {
+        // Arrange
+        // first request to obtain the current entity tag
+        ResponseEntity<String> first = restTemplate.getForEntity(baseURI, String.class);
+        String etag = first.getHeaders().getETag();
+        RequestEntity<Void> conditional = RequestEntity.get(baseURI).ifNoneMatch(etag).build();
+
+        // Act
+        ResponseEntity<String> response = restTemplate.exchange(conditional, String.class);
+
+        // Assert
+        // check that the tag was sent and the second request was not modified
+        assertNotNull(etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        // check that the songs were only loaded for the first request
+        verify(musicService, times(1)).getAllSongs();
+    }
+
+    @Test
+    @Description("GET /music answers Accept: application/cbor with CBOR under its own entity tag")
+    void getAllSongsCbor() throws IOException {
+        // Arrange
+        String jsonTag = restTemplate.getForEntity(baseURI, String.class).getHeaders().getETag();
+        RequestEntity<Void> request = RequestEntity.get(baseURI).accept(MediaType.APPLICATION_CBOR)
+                .ifNoneMatch(jsonTag).build();
+
+        // Act
+        ResponseEntity<byte[]> response = restTemplate.exchange(request, byte[].class);
+        RequestEntity<Void> conditional = RequestEntity.get(baseURI).accept(MediaType.APPLICATION_CBOR)
+                .ifNoneMatch(response.getHeaders().getETag()).build();
+        ResponseEntity<byte[]> notModified = restTemplate.exchange(conditional, byte[].class);
+
+        // Assert
+        // check that the JSON tag does not match the CBOR body, which decodes to the songs
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_CBOR, response.getHeaders().getContentType());
+        assertTrue(response.getHeaders().getVary().contains(HttpHeaders.ACCEPT));
+        assertNotEquals(jsonTag, response.getHeaders().getETag());
+        List<Music> songs = new ObjectMapper(new CBORFactory()).readValue(response.getBody(),
+                new TypeReference<List<Music>>() {
+                });
+        assertEquals(defaultSongs.size(), songs.size());
+        assertEquals(defaultSongs.get(0).getSong(), songs.get(0).getSong());
+        // check that the CBOR tag matches
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+    }
+
+    @Test
+    @Description("POST /music takes a Smile body and answers in Smile")
+    void createSongSmile() throws IOException {
+        // Arrange
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+        MediaType mediaType = MediaType.valueOf("application/x-jackson-smile");
+        when(musicService.createSong(any(Music.class))).thenAnswer(invocation -> setId(invocation.getArgument(0)));
+        RequestEntity<byte[]> request = RequestEntity.post(baseURI).contentType(mediaType).accept(mediaType)
+                .body(smile.writeValueAsBytes(createNewSong()));
+
+        // Act
+        ResponseEntity<byte[]> response = restTemplate.exchange(request, byte[].class);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(mediaType, response.getHeaders().getContentType());
+        Music created = smile.readValue(response.getBody(), Music.class);
+        assertEquals("Sweet Dreams", created.getSong());
+        assertNotNull(created.getId());
+        verify(musicService).createSong(any(Music.class));
+    }
+
+    @Test
+    @Description("GET /music returns 200 for an entity tag from before a write")
+    void getAllSongsModifiedAfterWrite() {
+        // Arrange
+        String etag = restTemplate.getForEntity(baseURI, String.class).getHeaders().getETag();
+        // imitate a write going through MusicService
+        musicVersion.onMusicChanged(new MusicChangedEvent(null, selectRandomSong()));
+        RequestEntity<Void> conditional = RequestEntity.get(baseURI).ifNoneMatch(etag).build();
+
+        // Act
+        ResponseEntity<String> response = restTemplate.exchange(conditional, String.class);
+
+        // Assert
+        // check that the songs are sent again under a new tag
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotEquals(etag, response.getHeaders().getETag());
+    }
+
+    @Test
+    @Description("GET /music/page returns a page of songs with the next cursor")
+    void getSongPage() {
+        // Arrange
+        // imitate database behaviour, return the default songs and a cursor
+        String cursor = MusicCursor.encode(UUID.randomUUID());
+        when(musicService.getSongPage(null, 3)).thenReturn(new MusicPage(defaultSongs, cursor));
+        URI endpoint = UriComponentsBuilder.fromUri(getCustomEndpoint("page")).queryParam("limit", 3).build()
+                .toUri();
+
+        // Act
+        ResponseEntity<MusicPage> response = restTemplate.getForEntity(endpoint, MusicPage.class);
+
+        // Assert
+        // check that the status code is 200
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        // check that the response is not null
+        assertNotNull(response.getBody());
+        // check that the page holds the default songs and the next cursor
+        assertEquals(defaultSongs.size(), response.getBody().items().size());
+        assertEquals(cursor, response.getBody().nextCursor());
+        // check that getSongPage was implemented
+        verify(musicService).getSongPage(null, 3);
+    }
+
+    @Test
+    @Description("GET /music/page returns 400 for invalid cursor")
+    void getSongPageInvalidCursor() {
+        // Arrange
+        // imitate service rejecting a malformed cursor
+        when(musicService.getSongPage(any(String.class), anyInt())).thenThrow(IllegalArgumentException.class);
+        URI endpoint = UriComponentsBuilder.fromUri(getCustomEndpoint("page")).queryParam("cursor", "abc").build()
+                .toUri();
+
+        // Act
+        ResponseEntity<MusicPage> response = restTemplate.getForEntity(endpoint, MusicPage.class);
+
+        // Assert
+        // check that the status code is 400
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     @Description("GET /music/{id} returns id associated song")
     void getSong() {
@@ -147,6 +361,95 @@ public class MusicControllerTest {
         verify(musicService).getSong(music.getId());
     }
 
+    @Test
+    @Description("GET /music/{id}/similar returns the songs nearest to the song")
+    void getSimilarSongs() {
+        // Arrange
+        Music music = selectRandomSong();
+        when(musicService.getSimilarSongs(music.getId(), 3)).thenReturn(defaultSongs);
+        URI endpoint = UriComponentsBuilder.fromUri(getEndpoint(music)).pathSegment("similar").queryParam("k", 3)
+                .build().toUri();
+
+        // Act
+        ResponseEntity<List<Music>> response = restTemplate.exchange(endpoint, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<Music>>() {
+                });
+
+        // Assert
+        // check that the status code is 200 and the similar songs are returned
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(defaultSongs.size(), response.getBody().size());
+        verify(musicService).getSimilarSongs(music.getId(), 3);
+    }
+
+    @Test
+    @Description("GET /music/{id}/similar returns 404 for an unknown song and 400 for an invalid k")
+    void getSimilarSongsInvalid() {
+        // Arrange
+        Music music = selectRandomSong();
+        when(musicService.getSimilarSongs(music.getId(), MusicService.DEFAULT_SIMILAR_SIZE))
+                .thenThrow(NoSuchElementException.class);
+        when(musicService.getSimilarSongs(music.getId(), 0)).thenThrow(IllegalArgumentException.class);
+        URI endpoint = UriComponentsBuilder.fromUri(getEndpoint(music)).pathSegment("similar").build().toUri();
+
+        // Act
+        ResponseEntity<String> missing = restTemplate.getForEntity(endpoint, String.class);
+        ResponseEntity<String> invalid = restTemplate.getForEntity(
+                UriComponentsBuilder.fromUri(endpoint).queryParam("k", 0).build().toUri(), String.class);
+
+        // Assert
+        // check that the status codes are 404 and 400
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, invalid.getStatusCode());
+    }
+
+    @Test
+    @Description("GET /music/playlist generates a playlist for the requested length, shape and genres")
+    void generatePlaylist() {
+        // Arrange
+        MusicPlaylistRequest expected = new MusicPlaylistRequest(3600,
+                List.of(MusicPlaylistSegment.RAMP, MusicPlaylistSegment.COOL_DOWN), 30, 80, 6,
+                MusicGenreFilter.of(List.of("house"), null, null), Duration.ofMillis(20));
+        when(musicService.generatePlaylist(expected)).thenReturn(new MusicPlaylist(defaultSongs, 3598, 4.5));
+        URI endpoint = UriComponentsBuilder.fromUri(baseURI).pathSegment("playlist").queryParam("duration", 3600)
+                .queryParam("shape", "ramp,cooldown").queryParam("minEnergy", 30).queryParam("maxEnergy", 80)
+                .queryParam("maxBpmDelta", 6).queryParam("genre", "House").queryParam("budgetMs", 20).build().toUri();
+
+        // Act
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(endpoint, JsonNode.class);
+
+        // Assert
+        // check that the status code is 200 and the playlist is returned without an ETag
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(defaultSongs.size(), response.getBody().get("songs").size());
+        assertEquals(3598, response.getBody().get("durationSec").asInt());
+        assertNull(response.getHeaders().getETag());
+        verify(musicService).generatePlaylist(expected);
+    }
+
+    @Test
+    @Description("GET /music/playlist returns 400 for an invalid length, shape or energy range")
+    void generatePlaylistInvalid() {
+        // Arrange
+        URI endpoint = UriComponentsBuilder.fromUri(baseURI).pathSegment("playlist").build().toUri();
+
+        // Act
+        ResponseEntity<String> shortPlaylist = restTemplate.getForEntity(
+                UriComponentsBuilder.fromUri(endpoint).queryParam("duration", 10).build().toUri(), String.class);
+        ResponseEntity<String> unknownShape = restTemplate.getForEntity(UriComponentsBuilder.fromUri(endpoint)
+                .queryParam("duration", 600).queryParam("shape", "zigzag").build().toUri(), String.class);
+        ResponseEntity<String> energy = restTemplate.getForEntity(UriComponentsBuilder.fromUri(endpoint)
+                .queryParam("duration", 600).queryParam("minEnergy", 90).queryParam("maxEnergy", 10).build().toUri(),
+                String.class);
+
+        // Assert
+        // check that every status code is 400 and the service is never asked
+        assertEquals(HttpStatus.BAD_REQUEST, shortPlaylist.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, unknownShape.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, energy.getStatusCode());
+        verify(musicService, times(0)).generatePlaylist(any(MusicPlaylistRequest.class));
+    }
+
     @Test
     @Description("GET /music/{id} returns 404 for invalid Song")
     void getInvalidSong() {
@@ -178,7 +481,7 @@ public class MusicControllerTest {
         // imitate database behaviour when song is updated by returning a song when
         // getSong and updateSong are called
         when(musicService.getSong(any(UUID.class))).thenReturn(music);
-        when(musicService.updateSong(any(UUID.class), any(Music.class))).thenReturn(music);
+        when(musicService.updateSong(any(UUID.class), any(Music.class), isNull())).thenReturn(music);
 
         // Act
         // update song name
@@ -200,7 +503,7 @@ public class MusicControllerTest {
         // check that getSong was implemented
         verify(musicService).getSong(music.getId());
         // check that updateSong was implemented
-        verify(musicService).updateSong(any(UUID.class), any(Music.class));
+        verify(musicService).updateSong(any(UUID.class), any(Music.class), isNull());
     }
 
     @Test
@@ -211,7 +514,7 @@ public class MusicControllerTest {
         URI endpoint = getEndpoint(music);
         // imitate database behaviour when song to be updated is not found,
         // NoSuchElementException thrown
-        when(musicService.updateSong(any(UUID.class), any(Music.class)))
+        when(musicService.updateSong(any(UUID.class), any(Music.class), isNull()))
                 .thenThrow(NoSuchElementException.class);
 
         // Act
@@ -223,7 +526,7 @@ public class MusicControllerTest {
         // check that the status code is 404
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         // check that updateSong was implemented
-        verify(musicService).updateSong(any(UUID.class), any(Music.class));
+        verify(musicService).updateSong(any(UUID.class), any(Music.class), isNull());
     }
 
     @Test
@@ -240,7 +543,7 @@ public class MusicControllerTest {
         // imitates deletion by returning null
         doAnswer(invocation -> {
             return null;
-        }).when(musicService).deleteSong(any(UUID.class));
+        }).when(musicService).deleteSong(any(UUID.class), isNull());
         // throw NoSuchElementException after deleting song
         when(musicService.getSong(any(UUID.class))).thenThrow(NoSuchElementException.class);
 
@@ -260,7 +563,7 @@ public class MusicControllerTest {
                 || deletionResponse.getStatusCode() == HttpStatus.NO_CONTENT);
         assertEquals(HttpStatus.NOT_FOUND, deletedResponse.getStatusCode());
         // checks that deleteSong was implemented
-        verify(musicService).deleteSong(music.getId());
+        verify(musicService).deleteSong(music.getId(), null);
     }
 
     @Test
@@ -270,7 +573,7 @@ public class MusicControllerTest {
         Music music = createNewSong();
         URI endpoint = getEndpoint(music);
         // emulate deleting non existent song from database
-        doThrow(NoSuchElementException.class).when(musicService).deleteSong(any(UUID.class));
+        doThrow(NoSuchElementException.class).when(musicService).deleteSong(any(UUID.class), isNull());
 
         // Act
         // delete request to specified endpoint
@@ -282,7 +585,67 @@ public class MusicControllerTest {
         // check status code is 404
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         // check deleteSong was implemented
-        verify(musicService).deleteSong(music.getId());
+        verify(musicService).deleteSong(music.getId(), null);
+    }
+
+    @Test
+    @Description("PUT /music/{id} returns 412 when If-Match names an older version")
+    void updateSongStaleIfMatch() {
+        // Arrange
+        Music music = selectRandomSong();
+        URI endpoint = getEndpoint(music);
+        // imitate the song having moved past version 3
+        when(musicService.updateSong(any(UUID.class), any(Music.class), eq(3L)))
+                .thenThrow(OptimisticLockException.class);
+
+        // Act
+        RequestEntity<Music> request = RequestEntity.put(endpoint).header(HttpHeaders.IF_MATCH, "\"3\"").body(music);
+        ResponseEntity<String> response = restTemplate.exchange(request, String.class);
+
+        // Assert
+        // check that the precondition failed and the expected version was passed on
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        verify(musicService).updateSong(any(UUID.class), any(Music.class), eq(3L));
+    }
+
+    @Test
+    @Description("DELETE /music/{id} returns 412 for a weak If-Match tag without calling the service")
+    void deleteSongWeakIfMatch() {
+        // Arrange
+        Music music = selectRandomSong();
+        URI endpoint = getEndpoint(music);
+
+        // Act
+        RequestEntity<?> request = RequestEntity.delete(endpoint).header(HttpHeaders.IF_MATCH, "W/\"3\"").build();
+        ResponseEntity<String> response = restTemplate.exchange(request, String.class);
+
+        // Assert
+        // check that a weak tag never matches
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        verify(musicService, times(0)).deleteSong(any(UUID.class), any());
+    }
+
+    @Test
+    @Description("PATCH /music/{id} passes the merge patch and expected version to the service")
+    void patchSong() {
+        // Arrange
+        Music music = selectRandomSong();
+        URI endpoint = getEndpoint(music);
+        music.setBpm(128);
+        when(musicService.patchSong(any(UUID.class), any(JsonNode.class), eq(7L))).thenReturn(music);
+
+        // Act
+        RequestEntity<String> request = RequestEntity.patch(endpoint)
+                .contentType(MediaType.valueOf("application/merge-patch+json"))
+                .header(HttpHeaders.IF_MATCH, "\"7\"")
+                .body("{\"bpm\":128}");
+        ResponseEntity<Music> response = restTemplate.exchange(request, Music.class);
+
+        // Assert
+        // check that the patched song is returned
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(128, response.getBody().getBpm());
+        verify(musicService).patchSong(eq(music.getId()), any(JsonNode.class), eq(7L));
     }
 
     @Test
@@ -291,7 +654,7 @@ public class MusicControllerTest {
         // Arrange
 
         // imitate database behaviour to return high danceability songs
-        when(musicService.getHighDanceabilitySongs()).thenReturn(highDanceabilitySongs);
+        when(musicService.getHighDanceabilitySongs(15)).thenReturn(highDanceabilitySongs);
         URI endpoint = getCustomEndpoint("highdanceability");
 
         // Act
@@ -308,7 +671,7 @@ public class MusicControllerTest {
         // check that the response size matches the highDanceabilitySongs size
         assertEquals(highDanceabilitySongs.size(), response.getBody().size());
         // check that getHighDanceabilitySongs was implemented
-        verify(musicService).getHighDanceabilitySongs();
+        verify(musicService).getHighDanceabilitySongs(15);
     }
 
     @Test
@@ -317,7 +680,7 @@ public class MusicControllerTest {
         // Arrange
 
         // imitate database behaviour to return low energy songs
-        when(musicService.getLowEnergySongs()).thenReturn(lowEnergySongs);
+        when(musicService.getLowEnergySongs(15)).thenReturn(lowEnergySongs);
         URI endpoint = getCustomEndpoint("lowenergy");
 
         // Act
@@ -334,7 +697,364 @@ public class MusicControllerTest {
         // check that the response size matches the lowEnergySongs size
         assertEquals(lowEnergySongs.size(), response.getBody().size());
         // check that getLowEnergySongs was implemented
-        verify(musicService).getLowEnergySongs();
+        verify(musicService).getLowEnergySongs(15);
+    }
+
+    @Test
+    @Description("GET /music/lowenergy serves the encoded body again until a write, gzipped on request")
+    void getLowEnergySongsCached() throws IOException {
+        // Arrange
+        when(musicService.getLowEnergySongs(3)).thenReturn(lowEnergySongs);
+        URI endpoint = UriComponentsBuilder.fromUri(getCustomEndpoint("lowenergy")).queryParam("limit", 3).build()
+                .toUri();
+        RequestEntity<Void> gzipped = RequestEntity.get(endpoint).header(HttpHeaders.ACCEPT_ENCODING, "gzip, br")
+                .build();
+
+        // Act
+        ResponseEntity<byte[]> first = restTemplate.getForEntity(endpoint, byte[].class);
+        ResponseEntity<byte[]> compressed = restTemplate.exchange(gzipped, byte[].class);
+        ResponseEntity<byte[]> identityTag = restTemplate.exchange(RequestEntity.get(endpoint)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip").ifNoneMatch(first.getHeaders().getETag()).build(),
+                byte[].class);
+        ResponseEntity<byte[]> gzipTag = restTemplate.exchange(RequestEntity.get(endpoint)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip").ifNoneMatch(compressed.getHeaders().getETag()).build(),
+                byte[].class);
+        // imitate a write going through MusicService
+        musicVersion.onMusicChanged(new MusicChangedEvent(null, selectRandomSong()));
+        ResponseEntity<byte[]> afterWrite = restTemplate.getForEntity(endpoint, byte[].class);
+
+        // Assert
+        // check that the gzipped body is the first one compressed, encoded once
+        assertEquals(HttpStatus.OK, compressed.getStatusCode());
+        assertEquals("gzip", compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(MusicFormat.gzip(first.getHeaders().getETag()), compressed.getHeaders().getETag());
+        // check that a client holding the identity body gets the gzip one, which it does not have
+        assertEquals(HttpStatus.OK, identityTag.getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, gzipTag.getStatusCode());
+        try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(compressed.getBody()))) {
+            assertArrayEquals(first.getBody(), body.readAllBytes());
+        }
+        assertTrue(first.getHeaders().getVary().contains(HttpHeaders.ACCEPT_ENCODING));
+        // check that the write made the songs be read and encoded again under a new tag
+        assertNotEquals(first.getHeaders().getETag(), afterWrite.getHeaders().getETag());
+        verify(musicService, times(2)).getLowEnergySongs(3);
+    }
+
+    @Test
+    @Description("GET /music/highdanceability?fields= returns only the ids and requested fields")
+    void getHighDanceabilitySongFields() {
+        // Arrange
+        // imitate the leaderboard returning projections of its songs
+        Set<MusicField> fields = EnumSet.of(MusicField.SONG, MusicField.DANCEABILITY);
+        when(musicService.getHighDanceabilitySongs(15, fields)).thenReturn(highDanceabilitySongs.stream()
+                .map(music -> MusicProjection.of(music, fields)).toList());
+        URI endpoint = UriComponentsBuilder.fromUri(getCustomEndpoint("highdanceability"))
+                .queryParam("fields", "song,danceability").build().toUri();
+
+        // Act
+        ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(endpoint, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<Map<String, Object>>>() {
+                });
+
+        // Assert
+        // check that each song carries the id, song and danceability and nothing else
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(highDanceabilitySongs.size(), response.getBody().size());
+        assertEquals(Set.of("id", "song", "danceability"), response.getBody().get(0).keySet());
+        verify(musicService).getHighDanceabilitySongs(15, fields);
+    }
+
+    @Test
+    @Description("GET /music?fields= returns 400 for an unknown field")
+    void getAllSongFieldsUnknownField() {
+        // Arrange
+        URI endpoint = UriComponentsBuilder.fromUri(baseURI).queryParam("fields", "song,lyrics").build().toUri();
+
+        // Act
+        ResponseEntity<String> response = restTemplate.getForEntity(endpoint, String.class);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @Description("GET /music/highdanceability returns 400 for limit out of range")
+    void getHighDanceabilitySongsInvalidLimit() {
+        // Arrange
+        // imitate the leaderboard rejecting a limit above its size
+        when(musicService.getHighDanceabilitySongs(anyInt())).thenThrow(IllegalArgumentException.class);
+        URI endpoint = UriComponentsBuilder.fromUri(getCustomEndpoint("highdanceability"))
+                .queryParam("limit", 1000).build().toUri();
+
+        // Act
+        ResponseEntity<String> response = restTemplate.getForEntity(endpoint, String.class);
+
+        // Assert
+        // check that the status code is 400
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(musicService).getHighDanceabilitySongs(1000);
+    }
+
+    @Test
+    @Description("GET /music/query returns songs ranked by the requested attribute")
+    void getRankedSongs() {
+        // Arrange
+        // imitate database behaviour to return songs within the bpm range
+        when(musicService.getRankedSongs(MusicAttribute.BPM, Sort.Direction.ASC, 80, 140, MusicGenreFilter.NONE, 10))
+                .thenReturn(defaultSongs);
+        URI endpoint = UriComponentsBuilder.fromUri(getCustomEndpoint("query")).queryParam("attribute", "bpm")
+                .queryParam("order", "asc").queryParam("min", 80).queryParam("max", 140).queryParam("limit", 10)
+                .build().toUri();
+
+        // Act
+        ResponseEntity<List<Music>> response = restTemplate.exchange(endpoint, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<Music>>() {
+                });
+
+        // Assert
+        // check that the status code is 200
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        // check that the response size matches the defaultSongs size
+        assertEquals(defaultSongs.size(), response.getBody().size());
+        // check that getRankedSongs was implemented
+        verify(musicService).getRankedSongs(MusicAttribute.BPM, Sort.Direction.ASC, 80, 140, MusicGenreFilter.NONE, 10);
+    }
+
+    @Test
+    @Description("GET /music/query passes the genre filter, normalized, to the service")
+    void getRankedSongsByGenre() {
+        // Arrange
+        MusicGenreFilter filter = MusicGenreFilter.of(List.of("afro-jazz"), List.of("funk", "soul"), List.of("pop"));
+        when(musicService.getRankedSongs(MusicAttribute.BPM, Sort.Direction.DESC, null, null, filter, 15))
+                .thenReturn(defaultSongs);
+        URI endpoint = UriComponentsBuilder.fromUri(getCustomEndpoint("query")).queryParam("attribute", "bpm")
+                .queryParam("genre", "Afro-Jazz").queryParam("anyGenre", "Funk, Soul").queryParam("notGenre", "POP")
+                .build().toUri();
+
+        // Act
+        ResponseEntity<List<Music>> response = restTemplate.exchange(endpoint, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<Music>>() {
+                });
+
+        // Assert
+        // check that the status code is 200 and the filter reached the service
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(musicService).getRankedSongs(MusicAttribute.BPM, Sort.Direction.DESC, null, null, filter, 15);
+    }
+
+    @Test
+    @Description("GET /music/query names attributes as the song JSON does, the column name still accepted")
+    void getRankedSongsByJsonProperty() {
+        // Arrange
+        when(musicService.getRankedSongs(MusicAttribute.DURATION_SEC, Sort.Direction.DESC, null, null,
+                MusicGenreFilter.NONE, 15)).thenReturn(defaultSongs);
+        URI property = UriComponentsBuilder.fromUri(getCustomEndpoint("query"))
+                .queryParam("attribute", "durationSec").build().toUri();
+        URI column = UriComponentsBuilder.fromUri(getCustomEndpoint("query"))
+                .queryParam("attribute", "duration_sec").build().toUri();
+
+        // Act
+        ResponseEntity<String> byProperty = restTemplate.getForEntity(property, String.class);
+        ResponseEntity<String> byColumn = restTemplate.getForEntity(column, String.class);
+
+        // Assert
+        // check that both names rank by the duration
+        assertEquals(HttpStatus.OK, byProperty.getStatusCode());
+        assertEquals(HttpStatus.OK, byColumn.getStatusCode());
+        verify(musicService, times(2)).getRankedSongs(MusicAttribute.DURATION_SEC, Sort.Direction.DESC, null, null,
+                MusicGenreFilter.NONE, 15);
+    }
+
+    @Test
+    @Description("GET /music/query returns 400 for unknown attribute")
+    void getRankedSongsInvalidAttribute() {
+        // Arrange
+        URI endpoint = UriComponentsBuilder.fromUri(getCustomEndpoint("query")).queryParam("attribute", "genre")
+                .build().toUri();
+
+        // Act
+        ResponseEntity<String> response = restTemplate.getForEntity(endpoint, String.class);
+
+        // Assert
+        // check that the status code is 400
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @Description("GET /music/search passes query, prefix and limit to the service")
+    void searchSongs() {
+        // Arrange
+        when(musicService.searchSongs("swe", true, MusicGenreFilter.NONE, 5)).thenReturn(highDanceabilitySongs);
+        URI endpoint = UriComponentsBuilder.fromUri(getCustomEndpoint("search")).queryParam("q", "swe")
+                .queryParam("prefix", true).queryParam("limit", 5).build().toUri();
+
+        // Act
+        ResponseEntity<List<Music>> response = restTemplate.exchange(endpoint, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<Music>>() {
+                });
+
+        // Assert
+        // check that the ranked songs are returned
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(highDanceabilitySongs.size(), response.getBody().size());
+        verify(musicService).searchSongs("swe", true, MusicGenreFilter.NONE, 5);
+    }
+
+    @Test
+    @Description("GET /music/search returns 400 for a blank query")
+    void searchSongsBlankQuery() {
+        // Arrange
+        when(musicService.searchSongs(" ", false, MusicGenreFilter.NONE, 15)).thenThrow(IllegalArgumentException.class);
+        URI endpoint = UriComponentsBuilder.fromUri(getCustomEndpoint("search")).queryParam("q", " ").build()
+                .toUri();
+
+        // Act
+        ResponseEntity<String> response = restTemplate.getForEntity(endpoint, String.class);
+
+        // Assert
+        // check that the status code is 400
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @Description("GET /music/genres returns the facet counts of the genre filter")
+    void getGenreFacets() {
+        // Arrange
+        MusicGenreFacets facets = new MusicGenreFacets(2, Map.of("jazz", 2, "funk", 1));
+        when(musicService.getGenreFacets(MusicGenreFilter.of(List.of("jazz"), null, null))).thenReturn(facets);
+        URI endpoint = UriComponentsBuilder.fromUri(getCustomEndpoint("genres")).queryParam("genre", "Jazz").build()
+                .toUri();
+
+        // Act
+        ResponseEntity<MusicGenreFacets> response = restTemplate.getForEntity(endpoint, MusicGenreFacets.class);
+
+        // Assert
+        // check that the counts are returned
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(facets, response.getBody());
+    }
+
+    @Test
+    @Description("GET /music/genres returns 400 when the filter names too many genres")
+    void getGenreFacetsTooManyGenres() {
+        // Arrange
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUri(getCustomEndpoint("genres"));
+        for (int i = 0; i <= MusicGenreFilter.MAX_TAGS; i++) {
+            builder.queryParam("anyGenre", "genre " + i);
+        }
+
+        // Act
+        ResponseEntity<String> response = restTemplate.getForEntity(builder.build().toUri(), String.class);
+
+        // Assert
+        // check that the status code is 400
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @Description("GET /music/stats returns the catalog statistics, tagged with the catalog version")
+    void getCatalogStats() {
+        // Arrange
+        Music music = new Music("Stats", "Artist", 1996, "Afro-Jazz", "", 250, 105, 80, 65);
+        ReflectionTestUtils.setField(music, "id", UUID.randomUUID());
+        ReflectionTestUtils.setField(music, "version", 0L);
+        long count = musicStatistics.stats().all().count();
+        musicStatistics.onMusicChanged(new MusicChangedEvent(null, music));
+        URI endpoint = getCustomEndpoint("stats");
+
+        try {
+            // Act
+            ResponseEntity<MusicCatalogStats> response = restTemplate.getForEntity(endpoint, MusicCatalogStats.class);
+
+            // Assert
+            // check that the song is counted overall, in its decade and its genre
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertNotNull(response.getHeaders().getETag());
+            assertEquals(count + 1, response.getBody().all().count());
+            assertTrue(response.getBody().decades().get("1990s").count() >= 1);
+            assertTrue(response.getBody().genres().get("afro-jazz").count() >= 1);
+        } finally {
+            musicStatistics.onMusicChanged(new MusicChangedEvent(music, null));
+        }
+    }
+
+    @Test
+    @Description("GET /music/changes streams writes as server-sent events and resumes after Last-Event-ID")
+    void streamChanges() throws IOException, InterruptedException {
+        // Arrange
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest live = HttpRequest.newBuilder(getCustomEndpoint("changes")).build();
+        Music music = createNewSong();
+
+        // Act
+        List<String> created;
+        try (Stream<String> lines = client.send(live, HttpResponse.BodyHandlers.ofLines()).body()) {
+            // imitate a write going through MusicService once subscribed
+            musicChangeFeed.onMusicChanged(new MusicChangedEvent(null, music));
+            created = event(lines.iterator());
+        }
+        long sequence = Long.parseLong(created.get(0).substring("id:".length()));
+        musicChangeFeed.onMusicChanged(new MusicChangedEvent(music, null));
+        HttpRequest resumed = HttpRequest.newBuilder(getCustomEndpoint("changes"))
+                .header("Last-Event-ID", Long.toString(sequence)).build();
+        List<String> deleted;
+        try (Stream<String> lines = client.send(resumed, HttpResponse.BodyHandlers.ofLines()).body()) {
+            deleted = event(lines.iterator());
+        }
+
+        // Assert
+        // check that the create arrives live and the delete is replayed to the resumed client
+        assertEquals("event:created", created.get(1));
+        assertTrue(created.get(2).contains(music.getId().toString()));
+        assertEquals(List.of("id:" + (sequence + 1), "event:deleted"), deleted.subList(0, 2));
+        assertTrue(deleted.get(2).contains("\"type\":\"DELETED\""));
+    }
+
+    @Test
+    @Description("GET /music/changes returns 400 for a Last-Event-ID that is not a sequence")
+    void streamChangesInvalidSequence() {
+        // Arrange
+        RequestEntity<Void> request = RequestEntity.get(getCustomEndpoint("changes"))
+                .header("Last-Event-ID", "abc").build();
+
+        // Act
+        ResponseEntity<String> response = restTemplate.exchange(request, String.class);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @Description("POST /music/plays returns 202 and counts only the plays of existing songs")
+    void recordPlays() {
+        // Arrange
+        // no song exists, the song service is mocked
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        // Act
+        ResponseEntity<MusicPlayResult> batch = restTemplate.postForEntity(getCustomEndpoint("plays"), ids,
+                MusicPlayResult.class);
+        ResponseEntity<String> single = restTemplate.postForEntity(
+                appendPath(getEndpoint(setId(createNewSong())), "plays"), null, String.class);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, batch.getStatusCode());
+        assertEquals(new MusicPlayResult(0, 2), batch.getBody());
+        assertEquals(HttpStatus.NOT_FOUND, single.getStatusCode());
+    }
+
+    @Test
+    @Description("GET /music/mostplayed returns 400 for a limit beyond the ranking")
+    void getMostPlayedSongsInvalidLimit() {
+        // Arrange
+        URI endpoint = UriComponentsBuilder.fromUri(getCustomEndpoint("mostplayed")).queryParam("limit", 0).build()
+                .toUri();
+
+        // Act
+        ResponseEntity<String> response = restTemplate.getForEntity(endpoint, String.class);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
     // create mock data for gethighDanceabilitySongs() test
@@ -365,6 +1085,18 @@ public class MusicControllerTest {
         }
     };
 
+    // id, event and data lines of the next server-sent event, skipping heartbeats
+    private static List<String> event(Iterator<String> lines) {
+        List<String> event = new ArrayList<>();
+        while (event.size() < 3 && lines.hasNext()) {
+            String line = lines.next();
+            if (!line.isEmpty() && !line.startsWith(":")) {
+                event.add(line);
+            }
+        }
+        return event;
+    }
+
     // create mock data
     private Music createNewSong() {
         return setId(new Music("Sweet Dreams", "Beyoncé", 2008, "Pop, R&B",
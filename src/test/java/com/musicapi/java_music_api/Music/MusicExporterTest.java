@@ -0,0 +1,95 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicExporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// file backed database so the fixture rows live on disk rather than in the test heap
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:file:./target/h2/export;MODE=MySQL;NON_KEYWORDS=YEAR")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// fixture rows are committed before the export reads them in its own transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MusicExporter.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class MusicExporterTest {
+
+    // large enough that materialising the table would not fit in the -Xmx256m test heap
+    private static final int ROWS = 300_000;
+
+    @Autowired
+    private MusicExporter musicExporter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @Description("export streams every row as one json line with flat memory")
+    void exportLargeCatalog() throws IOException {
+        // Arrange
+        insertSyntheticSongs();
+        LineCountingOutputStream out = new LineCountingOutputStream();
+
+        // Act
+        long exported = musicExporter.export(out);
+
+        // Assert
+        // check that every row was written once
+        assertEquals(ROWS, exported);
+        assertEquals(ROWS, out.lines);
+        // check that the first line is a complete song
+        Music first = objectMapper.readValue(out.firstLine.toString(StandardCharsets.UTF_8), Music.class);
+        assertEquals("Synthetic Artist", first.getArtist());
+    }
+
+    private void insertSyntheticSongs() {
+        // generate the rows inside the database so the fixture itself stays out of the heap,
+        // sequential ids keep the primary key inserts appending instead of splitting pages
+        new JdbcTemplate(dataSource).update("INSERT INTO music"
+                + " (id, song, artist, year, genre, description, duration_sec, bpm, energy, danceability)"
+                + " SELECT CAST(CONCAT('00000000-0000-0000-0000-', LPAD(CAST(X AS VARCHAR), 12, '0')) AS UUID),"
+                + " CONCAT('Song ', X), 'Synthetic Artist', 1950 + MOD(X, 75), 'Pop, Funk',"
+                + " 'A synthetic track used to exercise the streaming export of the catalog.',"
+                + " 120 + MOD(X, 240), 60 + MOD(X, 140), MOD(X, 101), MOD(X * 7, 101)"
+                + " FROM SYSTEM_RANGE(1, ?)", ROWS);
+    }
+
+    // discards output while counting lines and keeping the first one
+    private static class LineCountingOutputStream extends OutputStream {
+        private long lines;
+        private final ByteArrayOutputStream firstLine = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            } else if (lines == 0) {
+                firstLine.write(b);
+            }
+        }
+    }
+
+}
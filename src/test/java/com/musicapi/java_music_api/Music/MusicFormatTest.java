@@ -0,0 +1,41 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+
+import com.musicapi.java_music_api.music.MusicFormat;
+import com.musicapi.java_music_api.music.MusicVersion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MusicFormatTest {
+
+    @Test
+    @Description("the format is the one the Accept header prefers, JSON when it takes anything")
+    void negotiatesFormat() {
+        // Act and Assert
+        assertEquals(MusicFormat.JSON, MusicFormat.accepted(null));
+        assertEquals(MusicFormat.JSON, MusicFormat.accepted("*/*"));
+        assertEquals(MusicFormat.JSON, MusicFormat.accepted("application/json, application/cbor"));
+        assertEquals(MusicFormat.JSON, MusicFormat.accepted("not a media type"));
+        assertEquals(MusicFormat.CBOR, MusicFormat.accepted("application/json;q=0.5, application/cbor"));
+        assertEquals(MusicFormat.SMILE, MusicFormat.accepted("application/x-jackson-smile, */*;q=0.1"));
+    }
+
+    @Test
+    @Description("binary formats and gzip codings have their own entity tags, which name the same version for If-Match")
+    void tagsFormats() {
+        // Act
+        String cbor = MusicFormat.CBOR.etag("\"7\"");
+
+        // Assert
+        assertEquals("\"7+cbor\"", cbor);
+        assertEquals("\"7\"", MusicFormat.JSON.etag("\"7\""));
+        assertEquals("\"7\"", MusicFormat.plain(cbor));
+        assertEquals("\"7+cbor-gz\"", MusicFormat.gzip(cbor));
+        assertEquals("\"7\"", MusicFormat.plain(MusicFormat.gzip(cbor)));
+        assertEquals(7L, MusicVersion.expectedVersion(MusicFormat.gzip("\"7\"")));
+        assertEquals(7L, MusicVersion.expectedVersion(cbor));
+    }
+
+}
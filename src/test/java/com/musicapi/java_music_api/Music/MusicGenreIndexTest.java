@@ -0,0 +1,137 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicAttribute;
+import com.musicapi.java_music_api.music.MusicBitmap;
+import com.musicapi.java_music_api.music.MusicGenreFilter;
+import com.musicapi.java_music_api.music.MusicGenreIndex;
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MusicGenreIndexTest {
+    private static final String[] GENRES = { "Pop", "Rock", "Jazz", "Afro-Jazz", "R&B", "Funk", "Electronic",
+            "Hip Hop" };
+
+    @Test
+    @Description("genres are split on commas, trimmed and lower cased")
+    void tags() {
+        assertEquals(List.of("afro-jazz", "funk"), List.copyOf(MusicGenreIndex.tags(" Afro-Jazz,  FUNK ")));
+        assertEquals(List.of("r&b", "hip hop"), List.copyOf(MusicGenreIndex.tags("R&B, Hip   Hop, , r&b")));
+        assertEquals(Set.of(), MusicGenreIndex.tags(null));
+    }
+
+    @Test
+    @Description("filters, facets and rankings agree with a scan of the songs")
+    void matchesScan() {
+        // Arrange
+        Random random = new Random(5);
+        MusicGenreIndex index = new MusicGenreIndex();
+        Map<UUID, Music> songs = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            Music music = song(random);
+            songs.put(music.getId(), music);
+            index.put(music);
+        }
+        // regenre a third and delete a tenth, keeping document numbers stable
+        List<UUID> deleted = new ArrayList<>();
+        for (Music music : new ArrayList<>(songs.values())) {
+            int roll = random.nextInt(30);
+            if (roll < 10) {
+                Music updated = song(random);
+                ReflectionTestUtils.setField(updated, "id", music.getId());
+                songs.put(music.getId(), updated);
+                index.put(updated);
+            } else if (roll < 13) {
+                songs.remove(music.getId());
+                index.remove(music.getId());
+                deleted.add(music.getId());
+            }
+        }
+        // new songs take the numbers of deleted ones
+        for (int i = 0; i < deleted.size() / 2; i++) {
+            Music music = song(random);
+            songs.put(music.getId(), music);
+            index.put(music);
+            assertTrue(index.document(music.getId()) < 3000);
+        }
+
+        for (int n = 0; n < 200; n++) {
+            // Act
+            MusicGenreFilter filter = MusicGenreFilter.of(genres(random, 2), genres(random, 3), genres(random, 1));
+            MusicBitmap matched = index.match(filter);
+            Map<String, Integer> facets = index.facets(matched);
+            MusicAttribute attribute = MusicAttribute.values()[random.nextInt(MusicAttribute.values().length)];
+            Sort.Direction direction = n % 2 == 0 ? Sort.Direction.ASC : Sort.Direction.DESC;
+            List<UUID> ranked = index.rank(matched, attribute, direction, 40, 160, 10);
+
+            // Assert
+            Predicate<Music> matches = music -> {
+                Set<String> tags = MusicGenreIndex.tags(music.getGenre());
+                return tags.containsAll(filter.all())
+                        && (filter.any().isEmpty() || filter.any().stream().anyMatch(tags::contains))
+                        && filter.none().stream().noneMatch(tags::contains);
+            };
+            List<Music> expected = songs.values().stream().filter(matches).toList();
+            assertEquals(expected.size(), matched.cardinality(), filter.toString());
+            for (Music music : songs.values()) {
+                assertEquals(matches.test(music), index.matches(music.getId(), filter), filter.toString());
+            }
+            assertFalse(index.matches(deleted.get(n % deleted.size()), filter));
+            Map<String, Integer> expectedFacets = new HashMap<>();
+            expected.forEach(music -> MusicGenreIndex.tags(music.getGenre())
+                    .forEach(tag -> expectedFacets.merge(tag, 1, Integer::sum)));
+            assertEquals(expectedFacets, facets, filter.toString());
+            assertEquals(expected.stream()
+                    .filter(music -> attribute.valueOf(music) != null && attribute.valueOf(music) >= 40
+                            && attribute.valueOf(music) <= 160)
+                    .sorted(attribute.comparator(direction)).limit(10).map(Music::getId).toList(), ranked);
+        }
+    }
+
+    @Test
+    @Description("a filter naming too many genres is rejected")
+    void tooManyGenres() {
+        List<String> genres = new ArrayList<>();
+        for (int i = 0; i <= MusicGenreFilter.MAX_TAGS; i++) {
+            genres.add("genre " + i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> MusicGenreFilter.of(genres, null, null));
+    }
+
+    private static List<String> genres(Random random, int max) {
+        List<String> genres = new ArrayList<>();
+        for (int i = random.nextInt(max + 1); i > 0; i--) {
+            genres.add(GENRES[random.nextInt(GENRES.length)].toUpperCase());
+        }
+        return genres;
+    }
+
+    private static Music song(Random random) {
+        String genre = String.join(", ", genres(random, 3));
+        // a few songs without a bpm, outside the ranking
+        Integer bpm = random.nextInt(20) == 0 ? null : random.nextInt(200);
+        Music music = new Music("Song", "Artist", 1950 + random.nextInt(75), genre, "", 60 + random.nextInt(300),
+                bpm, random.nextInt(101), random.nextInt(101));
+        ReflectionTestUtils.setField(music, "id", TimeOrderedUuidGenerator.next());
+        return music;
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicAttribute;
+import com.musicapi.java_music_api.music.MusicGenreFacets;
+import com.musicapi.java_music_api.music.MusicGenreFilter;
+import com.musicapi.java_music_api.music.MusicGenres;
+import com.musicapi.java_music_api.music.MusicRepository;
+import com.musicapi.java_music_api.music.MusicSearch;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the startup load streams committed rows, so every write has to commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MusicServiceTestConfiguration.class)
+public class MusicGenresTest {
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private MusicSearch musicSearch;
+
+    @Autowired
+    private MusicGenres musicGenres;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @AfterEach
+    void tearDown() {
+        musicRepository.deleteAll();
+        musicSearch.load();
+        musicGenres.load();
+    }
+
+    @Test
+    @Description("genre filters, facets and rankings follow creates, updates and deletes made through MusicService")
+    void genresFollowWrites() {
+        // Arrange
+        // one song stored before the load, as if the catalog had been seeded
+        Music seeded = musicRepository.save(song("Water No Get Enemy", "Afro-Jazz, Funk", 110));
+        musicSearch.load();
+        musicGenres.load();
+
+        // Act
+        musicService.createSong(song("Love Story", "Pop, Country", 119));
+        musicService.createSong(song("Crazy in Love", "R&B, Pop", 99));
+        Music regenred = musicService.createSong(song("Love Me Do", "Rock", 148));
+        musicService.updateSong(regenred.getId(), song("Love Me Do", "Pop,  rock", 148), null);
+        musicService.deleteSong(seeded.getId(), null);
+
+        // Assert
+        // check that the deleted song is gone from the counts and the updated one counted under its new genres
+        MusicGenreFacets facets = musicService.getGenreFacets(MusicGenreFilter.of(List.of("pop"), null, null));
+        assertEquals(3, facets.count());
+        assertEquals(Map.of("pop", 3, "country", 1, "r&b", 1, "rock", 1), facets.genres());
+        assertEquals(0, musicService.getGenreFacets(MusicGenreFilter.of(List.of("funk"), null, null)).count());
+        // check that the genre filter ranks by the attribute and combines with its bounds
+        MusicGenreFilter popNotCountry = MusicGenreFilter.of(List.of("POP"), null, List.of("country"));
+        assertEquals(List.of("Love Me Do", "Crazy in Love"), titles(musicService.getRankedSongs(MusicAttribute.BPM,
+                Sort.Direction.DESC, null, null, popNotCountry, 10)));
+        assertEquals(List.of("Crazy in Love"), titles(musicService.getRankedSongs(MusicAttribute.BPM,
+                Sort.Direction.DESC, null, 120, popNotCountry, 10)));
+        // check that the genre filter narrows the search
+        assertEquals(List.of("Love Story", "Love Me Do"), titles(musicService.searchSongs("love", false,
+                MusicGenreFilter.of(null, List.of("country", "rock"), null), 10)));
+    }
+
+    private static List<String> titles(List<Music> songs) {
+        return songs.stream().map(Music::getSong).toList();
+    }
+
+    private static Music song(String song, String genre, int bpm) {
+        return new Music(song, "Artist", 2000, genre, "a song", 200, bpm, 50, 50);
+    }
+
+}
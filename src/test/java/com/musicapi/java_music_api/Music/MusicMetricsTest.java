@@ -0,0 +1,103 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Description;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.musicapi.java_music_api.JavaMusicApiApplication;
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicPage;
+import com.musicapi.java_music_api.music.MusicRepository;
+import com.musicapi.java_music_api.music.MusicService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = JavaMusicApiApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "management.endpoints.web.exposure.include=prometheus",
+                "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+                "management.metrics.data.repository.autotime.percentiles-histogram=true",
+                "management.metrics.distribution.percentiles-histogram.hikaricp.connections.acquire=true",
+                "spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureObservability
+public class MusicMetricsTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        musicRepository.deleteAll();
+    }
+
+    @Test
+    @Description("requests are timed per endpoint and their statements and rows counted")
+    void countsStatementsAndRowsPerRequest() {
+        // Arrange
+        Music music = null;
+        for (int i = 0; i < 5; i++) {
+            music = musicService.createSong(new Music("Song " + i, "Artist", 2000, "Pop", "a song", 200, 120, 50, 50));
+        }
+
+        // Act
+        ResponseEntity<MusicPage> response = restTemplate.getForEntity("/music/page?limit=3", MusicPage.class);
+        restTemplate.getForEntity("/music/" + music.getId(), String.class);
+        restTemplate.getForEntity("/music?fields=song", String.class);
+
+        // Assert
+        // check that the page read one statement's worth of rows, the page and the one after
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        DistributionSummary statements = meterRegistry.get("music.request.statements")
+                .tags("method", "GET", "uri", "/music/page").summary();
+        DistributionSummary rows = meterRegistry.get("music.request.rows")
+                .tags("method", "GET", "uri", "/music/page").summary();
+        assertEquals(1, statements.count());
+        assertTrue(statements.totalAmount() >= 1);
+        assertTrue(rows.totalAmount() >= 3 && rows.totalAmount() <= 5);
+        // check that a song loaded by id is one row and a projection its rows
+        assertEquals(1, meterRegistry.get("music.request.rows").tags("method", "GET", "uri", "/music/{id}")
+                .summary().totalAmount());
+        assertEquals(5, meterRegistry.get("music.request.rows").tags("method", "GET", "uri", "/music")
+                .summary().totalAmount());
+    }
+
+    @Test
+    @Description("the prometheus endpoint serves endpoint, repository, pool, Hibernate and cache metrics")
+    void exposesPrometheusMetrics() {
+        // Arrange
+        Music music = musicService.createSong(new Music("Song", "Artist", 2000, "Pop", "a song", 200, 120, 50, 50));
+        restTemplate.getForEntity("/music/" + music.getId(), String.class);
+        restTemplate.getForEntity("/music/highdanceability", String.class);
+
+        // Act
+        String metrics = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        // Assert
+        assertTrue(metrics.contains("http_server_requests_seconds_bucket{"), "endpoint histograms");
+        assertTrue(metrics.contains("uri=\"/music/highdanceability\""), "endpoint tag");
+        assertTrue(metrics.contains("spring_data_repository_invocations_seconds_bucket{"), "repository histograms");
+        assertTrue(metrics.contains("hikaricp_connections_acquire_seconds_bucket{"), "pool wait histogram");
+        assertTrue(metrics.contains("hibernate_statements_total{"), "hibernate statistics");
+        assertTrue(metrics.contains("cache_gets_total{cache=\"music.song\""), "song cache");
+        assertTrue(metrics.contains("music_request_rows_bucket{"), "rows per request");
+    }
+
+}
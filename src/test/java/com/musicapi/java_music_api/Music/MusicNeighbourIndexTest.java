@@ -0,0 +1,105 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicCursor;
+import com.musicapi.java_music_api.music.MusicNeighbourIndex;
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MusicNeighbourIndexTest {
+
+    @Test
+    @Description("nearest neighbours agree with a scan of the songs through updates, deletes and rebuilds")
+    void matchesScan() {
+        // Arrange
+        Random random = new Random(11);
+        MusicNeighbourIndex index = new MusicNeighbourIndex();
+        Map<UUID, Music> songs = new LinkedHashMap<>();
+        List<Music> seeded = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            seeded.add(song(random));
+        }
+        seeded.forEach(music -> songs.put(music.getId(), music));
+        index.putAll(seeded.stream());
+
+        for (int round = 0; round < 6; round++) {
+            // move, delete and add songs past a rebuild, keeping ids
+            for (int i = 0; i < 600; i++) {
+                List<UUID> ids = new ArrayList<>(songs.keySet());
+                UUID id = ids.get(random.nextInt(ids.size()));
+                int roll = random.nextInt(3);
+                if (roll == 0) {
+                    Music moved = song(random);
+                    ReflectionTestUtils.setField(moved, "id", id);
+                    songs.put(id, moved);
+                    index.put(moved);
+                } else if (roll == 1) {
+                    songs.remove(id);
+                    index.remove(id);
+                } else {
+                    Music created = song(random);
+                    songs.put(created.getId(), created);
+                    index.put(created);
+                }
+            }
+            List<Music> all = new ArrayList<>(songs.values());
+
+            for (int n = 0; n < 50; n++) {
+                // Act
+                Music query = all.get(random.nextInt(all.size()));
+                int k = 1 + random.nextInt(20);
+                List<UUID> nearest = index.nearest(query, k);
+
+                // Assert
+                float[] features = MusicNeighbourIndex.features(query);
+                List<UUID> expected = all.stream().filter(music -> !music.getId().equals(query.getId()))
+                        .sorted(Comparator.<Music>comparingDouble(
+                                music -> MusicNeighbourIndex.distance(features, MusicNeighbourIndex.features(music)))
+                                .thenComparing(Music::getId, MusicCursor.ID_ORDER))
+                        .limit(k).map(Music::getId).toList();
+                assertEquals(expected, nearest);
+                assertEquals(songs.size(), index.size());
+            }
+        }
+    }
+
+    @Test
+    @Description("a song missing an audio feature is left out and cannot be asked about")
+    void missingFeature() {
+        // Arrange
+        MusicNeighbourIndex index = new MusicNeighbourIndex();
+        Music complete = song(new Random(1));
+        Music partial = song(new Random(2));
+        partial.setBpm(null);
+        index.put(complete);
+        index.put(partial);
+
+        // Assert
+        assertEquals(1, index.size());
+        assertThrows(IllegalArgumentException.class, () -> index.nearest(partial, 5));
+        assertEquals(List.of(), index.nearest(complete, 5));
+    }
+
+    private static Music song(Random random) {
+        // a coarse grid, so that equally near songs are common
+        Music music = new Music("Song", "Artist", 1950 + random.nextInt(75), "Pop", "", 60 + 10 * random.nextInt(30),
+                60 + 5 * random.nextInt(28), 10 * random.nextInt(11), 10 * random.nextInt(11));
+        ReflectionTestUtils.setField(music, "id", TimeOrderedUuidGenerator.next());
+        return music;
+    }
+
+}
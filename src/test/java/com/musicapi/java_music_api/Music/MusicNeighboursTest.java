@@ -0,0 +1,81 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicNeighbours;
+import com.musicapi.java_music_api.music.MusicRepository;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the startup load streams committed rows, so every write has to commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MusicServiceTestConfiguration.class)
+public class MusicNeighboursTest {
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private MusicNeighbours musicNeighbours;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @AfterEach
+    void tearDown() {
+        musicRepository.deleteAll();
+        musicNeighbours.load();
+    }
+
+    @Test
+    @Description("similar songs follow creates, updates and deletes made through MusicService")
+    void similarFollowsWrites() {
+        // Arrange
+        // one song stored before the load, as if the catalog had been seeded
+        Music seeded = musicRepository.save(song("Slow Jam", 70, 30));
+        musicNeighbours.load();
+
+        // Act
+        Music query = musicService.createSong(song("Dance Floor", 124, 80));
+        musicService.createSong(song("Club Night", 126, 85));
+        Music moved = musicService.createSong(song("Ballad", 72, 25));
+        musicService.createSong(song("Slow Dance", 118, 70));
+        musicService.updateSong(moved.getId(), song("Ballad Remix", 125, 82), null);
+        musicService.deleteSong(seeded.getId(), null);
+
+        // Assert
+        // check that the deleted song is gone and the updated one is found by its new features
+        assertEquals(4, musicNeighbours.size());
+        assertEquals(List.of("Ballad Remix", "Club Night"), titles(musicService.getSimilarSongs(query.getId(), 2)));
+        assertEquals(List.of("Ballad Remix", "Club Night", "Slow Dance"),
+                titles(musicService.getSimilarSongs(query.getId(), 10)));
+        assertThrows(NoSuchElementException.class, () -> musicService.getSimilarSongs(UUID.randomUUID(), 10));
+        assertThrows(IllegalArgumentException.class, () -> musicService.getSimilarSongs(query.getId(), 0));
+    }
+
+    private static List<String> titles(List<Music> songs) {
+        return songs.stream().map(Music::getSong).toList();
+    }
+
+    private static Music song(String song, int bpm, int energy) {
+        return new Music(song, "Artist", 2000, "Pop", "a song", 200, bpm, energy, 50);
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicGenreFilter;
+import com.musicapi.java_music_api.music.MusicPlaylistIndex;
+import com.musicapi.java_music_api.music.MusicPlaylistPlan;
+import com.musicapi.java_music_api.music.MusicPlaylistRequest;
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MusicPlaylistIndexTest {
+
+    @Test
+    @Description("playlists keep to the bpm delta and the filter, never repeat a song and land on the length")
+    void playlistConstraints() {
+        // Arrange
+        Random random = new Random(5);
+        MusicPlaylistIndex index = new MusicPlaylistIndex();
+        Map<UUID, Music> songs = new HashMap<>();
+        List<Music> seeded = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            seeded.add(song(random));
+        }
+        seeded.forEach(music -> songs.put(music.getId(), music));
+        index.putAll(seeded.stream());
+        // move and delete songs after the load
+        for (int i = 0; i < 2000; i++) {
+            Music music = seeded.get(random.nextInt(seeded.size()));
+            if (i % 2 == 0) {
+                Music moved = song(random);
+                ReflectionTestUtils.setField(moved, "id", music.getId());
+                songs.put(music.getId(), moved);
+                index.put(moved);
+            } else {
+                songs.remove(music.getId());
+                index.remove(music.getId());
+            }
+        }
+
+        for (int durationSec : new int[] { 600, 3600, 4 * 3600 }) {
+            MusicPlaylistRequest request = MusicPlaylistRequest.of(durationSec, null, 20, 90, 5,
+                    MusicGenreFilter.NONE, null);
+
+            // Act
+            MusicPlaylistPlan plan = index.solve(request, id -> id.getLeastSignificantBits() % 3 != 0, random,
+                    System.nanoTime() + Duration.ofMillis(20).toNanos());
+
+            // Assert
+            int total = 0;
+            for (int i = 0; i < plan.ids().size(); i++) {
+                Music music = songs.get(plan.ids().get(i));
+                assertTrue(music != null && music.getId().getLeastSignificantBits() % 3 != 0);
+                if (i > 0) {
+                    assertTrue(Math.abs(music.getBpm() - songs.get(plan.ids().get(i - 1)).getBpm()) <= 5);
+                }
+                total += music.getDurationSec();
+            }
+            assertEquals(plan.ids().size(), new HashSet<>(plan.ids()).size());
+            assertEquals(total, plan.durationSec());
+            assertTrue(Math.abs(total - durationSec) <= 5, "length " + total + " for " + durationSec);
+            // a few songs cannot follow a ten minute curve closely
+            assertTrue(plan.energyError() < (durationSec < 3600 ? 25 : 5), "energy error " + plan.energyError());
+        }
+    }
+
+    @Test
+    @Description("songs without bpm, energy or duration are left out and an empty index gives an empty playlist")
+    void incompleteSongs() {
+        // Arrange
+        MusicPlaylistIndex index = new MusicPlaylistIndex();
+        Music complete = song(new Random(1));
+        Music partial = song(new Random(2));
+        partial.setDurationSec(null);
+        MusicPlaylistRequest request = MusicPlaylistRequest.of(600, null, 0, 100, 50, MusicGenreFilter.NONE, null);
+
+        // Act
+        MusicPlaylistPlan empty = index.solve(request, id -> true, new Random(3), System.nanoTime());
+        index.put(complete);
+        index.put(partial);
+
+        // Assert
+        assertEquals(List.of(), empty.ids());
+        assertEquals(1, index.size());
+        assertEquals(List.of(complete.getId()),
+                index.solve(request, id -> true, new Random(3), System.nanoTime()).ids());
+    }
+
+    private static Music song(Random random) {
+        Music music = new Music("Song", "Artist", 2000, "Pop", "", 120 + random.nextInt(240), 70 + random.nextInt(110),
+                random.nextInt(101), random.nextInt(101));
+        ReflectionTestUtils.setField(music, "id", TimeOrderedUuidGenerator.next());
+        return music;
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicChangedEvent;
+import com.musicapi.java_music_api.music.MusicGenreFilter;
+import com.musicapi.java_music_api.music.MusicGenres;
+import com.musicapi.java_music_api.music.MusicPlaylist;
+import com.musicapi.java_music_api.music.MusicPlaylistPlan;
+import com.musicapi.java_music_api.music.MusicPlaylistRequest;
+import com.musicapi.java_music_api.music.MusicPlaylists;
+import com.musicapi.java_music_api.music.MusicRepository;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jakarta.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// a copy after every write, as the tests check that playlists follow them
+@DataJpaTest(properties = "music.playlist.refresh-interval=0s")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the startup load streams committed rows, so every write has to commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MusicServiceTestConfiguration.class)
+public class MusicPlaylistsTest {
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private MusicPlaylists musicPlaylists;
+
+    @Autowired
+    private MusicGenres musicGenres;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        musicRepository.deleteAll();
+        musicPlaylists.load();
+        musicGenres.load();
+    }
+
+    @Test
+    @Description("playlists follow creates, updates and deletes made through MusicService and the genre filter")
+    void playlistFollowsWrites() {
+        // Arrange
+        // half the songs stored before the load, as if the catalog had been seeded
+        List<Music> songs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            songs.add(musicRepository.save(song(i % 2 == 0 ? "House" : "Jazz", 120 + i % 5, i * 5, 180 + i)));
+        }
+        musicPlaylists.load();
+        musicGenres.load();
+
+        // Act
+        for (int i = 20; i < 40; i++) {
+            songs.add(musicService.createSong(song(i % 2 == 0 ? "House" : "Jazz", 120 + i % 5, i * 5 - 100, 180 + i)));
+        }
+        Music deleted = songs.get(0);
+        musicService.deleteSong(deleted.getId(), null);
+        Music moved = songs.get(1);
+        musicService.updateSong(moved.getId(), song("House", 121, 50, 200), null);
+        MusicPlaylist playlist = musicService.generatePlaylist(MusicPlaylistRequest.of(1800, List.of("plateau"),
+                0, 50, 4, MusicGenreFilter.of(List.of("house"), null, null), Duration.ofMillis(20)));
+
+        // Assert
+        // check that only house songs are played, the deleted one never, and the length is near
+        assertEquals(39, musicPlaylists.size());
+        assertFalse(playlist.songs().isEmpty());
+        assertTrue(playlist.songs().stream().allMatch(music -> music.getGenre().equals("House")));
+        assertTrue(playlist.songs().stream().noneMatch(music -> music.getId().equals(deleted.getId())));
+        assertEquals(playlist.durationSec(), playlist.songs().stream().mapToInt(Music::getDurationSec).sum());
+        assertTrue(Math.abs(playlist.durationSec() - 1800) < 200);
+        assertThrows(IllegalArgumentException.class, () -> musicService.generatePlaylist(MusicPlaylistRequest.of(
+                1800, null, 0, 100, 4, MusicGenreFilter.NONE, Duration.ofSeconds(60))));
+    }
+
+    @Test
+    @Description("a write is applied while a long solve is still running on the snapshot it took")
+    void writesDoNotWaitForSolves() throws Exception {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            musicRepository.save(song("House", 120 + i % 5, i * 5, 180 + i));
+        }
+        musicPlaylists.load();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        MusicPlaylistRequest request = MusicPlaylistRequest.of(1800, null, 0, 100, 4, MusicGenreFilter.NONE,
+                Duration.ofMillis(800));
+
+        // Act
+        Future<MusicPlaylistPlan> solving = executor.submit(() -> musicPlaylists.generate(request, id -> true));
+        Thread.sleep(100);
+        musicService.createSong(song("House", 121, 50, 200));
+        boolean solvedBeforeWrite = solving.isDone();
+        int size = musicPlaylists.size();
+        MusicPlaylistPlan plan = solving.get();
+        executor.shutdown();
+
+        // Assert
+        // check that the write and the read after it went through before the solve ended
+        assertFalse(solvedBeforeWrite);
+        assertEquals(21, size);
+        assertFalse(plan.ids().isEmpty());
+    }
+
+    @Test
+    @Description("solves share one copy of the index until the refresh interval has passed")
+    void copiesAtMostEveryRefreshInterval() {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            musicRepository.save(song("House", 120 + i % 5, i * 5, 180 + i));
+        }
+        MusicPlaylists hourly = playlists(Duration.ofHours(1));
+        MusicPlaylists everyWrite = playlists(Duration.ZERO);
+        // short enough for one song to close the playlist
+        MusicPlaylistRequest request = MusicPlaylistRequest.of(300, List.of("plateau"), 50, 50, 8,
+                MusicGenreFilter.NONE, Duration.ofMillis(5));
+        hourly.generate(request, id -> true);
+        everyWrite.generate(request, id -> true);
+        Music added = musicRepository.save(song("House", 121, 50, 300));
+
+        // Act
+        hourly.onMusicChanged(new MusicChangedEvent(null, added));
+        everyWrite.onMusicChanged(new MusicChangedEvent(null, added));
+        MusicPlaylistPlan stale = hourly.generate(request, id -> id.equals(added.getId()));
+        MusicPlaylistPlan fresh = everyWrite.generate(request, id -> id.equals(added.getId()));
+
+        // Assert
+        // check that the write reached the index but only the copy taken after it
+        assertEquals(21, hourly.size());
+        assertEquals(List.of(), stale.ids());
+        assertEquals(List.of(added.getId()), fresh.ids());
+    }
+
+    private MusicPlaylists playlists(Duration refreshInterval) {
+        MusicPlaylists playlists = new MusicPlaylists(entityManager, 100, Duration.ofMillis(50),
+                Duration.ofSeconds(1), refreshInterval);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> playlists.load());
+        return playlists;
+    }
+
+    private static Music song(String genre, int bpm, int energy, int durationSec) {
+        return new Music("Song", "Artist", 2000, genre, "a song", durationSec, bpm, energy, 50);
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicChangedEvent;
+import com.musicapi.java_music_api.music.MusicPlayResult;
+import com.musicapi.java_music_api.music.MusicPlayed;
+import com.musicapi.java_music_api.music.MusicPlays;
+import com.musicapi.java_music_api.music.MusicRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import jakarta.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = "music.rankings.max-size=10")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// flushes commit their own transactions, so the test must not wrap them in one
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MusicPlays.class)
+public class MusicPlaysTest {
+
+    @Autowired
+    private MusicPlays musicPlays;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        // the counters outlive the songs of each test, so delete them the way MusicService does
+        for (Music music : musicRepository.findAll()) {
+            musicRepository.delete(music);
+            musicPlays.onMusicChanged(new MusicChangedEvent(music, null));
+        }
+        musicPlays.flush();
+    }
+
+    @Test
+    @Description("plays counted from many threads are all flushed, added to earlier flushes and ranked")
+    void flushesConcurrentPlays() throws Exception {
+        // Arrange
+        Music hit = musicRepository.save(song("Hit"));
+        Music other = musicRepository.save(song("Other"));
+        musicRepository.save(song("Unplayed"));
+        musicPlays.load();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        List<Future<?>> players = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            players.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    musicPlays.record(hit.getId());
+                }
+            }));
+        }
+        for (Future<?> player : players) {
+            player.get();
+        }
+        executor.shutdown();
+        int firstFlush = musicPlays.flush();
+        MusicPlayResult batch = musicPlays.record(List.of(hit.getId(), other.getId(), other.getId(),
+                UUID.randomUUID()));
+        int secondFlush = musicPlays.flush();
+
+        // Assert
+        // check that the second flush upserted onto the first one's row and only the
+        // played songs are ranked, most plays first
+        assertEquals(1, firstFlush);
+        assertEquals(new MusicPlayResult(3, 1), batch);
+        assertEquals(2, secondFlush);
+        List<MusicPlayed> ranking = musicPlays.mostPlayed(10);
+        assertEquals(List.of(hit.getId(), other.getId()),
+                ranking.stream().map(played -> played.song().getId()).toList());
+        assertEquals(List.of(80_001L, 2L), ranking.stream().map(MusicPlayed::plays).toList());
+        assertEquals(1, musicPlays.mostPlayed(1).size());
+        assertFalse(musicPlays.record(UUID.randomUUID()));
+        assertThrows(IllegalArgumentException.class, () -> musicPlays.mostPlayed(11));
+    }
+
+    @Test
+    @Description("flushed totals are loaded again at startup and a deleted song leaves the ranking and the table")
+    void reloadsTotalsAndForgetsDeletedSongs() {
+        // Arrange
+        Music first = musicRepository.save(song("First"));
+        Music second = musicRepository.save(song("Second"));
+        musicPlays.load();
+        musicPlays.record(List.of(first.getId(), first.getId(), second.getId()));
+        musicPlays.flush();
+
+        // Act
+        MusicPlays restarted = new MusicPlays(entityManager, musicRepository, dataSource, transactionManager, 500,
+                10);
+        restarted.load();
+        List<MusicPlayed> reloaded = restarted.mostPlayed(10);
+        musicRepository.delete(first);
+        musicPlays.onMusicChanged(new MusicChangedEvent(first, null));
+        List<MusicPlayed> afterDelete = musicPlays.mostPlayed(10);
+        musicPlays.flush();
+        Long rows = new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM music_plays", Long.class);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), reloaded.stream().map(MusicPlayed::plays).toList());
+        assertEquals(first.getId(), reloaded.get(0).song().getId());
+        assertEquals(List.of(second.getId()), afterDelete.stream().map(played -> played.song().getId()).toList());
+        assertEquals(1L, rows);
+    }
+
+    @Test
+    @Description("instances sharing the database rank the plays every one of them flushed")
+    void instancesConvergeOnOneRanking() {
+        // Arrange
+        Music mostly = musicRepository.save(song("Mostly here"));
+        Music elsewhere = musicRepository.save(song("Mostly elsewhere"));
+        MusicPlays other = new MusicPlays(entityManager, musicRepository, dataSource, transactionManager, 500, 10);
+        musicPlays.load();
+        other.load();
+
+        // Act
+        musicPlays.record(List.of(mostly.getId(), mostly.getId(), elsewhere.getId()));
+        musicPlays.flush();
+        other.record(List.of(elsewhere.getId(), elsewhere.getId(), elsewhere.getId()));
+        other.flush();
+        // nothing played here since, the flush still reads the ranking again
+        int flushed = musicPlays.flush();
+
+        // Assert
+        assertEquals(0, flushed);
+        for (MusicPlays instance : List.of(musicPlays, other)) {
+            List<MusicPlayed> ranking = instance.mostPlayed(10);
+            assertEquals(List.of(elsewhere.getId(), mostly.getId()),
+                    ranking.stream().map(played -> played.song().getId()).toList());
+            assertEquals(List.of(4L, 2L), ranking.stream().map(MusicPlayed::plays).toList());
+        }
+    }
+
+    private static Music song(String name) {
+        return new Music(name, "Artist", 2000, "Pop", "a song", 200, 120, 50, 50);
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.musicapi.java_music_api.Music;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicField;
+import com.musicapi.java_music_api.music.MusicProjection;
+import com.musicapi.java_music_api.music.MusicRepository;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import jakarta.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.musicapi.java_music_api.Music.MusicProjectionTest$CapturingInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class MusicProjectionTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @Description("a projection selects only the id and the requested columns and manages no entities")
+    void selectsOnlyRequestedColumns() {
+        // Arrange
+        Music music = musicRepository.save(new Music("Song", "Artist", 2000, "Pop", null, 200, 120, 50, 70));
+        entityManager.flush();
+        entityManager.clear();
+        CapturingInspector.statements.clear();
+
+        // Act
+        List<MusicProjection> songs = musicRepository
+                .findAllProjected(EnumSet.of(MusicField.SONG, MusicField.DANCEABILITY, MusicField.DESCRIPTION));
+
+        // Assert
+        // check the one select names the three columns and the id, and no song was loaded
+        assertEquals(1, CapturingInspector.statements.size(), CapturingInspector.statements.toString());
+        String select = CapturingInspector.statements.get(0).toLowerCase();
+        assertTrue(select.contains("danceability") && select.contains("description"), select);
+        assertFalse(select.contains("artist") || select.contains("bpm") || select.contains("version"), select);
+        assertFalse(entityManager.contains(music));
+        assertEquals(1, songs.size());
+        assertEquals(music.getId(), songs.get(0).getId());
+        assertEquals("Song", songs.get(0).getFields().get("song"));
+        assertEquals(70, songs.get(0).getFields().get("danceability"));
+    }
+
+    @Test
+    @Description("a projection is written as the id and the requested fields, null ones included")
+    void writesRequestedFields() throws Exception {
+        // Arrange
+        Music music = new Music("Song", "Artist", 2000, "Pop", null, 200, 120, 50, 70);
+
+        // Act
+        JsonNode json = objectMapper.valueToTree(
+                MusicProjection.of(music, MusicProjection.fields(List.of("id", "song", " description"))));
+
+        // Assert
+        List<String> names = new ArrayList<>();
+        json.fieldNames().forEachRemaining(names::add);
+        assertEquals(List.of("id", "song", "description"), names);
+        assertTrue(json.get("description").isNull());
+        assertThrows(IllegalArgumentException.class, () -> MusicProjection.fields(List.of("lyrics")));
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.musicapi.java_music_api.Music;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.musicapi.java_music_api.music.MusicAttribute;
+import com.musicapi.java_music_api.music.MusicGenreFilter;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Plans are checked with H2's EXPLAIN, which only shows that the queries can use the
+// (attribute, id) indexes, not that MySQL's optimizer picks them; see the README for
+// checking them on MySQL
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.musicapi.java_music_api.Music.MusicQueryPlanTest$CapturingInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MusicServiceTestConfiguration.class)
+public class MusicQueryPlanTest {
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        CapturingInspector.statements.clear();
+    }
+
+    @Test
+    @Description("ranked queries on every attribute and direction use the attribute index")
+    void rankedQueriesUseIndex() {
+        for (MusicAttribute attribute : MusicAttribute.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                assertIndexSorted(attribute, direction, null, null);
+            }
+        }
+    }
+
+    @Test
+    @Description("range queries on every attribute use an index range scan")
+    void rangeQueriesUseIndex() {
+        for (MusicAttribute attribute : MusicAttribute.values()) {
+            assertIndexSorted(attribute, Sort.Direction.DESC, 10, 200);
+            assertIndexSorted(attribute, Sort.Direction.ASC, 10, null);
+            assertIndexSorted(attribute, Sort.Direction.ASC, null, 200);
+        }
+    }
+
+    @Test
+    @Description("the most played ranking reads the top of the plays index")
+    void mostPlayedUsesIndex() {
+        // Act
+        // the statement MusicPlays sends for its ranking
+        String plan = explain("SELECT p.music_id, p.plays FROM music_plays p ORDER BY p.plays DESC, p.music_id"
+                + " FETCH FIRST 100 ROWS ONLY");
+
+        // Assert
+        assertTrue(plan.contains("IDX_MUSIC_PLAYS_TOP"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    private void assertIndexSorted(MusicAttribute attribute, Sort.Direction direction, Integer min, Integer max) {
+        // Arrange
+        CapturingInspector.statements.clear();
+
+        // Act
+        musicService.getRankedSongs(attribute, direction, min, max, MusicGenreFilter.NONE, 20);
+        String plan = explain(CapturingInspector.statements.get(CapturingInspector.statements.size() - 1));
+
+        // Assert
+        // check that the attribute index was read in order without a scan or sort
+        String shape = attribute.property() + " " + direction + " " + min + ".." + max + ": " + plan;
+        assertTrue(plan.contains("IDX_MUSIC_" + attribute.name()), shape);
+        assertTrue(plan.contains("index sorted"), shape);
+        assertFalse(plan.contains("tableScan"), shape);
+    }
+
+    private String explain(String sql) {
+        // the plan shape does not depend on parameter values, so every parameter is bound to the same one
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long parameters = sql.chars().filter(c -> c == '?').count();
+        Object[] arguments = new Object[(int) parameters];
+        Arrays.fill(arguments, 100);
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, arguments);
+    }
+
+    // records the sql hibernate sends so the exact statements can be explained
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+}
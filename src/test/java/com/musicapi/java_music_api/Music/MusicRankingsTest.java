@@ -0,0 +1,94 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicRankings;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MusicServiceTestConfiguration.class)
+@TestPropertySource(properties = "music.rankings.max-size=10")
+public class MusicRankingsTest {
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private MusicRankings musicRankings;
+
+    @BeforeEach
+    void setUp() {
+        // the leaderboards outlive the rolled back data of other tests
+        musicRankings.load();
+    }
+
+    @Test
+    @Description("leaderboards match the database after random creates, updates and deletes")
+    void leaderboardsStayConsistent() {
+        // Arrange
+        Random random = new Random(42);
+        List<Music> songs = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            songs.add(musicService.createSong(randomSong(random, i)));
+        }
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            int action = random.nextInt(3);
+            if (action == 0) {
+                songs.add(musicService.createSong(randomSong(random, 40 + i)));
+            } else if (action == 1 && !songs.isEmpty()) {
+                Music song = songs.get(random.nextInt(songs.size()));
+                musicService.updateSong(song.getId(), randomSong(random, i), null);
+            } else if (!songs.isEmpty()) {
+                musicService.deleteSong(songs.remove(random.nextInt(songs.size())).getId(), null);
+            }
+
+            // Assert
+            // check that both leaderboards still match the database ranking
+            assertTrue(musicRankings.isConsistent(), "leaderboards drifted after write " + i);
+        }
+    }
+
+    @Test
+    @Description("leaderboards return the requested number of songs in rank order")
+    void leaderboardsHonourLimit() {
+        // Arrange
+        Random random = new Random(7);
+        for (int i = 0; i < 20; i++) {
+            musicService.createSong(randomSong(random, i));
+        }
+
+        // Act
+        List<Music> top = musicService.getHighDanceabilitySongs(5);
+
+        // Assert
+        // check the limit and the descending danceability order
+        assertEquals(5, top.size());
+        for (int i = 1; i < top.size(); i++) {
+            assertTrue(top.get(i - 1).getDanceability() >= top.get(i).getDanceability());
+        }
+    }
+
+    private static Music randomSong(Random random, int i) {
+        return new Music("Song " + i, "Artist " + i, 1960 + random.nextInt(60), "Pop", "A test track.",
+                150 + random.nextInt(150), 60 + random.nextInt(120), random.nextInt(20), random.nextInt(20));
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+
+import com.musicapi.java_music_api.music.MusicReplicaDataSource;
+import com.musicapi.java_music_api.music.MusicReplicas;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MusicReplicaDataSourceTest {
+    private final List<MusicReplicaDataSource> dataSources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        dataSources.forEach(MusicReplicaDataSource::close);
+    }
+
+    @Test
+    @Description("read-only reads in MusicReplicas.read() go to the least busy replica, everything else to the primary")
+    void routesReadOnlyReadsToReplicas() throws SQLException {
+        // Arrange
+        MusicReplicaDataSource dataSource = dataSource(database("primary"), database("replica0"),
+                database("replica1"));
+
+        // Act and Assert
+        assertEquals("PRIMARY", MusicReplicas.read(() -> databaseOf(dataSource, false)));
+        assertEquals("PRIMARY", databaseOf(dataSource, true));
+        assertFalse(MusicReplicas.fromReplica());
+        MusicReplicas.read(() -> {
+            // check that a second connection taken while the first is in use goes to the other replica
+            try (Connection first = connection(dataSource, true); Connection second = connection(dataSource, true)) {
+                assertEquals(Set.of("REPLICA0", "REPLICA1"), Set.of(databaseOf(first), databaseOf(second)));
+            } catch (SQLException sqle) {
+                throw new IllegalStateException(sqle);
+            }
+            return null;
+        });
+        // check that the thread remembers a replica answered, and that replicas keep their credentials
+        assertTrue(MusicReplicas.fromReplica());
+        try (Connection other = dataSource.getConnection("other", "secret")) {
+            other.setReadOnly(true);
+            assertThrows(SQLFeatureNotSupportedException.class, () -> databaseOf(other));
+        }
+    }
+
+    @Test
+    @Description("a replica that cannot be reached is skipped, the primary answers when none can")
+    void fallsBackWhenReplicasAreDown() throws SQLException {
+        // Arrange
+        MusicReplicaDataSource oneDown = dataSource(database("primary"), missingDatabase(), database("replica0"));
+        MusicReplicaDataSource allDown = dataSource(database("primary"), missingDatabase(), missingDatabase());
+
+        // Act and Assert
+        for (int i = 0; i < 4; i++) {
+            assertEquals("REPLICA0", MusicReplicas.read(() -> databaseOf(oneDown, true)));
+        }
+        assertEquals("PRIMARY", MusicReplicas.read(() -> databaseOf(allDown, true)));
+    }
+
+    private MusicReplicaDataSource dataSource(HikariDataSource primary, HikariDataSource... replicas) {
+        MusicReplicaDataSource dataSource = new MusicReplicaDataSource(primary, List.of(replicas),
+                Duration.ofMinutes(1), Clock.systemUTC());
+        dataSources.add(dataSource);
+        return dataSource;
+    }
+
+    private static HikariDataSource database(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+
+    // a replica whose database does not exist, so it never hands out a connection
+    private static HikariDataSource missingDatabase() {
+        HikariDataSource dataSource = database("missing;IFEXISTS=TRUE");
+        dataSource.setConnectionTimeout(250);
+        return dataSource;
+    }
+
+    private static Connection connection(MusicReplicaDataSource dataSource, boolean readOnly) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setReadOnly(readOnly);
+        return connection;
+    }
+
+    private static String databaseOf(MusicReplicaDataSource dataSource, boolean readOnly) {
+        try (Connection connection = connection(dataSource, readOnly)) {
+            return databaseOf(connection);
+        } catch (SQLException sqle) {
+            throw new IllegalStateException(sqle);
+        }
+    }
+
+    private static String databaseOf(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT DATABASE()")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+}
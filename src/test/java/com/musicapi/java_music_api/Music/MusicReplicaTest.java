@@ -0,0 +1,128 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Description;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import com.musicapi.java_music_api.JavaMusicApiApplication;
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicDataSources;
+import com.musicapi.java_music_api.music.MusicReplicas;
+import com.musicapi.java_music_api.music.MusicRepository;
+
+import java.net.URI;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import jakarta.servlet.http.Cookie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = JavaMusicApiApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "music.datasource.replica-urls=" + MusicReplicaTest.REPLICA,
+                "music.datasource.read-your-writes=1m" })
+public class MusicReplicaTest {
+    static final String REPLICA = "jdbc:h2:mem:replica;MODE=MySQL;NON_KEYWORDS=YEAR;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private MusicDataSources dataSources;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        // an empty replica with the schema Hibernate created on the primary, so reads
+        // show which database answered them
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA));
+        replica.execute("DROP ALL OBJECTS");
+        new JdbcTemplate(dataSource).queryForList("SCRIPT NODATA TABLE music", String.class)
+                .forEach(replica::execute);
+    }
+
+    @AfterEach
+    void tearDown() {
+        musicRepository.deleteAll();
+    }
+
+    @Test
+    @Description("song lists are read from the replica, untagged, except by a client that just wrote")
+    void readsFromReplicaUnlessClientWrote() {
+        // Arrange
+        ResponseEntity<Music> created = restTemplate.postForEntity("/music",
+                new Music("Song", "Artist", 2000, "Pop", "a song", 200, 120, 50, 50), Music.class);
+        String cookie = created.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+
+        // Act
+        ResponseEntity<Music[]> otherClient = restTemplate.getForEntity("/music", Music[].class);
+        ResponseEntity<Music[]> writer = restTemplate.exchange(
+                RequestEntity.get(URI.create("/music")).header(HttpHeaders.COOKIE, cookie).build(), Music[].class);
+        ResponseEntity<Music> song = restTemplate.getForEntity("/music/" + created.getBody().getId(), Music.class);
+
+        // Assert
+        // check that the other client read the replica, which lacks the song, the writer
+        // the primary, and that single songs come from the primary through the song cache
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        assertNotNull(cookie);
+        assertEquals(0, otherClient.getBody().length);
+        assertEquals(List.of(created.getBody().getId()), List.of(writer.getBody()).stream().map(Music::getId).toList());
+        // check that only the primary's songs carry the catalog tag, which the replica may lag behind
+        assertNull(otherClient.getHeaders().getETag());
+        assertNotNull(writer.getHeaders().getETag());
+        assertEquals(HttpStatus.OK, song.getStatusCode());
+    }
+
+    @Test
+    @Description("a writer's async request releases its thread from the primary when the async part starts")
+    void asyncRequestUnsticksThread() throws Exception {
+        // Arrange
+        // the interceptor that keeps a writer's reads on the primary
+        AsyncHandlerInterceptor interceptor = (AsyncHandlerInterceptor) new InterceptorRegistry() {
+            MappedInterceptor mapped() {
+                dataSources.addInterceptors(this);
+                return (MappedInterceptor) getInterceptors().get(0);
+            }
+        }.mapped().getInterceptor();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/music/export");
+        request.setCookies(new Cookie("music-written", Long.toString(System.currentTimeMillis())));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        interceptor.preHandle(request, response, new Object());
+        boolean stuck = !MusicReplicas.read(MusicReplicas::allowed);
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+
+        // Assert
+        // check that the writer was kept on the primary until the thread went back to the container
+        assertTrue(stuck);
+        assertTrue(MusicReplicas.read(MusicReplicas::allowed));
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicSearchHit;
+import com.musicapi.java_music_api.music.MusicSearchIndex;
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MusicSearchIndexTest {
+
+    @Test
+    @Description("tokens are lower case words and numbers with accents stripped and compatibility forms folded")
+    void tokenize() {
+        assertEquals(List.of("beyonce", "halo", "2008", "r", "b"), MusicSearchIndex.tokens("Beyoncé - HALO (2008) R&B"));
+        assertEquals(List.of(), MusicSearchIndex.tokens(" ,.! "));
+        assertEquals(List.of("fire", "2"), MusicSearchIndex.tokens("\uFB01re \uFF12"));
+    }
+
+    @Test
+    @Description("every term must match and a title match outranks a description match")
+    void rankedConjunction() {
+        // Arrange
+        MusicSearchIndex index = new MusicSearchIndex();
+        Music title = song("Midnight Love", "Nova", "slow ballad");
+        Music description = song("Ballad", "Nova", "a love song written at midnight");
+        Music other = song("Midnight City", "M83", "synth anthem");
+        index.put(title);
+        index.put(description);
+        index.put(other);
+
+        // Act
+        List<MusicSearchHit> hits = index.search("love midnight", false, 10);
+
+        // Assert
+        // check that only the songs with both terms match, title first
+        assertEquals(List.of(title.getId(), description.getId()), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+        assertEquals(List.of(), index.search("love anthem", false, 10));
+    }
+
+    @Test
+    @Description("with prefix the last term matches every term it starts")
+    void prefixCompletion() {
+        // Arrange
+        MusicSearchIndex index = new MusicSearchIndex();
+        Music love = song("Love Story", "Taylor Swift", "country pop");
+        Music lost = song("Lost", "Frank Ocean", "r&b");
+        Music story = song("Story", "Unknown", "spoken word");
+        index.put(love);
+        index.put(lost);
+        index.put(story);
+
+        // Act and Assert
+        // check that a bare prefix finds both completions and an exact term narrows them
+        assertEquals(2, index.search("lo", true, 10).size());
+        assertEquals(List.of(love.getId()), ids(index.search("story lo", true, 10)));
+        assertEquals(List.of(), index.search("lo", false, 10));
+    }
+
+    @Test
+    @Description("updates and deletes replace what was indexed, also across compactions")
+    void incrementalUpdates() {
+        // Arrange
+        MusicSearchIndex index = new MusicSearchIndex();
+        Random random = new Random(7);
+        List<Music> songs = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Music music = song("Song t" + i, "Artist " + i % 50, "word" + i % 10);
+            songs.add(music);
+            index.put(music);
+        }
+
+        // Act
+        // rename every other song and delete every third, enough for several compactions
+        for (int i = 0; i < songs.size(); i += 2) {
+            songs.get(i).setSong("Renamed t" + i);
+            index.put(songs.get(i));
+        }
+        for (int i = 0; i < songs.size(); i += 3) {
+            index.remove(songs.get(i).getId());
+        }
+
+        // Assert
+        int live = songs.size() - (songs.size() + 2) / 3;
+        assertEquals(live, index.size());
+        for (int n = 0; n < 200; n++) {
+            int i = random.nextInt(songs.size());
+            List<UUID> found = ids(index.search((i % 2 == 0 ? "renamed" : "song") + " t" + i, false, 10));
+            assertEquals(i % 3 == 0 ? List.of() : List.of(songs.get(i).getId()), found, "song " + i);
+        }
+        // check that the old title is gone
+        assertEquals(List.of(), index.search("song t2", false, 10));
+    }
+
+    @Test
+    @Description("a short top is the head of the full ranking, which holds every matching song")
+    void topMatchesExhaustiveRanking() {
+        // Arrange
+        // few distinct words so terms repeat within and across fields
+        MusicSearchIndex index = new MusicSearchIndex();
+        Random random = new Random(11);
+        List<Music> songs = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Music music = song(words(random, 1 + random.nextInt(3)), words(random, 1), words(random, 6));
+            songs.add(music);
+            index.put(music);
+        }
+
+        for (int n = 0; n < 300; n++) {
+            // Act
+            String query = words(random, 1 + random.nextInt(3));
+            boolean prefix = n % 3 == 0;
+            List<MusicSearchHit> all = index.search(query, prefix, songs.size());
+            List<MusicSearchHit> top = index.search(query, prefix, 10);
+
+            // Assert
+            assertEquals(all.subList(0, Math.min(10, all.size())), top, query);
+            for (int i = 1; i < all.size(); i++) {
+                assertTrue(all.get(i - 1).score() >= all.get(i).score(), query);
+            }
+            assertEquals(all.size(), Set.copyOf(ids(all)).size(), query);
+            if (!prefix) {
+                List<String> terms = MusicSearchIndex.tokens(query);
+                long matching = songs.stream().filter(music -> MusicSearchIndex
+                        .tokens(music.getSong() + " " + music.getArtist() + " " + music.getDescription())
+                        .containsAll(terms)).count();
+                assertEquals(matching, all.size(), query);
+            }
+        }
+    }
+
+    @Test
+    @Description("blank and oversized queries are rejected")
+    void invalidQueries() {
+        MusicSearchIndex index = new MusicSearchIndex();
+        assertThrows(IllegalArgumentException.class, () -> index.search(" ", false, 10));
+        assertThrows(IllegalArgumentException.class, () -> index.search("a b c d e f g h i j k l m n o p q", false, 10));
+    }
+
+    private static Music song(String song, String artist, String description) {
+        Music music = new Music(song, artist, 2000, "Pop", description, 200, 100, 50, 50);
+        ReflectionTestUtils.setField(music, "id", TimeOrderedUuidGenerator.next());
+        return music;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder words = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            words.append(i == 0 ? "" : " ").append("w").append(random.nextInt(12) * random.nextInt(12));
+        }
+        return words.toString();
+    }
+
+    private static List<UUID> ids(List<MusicSearchHit> hits) {
+        return hits.stream().map(MusicSearchHit::id).toList();
+    }
+
+}
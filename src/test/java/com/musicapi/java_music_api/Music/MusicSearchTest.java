@@ -0,0 +1,131 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicChangedEvent;
+import com.musicapi.java_music_api.music.MusicGenreFilter;
+import com.musicapi.java_music_api.music.MusicRepository;
+import com.musicapi.java_music_api.music.MusicSearch;
+import com.musicapi.java_music_api.music.MusicSearchIndex;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the startup load streams committed rows, so every write has to commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MusicServiceTestConfiguration.class)
+public class MusicSearchTest {
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private MusicSearch musicSearch;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        musicRepository.deleteAll();
+        musicSearch.load();
+    }
+
+    @Test
+    @Description("the loaded index follows creates, updates and deletes made through MusicService")
+    void searchFollowsWrites() {
+        // Arrange
+        // one song stored before the load, as if the catalog had been seeded
+        Music seeded = musicRepository.save(song("Skinny Love", "Bon Iver"));
+        musicSearch.load();
+
+        // Act
+        Music created = musicService.createSong(song("Love Story", "Taylor Swift"));
+        Music renamed = musicService.createSong(song("Halo", "Beyoncé"));
+        musicService.updateSong(renamed.getId(), song("Crazy in Love", "Beyoncé"), null);
+        musicService.deleteSong(seeded.getId(), null);
+
+        // Assert
+        // check that the deleted song is gone and the renamed one is found under its new title
+        assertEquals(2, musicSearch.size());
+        // equal title matches, the song indexed first ranks first
+        assertEquals(List.of("Love Story", "Crazy in Love"), search("love", false));
+        assertEquals(List.of("Crazy in Love"), search("beyonce", false));
+        assertEquals(List.of(), search("halo", false));
+        assertEquals(List.of("Love Story"), search("love sto", true));
+    }
+
+    @Test
+    @Description("a song deleted during a load after a write that changed none of its text leaves the index")
+    void loadReplaysWritesThatChangeNoText() throws Exception {
+        // Arrange
+        Music seeded = musicRepository.save(song("Skinny Love", "Bon Iver"));
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        MusicSearch racing = new MusicSearch(entityManager, 100) {
+            @Override
+            protected MusicSearchIndex build(Stream<Music> songs) {
+                MusicSearchIndex index = super.build(songs);
+                // once the load read the song, it gets a new tempo and is deleted, each
+                // committed on its own
+                try {
+                    writer.submit(() -> {
+                        Music retimed = musicRepository.findById(seeded.getId()).orElseThrow();
+                        retimed.setBpm(90);
+                        retimed = musicRepository.save(retimed);
+                        onMusicChanged(new MusicChangedEvent(seeded, retimed));
+                        musicRepository.delete(retimed);
+                        onMusicChanged(new MusicChangedEvent(retimed, null));
+                    }).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+                return index;
+            }
+        };
+
+        // Act
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> racing.load());
+        writer.shutdown();
+
+        // Assert
+        assertEquals(0, racing.size());
+        assertEquals(List.of(), racing.search("skinny", false, id -> true, 10));
+    }
+
+    private List<String> search(String query, boolean prefix) {
+        return musicService.searchSongs(query, prefix, MusicGenreFilter.NONE, 10).stream().map(Music::getSong)
+                .toList();
+    }
+
+    private static Music song(String song, String artist) {
+        return new Music(song, artist, 2000, "Pop", "a song", 200, 100, 50, 50);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicRepository;
+import com.musicapi.java_music_api.music.MusicSeedLoader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest(properties = "music.seed.batch-size=50")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the loader commits its own batches, so the test must not wrap it in a transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MusicSeedLoader.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class MusicSeedLoaderTest {
+
+    @Autowired
+    private MusicSeedLoader musicSeedLoader;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @AfterEach
+    void tearDown() {
+        musicRepository.deleteAll();
+    }
+
+    @Test
+    @Description("the bundled csv seed loads every song of the original dump")
+    void loadsBundledSeed() throws IOException {
+        // Act
+        long rows = musicSeedLoader.load(Path.of("seed", "music.csv"));
+
+        // Assert
+        // check that every row was inserted and reads back through jpa
+        assertEquals(178, rows);
+        assertEquals(178, musicRepository.count());
+        Music song = musicRepository.findAll().stream()
+                .filter(music -> "Dancing Circles".equals(music.getSong())).findFirst().orElseThrow();
+        assertEquals("Sampha", song.getArtist());
+        assertEquals("R&B, Electronic", song.getGenre());
+        assertEquals(110, song.getBpm());
+        assertEquals(7, song.getId().version());
+    }
+
+    @Test
+    @Description("csv fields may be quoted, contain quotes and be left empty")
+    void parsesQuotedCsv() throws IOException {
+        // Arrange
+        String csv = "artist,song,year,genre,description,bpm\r\n"
+                + "Kate Bush,Wuthering Heights,1978,Art Rock,\"A \"\"dramatic\"\" track,\nwith two lines\",\r\n";
+
+        // Act
+        musicSeedLoader.loadCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        // check quoting, column order by header and missing columns
+        Music song = musicRepository.findAll().get(0);
+        assertEquals("Wuthering Heights", song.getSong());
+        assertEquals("A \"dramatic\" track,\nwith two lines", song.getDescription());
+        assertNull(song.getBpm());
+        assertNull(song.getEnergy());
+    }
+
+    @Test
+    @Description("ndjson seed files load one song per line")
+    void loadsNdjson(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path file = directory.resolve("seed.ndjson");
+        Files.write(file, List.of(
+                "{\"song\":\"Florence\",\"artist\":\"Loyle Carner\",\"year\":2014,\"bpm\":90}",
+                "{\"song\":\"Home Again\",\"artist\":\"Michael Kiwanuka\",\"year\":2012,\"bpm\":84}"));
+
+        // Act
+        long rows = musicSeedLoader.load(file);
+
+        // Assert
+        assertEquals(2, rows);
+        assertEquals(2, musicRepository.count());
+    }
+
+}
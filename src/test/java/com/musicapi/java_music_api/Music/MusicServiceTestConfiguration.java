@@ -0,0 +1,20 @@
+package com.musicapi.java_music_api.Music;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+import com.musicapi.java_music_api.music.MusicCache;
+import com.musicapi.java_music_api.music.MusicGenres;
+import com.musicapi.java_music_api.music.MusicNeighbours;
+import com.musicapi.java_music_api.music.MusicPlaylists;
+import com.musicapi.java_music_api.music.MusicRankings;
+import com.musicapi.java_music_api.music.MusicSearch;
+import com.musicapi.java_music_api.music.MusicService;
+
+// MusicService with every read model it keeps up to date, for repository slice tests
+// and benchmarks; a new read model is added here once
+@TestConfiguration(proxyBeanMethods = false)
+@Import({ MusicService.class, MusicRankings.class, MusicCache.class, MusicSearch.class, MusicGenres.class,
+        MusicNeighbours.class, MusicPlaylists.class })
+public class MusicServiceTestConfiguration {
+}
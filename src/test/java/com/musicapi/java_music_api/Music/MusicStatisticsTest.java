@@ -0,0 +1,132 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicAttributeStats;
+import com.musicapi.java_music_api.music.MusicCatalogStats;
+import com.musicapi.java_music_api.music.MusicGenreIndex;
+import com.musicapi.java_music_api.music.MusicRepository;
+import com.musicapi.java_music_api.music.MusicService;
+import com.musicapi.java_music_api.music.MusicStatistics;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the startup load streams committed rows, so every write has to commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ MusicServiceTestConfiguration.class, MusicStatistics.class })
+public class MusicStatisticsTest {
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private MusicStatistics musicStatistics;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @AfterEach
+    void tearDown() {
+        musicRepository.deleteAll();
+        musicStatistics.load();
+    }
+
+    @Test
+    @Description("statistics follow creates, updates and deletes made through MusicService")
+    void statisticsFollowWrites() {
+        // Arrange
+        // one song stored before the load, as if the catalog had been seeded
+        Music seeded = musicRepository.save(song("Pop", 1985, 120, 60, 200));
+        musicStatistics.load();
+
+        // Act
+        musicService.createSong(song("Jazz, Funk", 1994, 95, 40, 300));
+        Music moved = musicService.createSong(song("Pop", 1999, 128, 80, 180));
+        musicService.createSong(song("Funk", null, null, 70, 1000));
+        musicService.updateSong(moved.getId(), song("Funk", 2003, 104, 90, 240), null);
+        musicService.deleteSong(seeded.getId(), null);
+        MusicCatalogStats stats = musicStatistics.stats();
+
+        // Assert
+        // check the counts, averages and buckets overall, by decade and by genre
+        assertEquals(3, stats.all().count());
+        MusicAttributeStats bpm = stats.all().attributes().get("bpm");
+        assertEquals(2, bpm.count());
+        assertEquals(99.5, bpm.average());
+        assertEquals(10, bpm.bucketWidth());
+        assertEquals(1, bpm.histogram()[9]);
+        assertEquals(1, bpm.histogram()[10]);
+        // durations past the last bucket are counted in it
+        MusicAttributeStats duration = stats.all().attributes().get("duration_sec");
+        assertEquals(1, duration.histogram()[duration.histogram().length - 1]);
+        assertEquals(Set.of("1990s", "2000s"), stats.decades().keySet());
+        assertEquals(1, stats.decades().get("1990s").count());
+        assertEquals(List.of("funk", "jazz"), List.copyOf(stats.genres().keySet()));
+        assertEquals(3, stats.genres().get("funk").count());
+        assertEquals((70 + 90 + 40) / 3.0, stats.genres().get("funk").attributes().get("energy").average());
+        assertNull(stats.genres().get("jazz").attributes().get("danceability").average());
+        assertEquals(0, musicStatistics.reconcile());
+    }
+
+    @Test
+    @Description("reconciliation matches writes made through MusicService and repairs writes made around it")
+    void reconcileReportsDrift() {
+        // Arrange
+        Random random = new Random(3);
+        musicStatistics.load();
+        for (int i = 0; i < 30; i++) {
+            musicService.createSong(song(random.nextBoolean() ? "Pop" : "Rock, Pop", 1950 + random.nextInt(75),
+                    60 + random.nextInt(140), random.nextInt(101), 120 + random.nextInt(300)));
+        }
+        List<Music> songs = musicRepository.findAll();
+        for (int i = 0; i < 10; i++) {
+            Music music = songs.get(i);
+            musicService.updateSong(music.getId(), song("Jazz", 1950 + random.nextInt(75), 60 + random.nextInt(140),
+                    random.nextInt(101), 120 + random.nextInt(300)), null);
+        }
+        musicService.deleteSong(songs.get(20).getId(), null);
+        assertEquals(0, musicStatistics.reconcile());
+
+        // Act
+        // a write the statistics never hear of, straight to the repository
+        Music unseen = musicRepository.findById(songs.get(25).getId()).orElseThrow();
+        int genres = MusicGenreIndex.tags(unseen.getGenre()).size();
+        unseen.setGenre("Blues");
+        unseen.setYear(1920);
+        musicRepository.save(unseen);
+        MusicCatalogStats before = musicStatistics.stats();
+        int drifted = musicStatistics.reconcile();
+
+        // Assert
+        // check that overall statistics are unchanged but both decades and every genre moved
+        assertEquals(2 + genres + 1, drifted);
+        assertEquals(before.all().count(), musicStatistics.stats().all().count());
+        assertEquals(1, musicStatistics.stats().genres().get("blues").count());
+        assertArrayEquals(before.all().attributes().get("bpm").histogram(),
+                musicStatistics.stats().all().attributes().get("bpm").histogram());
+        assertEquals(0, musicStatistics.reconcile());
+    }
+
+    private static Music song(String genre, Integer year, Integer bpm, int energy, int durationSec) {
+        return new Music("Song", "Artist", year, genre, "a song", durationSec, bpm, energy,
+                genre.startsWith("Jazz") ? null : 50);
+    }
+
+}
@@ -0,0 +1,284 @@
+package com.musicapi.java_music_api.Music;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicChangedEvent;
+import com.musicapi.java_music_api.music.MusicField;
+import com.musicapi.java_music_api.music.MusicRepository;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.musicapi.java_music_api.Music.MusicUpdateTest$CapturingInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// writers run on their own threads, so each write has to commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ MusicServiceTestConfiguration.class, MusicUpdateTest.EventRecorder.class })
+public class MusicUpdateTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private MusicRepository musicRepository;
+
+    @Autowired
+    private EventRecorder eventRecorder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        musicRepository.deleteAll();
+        eventRecorder.events.clear();
+    }
+
+    @Test
+    @Description("a patch of a cached song is one UPDATE of only the patched column")
+    void patchWritesOnlyChangedColumns() throws Exception {
+        // Arrange
+        Music music = musicService.createSong(song());
+        musicService.getSong(music.getId());
+        CapturingInspector.statements.clear();
+
+        // Act
+        Music patched = musicService.patchSong(music.getId(), objectMapper.readTree("{\"bpm\":128}"), 0L);
+
+        // Assert
+        // check that a single statement was sent and it only sets the bpm and version
+        assertEquals(1, CapturingInspector.statements.size(), CapturingInspector.statements.toString());
+        String update = CapturingInspector.statements.get(0).toLowerCase();
+        assertTrue(update.matches("update music \\w+ set bpm=\\?,version=.*"), update);
+        assertFalse(update.contains("artist"), update);
+        // check that the other fields are kept and the version moved on
+        assertEquals(128, patched.getBpm());
+        assertEquals("Artist", patched.getArtist());
+        assertEquals(1L, patched.getVersion());
+        Music stored = musicRepository.findById(music.getId()).orElseThrow();
+        assertEquals(128, stored.getBpm());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @Test
+    @Description("a conditional write detaches only the written song from the persistence context")
+    void writeEvictsOnlyWrittenSong() {
+        // Arrange
+        Music written = musicService.createSong(song());
+        Music deleted = musicService.createSong(song());
+        Music other = musicService.createSong(song());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            Music loadedWritten = entityManager.find(Music.class, written.getId());
+            Music loadedDeleted = entityManager.find(Music.class, deleted.getId());
+            Music loadedOther = entityManager.find(Music.class, other.getId());
+
+            // Act
+            int updated = musicRepository.updateFields(written.getId(), 0L, Map.of(MusicField.BPM, 128));
+            int removed = musicRepository.deleteByIdAndVersion(deleted.getId(), 0L);
+
+            // Assert
+            // check that the stale copies are gone and the untouched song is still managed
+            assertEquals(1, updated);
+            assertEquals(1, removed);
+            assertFalse(entityManager.contains(loadedWritten));
+            assertFalse(entityManager.contains(loadedDeleted));
+            assertTrue(entityManager.contains(loadedOther));
+            assertEquals(128, entityManager.find(Music.class, written.getId()).getBpm());
+            assertEquals(null, entityManager.find(Music.class, deleted.getId()));
+        });
+    }
+
+    @Test
+    @Description("writes against an older version fail and leave the song unchanged")
+    void staleVersionConflicts() throws Exception {
+        // Arrange
+        Music music = musicService.createSong(song());
+        musicService.patchSong(music.getId(), objectMapper.readTree("{\"energy\":10}"), 0L);
+
+        // Act and Assert
+        // check that version 0 no longer matches for update, patch or delete
+        assertThrows(OptimisticLockException.class, () -> musicService.updateSong(music.getId(), song(), 0L));
+        assertThrows(OptimisticLockException.class,
+                () -> musicService.patchSong(music.getId(), objectMapper.readTree("{\"energy\":20}"), 0L));
+        assertThrows(OptimisticLockException.class, () -> musicService.deleteSong(music.getId(), 0L));
+        Music stored = musicRepository.findById(music.getId()).orElseThrow();
+        assertEquals(10, stored.getEnergy());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @Test
+    @Description("writes to a missing song report it as not found")
+    void missingSongNotFound() throws Exception {
+        // Arrange
+        UUID id = UUID.randomUUID();
+
+        // Act and Assert
+        assertThrows(NoSuchElementException.class, () -> musicService.updateSong(id, song(), null));
+        assertThrows(NoSuchElementException.class,
+                () -> musicService.patchSong(id, objectMapper.readTree("{\"bpm\":1}"), 3L));
+        assertThrows(NoSuchElementException.class, () -> musicService.deleteSong(id, null));
+    }
+
+    @Test
+    @Description("patches with unknown fields or wrongly typed values are rejected")
+    void invalidPatchRejected() throws Exception {
+        // Arrange
+        Music music = musicService.createSong(song());
+
+        // Act and Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> musicService.patchSong(music.getId(), objectMapper.readTree("{\"version\":5}"), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> musicService.patchSong(music.getId(), objectMapper.readTree("{\"bpm\":\"fast\"}"), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> musicService.patchSong(music.getId(), objectMapper.readTree("{}"), null));
+    }
+
+    @Test
+    @Description("conditional read-modify-write loops on one song lose no increments")
+    void concurrentIncrementsAreNotLost() throws Exception {
+        // Arrange
+        Music music = musicService.createSong(song());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // Act
+        // four writers each add one to the bpm 25 times, retrying when the version moved
+        for (int w = 0; w < 4; w++) {
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    while (true) {
+                        Music current = musicService.getSong(music.getId());
+                        try {
+                            musicService.patchSong(music.getId(),
+                                    objectMapper.createObjectNode().put("bpm", current.getBpm() + 1),
+                                    current.getVersion());
+                            break;
+                        } catch (OptimisticLockException ole) {
+                            // another writer got there first
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        // check that every increment was applied exactly once
+        Music stored = musicRepository.findById(music.getId()).orElseThrow();
+        assertEquals(100 + 100, stored.getBpm());
+        assertEquals(100L, stored.getVersion());
+    }
+
+    @Test
+    @Description("racing writes to one song are published in the order they committed, the delete last")
+    void eventsFollowCommitOrder() throws Exception {
+        // Arrange
+        Music music = musicService.createSong(song());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // Act
+        // four writers overwrite the song without a version, 25 times each
+        for (int w = 0; w < 4; w++) {
+            int writer = w;
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    while (true) {
+                        try {
+                            musicService.patchSong(music.getId(),
+                                    objectMapper.createObjectNode().put("bpm", 100 + writer * 25 + i), null);
+                            break;
+                        } catch (OptimisticLockException ole) {
+                            // lost the race more often than an unconditional write retries
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+        musicService.deleteSong(music.getId(), null);
+
+        // Assert
+        // check that every event follows the one before it, from the create to the delete
+        List<MusicChangedEvent> events = eventRecorder.events;
+        assertEquals(102, events.size());
+        for (int i = 1; i < events.size(); i++) {
+            assertEquals(events.get(i - 1).current().getVersion(), events.get(i).previous().getVersion());
+        }
+        assertEquals(null, events.get(0).previous());
+        assertEquals(null, events.get(101).current());
+        assertTrue(events.get(101).isNewerThan(events.get(100).current()));
+        assertFalse(events.get(50).isNewerThan(events.get(51).current()));
+    }
+
+    private static Music song() {
+        return new Music("Song", "Artist", 2000, "pop", "description", 200, 100, 50, 50);
+    }
+
+    public static class EventRecorder {
+        final List<MusicChangedEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        public void onMusicChanged(MusicChangedEvent event) {
+            events.add(event);
+        }
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+}
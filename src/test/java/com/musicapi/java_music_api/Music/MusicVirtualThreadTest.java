@@ -0,0 +1,149 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicAttribute;
+import com.musicapi.java_music_api.music.MusicCache;
+import com.musicapi.java_music_api.music.MusicChangedEvent;
+import com.musicapi.java_music_api.music.MusicLeaderboard;
+import com.musicapi.java_music_api.music.MusicRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// the read paths that block on the database while holding a lock, run on virtual threads
+// against a slow database, must never pin their carrier thread; JFR reports every time a
+// virtual thread blocks while pinned
+public class MusicVirtualThreadTest {
+    private static final Duration QUERY_TIME = Duration.ofMillis(20);
+
+    @Test
+    @Description("the pinning check itself sees a virtual thread blocking inside synchronized")
+    void detectsPinning() throws Exception {
+        // Arrange
+        Object monitor = new Object();
+
+        // Act
+        List<RecordedEvent> pinned = pinnedWhile(() -> {
+            synchronized (monitor) {
+                sleep();
+            }
+            return null;
+        });
+
+        // Assert
+        assertFalse(pinned.isEmpty());
+    }
+
+    @Test
+    @Description("concurrent song cache misses load from a slow database without pinning")
+    void cacheLoadsDoNotPin() throws Exception {
+        // Arrange
+        Music music = song();
+        MusicRepository repository = mock(MusicRepository.class);
+        when(repository.findById(any(UUID.class))).thenAnswer(invocation -> {
+            sleep();
+            return Optional.of(music);
+        });
+        MusicCache cache = new MusicCache(repository, 100, Duration.ofMinutes(1));
+
+        // Act
+        List<RecordedEvent> pinned = pinnedWhile(() -> {
+            cache.onMusicChanged(new MusicChangedEvent(null, music));
+            return cache.get(music.getId()).orElseThrow();
+        });
+
+        // Assert
+        assertEquals(List.of(), pinned);
+    }
+
+    @Test
+    @Description("concurrent leaderboard reloads from a slow database do not pin")
+    void leaderboardReloadsDoNotPin() throws Exception {
+        // Arrange
+        List<Music> songs = List.of(song());
+        MusicLeaderboard leaderboard = new MusicLeaderboard(MusicAttribute.ENERGY.comparator(Sort.Direction.ASC),
+                song -> song.getEnergy() != null, limit -> {
+                    sleep();
+                    return songs;
+                }, 10);
+
+        // Act
+        List<RecordedEvent> pinned = pinnedWhile(() -> {
+            leaderboard.reload();
+            return leaderboard.top(1);
+        });
+
+        // Assert
+        assertEquals(List.of(), pinned);
+    }
+
+    // pinned events recorded while 32 virtual threads run the task 5 times each
+    private static List<RecordedEvent> pinnedWhile(Callable<Object> task) throws Exception {
+        Path file = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.start();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Object>> results = new ArrayList<>();
+                for (int i = 0; i < 32; i++) {
+                    results.add(executor.submit(() -> {
+                        for (int n = 0; n < 5; n++) {
+                            task.call();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<Object> result : results) {
+                    result.get();
+                }
+            }
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned")).toList();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Music song() {
+        Music music = new Music();
+        ReflectionTestUtils.setField(music, "id", UUID.randomUUID());
+        return music;
+    }
+
+    // a database round trip
+    private static void sleep() {
+        try {
+            Thread.sleep(QUERY_TIME);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ie);
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.musicapi.java_music_api.Music;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+
+import com.musicapi.java_music_api.music.MusicCursor;
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimeOrderedUuidGeneratorTest {
+
+    @Test
+    @Description("ids are version 7 and strictly increasing in database byte order")
+    void idsAreTimeOrdered() {
+        // Act
+        List<UUID> ids = IntStream.range(0, 100_000).mapToObj(i -> TimeOrderedUuidGenerator.next()).toList();
+
+        // Assert
+        for (int i = 0; i < ids.size(); i++) {
+            // check the version and the RFC variant
+            assertEquals(7, ids.get(i).version());
+            assertEquals(2, ids.get(i).variant());
+            // check that every id sorts after the one issued before it
+            if (i > 0) {
+                assertTrue(MusicCursor.ID_ORDER.compare(ids.get(i - 1), ids.get(i)) < 0);
+            }
+        }
+        // check that the timestamp is the current time
+        long millis = ids.get(0).getMostSignificantBits() >>> 16;
+        assertTrue(Math.abs(System.currentTimeMillis() - millis) < 60_000);
+    }
+
+    @Test
+    @Description("ids issued concurrently are unique")
+    void idsAreUniqueAcrossThreads() {
+        // Arrange
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+        // Act
+        IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(TimeOrderedUuidGenerator.next()));
+
+        // Assert
+        // check that no id was issued twice
+        assertEquals(200_000, ids.size());
+    }
+
+}
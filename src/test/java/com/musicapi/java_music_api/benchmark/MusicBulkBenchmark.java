@@ -0,0 +1,105 @@
+package com.musicapi.java_music_api.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musicapi.java_music_api.Music.MusicServiceTestConfiguration;
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicBulkService;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+// Throughput of the bulk create path at several chunk sizes against creating the same
+// songs one by one through MusicService, each in its own transaction. Runs with
+// `mvn test -Pbenchmark` on a file backed H2 database, see MusicIdBenchmark for MySQL.
+@DataJpaTest(properties = {
+        "spring.datasource.url=${benchmark.url:jdbc:h2:file:./target/h2/benchmark;MODE=MySQL;NON_KEYWORDS=YEAR}",
+        "spring.datasource.driver-class-name=${benchmark.driver:org.h2.Driver}",
+        "spring.datasource.username=${benchmark.username:sa}",
+        "spring.datasource.password=${benchmark.password:}" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ MusicServiceTestConfiguration.class, MusicBulkService.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+public class MusicBulkBenchmark {
+    private static final int SONGS = 20_000;
+    private static final int[] CHUNK_SIZES = { 50, 500, 2_000 };
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private MusicBulkService musicBulkService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @Description("bulk create against one-by-one create")
+    void compareCreatePaths() throws IOException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Music> songs = songs();
+        byte[] ndjson = ndjson(songs);
+        System.out.printf("%-16s %10s %12s%n", "path", "songs", "songs/sec");
+
+        jdbcTemplate.update("DELETE FROM music");
+        long start = System.nanoTime();
+        for (Music song : songs) {
+            musicService.createSong(new Music(song));
+        }
+        report("one by one", start);
+
+        for (int chunkSize : CHUNK_SIZES) {
+            jdbcTemplate.update("DELETE FROM music");
+            start = System.nanoTime();
+            musicBulkService.createSongs(new ByteArrayInputStream(ndjson), chunkSize);
+            report("bulk, chunk " + chunkSize, start);
+        }
+        jdbcTemplate.update("DELETE FROM music");
+    }
+
+    private static void report(String path, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-16s %10d %12.0f%n", path, SONGS, SONGS / seconds);
+    }
+
+    private byte[] ndjson(List<Music> songs) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Music song : songs) {
+            objectMapper.writeValue(out, song);
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Music> songs() {
+        List<Music> songs = new ArrayList<>(SONGS);
+        for (int i = 0; i < SONGS; i++) {
+            songs.add(new Music("Song " + i, "Artist " + i % 500, 1960 + i % 60, "Pop, Funk",
+                    "A benchmark track with a description of realistic length for the catalog.", 150 + i % 200,
+                    60 + i % 140, i % 101, (i * 7) % 101));
+        }
+        return songs;
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.musicapi.java_music_api.benchmark;
+
+import com.musicapi.java_music_api.music.Music;
+
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+// Synthetic catalog of any size that looks like a real one: every song belongs to a
+// genre whose bpm, energy and danceability it is drawn around, energy rises with bpm,
+// danceability peaks near 120 bpm, a third of the songs carry a second or third related
+// genre, and titles, artists and descriptions are put together from word lists. Song n
+// of a seed is always the same song, so catalogs are reproducible and can be generated
+// in any order or in parallel. Songs come without id, like songs sent to the API.
+public final class MusicCatalogGenerator {
+
+    // a genre's mean bpm, energy and danceability, share of the catalog in percent and
+    // the genres its songs are also tagged with
+    private record Genre(String name, int bpm, int energy, int danceability, int share, String... related) {
+    }
+
+    private static final Genre[] GENRES = {
+            new Genre("Pop", 118, 65, 68, 18, "Dance", "Electronic", "R&B"),
+            new Genre("Rock", 124, 75, 48, 14, "Indie", "Alternative", "Blues"),
+            new Genre("Hip-Hop", 92, 68, 76, 12, "R&B", "Funk", "Soul"),
+            new Genre("Electronic", 126, 78, 70, 9, "House", "Dance", "Ambient"),
+            new Genre("House", 124, 80, 80, 5, "Electronic", "Dance", "Disco"),
+            new Genre("R&B", 96, 55, 66, 7, "Soul", "Pop", "Hip-Hop"),
+            new Genre("Jazz", 110, 40, 52, 6, "Afro-Jazz", "Soul", "Blues"),
+            new Genre("Classical", 90, 22, 25, 4, "Ambient", "Soundtrack"),
+            new Genre("Country", 112, 58, 58, 6, "Folk", "Rock"),
+            new Genre("Folk", 100, 35, 45, 4, "Indie", "Country"),
+            new Genre("Metal", 140, 92, 36, 4, "Rock", "Alternative"),
+            new Genre("Reggae", 80, 55, 74, 3, "Dancehall", "Soul"),
+            new Genre("Latin", 104, 72, 78, 5, "Reggaeton", "Pop", "Dance"),
+            new Genre("Ambient", 80, 18, 28, 3, "Electronic", "Classical")
+    };
+    private static final int SHARES = 100;
+
+    private static final String[] MOODS = { "dreamy", "driving", "melancholic", "euphoric", "laid-back", "brooding",
+            "uplifting", "restless", "tender", "defiant", "hazy", "sun-drenched" };
+    private static final String[] INSTRUMENTS = { "guitar", "piano", "synthesizer", "saxophone", "strings", "drums",
+            "bass", "trumpet", "organ", "vocals", "horns", "percussion" };
+    private static final String[] DETAILS = { "a soaring chorus", "layered harmonies", "a hypnotic groove",
+            "sparse production", "a slow-building bridge", "punchy drums", "an unforgettable hook",
+            "lyrics about leaving home", "a late-night atmosphere", "call and response vocals" };
+    private static final String[] WORDS = { "Love", "Night", "Fire", "River", "Dream", "Heart", "City", "Summer",
+            "Midnight", "Gold", "Rain", "Shadow", "Light", "Road", "Ocean", "Storm", "Echo", "Blue", "Wild", "Home",
+            "Stars", "Silence", "Paradise", "Thunder", "Dance", "Ghost", "Fever", "Horizon", "Velvet", "Neon" };
+    private static final String[] SYLLABLES = { "ka", "lo", "mi", "ra", "ven", "to", "sa", "del", "ri", "an", "mo",
+            "zu", "el", "na", "bi", "cor", "ly", "sha", "dor", "ix" };
+
+    private final long seed;
+
+    public MusicCatalogGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    // songs 0 to count - 1
+    public Stream<Music> songs(long count) {
+        return LongStream.range(0, count).mapToObj(this::song);
+    }
+
+    public Music song(long n) {
+        SplittableRandom random = new SplittableRandom(this.seed * 0x9E3779B97F4A7C15L + n);
+        Genre genre = genre(random.nextInt(SHARES));
+
+        int bpm = clamp(genre.bpm() + random.nextGaussian() * 12, 50, 220);
+        // faster songs have more energy, songs near 120 bpm are the easiest to dance to
+        int energy = clamp(genre.energy() + 0.4 * (bpm - genre.bpm()) + random.nextGaussian() * 12, 0, 100);
+        int danceability = clamp(genre.danceability() - 0.3 * Math.abs(bpm - 120) + 0.2 * (energy - genre.energy())
+                + random.nextGaussian() * 10, 0, 100);
+        // log-normal around three and a half minutes
+        int durationSec = clamp(210 * Math.exp(random.nextGaussian() * 0.3), 45, 1200);
+        // more songs from recent years
+        int year = 1950 + (int) (75 * Math.sqrt(random.nextDouble()));
+
+        String[] related = genre.related();
+        String genres = genre.name();
+        double extra = random.nextDouble();
+        if (extra < 0.1 && related.length > 1) {
+            int first = random.nextInt(related.length);
+            genres += ", " + related[first] + ", " + related[(first + 1) % related.length];
+        } else if (extra < 0.35) {
+            genres += ", " + related[random.nextInt(related.length)];
+        }
+
+        String title = pick(random, WORDS) + (random.nextBoolean() ? "" : " " + pick(random, WORDS));
+        String mood = pick(random, MOODS);
+        String description = Character.toUpperCase(mood.charAt(0)) + mood.substring(1) + " "
+                + genre.name().toLowerCase() + " track with " + pick(random, INSTRUMENTS) + " and "
+                + pick(random, INSTRUMENTS) + ", " + pick(random, DETAILS) + ".";
+
+        return new Music(title, artist(random.nextLong(Math.max(100, n / 8 + 1))), year, genres, description,
+                durationSec, bpm, energy, danceability);
+    }
+
+    private static Genre genre(int share) {
+        for (Genre genre : GENRES) {
+            share -= genre.share();
+            if (share < 0) {
+                return genre;
+            }
+        }
+        return GENRES[0];
+    }
+
+    // the same artist number always has the same name, a catalog has about one artist
+    // for every eight songs
+    private String artist(long number) {
+        SplittableRandom random = new SplittableRandom(this.seed ^ (number * 0xC2B2AE3D27D4EB4FL));
+        StringBuilder name = new StringBuilder(random.nextInt(4) == 0 ? "The " : "");
+        int words = 1 + random.nextInt(2);
+        for (int word = 0; word < words; word++) {
+            StringBuilder part = new StringBuilder();
+            int syllables = 2 + random.nextInt(2);
+            for (int syllable = 0; syllable < syllables; syllable++) {
+                part.append(pick(random, SYLLABLES));
+            }
+            name.append(word == 0 ? "" : " ").append(Character.toUpperCase(part.charAt(0))).append(part, 1,
+                    part.length());
+        }
+        return name.toString();
+    }
+
+    private static String pick(SplittableRandom random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+
+    private static int clamp(double value, int min, int max) {
+        return (int) Math.max(min, Math.min(max, Math.round(value)));
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.musicapi.java_music_api.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musicapi.java_music_api.Music.MusicServiceTestConfiguration;
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import jakarta.persistence.OptimisticLockException;
+
+// Writers incrementing the bpm of a few hot songs at once. "if-match" is the client
+// loop of read, conditional PATCH and retry on 412; "blind" sends unconditional PATCHes
+// that retry inside MusicService and give up with 409. Lost updates are the increments
+// missing from the final bpm totals, they have to be 0 on the if-match path. Runs with
+// `mvn test -Pbenchmark`, see MusicIdBenchmark for MySQL.
+@DataJpaTest(properties = {
+        "spring.datasource.url=${benchmark.url:jdbc:h2:file:./target/h2/benchmark;MODE=MySQL;NON_KEYWORDS=YEAR}",
+        "spring.datasource.driver-class-name=${benchmark.driver:org.h2.Driver}",
+        "spring.datasource.username=${benchmark.username:sa}",
+        "spring.datasource.password=${benchmark.password:}" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MusicServiceTestConfiguration.class)
+public class MusicContentionBenchmark {
+    private static final int WRITES_PER_THREAD = 500;
+    private static final int[] THREADS = { 1, 4, 16 };
+    private static final int[] HOT_SONGS = { 1, 16 };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @Description("conditional against unconditional writes on hot songs")
+    void compareWritePaths() throws Exception {
+        System.out.printf("%-9s %7s %5s %12s %10s %12s %6s%n", "path", "threads", "hot", "writes/sec",
+                "conflicts", "lost", "409s");
+        for (int hot : HOT_SONGS) {
+            for (int threads : THREADS) {
+                run("if-match", threads, hot, true);
+                run("blind", threads, hot, false);
+            }
+        }
+        new JdbcTemplate(dataSource).update("DELETE FROM music");
+    }
+
+    private void run(String path, int threads, int hot, boolean conditional) throws Exception {
+        new JdbcTemplate(dataSource).update("DELETE FROM music");
+        List<Music> songs = new ArrayList<>();
+        for (int i = 0; i < hot; i++) {
+            songs.add(musicService.createSong(new Music("Hot " + i, "Artist", 2000, "Pop", "hot song", 200, 0, 50, 50)));
+        }
+        AtomicLong conflicts = new AtomicLong();
+        AtomicLong gaveUp = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> writers = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < WRITES_PER_THREAD; i++) {
+                    Music song = songs.get(ThreadLocalRandom.current().nextInt(hot));
+                    if (conditional) {
+                        incrementConditionally(song, conflicts);
+                    } else {
+                        incrementBlindly(song, gaveUp);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+
+        long writes = (long) threads * WRITES_PER_THREAD;
+        long applied = 0;
+        for (Music song : songs) {
+            applied += musicService.getSong(song.getId()).getBpm();
+        }
+        System.out.printf("%-9s %7d %5d %12.0f %10d %12d %6d%n", path, threads, hot, writes / seconds,
+                conflicts.get(), writes - gaveUp.get() - applied, gaveUp.get());
+    }
+
+    // read, write against the version read, start over when another writer got there first
+    private void incrementConditionally(Music song, AtomicLong conflicts) {
+        while (true) {
+            Music current = musicService.getSong(song.getId());
+            try {
+                musicService.patchSong(song.getId(),
+                        objectMapper.createObjectNode().put("bpm", current.getBpm() + 1), current.getVersion());
+                return;
+            } catch (OptimisticLockException ole) {
+                conflicts.incrementAndGet();
+            }
+        }
+    }
+
+    // last writer wins, the increment is computed from a read that may be stale by then
+    private void incrementBlindly(Music song, AtomicLong gaveUp) {
+        Music current = musicService.getSong(song.getId());
+        try {
+            musicService.patchSong(song.getId(), objectMapper.createObjectNode().put("bpm", current.getBpm() + 1),
+                    null);
+        } catch (OptimisticLockException ole) {
+            gaveUp.incrementAndGet();
+        }
+    }
+
+}
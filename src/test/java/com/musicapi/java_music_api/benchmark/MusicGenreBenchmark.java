@@ -0,0 +1,112 @@
+package com.musicapi.java_music_api.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicAttribute;
+import com.musicapi.java_music_api.music.MusicBitmap;
+import com.musicapi.java_music_api.music.MusicGenreFilter;
+import com.musicapi.java_music_api.music.MusicGenreIndex;
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+// Filter, facet and ranking latency percentiles of MusicGenreIndex over synthetic
+// catalogs of a hundred thousand and a million songs. Every song carries one to three of
+// 200 genres drawn from a Zipf distribution, so the common genres hold a large share of
+// the catalog and the rare ones a few hundred songs; a filter on rare genres should cost
+// the same in both catalogs. Runs with `mvn test -Pbenchmark`.
+public class MusicGenreBenchmark {
+    private static final int GENRES = 200;
+    private static final int WARMUP = 2_000;
+    private static final int QUERIES = 10_000;
+
+    private final Random random = new Random(42);
+    private final double[] cumulative = new double[GENRES];
+
+    @Test
+    @Description("genre filter latency percentiles on a hundred thousand and a million songs")
+    void measureFilterLatency() {
+        for (int i = 0; i < GENRES; i++) {
+            this.cumulative[i] = (i == 0 ? 0 : this.cumulative[i - 1]) + 1.0 / (i + 1);
+        }
+
+        for (int songs : new int[] { 100_000, 1_000_000 }) {
+            MusicGenreIndex index = new MusicGenreIndex();
+            long start = System.nanoTime();
+            for (int i = 0; i < songs; i++) {
+                Music music = new Music("Song", "Artist", 1960 + this.random.nextInt(60),
+                        genre() + ", " + genre() + (this.random.nextBoolean() ? ", " + genre() : ""), "", 200,
+                        60 + this.random.nextInt(140), this.random.nextInt(101), this.random.nextInt(101));
+                ReflectionTestUtils.setField(music, "id", TimeOrderedUuidGenerator.next());
+                index.put(music);
+            }
+            System.out.printf("indexed %d songs in %.1f s%n", index.size(), (System.nanoTime() - start) / 1e9);
+
+            System.out.printf("%-24s %9s %9s %9s %12s%n", "query", "p50 us", "p99 us", "max us", "avg matched");
+            measure(index, "common genre facets", false, random -> filter(List.of(genre(0, 5)), null, null));
+            measure(index, "rare genre facets", false, random -> filter(List.of(genre(100, 200)), null, null));
+            measure(index, "common and rare facets", false,
+                    random -> filter(List.of(genre(0, 5), genre(100, 200)), null, null));
+            measure(index, "any of three, not one", false,
+                    random -> filter(null, List.of(genre(0, 50), genre(0, 50), genre(0, 50)), List.of(genre(0, 5))));
+            measure(index, "common genre top bpm", true, random -> filter(List.of(genre(0, 5)), null, null));
+            measure(index, "rare genre top bpm", true, random -> filter(List.of(genre(100, 200)), null, null));
+        }
+    }
+
+    // facets, or the top 15 by bpm within a range, of the drawn filters
+    private void measure(MusicGenreIndex index, String name, boolean rank,
+            Function<Random, MusicGenreFilter> filters) {
+        for (int i = 0; i < WARMUP; i++) {
+            run(index, rank, filters.apply(this.random));
+        }
+        long[] nanos = new long[QUERIES];
+        long matched = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            MusicGenreFilter filter = filters.apply(this.random);
+            long start = System.nanoTime();
+            matched += run(index, rank, filter);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-24s %9.1f %9.1f %9.1f %12.1f%n", name, percentile(nanos, 0.5),
+                percentile(nanos, 0.99), nanos[QUERIES - 1] / 1e3, (double) matched / QUERIES);
+    }
+
+    private static int run(MusicGenreIndex index, boolean rank, MusicGenreFilter filter) {
+        MusicBitmap matched = index.match(filter);
+        if (rank) {
+            index.rank(matched, MusicAttribute.BPM, Sort.Direction.DESC, 100, 140, 15);
+        } else {
+            index.facets(matched);
+        }
+        return matched.cardinality();
+    }
+
+    private static MusicGenreFilter filter(List<String> all, List<String> any, List<String> none) {
+        return MusicGenreFilter.of(all, any, none);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.ceil(p * sorted.length) - 1] / 1e3;
+    }
+
+    private String genre() {
+        double target = this.random.nextDouble() * this.cumulative[GENRES - 1];
+        int rank = Arrays.binarySearch(this.cumulative, target);
+        return "genre " + (rank >= 0 ? rank : Math.min(-rank - 1, GENRES - 1));
+    }
+
+    // one of the genres ranked from until to, uniformly
+    private String genre(int from, int to) {
+        return "genre " + (from + this.random.nextInt(to - from));
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.musicapi.java_music_api.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Description;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+// Sustained insert rate and table plus index size for random (v4) and time-ordered (v7)
+// primary keys at growing table sizes. Runs with `mvn test -Pbenchmark`, against a file
+// backed H2 database by default or MySQL with
+// -Dbenchmark.url=jdbc:mysql://localhost/music?rewriteBatchedStatements=true
+// -Dbenchmark.driver=com.mysql.cj.jdbc.Driver -Dbenchmark.username=... -Dbenchmark.password=...
+@JdbcTest(properties = {
+        "spring.datasource.url=${benchmark.url:jdbc:h2:file:./target/h2/benchmark;MODE=MySQL}",
+        "spring.datasource.driver-class-name=${benchmark.driver:org.h2.Driver}",
+        "spring.datasource.username=${benchmark.username:sa}",
+        "spring.datasource.password=${benchmark.password:}" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class MusicIdBenchmark {
+    private static final int[] CHECKPOINTS = { 50_000, 200_000, 500_000, 1_000_000 };
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Description("random vs time-ordered primary key insert rate and size")
+    void compareIdStrategies() {
+        System.out.printf("%-13s %10s %14s %14s%n", "ids", "rows", "rows/sec", "size (KiB)");
+        run("random", UUID::randomUUID);
+        run("time-ordered", TimeOrderedUuidGenerator::next);
+    }
+
+    private void run(String name, Supplier<UUID> ids) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS music_id_benchmark");
+        jdbcTemplate.execute("CREATE TABLE music_id_benchmark (id BINARY(16) NOT NULL PRIMARY KEY,"
+                + " song VARCHAR(255), bpm INT, description VARCHAR(255))");
+        jdbcTemplate.execute("CREATE INDEX idx_music_id_benchmark_bpm ON music_id_benchmark (bpm)");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int rows = 0;
+        for (int checkpoint : CHECKPOINTS) {
+            long start = System.nanoTime();
+            int segment = checkpoint - rows;
+            while (rows < checkpoint) {
+                List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+                for (int i = 0; i < BATCH_SIZE; i++, rows++) {
+                    batch.add(new Object[] { toBytes(ids.get()), "Song " + rows, 60 + rows % 140,
+                            "A benchmark track with a description of realistic length for the catalog." });
+                }
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                        "INSERT INTO music_id_benchmark (id, song, bpm, description) VALUES (?, ?, ?, ?)", batch));
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-13s %10d %14.0f %14d%n", name, rows, segment / seconds, tableSize() / 1024);
+        }
+        jdbcTemplate.execute("DROP TABLE music_id_benchmark");
+    }
+
+    private long tableSize() {
+        String product = jdbcTemplate.execute(
+                (Connection connection) -> connection.getMetaData().getDatabaseProductName());
+        if ("MySQL".equals(product)) {
+            jdbcTemplate.execute("ANALYZE TABLE music_id_benchmark");
+            return jdbcTemplate.queryForObject("SELECT data_length + index_length FROM information_schema.tables"
+                    + " WHERE table_schema = DATABASE() AND table_name = 'music_id_benchmark'", Long.class);
+        }
+        return jdbcTemplate.queryForObject("SELECT DISK_SPACE_USED('MUSIC_ID_BENCHMARK')", Long.class);
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits()).array();
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.musicapi.java_music_api.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.springframework.context.annotation.Description;
+
+import com.musicapi.java_music_api.benchmark.jmh.MusicJsonBenchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Runs the JMH benchmarks in benchmark/jmh: Jackson on songs and lists of songs,
+// MusicService writes, reads and rankings, and the controller's error answers. Average
+// time per operation goes to target/jmh/results.json, or the file in -Djmh.result, in
+// JMH's JSON format, so two commits can be compared with any JMH result viewer.
+// -Djmh.include narrows the run to benchmarks matching a regular expression, e.g.
+// -Djmh.include=MusicJsonBenchmarks.write, and -Djmh.prof adds a JMH profiler, e.g.
+// -Djmh.prof=gc for the bytes allocated per operation. Runs with `mvn test -Pbenchmark`.
+public class MusicJmhBenchmark {
+
+    @Test
+    @Description("JMH benchmarks of JSON, MusicService and controller error paths")
+    void runJmhBenchmarks() throws Exception {
+        Path result = Path.of(System.getProperty("jmh.result", "target/jmh/results.json"));
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .include(MusicJsonBenchmarks.class.getPackageName() + "\\..*" + System.getProperty("jmh.include", ""))
+                .mode(Mode.AverageTime)
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .forks(1)
+                .jvmArgs("-Xmx1g")
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString());
+        String profiler = System.getProperty("jmh.prof");
+        if (profiler != null && !profiler.isBlank()) {
+            builder.addProfiler(profiler);
+        }
+        Options options = builder.build();
+
+        Collection<RunResult> results = new Runner(options).run();
+
+        assertFalse(results.isEmpty(), "no benchmark matched");
+    }
+
+}
@@ -0,0 +1,421 @@
+package com.musicapi.java_music_api.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Description;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musicapi.java_music_api.JavaMusicApiApplication;
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// End to end load test: the whole application on a file backed H2 database in MySQL
+// mode, started on a catalog of -Dload.songs songs (default 100,000) from
+// MusicCatalogGenerator, the way it starts on a production catalog. H2 is not MySQL, so
+// the numbers show what the application costs, not MySQL's plans, locks or replicas.
+// -Dload.clients clients (default 32) then send requests back to back for
+// -Dload.duration seconds (default 30) after -Dload.warmup seconds (default 10), each one
+// picked at random from the endpoints weighted by -Dload.mix, e.g.
+// -Dload.mix=get=80,update=20. The default mix gives all (GET /music, the whole catalog)
+// and export a weight of 0, as either would take most of a run on 100,000 songs; give
+// them one to load them too. Reports requests per second and p50, p99 and p999 latency
+// per endpoint.
+//
+// The run fails when an endpoint answers more than 1% errors, or is slower than a
+// baseline recorded on the same host with -Dload.record=true, in -Dload.baseline
+// (default target/benchmark/load-baseline.properties): less than -Dload.tolerance
+// (default 0.5) of its recorded requests per second, or a p99 more than 1 / tolerance of
+// the recorded one. No baseline is committed, throughput depends on the machine: record
+// one on the base branch, then run the change against it. Baselines only apply to runs
+// on the host, and with the songs, clients and mix, they were recorded with. Runs with
+// `mvn test -Pbenchmark`.
+public class MusicLoadBenchmark {
+    private static final long SONGS = Long.getLong("load.songs", 100_000);
+    private static final long SEED = Long.getLong("load.seed", 42);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 32);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup", 10));
+    private static final Duration RUN = Duration.ofSeconds(Long.getLong("load.duration", 30));
+    private static final String MIX = System.getProperty("load.mix", "get=25,page=5,query=10,search=10,genres=5,"
+            + "similar=8,playlist=2,stats=3,cache=1,highdanceability=5,lowenergy=5,create=6,bulk=1,update=6,patch=5,"
+            + "delete=3,all=0,export=0");
+    private static final Path BASELINE = Path.of(System.getProperty("load.baseline",
+            "target/benchmark/load-baseline.properties"));
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("load.tolerance", "0.5"));
+    private static final boolean RECORD = Boolean.getBoolean("load.record");
+    private static final double MAX_ERROR_RATE = 0.01;
+    private static final int BATCH_SIZE = 1_000;
+    private static final int BULK_SIZE = 100;
+    private static final String[] TERMS = { "love", "night", "dream", "summer", "neon", "piano", "groove", "storm",
+            "midnight", "velvet" };
+    private static final String[] TAGS = { "pop", "rock", "jazz", "house", "hip-hop", "soul", "folk" };
+
+    // the endpoints of /music and the request each one sends
+    private enum Endpoint {
+        ALL((load, random) -> load.get("")),
+        PAGE((load, random) -> load.get("/page?limit=50")),
+        EXPORT((load, random) -> load.get("/export")),
+        CACHE((load, random) -> load.get("/cache/stats")),
+        STATS((load, random) -> load.get("/stats")),
+        GET((load, random) -> load.get("/" + load.readable(random))),
+        SIMILAR((load, random) -> load.get("/" + load.readable(random) + "/similar?k=10")),
+        QUERY((load, random) -> {
+            String attribute = List.of("bpm", "energy", "danceability", "year", "duration_sec")
+                    .get(random.nextInt(5));
+            int min = random.nextInt(50);
+            return load.get("/query?attribute=" + attribute + "&order=" + (random.nextBoolean() ? "asc" : "desc")
+                    + "&min=" + min + "&max=" + (min + 50 + random.nextInt(100)) + "&limit=15");
+        }),
+        SEARCH((load, random) -> load.get("/search?q=" + TERMS[random.nextInt(TERMS.length)] + "&prefix="
+                + random.nextBoolean() + "&limit=15")),
+        GENRES((load, random) -> load.get("/genres?genre=" + TAGS[random.nextInt(TAGS.length)])),
+        PLAYLIST((load, random) -> load.get("/playlist?duration=3600&budgetMs=20&genre="
+                + TAGS[random.nextInt(TAGS.length)])),
+        HIGHDANCEABILITY((load, random) -> load.get("/highdanceability")),
+        LOWENERGY((load, random) -> load.get("/lowenergy")),
+        CREATE((load, random) -> load.send("", "POST", "application/json", load.json(load.nextSong()))),
+        BULK((load, random) -> {
+            StringBuilder ndjson = new StringBuilder();
+            for (int i = 0; i < BULK_SIZE; i++) {
+                ndjson.append(load.json(load.nextSong())).append('\n');
+            }
+            return load.send("/bulk", "POST", "application/x-ndjson", ndjson.toString());
+        }),
+        UPDATE((load, random) -> load.send("/" + load.readable(random), "PUT", "application/json",
+                load.json(load.nextSong()))),
+        PATCH((load, random) -> load.send("/" + load.readable(random), "PATCH", "application/merge-patch+json",
+                "{\"energy\": " + random.nextInt(101) + "}")),
+        DELETE((load, random) -> load.send("/" + load.deletable(), "DELETE", null, null));
+
+        private final BiFunction<Load, Random, HttpRequest> request;
+
+        Endpoint(BiFunction<Load, Random, HttpRequest> request) {
+            this.request = request;
+        }
+
+        private String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    @Test
+    @Description("throughput and latency of every endpoint against the recorded baseline")
+    void driveEndpoints() throws Exception {
+        Map<Endpoint, Integer> mix = mix(MIX);
+        // a file, an in-memory database would not outlive the context that seeds it
+        String database = "jdbc:h2:file:./target/h2/load;MODE=MySQL;NON_KEYWORDS=YEAR";
+        List<UUID> ids = seed(database);
+
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JavaMusicApiApplication.class)
+                .run("--server.port=0", "--spring.datasource.url=" + database, "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.show-sql=false", "--logging.level.root=WARN")) {
+            System.out.printf("started on %d songs in %.1f s%n", SONGS, (System.nanoTime() - start) / 1e9);
+            Load load = new Load(URI.create("http://localhost:"
+                    + ((WebServerApplicationContext) context).getWebServer().getPort() + "/music"), ids,
+                    context.getBean(ObjectMapper.class));
+
+            drive(load, mix, WARMUP);
+            Map<Endpoint, Result> results = drive(load, mix, RUN);
+            Map<String, Double> measured = report(results);
+
+            List<String> failures = new ArrayList<>();
+            results.forEach((endpoint, result) -> {
+                if (result.errors > MAX_ERROR_RATE * result.requests) {
+                    failures.add(endpoint.key() + ": " + result.errors + " errors in " + result.requests
+                            + " requests, last status " + result.lastError);
+                }
+            });
+            if (RECORD) {
+                record(measured);
+            } else {
+                failures.addAll(compare(measured));
+            }
+            assertEquals(List.of(), failures);
+        }
+    }
+
+    // the catalog, written straight to the table the way a restored dump would be, before
+    // the application that serves it starts; ids of all but the last tenth of the songs,
+    // which are left for deletes
+    private static List<UUID> seed(String database) {
+        long start = System.nanoTime();
+        List<UUID> ids = new ArrayList<>();
+        // a first start only to create the schema; arguments, since application.properties
+        // overrides default properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JavaMusicApiApplication.class)
+                .run("--spring.main.web-application-type=none", "--spring.datasource.url=" + database,
+                        "--spring.jpa.hibernate.ddl-auto=create", "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN")) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(context.getBean(DataSource.class));
+            MusicCatalogGenerator generator = new MusicCatalogGenerator(SEED);
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (long n = 0; n < SONGS; n++) {
+                Music music = generator.song(n);
+                UUID id = TimeOrderedUuidGenerator.next();
+                ids.add(id);
+                batch.add(new Object[] { id, music.getSong(), music.getArtist(), music.getYear(), music.getGenre(),
+                        music.getDescription(), music.getDurationSec(), music.getBpm(), music.getEnergy(),
+                        music.getDanceability() });
+                if (batch.size() == BATCH_SIZE || n == SONGS - 1) {
+                    jdbcTemplate.batchUpdate("INSERT INTO music (id, song, artist, year, genre, description, "
+                            + "duration_sec, bpm, energy, danceability, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                            batch);
+                    batch.clear();
+                }
+            }
+        }
+        System.out.printf("seeded %d songs in %.1f s%n", SONGS, (System.nanoTime() - start) / 1e9);
+        return ids;
+    }
+
+    // clients sending requests back to back for the given time
+    private static Map<Endpoint, Result> drive(Load load, Map<Endpoint, Integer> mix, Duration time)
+            throws Exception {
+        List<Endpoint> weighted = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        });
+        long end = System.nanoTime() + time.toNanos();
+        List<Future<Map<Endpoint, Result>>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                Random random = new Random(SEED + c);
+                clients.add(executor.submit(() -> {
+                    Map<Endpoint, Result> results = new EnumMap<>(Endpoint.class);
+                    while (System.nanoTime() < end) {
+                        Endpoint endpoint = weighted.get(random.nextInt(weighted.size()));
+                        HttpRequest request = endpoint.request.apply(load, random);
+                        long start = System.nanoTime();
+                        HttpResponse<String> response = load.client.send(request, endpoint == Endpoint.CREATE
+                                ? HttpResponse.BodyHandlers.ofString()
+                                : responseInfo -> HttpResponse.BodySubscribers.replacing(null));
+                        results.computeIfAbsent(endpoint, e -> new Result()).add(response.statusCode(),
+                                System.nanoTime() - start);
+                        if (endpoint == Endpoint.CREATE && response.statusCode() == 201) {
+                            // created songs can be deleted later
+                            load.deletable.add(UUID.fromString(load.objectMapper.readTree(response.body())
+                                    .get("id").asText()));
+                        }
+                    }
+                    return results;
+                }));
+            }
+        }
+        Map<Endpoint, Result> results = new EnumMap<>(Endpoint.class);
+        for (Future<Map<Endpoint, Result>> client : clients) {
+            client.get().forEach((endpoint, result) -> results.computeIfAbsent(endpoint, e -> new Result())
+                    .merge(result));
+        }
+        return results;
+    }
+
+    // requests per second and p99 by endpoint
+    private static Map<String, Double> report(Map<Endpoint, Result> results) {
+        System.out.printf("%-17s %9s %9s %9s %9s %9s %7s%n", "endpoint", "requests", "req/sec", "p50 ms", "p99 ms",
+                "p999 ms", "errors");
+        Map<String, Double> measured = new TreeMap<>();
+        long total = 0;
+        for (Map.Entry<Endpoint, Result> entry : results.entrySet()) {
+            Result result = entry.getValue();
+            long[] sorted = result.nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+            double rps = result.requests / (double) RUN.toSeconds();
+            System.out.printf("%-17s %9d %9.1f %9.2f %9.2f %9.2f %7d%n", entry.getKey().key(), result.requests, rps,
+                    percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999), result.errors);
+            measured.put(entry.getKey().key() + ".rps", rps);
+            measured.put(entry.getKey().key() + ".p99", percentile(sorted, 0.99));
+            total += result.requests;
+        }
+        System.out.printf("%-17s %9d %9.1f%n", "total", total, total / (double) RUN.toSeconds());
+        return measured;
+    }
+
+    // endpoints slower than the baseline recorded with the same settings
+    private static List<String> compare(Map<String, Double> measured) throws IOException {
+        if (!Files.exists(BASELINE)) {
+            System.out.println("no baseline at " + BASELINE + ", record one on this host with -Dload.record=true");
+            return List.of();
+        }
+        Properties baseline = new Properties();
+        try (var reader = Files.newBufferedReader(BASELINE)) {
+            baseline.load(reader);
+        }
+        if (!settings().equals(baseline.getProperty("settings"))) {
+            System.out.println("baseline recorded with " + baseline.getProperty("settings") + ", not compared");
+            return List.of();
+        }
+        List<String> failures = new ArrayList<>();
+        measured.forEach((key, value) -> {
+            String recorded = baseline.getProperty(key);
+            if (recorded == null) {
+                return;
+            }
+            double limit = Double.parseDouble(recorded);
+            if (key.endsWith(".rps") && value < limit * TOLERANCE) {
+                failures.add(String.format("%s %.1f below baseline %.1f", key, value, limit));
+            } else if (key.endsWith(".p99") && value > limit / TOLERANCE) {
+                failures.add(String.format("%s %.2f ms above baseline %.2f ms", key, value, limit));
+            }
+        });
+        return failures;
+    }
+
+    private static void record(Map<String, Double> measured) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# MusicLoadBenchmark baseline, requests per second and p99 ms by endpoint,");
+        lines.add("# recorded with -Dload.record=true");
+        lines.add("settings=" + settings());
+        measured.forEach((key, value) -> lines.add(key + "=" + String.format("%.2f", value)));
+        Files.createDirectories(BASELINE.toAbsolutePath().getParent());
+        Files.write(BASELINE, lines);
+        System.out.println("recorded baseline in " + BASELINE);
+    }
+
+    // what a baseline is only valid for
+    private static String settings() {
+        return "host=" + host() + ";cpus=" + Runtime.getRuntime().availableProcessors() + ";songs=" + SONGS
+                + ";clients=" + CLIENTS + ";mix=" + MIX.replace(",", " ");
+    }
+
+    private static String host() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException uhe) {
+            return "unknown";
+        }
+    }
+
+    private static Map<Endpoint, Integer> mix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        return weights;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.ceil(p * sorted.length) - 1] / 1e6;
+    }
+
+    // what the clients share: the catalog's ids and the http client
+    private static final class Load {
+        private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        private final URI base;
+        private final List<UUID> readable;
+        private final ConcurrentLinkedDeque<UUID> deletable;
+        private final ObjectMapper objectMapper;
+        private final MusicCatalogGenerator generator = new MusicCatalogGenerator(SEED);
+        private final AtomicLong next = new AtomicLong(SONGS);
+
+        private Load(URI base, List<UUID> ids, ObjectMapper objectMapper) {
+            this.base = base;
+            int reads = (int) (ids.size() * 0.9);
+            this.readable = ids.subList(0, reads);
+            this.deletable = new ConcurrentLinkedDeque<>(ids.subList(reads, ids.size()));
+            this.objectMapper = objectMapper;
+        }
+
+        private UUID readable(Random random) {
+            return this.readable.get(random.nextInt(this.readable.size()));
+        }
+
+        private UUID deletable() {
+            UUID id = this.deletable.pollFirst();
+            if (id == null) {
+                throw new IllegalStateException("No songs left to delete, lower the delete weight");
+            }
+            return id;
+        }
+
+        private Music nextSong() {
+            return this.generator.song(this.next.getAndIncrement());
+        }
+
+        private String json(Music music) {
+            try {
+                return this.objectMapper.writeValueAsString(music);
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        }
+
+        private HttpRequest get(String path) {
+            return send(path, "GET", null, null);
+        }
+
+        private HttpRequest send(String path, String method, String contentType, String body) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(this.base + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .method(method, body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(body));
+            return contentType == null ? request.build() : request.header("Content-Type", contentType).build();
+        }
+    }
+
+    // latencies and errors of the requests to one endpoint
+    private static final class Result {
+        private final List<Long> nanos = new ArrayList<>();
+        private long requests;
+        private long errors;
+        private int lastError;
+
+        private void add(int status, long nanos) {
+            this.requests++;
+            this.nanos.add(nanos);
+            if (status >= 300) {
+                this.errors++;
+                this.lastError = status;
+            }
+        }
+
+        private void merge(Result other) {
+            this.nanos.addAll(other.nanos);
+            this.requests += other.requests;
+            this.errors += other.errors;
+            this.lastError = Math.max(this.lastError, other.lastError);
+        }
+    }
+
+}
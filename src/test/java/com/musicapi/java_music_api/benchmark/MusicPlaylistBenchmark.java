@@ -0,0 +1,114 @@
+package com.musicapi.java_music_api.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicGenreFilter;
+import com.musicapi.java_music_api.music.MusicPlaylistIndex;
+import com.musicapi.java_music_api.music.MusicPlaylistPlan;
+import com.musicapi.java_music_api.music.MusicPlaylistRequest;
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+// Playlist quality against time on a synthetic catalog of two million songs: for every
+// budget, the latency of MusicPlaylistIndex.solve, the energy error and length error of
+// the playlist it returns and the number of playlists it built. Run for an hour and for
+// four hours of ramp, plateau and cool down, over the whole catalog and over a tenth of
+// it, as a genre filter would leave. Songs cluster around a few hundred "styles" of bpm
+// and energy, like a real catalog. Runs with `mvn test -Pbenchmark`.
+public class MusicPlaylistBenchmark {
+    private static final int SONGS = 2_000_000;
+    private static final int STYLES = 300;
+    private static final int[] BUDGETS_MS = { 1, 5, 20, 100 };
+    private static final int WARMUP = 200;
+    private static final int REQUESTS = 50;
+
+    private final Random random = new Random(42);
+    private final int[][] styles = new int[STYLES][];
+
+    @Test
+    @Description("playlist quality and latency for budgets of 1 to 100 ms on two million songs")
+    void measurePlaylistQuality() {
+        for (int style = 0; style < STYLES; style++) {
+            this.styles[style] = new int[] { 70 + this.random.nextInt(110), this.random.nextInt(101) };
+        }
+        MusicPlaylistIndex index = new MusicPlaylistIndex();
+        long start = System.nanoTime();
+        index.putAll(IntStream.range(0, SONGS).mapToObj(i -> song()));
+        System.out.printf("indexed %d songs in %.1f s%n", index.size(), (System.nanoTime() - start) / 1e9);
+
+        Predicate<UUID> all = id -> true;
+        Predicate<UUID> tenth = id -> Math.floorMod(id.getLeastSignificantBits(), 10) == 0;
+        // warm up on every kind of request, a filter seen for the first time recompiles the solver
+        for (int i = 0; i < WARMUP; i++) {
+            for (Predicate<UUID> filter : List.of(all, tenth)) {
+                index.solve(request(3600 * (1 + i % 4)), filter, this.random,
+                        System.nanoTime() + Duration.ofMillis(5).toNanos());
+            }
+        }
+        System.out.printf("%-18s %6s %9s %9s %9s %9s %9s%n", "playlist", "budget", "p50 ms", "p99 ms", "energy",
+                "length s", "attempts");
+        for (int durationSec : new int[] { 3600, 4 * 3600 }) {
+            for (Predicate<UUID> filter : List.of(all, tenth)) {
+                for (int budget : BUDGETS_MS) {
+                    measure(index, durationSec, filter, budget,
+                            durationSec / 3600 + " h" + (filter == all ? "" : ", a tenth"));
+                }
+            }
+        }
+    }
+
+    private void measure(MusicPlaylistIndex index, int durationSec, Predicate<UUID> filter, int budget, String name) {
+        long[] nanos = new long[REQUESTS];
+        double energyError = 0;
+        double lengthError = 0;
+        long attempts = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            long start = System.nanoTime();
+            MusicPlaylistPlan plan = index.solve(request(durationSec), filter, this.random,
+                    start + Duration.ofMillis(budget).toNanos());
+            nanos[i] = System.nanoTime() - start;
+            energyError += plan.energyError();
+            lengthError += Math.abs(plan.durationSec() - durationSec);
+            attempts += plan.attempts();
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-18s %6d %9.2f %9.2f %9.2f %9.1f %9.1f%n", name, budget, percentile(nanos, 0.5),
+                percentile(nanos, 0.99), energyError / REQUESTS, lengthError / REQUESTS, (double) attempts / REQUESTS);
+    }
+
+    private static MusicPlaylistRequest request(int durationSec) {
+        return MusicPlaylistRequest.of(durationSec, null, 20, 90, 6, MusicGenreFilter.NONE, null);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.ceil(p * sorted.length) - 1] / 1e6;
+    }
+
+    // a song near one of the styles
+    private Music song() {
+        int[] style = this.styles[this.random.nextInt(STYLES)];
+        Music music = new Music("Song", "Artist", 2000, "Pop", "", clamp(210 + gaussian(50), 60, 900),
+                clamp(style[0] + gaussian(8), 40, 240), clamp(style[1] + gaussian(10), 0, 100), 50);
+        ReflectionTestUtils.setField(music, "id", TimeOrderedUuidGenerator.next());
+        return music;
+    }
+
+    private int gaussian(double deviation) {
+        return (int) Math.round(this.random.nextGaussian() * deviation);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+}
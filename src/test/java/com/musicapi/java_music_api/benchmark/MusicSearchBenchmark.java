@@ -0,0 +1,141 @@
+package com.musicapi.java_music_api.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicSearchIndex;
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Function;
+
+// Query latency percentiles of MusicSearchIndex over a synthetic catalog of a million
+// songs. Titles, artists and descriptions draw words from a Zipf distributed vocabulary,
+// so common words have long posting lists like they would in a real catalog. The typical
+// queries are words of a title or artist as typed by someone looking for that song; the
+// random ones draw every word independently from the vocabulary, which mostly makes
+// conjunctions of very common words that seldom meet, the worst case for the index.
+// Runs with `mvn test -Pbenchmark`.
+public class MusicSearchBenchmark {
+    private static final int SONGS = 1_000_000;
+    private static final int VOCABULARY = 50_000;
+    private static final int ARTISTS = 100_000;
+    private static final int WARMUP = 20_000;
+    private static final int QUERIES = 50_000;
+    private static final String[] SYLLABLES = { "la", "mi", "ro", "ka", "ne", "to", "su", "vi", "da", "lo", "ve",
+            "ri", "sa", "no", "be", "ta", "mo", "ge", "li", "fa", "du", "ze", "po", "ki" };
+
+    private final Random random = new Random(42);
+    private final String[] titles = new String[SONGS];
+    private final String[] artists = new String[SONGS];
+    private final String[] words = new String[VOCABULARY];
+    private final double[] cumulative = new double[VOCABULARY];
+
+    @Test
+    @Description("search latency percentiles on a million songs")
+    void measureQueryLatency() {
+        for (int i = 0; i < VOCABULARY; i++) {
+            this.words[i] = word(i);
+            this.cumulative[i] = (i == 0 ? 0 : this.cumulative[i - 1]) + 1.0 / (i + 1);
+        }
+
+        MusicSearchIndex index = new MusicSearchIndex();
+        long start = System.nanoTime();
+        for (int i = 0; i < SONGS; i++) {
+            this.titles[i] = phrase(1 + this.random.nextInt(4));
+            this.artists[i] = this.words[VOCABULARY - 1 - this.random.nextInt(ARTISTS) % VOCABULARY] + " "
+                    + this.words[this.random.nextInt(ARTISTS) % VOCABULARY];
+            Music music = new Music(this.titles[i], this.artists[i], 1960 + this.random.nextInt(60), "Pop",
+                    phrase(8 + this.random.nextInt(10)), 200, 120, 50, 50);
+            ReflectionTestUtils.setField(music, "id", TimeOrderedUuidGenerator.next());
+            index.put(music);
+        }
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("indexed %d songs, %d terms in %.1f s, heap in use %d MiB%n", index.size(),
+                index.termCount(), (System.nanoTime() - start) / 1e9,
+                (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+
+        System.out.printf("%-20s %9s %9s %9s %9s %9s%n", "query", "p50 us", "p99 us", "p99.9 us", "max us",
+                "avg hits");
+        measure(index, "title", false, random -> this.titles[random.nextInt(SONGS)]);
+        measure(index, "title and artist", false, random -> {
+            int song = random.nextInt(SONGS);
+            return firstWord(this.titles[song]) + " " + this.artists[song];
+        });
+        measure(index, "typing title 2", true, random -> typed(this.titles[random.nextInt(SONGS)], 2));
+        measure(index, "typing title 4", true, random -> typed(this.titles[random.nextInt(SONGS)], 4));
+        measure(index, "typing artist", true, random -> typed(this.artists[random.nextInt(SONGS)], 3));
+        measure(index, "one word", false, random -> zipfWord());
+        measure(index, "rare word", false, random -> this.words[VOCABULARY / 2 + random.nextInt(VOCABULARY / 2)]);
+        measure(index, "random 2 words", false, random -> zipfWord() + " " + zipfWord());
+        measure(index, "random 3 words", false, random -> zipfWord() + " " + zipfWord() + " " + zipfWord());
+        measure(index, "random prefix 2", true, random -> zipfWord().substring(0, 2));
+        measure(index, "random word+prefix", true, random -> zipfWord() + " " + zipfWord().substring(0, 3));
+    }
+
+    private void measure(MusicSearchIndex index, String name, boolean prefix, Function<Random, String> queries) {
+        for (int i = 0; i < WARMUP; i++) {
+            index.search(queries.apply(this.random), prefix, 15);
+        }
+        long[] nanos = new long[QUERIES];
+        long hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            String query = queries.apply(this.random);
+            long start = System.nanoTime();
+            hits += index.search(query, prefix, 15).size();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-20s %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, percentile(nanos, 0.5),
+                percentile(nanos, 0.99), percentile(nanos, 0.999), nanos[QUERIES - 1] / 1e3, (double) hits / QUERIES);
+    }
+
+    // the text up to the given number of letters into its last word
+    private static String typed(String text, int letters) {
+        int end = text.lastIndexOf(' ') + 1 + letters;
+        return text.substring(0, Math.min(end, text.length()));
+    }
+
+    private static String firstWord(String text) {
+        int space = text.indexOf(' ');
+        return space < 0 ? text : text.substring(0, space);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.ceil(p * sorted.length) - 1] / 1e3;
+    }
+
+    private String phrase(int length) {
+        StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            phrase.append(i == 0 ? "" : " ").append(zipfWord());
+        }
+        return phrase.toString();
+    }
+
+    private String zipfWord() {
+        double target = this.random.nextDouble() * this.cumulative[VOCABULARY - 1];
+        int rank = Arrays.binarySearch(this.cumulative, target);
+        return this.words[rank >= 0 ? rank : Math.min(-rank - 1, VOCABULARY - 1)];
+    }
+
+    // distinct pronounceable word for every rank, at least four letters
+    private static String word(int rank) {
+        StringBuilder word = new StringBuilder();
+        int n = rank;
+        do {
+            word.append(SYLLABLES[n % SYLLABLES.length]);
+            n /= SYLLABLES.length;
+        } while (n > 0);
+        if (word.length() < 4) {
+            word.append("n");
+            word.append(word.length() < 4 ? "a" : "");
+        }
+        return word.toString();
+    }
+
+}
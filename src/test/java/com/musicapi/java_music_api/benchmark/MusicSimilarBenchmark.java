@@ -0,0 +1,148 @@
+package com.musicapi.java_music_api.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Description;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicNeighbourIndex;
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+// Latency and recall of MusicNeighbourIndex against an exact brute force scan over a
+// synthetic catalog of a million songs. Features are drawn around a few hundred "styles"
+// so that, like a real catalog, songs cluster. Recall counts the returned songs at most
+// as far as the k-th nearest of the scan, so ties at the edge do not count as misses.
+// Measured on the freshly built tree and again after 50,000 updates, which are kept in
+// the scanned part until the next rebuild. Runs with `mvn test -Pbenchmark`.
+public class MusicSimilarBenchmark {
+    private static final int SONGS = 1_000_000;
+    private static final int STYLES = 300;
+    private static final int K = 10;
+    private static final int WARMUP = 5_000;
+    private static final int QUERIES = 20_000;
+    private static final int SCANS = 200;
+    private static final int UPDATES = 50_000;
+
+    private final Random random = new Random(42);
+    private final Music[] songs = new Music[SONGS];
+    private final int[][] styles = new int[STYLES][];
+
+    @Test
+    @Description("similar song latency and recall against brute force on a million songs")
+    void measureSimilarLatency() {
+        for (int style = 0; style < STYLES; style++) {
+            this.styles[style] = new int[] { 60 + this.random.nextInt(140), this.random.nextInt(101),
+                    this.random.nextInt(101), 1950 + this.random.nextInt(75), 120 + this.random.nextInt(300) };
+        }
+        for (int i = 0; i < SONGS; i++) {
+            this.songs[i] = song();
+            ReflectionTestUtils.setField(this.songs[i], "id", TimeOrderedUuidGenerator.next());
+        }
+
+        MusicNeighbourIndex index = new MusicNeighbourIndex();
+        long start = System.nanoTime();
+        index.putAll(Arrays.stream(this.songs));
+        System.out.printf("indexed %d songs in %.1f s%n", index.size(), (System.nanoTime() - start) / 1e9);
+        System.out.printf("%-20s %9s %9s %9s %9s%n", "index", "p50 us", "p99 us", "max us", "recall");
+        measure(index, "kd-tree");
+
+        for (int i = 0; i < UPDATES; i++) {
+            int song = this.random.nextInt(SONGS);
+            Music moved = song();
+            ReflectionTestUtils.setField(moved, "id", this.songs[song].getId());
+            this.songs[song] = moved;
+            index.put(moved);
+        }
+        measure(index, "kd-tree + updates");
+    }
+
+    private void measure(MusicNeighbourIndex index, String name) {
+        for (int i = 0; i < WARMUP; i++) {
+            index.nearest(this.songs[this.random.nextInt(SONGS)], K);
+        }
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            Music query = this.songs[this.random.nextInt(SONGS)];
+            long start = System.nanoTime();
+            index.nearest(query, K);
+            nanos[i] = System.nanoTime() - start;
+        }
+
+        // the same queries against a scan of the scaled features, far fewer of them
+        float[][] points = new float[SONGS][];
+        Map<UUID, float[]> features = new HashMap<>();
+        for (int song = 0; song < SONGS; song++) {
+            points[song] = MusicNeighbourIndex.features(this.songs[song]);
+            features.put(this.songs[song].getId(), points[song]);
+        }
+        long[] scanNanos = new long[SCANS];
+        int found = 0;
+        for (int i = 0; i < SCANS; i++) {
+            int query = this.random.nextInt(SONGS);
+            List<UUID> nearest = index.nearest(this.songs[query], K);
+            long start = System.nanoTime();
+            float[] best = scan(points, query);
+            scanNanos[i] = System.nanoTime() - start;
+            for (UUID id : nearest) {
+                if (MusicNeighbourIndex.distance(points[query], features.get(id)) <= best[K - 1]) {
+                    found++;
+                }
+            }
+        }
+        Arrays.sort(nanos);
+        Arrays.sort(scanNanos);
+        System.out.printf("%-20s %9.1f %9.1f %9.1f %9.4f%n", name, percentile(nanos, 0.5), percentile(nanos, 0.99),
+                nanos[QUERIES - 1] / 1e3, (double) found / (SCANS * K));
+        System.out.printf("%-20s %9.1f %9.1f %9.1f %9s%n", "brute force", percentile(scanNanos, 0.5),
+                percentile(scanNanos, 0.99), scanNanos[SCANS - 1] / 1e3, "1.0000");
+    }
+
+    // the K smallest distances to the query over every other song, ascending
+    private static float[] scan(float[][] points, int query) {
+        float[] best = new float[K];
+        Arrays.fill(best, Float.MAX_VALUE);
+        for (int song = 0; song < points.length; song++) {
+            if (song == query) {
+                continue;
+            }
+            float distance = MusicNeighbourIndex.distance(points[query], points[song]);
+            if (distance < best[K - 1]) {
+                int position = K - 1;
+                while (position > 0 && best[position - 1] > distance) {
+                    best[position] = best[position - 1];
+                    position--;
+                }
+                best[position] = distance;
+            }
+        }
+        return best;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.ceil(p * sorted.length) - 1] / 1e3;
+    }
+
+    // a song near one of the styles
+    private Music song() {
+        int[] style = this.styles[this.random.nextInt(STYLES)];
+        return new Music("Song", "Artist", clamp(style[3] + gaussian(5), 1950, 2024), "Pop", "",
+                clamp(style[4] + gaussian(40), 60, 900), clamp(style[0] + gaussian(8), 40, 240),
+                clamp(style[1] + gaussian(10), 0, 100), clamp(style[2] + gaussian(10), 0, 100));
+    }
+
+    private int gaussian(double deviation) {
+        return (int) Math.round(this.random.nextGaussian() * deviation);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+}
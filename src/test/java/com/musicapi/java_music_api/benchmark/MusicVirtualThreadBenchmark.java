@@ -0,0 +1,175 @@
+package com.musicapi.java_music_api.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Description;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.musicapi.java_music_api.JavaMusicApiApplication;
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+// Throughput and tail latency of Tomcat's 200 platform threads against a virtual thread
+// per request, at rising numbers of concurrent clients. Half the requests page through
+// the catalog and need one of the 10 pooled connections, each held for an extra
+// QUERY_LATENCY to stand in for a remote database; the other half read the in-memory
+// leaderboard. "503s" are requests shed after waiting the pool's connection-timeout.
+// Each mode starts the whole application on an in-memory H2 database, or on the one in
+// -Dbenchmark.url with -Dbenchmark.latency=0. Runs with `mvn test -Pbenchmark`.
+public class MusicVirtualThreadBenchmark {
+    private static final Duration QUERY_LATENCY = Duration.ofMillis(Long.getLong("benchmark.latency", 10));
+    private static final int SONGS = 2000;
+    private static final int[] CLIENTS = { 16, 64, 256, 1024 };
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final Duration RUN = Duration.ofSeconds(5);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    @Description("platform threads against virtual threads at 16 to 1024 concurrent clients")
+    void compareThreadModes() throws Exception {
+        System.out.printf("%-9s %7s %9s %12s %12s %12s %12s %6s%n", "threads", "clients", "req/sec", "db p50 ms",
+                "db p99 ms", "mem p50 ms", "mem p99 ms", "503s");
+        for (boolean virtual : new boolean[] { false, true }) {
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                MusicService musicService = context.getBean(MusicService.class);
+                for (int i = 0; i < SONGS; i++) {
+                    musicService.createSong(new Music("Song " + i, "Artist", 2000, "Pop", "a song", 200, 120, i % 101,
+                            i % 101));
+                }
+                URI base = URI.create("http://localhost:"
+                        + ((WebServerApplicationContext) context).getWebServer().getPort() + "/music/");
+                load(base, 64, WARMUP);
+                for (int clients : CLIENTS) {
+                    Result result = load(base, clients, RUN);
+                    System.out.printf("%-9s %7d %9.0f %12.1f %12.1f %12.1f %12.1f %6d%n",
+                            virtual ? "virtual" : "platform", clients, result.requests / (double) RUN.toSeconds(),
+                            percentile(result.database, 0.5), percentile(result.database, 0.99),
+                            percentile(result.memory, 0.5), percentile(result.memory, 0.99), result.unavailable);
+                }
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual) {
+        // arguments rather than default properties, which application.properties overrides
+        return new SpringApplicationBuilder(JavaMusicApiApplication.class)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new SlowDatabase()))
+                .run("--server.port=0", "--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.datasource.url=" + System.getProperty("benchmark.url",
+                                "jdbc:h2:mem:threads-" + virtual + ";MODE=MySQL;NON_KEYWORDS=YEAR;DB_CLOSE_DELAY=-1"),
+                        "--spring.datasource.driver-class-name="
+                                + System.getProperty("benchmark.driver", "org.h2.Driver"),
+                        "--spring.datasource.username=" + System.getProperty("benchmark.username", "sa"),
+                        "--spring.datasource.password=" + System.getProperty("benchmark.password", ""),
+                        "--spring.datasource.hikari.maximum-pool-size=10",
+                        "--spring.datasource.hikari.connection-timeout=2000",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF");
+    }
+
+    // clients sending requests back to back for the given time, alternating database and
+    // in-memory reads
+    private Result load(URI base, int clients, Duration time) throws Exception {
+        long end = System.nanoTime() + time.toNanos();
+        List<Future<Result>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                results.add(executor.submit(() -> {
+                    Result result = new Result();
+                    for (int n = offset; System.nanoTime() < end; n++) {
+                        boolean database = n % 2 == 0;
+                        HttpRequest request = HttpRequest.newBuilder(base.resolve(database
+                                ? "page?limit=20"
+                                : "highdanceability?limit=10")).timeout(Duration.ofSeconds(30)).build();
+                        long start = System.nanoTime();
+                        int status = this.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        result.add(database, status, System.nanoTime() - start);
+                    }
+                    return result;
+                }));
+            }
+        }
+        Result total = new Result();
+        for (Future<Result> result : results) {
+            total.merge(result.get());
+        }
+        return total;
+    }
+
+    private static double percentile(List<Long> nanos, double p) {
+        if (nanos.isEmpty()) {
+            return 0;
+        }
+        long[] sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        return sorted[(int) Math.ceil(p * sorted.length) - 1] / 1e6;
+    }
+
+    // latencies of the successful requests of one or more clients
+    private static final class Result {
+        private final List<Long> database = new ArrayList<>();
+        private final List<Long> memory = new ArrayList<>();
+        private long requests;
+        private long unavailable;
+
+        private void add(boolean database, int status, long nanos) {
+            this.requests++;
+            if (status == 503) {
+                this.unavailable++;
+            } else if (status != 200) {
+                throw new IllegalStateException("Unexpected status " + status);
+            } else {
+                (database ? this.database : this.memory).add(nanos);
+            }
+        }
+
+        private void merge(Result other) {
+            this.requests += other.requests;
+            this.unavailable += other.unavailable;
+            this.database.addAll(other.database);
+            this.memory.addAll(other.memory);
+        }
+    }
+
+    // holds every connection QUERY_LATENCY longer, as a round trip to a remote database would
+    private static final class SlowDatabase implements BeanPostProcessor {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || QUERY_LATENCY.isZero()) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    Connection connection = super.getConnection();
+                    try {
+                        Thread.sleep(QUERY_LATENCY);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return connection;
+                }
+            };
+        }
+    }
+
+}
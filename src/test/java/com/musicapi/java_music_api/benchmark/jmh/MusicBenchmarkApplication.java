@@ -0,0 +1,31 @@
+package com.musicapi.java_music_api.benchmark.jmh;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.musicapi.java_music_api.JavaMusicApiApplication;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.util.Random;
+
+// the whole application on the in-memory H2 database of the tests, seeded with songs,
+// started once per JMH fork; arguments override application.properties
+final class MusicBenchmarkApplication {
+    static final int SONGS = 1000;
+
+    private MusicBenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... args) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(JavaMusicApiApplication.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run(args);
+        MusicService musicService = context.getBean(MusicService.class);
+        Random random = new Random(42);
+        for (int i = 0; i < SONGS; i++) {
+            musicService.createSong(MusicJsonBenchmarks.song(random, i));
+        }
+        return context;
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.musicapi.java_music_api.benchmark.jmh;
+
+import java.time.Duration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicChange;
+import com.musicapi.java_music_api.music.MusicChangeFeed;
+import com.musicapi.java_music_api.music.MusicChangedEvent;
+import com.musicapi.java_music_api.music.TimeOrderedUuidGenerator;
+
+// What a write pays for the change feed with thousands of subscribers, whose threads
+// wake up and copy from the ring while the writer appends to it.
+@State(Scope.Benchmark)
+public class MusicChangeFeedBenchmarks {
+    @Param({ "0", "100", "2000" })
+    public int subscribers;
+
+    private MusicChangeFeed musicChangeFeed;
+    private MusicChangedEvent event;
+
+    @Setup
+    public void setUp() {
+        this.musicChangeFeed = new MusicChangeFeed(10000, Duration.ofSeconds(15), this.subscribers);
+        for (int i = 0; i < this.subscribers; i++) {
+            this.musicChangeFeed.subscribe(null, new MusicChangeFeed.Sink() {
+                @Override
+                public void send(MusicChange change) {
+                }
+
+                @Override
+                public void heartbeat() {
+                }
+
+                @Override
+                public void complete() {
+                }
+            });
+        }
+        Music music = new Music("Song", "Artist", 2000, "Pop", "a song", 200, 120, 50, 50);
+        ReflectionTestUtils.setField(music, "id", TimeOrderedUuidGenerator.next());
+        this.event = new MusicChangedEvent(music, music);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.musicChangeFeed.close();
+    }
+
+    @Benchmark
+    public long append() {
+        this.musicChangeFeed.onMusicChanged(this.event);
+        return this.musicChangeFeed.sequence();
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.musicapi.java_music_api.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// the controller's 400 answers through the whole Spring MVC dispatch, from the failed
+// argument conversion or body read to the exception handler
+@State(Scope.Benchmark)
+public class MusicErrorBenchmarks {
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() {
+        this.context = MusicBenchmarkApplication.start();
+        this.mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) this.context).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    // MethodArgumentTypeMismatchException
+    @Benchmark
+    public MvcResult malformedId() throws Exception {
+        return this.mockMvc.perform(get("/music/not-a-uuid")).andReturn();
+    }
+
+    // HttpMessageNotReadableException
+    @Benchmark
+    public MvcResult malformedBody() throws Exception {
+        return this.mockMvc.perform(post("/music").contentType(MediaType.APPLICATION_JSON).content("{\"song\": "))
+                .andReturn();
+    }
+
+}
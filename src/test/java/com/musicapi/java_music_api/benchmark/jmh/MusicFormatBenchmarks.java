@@ -0,0 +1,70 @@
+package com.musicapi.java_music_api.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.musicapi.java_music_api.music.Music;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+// Encoding and decoding a catalog of songs with ids as JSON, CBOR and Smile, the
+// formats GET /music negotiates; the payload sizes are printed once per fork
+@State(Scope.Benchmark)
+public class MusicFormatBenchmarks {
+
+    @Param({ "json", "cbor", "smile" })
+    String format;
+
+    @Param({ "1000" })
+    int size;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<Music> songs;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = switch (this.format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        TypeReference<List<Music>> type = new TypeReference<List<Music>>() {
+        };
+        this.writer = mapper.writerFor(type);
+        this.reader = mapper.readerFor(type);
+        Random random = new Random(42);
+        this.songs = IntStream.range(0, this.size).mapToObj(i -> {
+            Music music = MusicJsonBenchmarks.song(random, i);
+            ReflectionTestUtils.setField(music, "id", new UUID(random.nextLong(), random.nextLong()));
+            return music;
+        }).toList();
+        this.encoded = this.writer.writeValueAsBytes(this.songs);
+        System.out.printf("%s bytes: %d%n", this.format, this.encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return this.writer.writeValueAsBytes(this.songs);
+    }
+
+    @Benchmark
+    public List<Music> decode() throws IOException {
+        return this.reader.readValue(this.encoded);
+    }
+
+}
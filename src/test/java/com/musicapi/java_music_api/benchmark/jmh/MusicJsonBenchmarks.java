@@ -0,0 +1,87 @@
+package com.musicapi.java_music_api.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.musicapi.java_music_api.music.Music;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+// Jackson reading and writing a song and lists of songs, with the object mapper
+// configured the way Spring Boot configures the one behind the controller
+public class MusicJsonBenchmarks {
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    @State(Scope.Benchmark)
+    public static class Song {
+        final ObjectWriter writer = MAPPER.writerFor(Music.class);
+        final ObjectReader reader = MAPPER.readerFor(Music.class);
+        Music music;
+        String json;
+
+        @Setup
+        public void setUp() throws JsonProcessingException {
+            this.music = song(new Random(42), 0);
+            this.json = this.writer.writeValueAsString(this.music);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        final ObjectWriter writer = MAPPER.writerFor(new TypeReference<List<Music>>() {
+        });
+        final ObjectReader reader = MAPPER.readerFor(new TypeReference<List<Music>>() {
+        });
+
+        @Param({ "10", "100", "1000" })
+        int size;
+
+        List<Music> songs;
+        String json;
+
+        @Setup
+        public void setUp() throws JsonProcessingException {
+            Random random = new Random(42);
+            this.songs = IntStream.range(0, this.size).mapToObj(i -> song(random, i)).toList();
+            this.json = this.writer.writeValueAsString(this.songs);
+        }
+    }
+
+    @Benchmark
+    public String writeSong(Song song) throws JsonProcessingException {
+        return song.writer.writeValueAsString(song.music);
+    }
+
+    @Benchmark
+    public Music readSong(Song song) throws JsonProcessingException {
+        return song.reader.readValue(song.json);
+    }
+
+    @Benchmark
+    public String writeList(Catalog catalog) throws JsonProcessingException {
+        return catalog.writer.writeValueAsString(catalog.songs);
+    }
+
+    @Benchmark
+    public List<Music> readList(Catalog catalog) throws JsonProcessingException {
+        return catalog.reader.readValue(catalog.json);
+    }
+
+    static Music song(Random random, int i) {
+        return new Music("Song " + i, "Artist " + random.nextInt(1000), 1950 + random.nextInt(75), "Pop, Rock",
+                "a song about the number " + i, 120 + random.nextInt(300), 60 + random.nextInt(140),
+                random.nextInt(101), random.nextInt(101));
+    }
+
+}
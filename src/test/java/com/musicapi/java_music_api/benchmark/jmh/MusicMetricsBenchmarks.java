@@ -0,0 +1,85 @@
+package com.musicapi.java_music_api.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import jakarta.servlet.Filter;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Cost of the metrics on the hot paths: the same requests through the servlet filters
+// and Spring MVC with every metric of application.properties recorded, and with the
+// request timer, repository timers, Hibernate statistics and statement counting off
+@State(Scope.Benchmark)
+public class MusicMetricsBenchmarks {
+    private static final String[] INSTRUMENTED = {
+            "--management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+            "--management.metrics.distribution.minimum-expected-value.http.server.requests=1ms",
+            "--management.metrics.distribution.maximum-expected-value.http.server.requests=10s",
+            "--management.metrics.data.repository.autotime.percentiles-histogram=true",
+            "--management.metrics.distribution.percentiles-histogram.hikaricp.connections.acquire=true",
+            "--spring.jpa.properties.hibernate.generate_statistics=true",
+            "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN" };
+    private static final String[] UNINSTRUMENTED = {
+            "--management.observations.enable.http.server.requests=false",
+            "--management.metrics.data.repository.autotime.enabled=false",
+            "--spring.jpa.properties.hibernate.generate_statistics=false",
+            "--music.metrics.queries.enabled=false" };
+
+    @Param({ "true", "false" })
+    boolean instrumented;
+
+    private final Random random = new Random(7);
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private List<UUID> ids;
+
+    @Setup
+    public void setUp() {
+        this.context = MusicBenchmarkApplication.start(this.instrumented ? INSTRUMENTED : UNINSTRUMENTED);
+        this.mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) this.context)
+                .addFilters(this.context.getBeansOfType(Filter.class).values().toArray(Filter[]::new))
+                .build();
+        this.ids = this.context.getBean(MusicService.class).getAllSongs().stream().map(Music::getId).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    // in memory
+    @Benchmark
+    public MvcResult highDanceability() throws Exception {
+        return this.mockMvc.perform(get("/music/highdanceability")).andReturn();
+    }
+
+    // mostly from the song cache
+    @Benchmark
+    public MvcResult song() throws Exception {
+        return this.mockMvc.perform(get("/music/" + this.ids.get(this.random.nextInt(this.ids.size())))).andReturn();
+    }
+
+    // one query and its rows
+    @Benchmark
+    public MvcResult page() throws Exception {
+        return this.mockMvc.perform(get("/music/page?limit=20")).andReturn();
+    }
+
+}
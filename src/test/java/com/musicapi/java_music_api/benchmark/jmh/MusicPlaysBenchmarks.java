@@ -0,0 +1,68 @@
+package com.musicapi.java_music_api.benchmark.jmh;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicPlays;
+import com.musicapi.java_music_api.music.MusicRepository;
+
+// Time per play with 8 threads playing at once, nine in ten plays on the same 10 hit
+// songs of the seeded catalog: the striped counters of MusicPlays against one AtomicLong
+// per song, on whose values the threads contend. Only shows on several cores. The
+// scheduled flush runs as usual.
+@State(Scope.Benchmark)
+@Threads(8)
+public class MusicPlaysBenchmarks {
+    private ConfigurableApplicationContext context;
+    private MusicPlays musicPlays;
+    private UUID[] ids;
+    private final Map<UUID, AtomicLong> atomic = new ConcurrentHashMap<>();
+
+    @Setup
+    public void setUp() {
+        this.context = MusicBenchmarkApplication.start();
+        this.musicPlays = this.context.getBean(MusicPlays.class);
+        List<UUID> songs = this.context.getBean(MusicRepository.class).findAll().stream()
+                .map(Music::getId).toList();
+        this.ids = songs.toArray(UUID[]::new);
+        for (UUID id : this.ids) {
+            this.atomic.put(id, new AtomicLong());
+        }
+        // counters are created once the application is ready, make sure they are
+        this.musicPlays.load();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public boolean striped() {
+        return this.musicPlays.record(next());
+    }
+
+    @Benchmark
+    public long atomic() {
+        return this.atomic.get(next()).incrementAndGet();
+    }
+
+    private UUID next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return this.ids[random.nextInt(10) < 9 ? random.nextInt(10) : random.nextInt(this.ids.length)];
+    }
+
+}
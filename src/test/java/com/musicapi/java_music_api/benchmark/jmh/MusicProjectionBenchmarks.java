@@ -0,0 +1,64 @@
+package com.musicapi.java_music_api.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Full songs against ?fields= projections: latency and response bytes of every song,
+// read from the database, and of the top 100 by danceability, read from memory
+@State(Scope.Benchmark)
+public class MusicProjectionBenchmarks {
+
+    // empty for full songs
+    @Param({ "", "song,artist,danceability" })
+    String fields;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    // the responses do not change, so their sizes are printed once per fork
+    @Setup
+    public void setUp() throws Exception {
+        this.context = MusicBenchmarkApplication.start();
+        this.mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) this.context).build();
+        System.out.printf("response bytes: all %d, highDanceability %d%n",
+                all().getResponse().getContentAsByteArray().length,
+                highDanceability().getResponse().getContentAsByteArray().length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    // every song, one query
+    @Benchmark
+    public MvcResult all() throws Exception {
+        return perform(get("/music"));
+    }
+
+    // leaderboard, no query
+    @Benchmark
+    public MvcResult highDanceability() throws Exception {
+        return perform(get("/music/highdanceability").param("limit", "100"));
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+        if (!this.fields.isEmpty()) {
+            request.param("fields", this.fields);
+        }
+        return this.mockMvc.perform(request).andReturn();
+    }
+
+}
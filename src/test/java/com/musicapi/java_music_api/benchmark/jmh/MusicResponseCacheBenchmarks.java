@@ -0,0 +1,57 @@
+package com.musicapi.java_music_api.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musicapi.java_music_api.music.MusicFormat;
+import com.musicapi.java_music_api.music.MusicResponseCache;
+import com.musicapi.java_music_api.music.MusicService;
+
+// The top 15 by danceability from the response cache, against reading the ranking and
+// encoding it with Jackson as every request did before. Run with -Djmh.prof=gc for the
+// bytes allocated per request, gc.alloc.rate.norm.
+@State(Scope.Benchmark)
+public class MusicResponseCacheBenchmarks {
+    private ConfigurableApplicationContext context;
+    private MusicResponseCache musicResponseCache;
+    private MusicService musicService;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        this.context = MusicBenchmarkApplication.start();
+        this.musicResponseCache = this.context.getBean(MusicResponseCache.class);
+        this.musicService = this.context.getBean(MusicService.class);
+        this.objectMapper = this.context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public byte[] cached() {
+        return this.musicResponseCache.body(MusicResponseCache.Ranking.HIGH_DANCEABILITY,
+                MusicService.DEFAULT_RANKING_SIZE, MusicFormat.JSON).raw();
+    }
+
+    @Benchmark
+    public byte[] cachedGzip() {
+        return this.musicResponseCache.body(MusicResponseCache.Ranking.HIGH_DANCEABILITY,
+                MusicService.DEFAULT_RANKING_SIZE, MusicFormat.JSON).gzip();
+    }
+
+    @Benchmark
+    public byte[] encoded() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(
+                this.musicService.getHighDanceabilitySongs(MusicService.DEFAULT_RANKING_SIZE));
+    }
+
+}
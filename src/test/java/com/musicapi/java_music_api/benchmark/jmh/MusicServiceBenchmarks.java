@@ -0,0 +1,86 @@
+package com.musicapi.java_music_api.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.musicapi.java_music_api.music.Music;
+import com.musicapi.java_music_api.music.MusicService;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+// MusicService writes and reads end to end, through the song cache and the read models
+// every write updates, against an embedded database
+@State(Scope.Benchmark)
+public class MusicServiceBenchmarks {
+    private final Random random = new Random(7);
+    private ConfigurableApplicationContext context;
+    private MusicService musicService;
+    private List<UUID> ids;
+    private int next;
+
+    // a song to delete, stored outside the measured time
+    @State(Scope.Thread)
+    public static class Deleted {
+        UUID id;
+
+        @Setup(Level.Invocation)
+        public void store(MusicServiceBenchmarks benchmarks) {
+            this.id = benchmarks.create().getId();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        this.context = MusicBenchmarkApplication.start();
+        this.musicService = this.context.getBean(MusicService.class);
+        this.ids = this.musicService.getAllSongs().stream().map(Music::getId).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public Music create() {
+        return this.musicService.createSong(MusicJsonBenchmarks.song(this.random, this.next++));
+    }
+
+    @Benchmark
+    public Music get() {
+        return this.musicService.getSong(nextId());
+    }
+
+    @Benchmark
+    public Music update() {
+        return this.musicService.updateSong(nextId(), MusicJsonBenchmarks.song(this.random, this.next++), null);
+    }
+
+    @Benchmark
+    public UUID delete(Deleted deleted) {
+        this.musicService.deleteSong(deleted.id, null);
+        return deleted.id;
+    }
+
+    @Benchmark
+    public List<Music> topDanceability() {
+        return this.musicService.getHighDanceabilitySongs(MusicService.DEFAULT_RANKING_SIZE);
+    }
+
+    @Benchmark
+    public List<Music> topLowEnergy() {
+        return this.musicService.getLowEnergySongs(MusicService.DEFAULT_RANKING_SIZE);
+    }
+
+    private UUID nextId() {
+        return this.ids.get(this.random.nextInt(this.ids.size()));
+    }
+
+}